@@ -1,6 +1,8 @@
 package com.banco;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
@@ -9,11 +11,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 @SpringBootApplication
 public class BancoApplication {
 
+	private static final Logger log = LoggerFactory.getLogger(BancoApplication.class);
+
 	public static void main(String[] args) {
 		SpringApplication.run(BancoApplication.class, args);
-        System.out.println("✅ Aplicación bancaria iniciada correctamente");
-		System.out.print("✅ LOCALHOST:  http://localhost:8080\n"); //n = para salto de linea
-		System.out.println("✅ Documentacion implementada en Swagger: http://localhost:8080/swagger-ui/index.html");
+        log.info("Aplicación bancaria iniciada correctamente");
+		log.info("LOCALHOST:  http://localhost:8080");
+		log.info("Documentacion implementada en Swagger: http://localhost:8080/swagger-ui/index.html");
 	}
 
 
@@ -0,0 +1,37 @@
+package com.banco.application.dto;
+
+import java.util.List;
+
+// DTO: UNA PAGINA DE MOVIMIENTOS DE UNA CUENTA
+// siguienteCursor se envia tal cual en el proximo request (?cursor=...) para pedir la pagina siguiente;
+// es null cuando no quedan mas movimientos
+public class PaginaMovimientosResponse {
+
+    // ATRIBUTOS
+    private List<MovimientoDTO> movimientos;
+    private String siguienteCursor;
+    private boolean tieneMas;
+    private int tamanioPagina;
+
+    //CONSTRUCTOR
+    public PaginaMovimientosResponse(List<MovimientoDTO> movimientos, String siguienteCursor, int tamanioPagina) {
+        this.movimientos = movimientos;
+        this.siguienteCursor = siguienteCursor;
+        this.tieneMas = siguienteCursor != null;
+        this.tamanioPagina = tamanioPagina;
+    }
+
+
+
+    public List<MovimientoDTO> getMovimientos() { return movimientos; }
+    public void setMovimientos(List<MovimientoDTO> movimientos) { this.movimientos = movimientos; }
+
+    public String getSiguienteCursor() { return siguienteCursor; }
+    public void setSiguienteCursor(String siguienteCursor) { this.siguienteCursor = siguienteCursor; }
+
+    public boolean isTieneMas() { return tieneMas; }
+    public void setTieneMas(boolean tieneMas) { this.tieneMas = tieneMas; }
+
+    public int getTamanioPagina() { return tamanioPagina; }
+    public void setTamanioPagina(int tamanioPagina) { this.tamanioPagina = tamanioPagina; }
+}
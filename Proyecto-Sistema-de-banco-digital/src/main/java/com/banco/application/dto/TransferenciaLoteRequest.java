@@ -0,0 +1,30 @@
+package com.banco.application.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+// DTO: SOLICITUD DE TRANSFERENCIAS EN LOTE (sueldos, liquidaciones a comercios...)
+public class TransferenciaLoteRequest {
+
+    // Tope por request: lotes mas grandes se parten en varias llamadas
+    public static final int MAXIMO_TRANSFERENCIAS = 10_000;
+
+    //ATRIBUTOS
+    @NotEmpty(message = "El lote debe tener al menos una transferencia")
+    @Size(max = MAXIMO_TRANSFERENCIAS, message = "El lote no puede superar las " + MAXIMO_TRANSFERENCIAS + " transferencias")
+    private List<@Valid TransferenciaRequest> transferencias = new ArrayList<>();
+
+    // Constructores
+    public TransferenciaLoteRequest() {}
+
+    public TransferenciaLoteRequest(List<TransferenciaRequest> transferencias) {
+        this.transferencias = transferencias;
+    }
+
+    public List<TransferenciaRequest> getTransferencias() { return transferencias;}
+    public void setTransferencias(List<TransferenciaRequest> transferencias) { this.transferencias = transferencias;}
+}
@@ -0,0 +1,36 @@
+package com.banco.application.dto;
+
+import java.util.List;
+
+// DTO: RESULTADO DE UN LOTE DE TRANSFERENCIAS
+// Una respuesta por transferencia, en el mismo orden del request: el lote puede fallar parcialmente
+public class TransferenciaLoteResponse {
+
+    // ATRIBUTOS
+    private int total;
+    private int completadas;
+    private int rechazadas;
+    private List<TransferenciaResponse> resultados;
+
+    //CONSTRUCTOR
+    public TransferenciaLoteResponse(List<TransferenciaResponse> resultados) {
+        this.resultados = resultados;
+        this.total = resultados.size();
+        this.completadas = (int) resultados.stream().filter(r -> "COMPLETADA".equals(r.getEstado())).count();
+        this.rechazadas = total - completadas;
+    }
+
+
+
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+
+    public int getCompletadas() { return completadas; }
+    public void setCompletadas(int completadas) { this.completadas = completadas; }
+
+    public int getRechazadas() { return rechazadas; }
+    public void setRechazadas(int rechazadas) { this.rechazadas = rechazadas; }
+
+    public List<TransferenciaResponse> getResultados() { return resultados; }
+    public void setResultados(List<TransferenciaResponse> resultados) { this.resultados = resultados; }
+}
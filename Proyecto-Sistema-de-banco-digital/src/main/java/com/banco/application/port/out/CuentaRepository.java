@@ -1,10 +1,13 @@
 package com.banco.application.port.out;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import com.banco.domain.model.entities.Cuenta;
 import com.banco.domain.model.valueobjects.CuentaId;
 import com.banco.domain.model.valueobjects.ClienteId;
+import com.banco.domain.model.valueobjects.Moneda;
 
 
 
@@ -18,6 +21,12 @@ public interface CuentaRepository {
     // BUSCAR CUENTA
     Optional<Cuenta> buscarPorId(CuentaId cuentaId);
 
+    // BUSCAR CUENTA PARA MODIFICARLA - aplica la estrategia de bloqueo configurada
+    Optional<Cuenta> buscarPorIdParaActualizar(CuentaId cuentaId);
+
+    // BUSCAR VARIAS CUENTAS PARA MODIFICARLAS - una sola consulta, en orden de numero de cuenta
+    List<Cuenta> buscarPorIdsParaActualizar(Collection<CuentaId> cuentaIds);
+
     // BUSCAR CUENTAS POR CLIENTES
     List<Cuenta> buscarPorCliente(ClienteId ClienteId);
 
@@ -25,7 +34,14 @@ public interface CuentaRepository {
     //ACTUALIZAR CUENTA
     void actualizar(Cuenta cuenta);
 
+    //ACTUALIZAR VARIAS CUENTAS - se envian a la BD en lotes
+    void actualizarTodos(Collection<Cuenta> cuentas);
+
     // BUSCAR CUENTA CON NUMERO
     boolean existeCuentaConNumero(String numeroCuenta);
 
+    // SUMAR (o restar si es negativo) un monto al saldo en una sola operacion atomica
+    // false = cuenta inexistente, inactiva, de otra moneda o sin saldo suficiente
+    boolean aplicarDelta(CuentaId cuentaId, BigDecimal delta, Moneda moneda);
+
 }
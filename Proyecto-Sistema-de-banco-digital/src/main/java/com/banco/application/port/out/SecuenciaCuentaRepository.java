@@ -0,0 +1,9 @@
+package com.banco.application.port.out;
+
+public interface SecuenciaCuentaRepository {
+
+    // RESERVAR UN BLOQUE de numeros de cuenta de la sucursal
+    // Retorna el primero del bloque: el llamador es el unico dueño de [primero, primero + tamanio)
+    long reservarBloque(int sucursal, int tamanio);
+
+}
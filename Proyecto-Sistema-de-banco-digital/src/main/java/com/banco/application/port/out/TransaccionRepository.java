@@ -1,27 +1,43 @@
 package com.banco.application.port.out;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import com.banco.domain.model.entities.Cuenta;
 import com.banco.domain.model.entities.Transaccion;
 import com.banco.domain.model.valueobjects.CuentaId;
 import com.banco.domain.model.valueobjects.TransaccionId;
+import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
 
 public interface TransaccionRepository {
 
-    // GUARDAR
+    // GUARDAR (crea o actualiza)
     void guardar(Transaccion transaccion);
 
+    // REGISTRAR UNA TRANSACCION NUEVA - solo INSERT, nunca existe de antes
+    void registrar(Transaccion transaccion);
+
+    // GUARDAR VARIAS de una vez (crea o actualiza) - se envian a la BD en lotes
+    void guardarTodos(List<Transaccion> transacciones);
+
+    // REGISTRAR VARIAS NUEVAS - solo INSERT en lotes
+    void registrarTodos(List<Transaccion> transacciones);
+
     // BUSCAR POR ID
     Optional<Transaccion> buscarPorId(TransaccionId transaccionId);
 
-    // BUSCAR POR CUENTA
-    List<Transaccion> buscarPorCuenta(Cuenta cuenta, LocalDateTime desde, LocalDateTime hasta);
+    // BUSCAR POR CUENTA - las "limite" mas recientes del rango (origen o destino), de la mas nueva a la mas vieja
+    List<Transaccion> buscarPorCuenta(Cuenta cuenta, LocalDateTime desde, LocalDateTime hasta, int limite);
+
+    // TOTALES DEL RANGO POR TIPO - calculados por la BD, sin traer las transacciones
+    Map<TipoTransaccion, BigDecimal> sumarMontosPorTipo(Cuenta cuenta, LocalDateTime desde, LocalDateTime hasta);
 
-    //BUSCAR TTANSACCION POR NUMERO DE CUENTA
-    List<Transaccion> buscarCuentas(CuentaId cuentaId);
+    //BUSCAR TTANSACCION POR NUMERO DE CUENTA - una pagina, de la mas nueva a la mas vieja
+    // fechaCursor/idCursor: ultima transaccion de la pagina anterior (null = primera pagina)
+    List<Transaccion> buscarCuentas(CuentaId cuentaId, LocalDateTime fechaCursor, TransaccionId idCursor, int limite);
 
     //BUSCAR POR REFERENCIA
     List<Transaccion> buscarPorReferencia(String referencia);
@@ -5,6 +5,9 @@ import java.time.LocalDateTime;
 
 import org.springframework.stereotype.Service;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.dto.AperturaCuentaRequest;
 import com.banco.application.dto.AperturaCuentaResponse;
 import com.banco.application.port.out.ClienteRepository;
@@ -20,7 +23,11 @@ import com.banco.domain.model.valueobjects.Moneda;
 import com.banco.domain.model.valueobjects.TipoCuenta;
 import com.banco.domain.model.valueobjects.TransaccionId;
 import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
+import com.banco.infrastructure.config.AsignadorNumerosCuenta;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 
@@ -30,61 +37,84 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class AperturaCuentaService {
 
+    private static final Logger log = LoggerFactory.getLogger(AperturaCuentaService.class);
+
+    private static final int CODIGO_BANCO = 17; // Código ficticio de nuestro banco
+    private static final int SUCURSAL_POR_DEFECTO = 1;
+
     //INYECCION DE DEPENDENCIA
     private final ClienteRepository clienteRepository;
     private final CuentaRepository cuentaRepository;
     private final TransaccionRepository transaccionRepository;
+    private final GeneradorTransaccionId generadorTransaccionId;
+    private final AsignadorNumerosCuenta asignadorNumerosCuenta;
+    private final EjecutorTransaccional ejecutorTransaccional;
 
     // CONSTRUCTOR CON INYECCIÓN
     public AperturaCuentaService(ClienteRepository clienteRepository, CuentaRepository cuentaRepository,
-            TransaccionRepository transaccionRepository) {
+            TransaccionRepository transaccionRepository, GeneradorTransaccionId generadorTransaccionId,
+            AsignadorNumerosCuenta asignadorNumerosCuenta, EjecutorTransaccional ejecutorTransaccional) {
         this.clienteRepository = clienteRepository;
         this.cuentaRepository = cuentaRepository;
         this.transaccionRepository = transaccionRepository;
+        this.generadorTransaccionId = generadorTransaccionId;
+        this.asignadorNumerosCuenta = asignadorNumerosCuenta;
+        this.ejecutorTransaccional = ejecutorTransaccional;
     }
 
 
 
 
     // METODOS DE CUENTA
+    // NOT_SUPPORTED: el numero de cuenta se pide ANTES de abrir la transaccion. Si hay que reservar un bloque,
+    // la reserva usa la unica conexion de esta apertura (ver AsignadorNumerosCuenta) y no una segunda del pool.
+    // Si la apertura falla despues, el numero queda sin usar (hueco en la numeracion, nunca repetido)
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AperturaCuentaResponse ejecutarAperturaCuenta(AperturaCuentaRequest request){
 
         try {
             
             validarRequest(request);
 
-            //CARGAR Y VALIDAR CLIENTE
-            Cliente cliente = cargarYValidarCliente(request);
-
             //CREAR VALUE OBJECTS
             Moneda moneda = Moneda.fromCodigo(request.getMoneda());
             TipoCuenta tipoCuenta = TipoCuenta.fromString(request.getTipoCuenta());
 
-            //GENERAR NUMERO DE CUENTA UNICO
-            CuentaId cuentaId = generarNumeroCuenta(request.getSucursal());
+            //GENERAR NUMERO DE CUENTA UNICO (sin transaccion)
+            CuentaId cuentaId = generarNumeroCuenta(request.getSucursal(), moneda);
 
-            //CREAR ENTIDAD CUENTA
-            Cuenta generarCuenta = crearCuenta(cuentaId, cliente.getClienteId(), moneda, tipoCuenta);
+            return ejecutorTransaccional.ejecutar(() -> abrirCuenta(request, cuentaId, moneda, tipoCuenta));
 
-            //PROCESAR SALDO INICIAL (si existe)
-            if(request.getSaldoInicial() != null && request.getSaldoInicial().compareTo(BigDecimal.ZERO) > 0){
-                saldoInicialMinimo(generarCuenta, request.getSaldoInicial(), moneda);
-            }
+        } catch (Exception e) {
+            
+            log.warn("Error en apertura de cuenta: {}", e.getMessage());
 
-            //ASOCIAR CUENTA AL CLIENTE
-            asociarCuentaAlCliente(cliente, cuentaId);
+            return crearRespuestaError(e.getMessage());
+        }
+    }
 
-            // GUARDAR CAMBIOS
-            guardarCambios(cliente, generarCuenta);
 
-            return crearRespuestaExitosa(generarCuenta, request, cliente);
+    private AperturaCuentaResponse abrirCuenta(AperturaCuentaRequest request, CuentaId cuentaId, Moneda moneda, TipoCuenta tipoCuenta){
 
-        } catch (Exception e) {
-            
-            System.err.println(" Error en apertura de cuenta: " + e.getMessage());
+        //CARGAR Y VALIDAR CLIENTE
+        Cliente cliente = cargarYValidarCliente(request);
 
-            return crearRespuestaError(e.getMessage());
+        //CREAR ENTIDAD CUENTA
+        Cuenta generarCuenta = crearCuenta(cuentaId, cliente.getClienteId(), moneda, tipoCuenta);
+
+        //PROCESAR SALDO INICIAL (si existe)
+        if(request.getSaldoInicial() != null && request.getSaldoInicial().compareTo(BigDecimal.ZERO) > 0){
+            saldoInicialMinimo(generarCuenta, request.getSaldoInicial(), moneda);
         }
+
+        //ASOCIAR CUENTA AL CLIENTE
+        asociarCuentaAlCliente(cliente, cuentaId);
+
+        // GUARDAR CAMBIOS
+        guardarCambios(cliente, generarCuenta);
+
+        return crearRespuestaExitosa(generarCuenta, request, cliente);
     }
 
 
@@ -93,7 +123,7 @@ public class AperturaCuentaService {
         // CREAR CUENTA CON SALDO CERO
         Cuenta cuenta = new Cuenta(cuentaId, clienteId, moneda);
 
-        System.out.println("Cuenta creada: " + cuentaId + " - Tipo: " + tipoCuenta + " - Moneda: " + moneda);
+        log.info("Cuenta creada: {} - Tipo: {} - Moneda: {}", cuentaId, tipoCuenta, moneda);
 
         return cuenta;
     }
@@ -126,9 +156,9 @@ public class AperturaCuentaService {
                 "Deposito inicial apertura de cuenta");
 
             transaccionApertura.completar();
-            transaccionRepository.guardar(transaccionApertura);
+            transaccionRepository.registrar(transaccionApertura);
 
-            System.out.println(" Saldo inicial depositado: " + saldoInicial);
+            log.debug("Saldo inicial depositado: {}", saldoInicial);
 
 
     }
@@ -137,7 +167,7 @@ public class AperturaCuentaService {
 
         try {
             cliente.agregarCuenta(cuentaId);
-            System.out.println("Cuenta asociada al cliente: " + cliente.getNombre());
+            log.debug("Cuenta asociada al cliente: {}", cliente.getNombre());
         } catch (Exception e) {
             throw new IllegalStateException("El cliente excede limite de cuentas");
         }
@@ -146,26 +176,13 @@ public class AperturaCuentaService {
     private void guardarCambios(Cliente cliente, Cuenta cuenta){
         clienteRepository.actualizar(cliente);
         cuentaRepository.guardar(cuenta);
-        System.out.println("Cambios guardados exitosamente");
+        log.trace("Cambios guardados exitosamente");
 
     }
 
+    // mismo generador que TransaccionService: los ids no chocan entre servicios ni entre hilos
     private TransaccionId generarIdTransaccion() {
-    // Formato requerido: TXN-2024-0000001
-    // Estructura: TXN-AAAA-NNNNNNN (7 dígitos)
-
-    int año = java.time.Year.now().getValue();
-
-    //Asegura 7 dígitos
-    long timestamp = System.currentTimeMillis();
-    long secuencia = timestamp % 10000000L;
-
-    String id = String.format("TXN-%d-%07d", año, secuencia);
-
-    System.out.println("ID generado: " + id + " (longitud: " + id.length() + ")");
-
-    return new TransaccionId(id);
-
+        return generadorTransaccionId.siguiente();
     }
 
     public void cerrarCuenta(String cuentaString){
@@ -184,7 +201,7 @@ public class AperturaCuentaService {
 
         cuentaRepository.actualizar(cuenta);
 
-        System.out.println("Cuenta cerrada: " + cuentaId);
+        log.info("Cuenta cerrada: {}", cuentaId);
 
         } catch (Exception e) {
             
@@ -207,7 +224,7 @@ public class AperturaCuentaService {
 
         cuentaRepository.actualizar(cuenta);
 
-        System.out.println("Cuenta activada nuevamente: " + cuentaId);
+        log.info("Cuenta activada nuevamente: {}", cuentaId);
 
         } catch (Exception e) {
             
@@ -237,7 +254,7 @@ public class AperturaCuentaService {
         if(request.getSaldoInicial() != null && request.getSaldoInicial().compareTo(BigDecimal.ZERO) < 0) throw new IllegalArgumentException(
             "El saldo inicial no puede ser menor a 0");
 
-            System.out.println("Validaciones de request OK");
+            log.trace("Validaciones de request OK");
     }
 
     private Cliente cargarYValidarCliente(AperturaCuentaRequest request){
@@ -249,55 +266,20 @@ public class AperturaCuentaService {
             //VALIDAR QUE ESTA ACTIVO
             if(!cliente.getActiva()) throw new IllegalStateException("El cliente esta inactivo y no puede abrir cuentas");
 
-            System.out.println("Cliente validado: " + cliente.getNombre());
+            log.trace("Cliente validado: {}", cliente.getNombre());
             return cliente;
     }
 
-        private int calcularDigitoVerificador(String numero) {
-        int suma = 0;
-        boolean doble = false;
-        
-        for (int i = numero.length() - 1; i >= 0; i--) {
-            int digito = Character.getNumericValue(numero.charAt(i));
-            
-            if (doble) {
-                digito *= 2;
-                if (digito > 9) {
-                    digito -= 9;
-                }
-            }
-            
-            suma += digito;
-            doble = !doble;
-        }
-        
-        return (10 - (suma % 10)) % 10;
-    }
-
-    private CuentaId generarNumeroCuenta(String sucursal){
-        //FORMATO: PAÍS-BANCO-SUCURSAL-SECUENCIA-DÍGITO
-        // // Ejemplo: ARG-017-001-00012345-8
-
-        String codigoPais = "ARG";
-        String codigoBanco = "017"; // Código ficticio de nuestro banco
-        String codigoSucursal = sucursal != null
-         ? String.format("%03d", Integer.parseInt(sucursal)) : "001";
-
-        // GENERAR SECUENCIA ÚNICA (en producción sería de una base de datos)
-        long secuencia = System.currentTimeMillis() % 100000000L; // 8 dígitos
-        String numeroSecuencial = String.format("%08d", secuencia);
-
-        // CALCULAR DÍGITO VERIFICADOR (algoritmo simplificado)
-        String base = codigoBanco + codigoSucursal + numeroSecuencial + "0000000".substring(0, 7);
-        int digitoVerificador = calcularDigitoVerificador(base);
+    private CuentaId generarNumeroCuenta(String sucursal, Moneda moneda){
+        //FORMATO: PAÍS-BANCO-SUCURSAL-TIPO-NÚMERO-DÍGITO (ver CuentaId.generarNueva)
+        // Ejemplo: ARG-017-0001-00-00000012345-DV
 
-        // CONSTRUIR NÚMERO COMPLETO
-        String numeroCompleto = codigoPais + base + digitoVerificador;
+        int codigoSucursal = sucursal != null ? Integer.parseInt(sucursal) : SUCURSAL_POR_DEFECTO;
 
-        //GENERAR NUMERO DE CUENTA 
-        CuentaId cuentaId = CuentaId.newCuentaId(numeroCompleto);
+        // el numero sale de un bloque reservado en la base: unico sin consultar si ya existe
+        long secuencia = asignadorNumerosCuenta.siguiente(codigoSucursal);
 
-        return cuentaId;
+        return CuentaId.generarNueva(CODIGO_BANCO, codigoSucursal, moneda, secuencia);
 
     }
 
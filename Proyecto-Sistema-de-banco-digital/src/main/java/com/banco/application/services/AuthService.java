@@ -1,6 +1,9 @@
 package com.banco.application.services;
 
 
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -12,9 +15,11 @@ import org.springframework.stereotype.Service;
 import com.banco.application.dto.auth.AuthResponse;
 import com.banco.application.dto.auth.LoginRequest;
 import com.banco.application.dto.auth.RegisterRequest;
+import com.banco.infrastructure.config.EjecutorLogin;
 import com.banco.infrastructure.persistence.entities.UsuarioEntity;
 import com.banco.infrastructure.persistence.jpa.Interface.UsuarioJpaRepository;
 import com.banco.infrastructure.security.jwt.JwtUtils;
+import com.banco.infrastructure.security.jwt.RevocacionTokens;
 
 
 
@@ -30,19 +35,36 @@ public class AuthService {
     private final UsuarioJpaRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
+    private final RevocacionTokens revocacionTokens;
+    private final UsersDetailsService usersDetailsService;
+    private final EjecutorLogin ejecutorLogin;
 
 
     public AuthService(AuthenticationManager authenticationManager, UsuarioJpaRepository usuarioRepository,
-        PasswordEncoder passwordEncoder, JwtUtils jwtUtils) {
+        PasswordEncoder passwordEncoder, JwtUtils jwtUtils, RevocacionTokens revocacionTokens,
+        UsersDetailsService usersDetailsService, EjecutorLogin ejecutorLogin) {
         this.authenticationManager = authenticationManager;
         this.usuarioRepository = usuarioRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtils = jwtUtils;
+        this.revocacionTokens = revocacionTokens;
+        this.usersDetailsService = usersDetailsService;
+        this.ejecutorLogin = ejecutorLogin;
     }
 
 
     // Login
-    public AuthResponse login(LoginRequest request){
+    // La comparacion de contraseña corre en el pool de logins, no en el hilo de la peticion:
+    // devuelve enseguida y el controlador responde cuando el futuro termina.
+    // Con el pool saturado lanza RejectedExecutionException (429)
+    public CompletableFuture<AuthResponse> login(LoginRequest request){
+
+        return ejecutorLogin.ejecutar(() -> autenticar(request));
+    }
+
+    // No se guarda la autenticacion en el SecurityContext: corre en un hilo del pool
+    // y la API es sin estado (las peticiones siguientes se autentican con el token)
+    private AuthResponse autenticar(LoginRequest request){
 
         //autenticar usuario
         Authentication authentication = authenticationManager
@@ -51,21 +73,18 @@ public class AuthService {
                 request.getUsername(), 
                 request.getPassword()));
 
-        //guardar autenticacion
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-
         //obtener detalles del usuario
         // nota: (UserDetails) =  especificación explícita del tipo de dato que devuelve
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
 
 
-        //generar token
-        String token = jwtUtils.generarToken(userDetails);
-
         //obtener datos adicionales
         UsuarioEntity usuarioEntity = usuarioRepository.findByUsername(request.getUsername())
         .orElseThrow(()-> new RuntimeException("Usuario no encontrado"));
 
+        //generar token (con roles y clienteId para autenticar sin ir a la BD)
+        String token = jwtUtils.generarToken(userDetails, usuarioEntity.getClienteId());
+
         return new AuthResponse(
             token, 
             usuarioEntity.getUsername(), 
@@ -75,6 +94,22 @@ public class AuthService {
     }
 
 
+    // Logout: los tokens ya emitidos para el usuario dejan de valer aunque no hayan expirado
+    public String logout(){
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if(authentication == null || !authentication.isAuthenticated()
+            || authentication instanceof AnonymousAuthenticationToken){
+            throw new IllegalArgumentException("No hay un usuario autenticado");
+        }
+
+        revocacionTokens.revocar(authentication.getName());
+
+        return "Sesion cerrada exitosamente";
+    }
+
+
     //registrar
     public String register(RegisterRequest request){
 
@@ -96,6 +131,9 @@ public class AuthService {
             //guardar
             usuarioRepository.save(usuarioEntity);
 
+            // que ningun cache siga con una version anterior del usuario
+            usersDetailsService.invalidar(usuarioEntity.getUsername());
+
             return "Usuario registrado exitosamente";
 
     }
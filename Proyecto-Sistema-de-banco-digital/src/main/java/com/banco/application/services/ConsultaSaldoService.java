@@ -5,11 +5,13 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import java.util.Collections;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.util.Comparator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.dto.ConsultaSaldoRequest;
 import com.banco.application.dto.ConsultaSaldoResponse;
 import com.banco.application.dto.MovimientoDTO;
@@ -24,6 +26,8 @@ import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
 @Transactional(readOnly = true)  // Solo lectura 
 public class ConsultaSaldoService {
 
+    private static final Logger log = LoggerFactory.getLogger(ConsultaSaldoService.class);
+
     
     private final CuentaRepository cuentaRepository;
     private final TransaccionRepository transaccionRepository;
@@ -69,12 +73,12 @@ public class ConsultaSaldoService {
             // 7️ MENSAJE FINAL
             completarMensaje(response);
             
-            System.out.println("Consulta completada para cuenta: " + request.getCuentaId());
+            log.debug("Consulta completada para cuenta: {}", request.getCuentaId());
             return response;
             
         } catch (Exception e) {
 
-            System.err.println("Error en consulta de saldo: " + e.getMessage());
+            log.warn("Error en consulta de saldo: {}", e.getMessage());
 
             return crearRespuestaError(request != null ? request.getCuentaId() : "DESCONOCIDA", e.getMessage());
         }
@@ -129,24 +133,18 @@ public class ConsultaSaldoService {
         return LocalDateTime.now(); // No -> utiliza la fecha y hora actual
     }
 
-    private void calcularTotalesPeriodo(List<Transaccion> transacciones, ConsultaSaldoResponse response) {
-        BigDecimal totalIngresos = BigDecimal.ZERO;
-        BigDecimal totalEgresos = BigDecimal.ZERO;
-        
-        for (Transaccion transaccion : transacciones) {
-            //  Esta lógica simplificada asume que todas las transacciones
-            // son de la misma moneda que la cuenta
-            BigDecimal monto = transaccion.getMonto().getMonto();
-            
-            //  DETERMINAR SI ES INGRESO O EGRESO PARA ESTA CUENTA
-            if (transaccion.getTipo() == TipoTransaccion.DEPOSITO) {
-                totalIngresos = totalIngresos.add(monto);
-            } else if (transaccion.getTipo() == TipoTransaccion.RETIRO) {
-                totalEgresos = totalEgresos.add(monto);
-            } else if (transaccion.getTipo() == TipoTransaccion.TRANSFERENCIA){
-                totalEgresos = totalEgresos.add(monto);
-            }
-        }
+    private void calcularTotalesPeriodo(Cuenta cuenta, LocalDateTime fechaDesde, LocalDateTime fechaHasta,
+        ConsultaSaldoResponse response) {
+
+        //  SUM ... GROUP BY tipo en la BD: no hace falta traer las transacciones del periodo
+        //  Esta lógica simplificada asume que todas las transacciones
+        // son de la misma moneda que la cuenta
+        Map<TipoTransaccion, BigDecimal> totales = transaccionRepository.sumarMontosPorTipo(cuenta, fechaDesde, fechaHasta);
+
+        //  DETERMINAR SI ES INGRESO O EGRESO PARA ESTA CUENTA
+        BigDecimal totalIngresos = totales.getOrDefault(TipoTransaccion.DEPOSITO, BigDecimal.ZERO);
+        BigDecimal totalEgresos = totales.getOrDefault(TipoTransaccion.RETIRO, BigDecimal.ZERO)
+            .add(totales.getOrDefault(TipoTransaccion.TRANSFERENCIA, BigDecimal.ZERO));
         
         response.setTotalIngresos(totalIngresos);
         response.setTotalEgresos(totalEgresos);
@@ -225,29 +223,31 @@ public class ConsultaSaldoService {
         LocalDateTime fechaDesde = prepararFechaDesde(request);
         LocalDateTime fechaHasta = prepararFechaHasta(request);
         
-        // 2️OBTENER TRANSACCIONES DEL REPOSITORIO
+        // 2️OBTENER LAS MAS RECIENTES YA ORDENADAS Y LIMITADAS POR LA BD
+        // se pide una de mas solo para saber si hay mas movimientos en el periodo
+        int limite = request.getLimiteMovimientos();
         List<Transaccion> transacciones = transaccionRepository.buscarPorCuenta(
             cuenta, 
             fechaDesde, 
-            fechaHasta
+            fechaHasta,
+            limite + 1
         );
         
-        // 3️ LIMITAR Y ORDENAR
-        List<Transaccion> transaccionesLimitadas = transacciones.stream()
-            .sorted(Comparator.comparing(Transaccion::getFechaCreacion).reversed()) //  Más recientes primero
-            .limit(request.getLimiteMovimientos())
-            .collect(Collectors.toList());
+        // 3️ LIMITAR
+        List<Transaccion> transaccionesLimitadas = transacciones.size() > limite
+            ? transacciones.subList(0, limite)
+            : transacciones;
         
         // 4️CALCULAR TOTALES DEL PERIODO
-        calcularTotalesPeriodo(transacciones, response);
+        calcularTotalesPeriodo(cuenta, fechaDesde, fechaHasta, response);
         
         // 5️CONVERTIR A DTOs
         convertirATransaccionesDTO(transaccionesLimitadas, cuenta, response);
         
         // 6️INDICAR SI HAY MÁS MOVIMIENTOS
-        response.setTieneMasMovimientos(transacciones.size() > request.getLimiteMovimientos());
+        response.setTieneMasMovimientos(transacciones.size() > limite);
         
-        System.out.println( transaccionesLimitadas.size() + " movimientos procesados");
+        log.trace("{} movimientos procesados", transaccionesLimitadas.size());
     }
 
     private void agregarInformacionEstado(Cuenta cuenta, ConsultaSaldoResponse response) {
@@ -270,7 +270,7 @@ public class ConsultaSaldoService {
         //  LÍMITE DE SOBREGIRO (ejemplo fijo)
         response.setLimiteSobregiro(new BigDecimal("5000.00")); //  $5000 de sobregiro permitido
         
-        System.out.println(" Información de estado agregada");
+        log.trace("Informacion de estado agregada");
     }
 
     private void calcularSaldosDisponibles(Cuenta cuenta, ConsultaSaldoResponse response) {
@@ -283,7 +283,7 @@ public class ConsultaSaldoService {
         response.setSaldoDisponible(saldoDisponible);
         
         // Podríamos restar retenciones, cheques en proceso, etc.
-        System.out.println(" Saldos calculados: Actual=" + saldoActual +  ", Disponible=" + saldoDisponible);
+        log.trace("Saldos calculados: Actual={}, Disponible={}", saldoActual, saldoDisponible);
     }
 
     private void completarMensaje(ConsultaSaldoResponse response) {
@@ -334,6 +334,10 @@ public class ConsultaSaldoService {
         if (request.getLimiteMovimientos() > MOVIMIENTOS_MAXIMO) {
             throw new IllegalArgumentException("Límite de movimientos excedido. Máximo: " + MOVIMIENTOS_MAXIMO);
         }
+
+        if (request.getLimiteMovimientos() < 0) {
+            throw new IllegalArgumentException("El límite de movimientos no puede ser negativo");
+        }
         
         // VALIDAR RANGO DE FECHAS
         if (request.getFechaDesde() != null && request.getFechaHasta() != null) {
@@ -348,7 +352,7 @@ public class ConsultaSaldoService {
             }
         }
 
-        System.out.println(" Validaciones de request OK");
+        log.trace("Validaciones de request OK");
     }
 
 
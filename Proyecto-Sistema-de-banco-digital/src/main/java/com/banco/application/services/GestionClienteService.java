@@ -212,18 +212,13 @@ public class GestionClienteService {
 
         ClienteId clienteId = ClienteId.newCliente(cliente);
 
-        if(clienteRepository.buscarPorId(cliente) != null) {
+        // una sola lectura: cada buscarPorId trae el cliente y su coleccion cliente_cuentas
+        Cliente returnCliente = clienteRepository.buscarPorId(cliente);
 
-          Cliente returnCliente = clienteRepository.buscarPorId(cliente);
-
-          return returnCliente;
-
-        } 
-        else{
-
-            throw new IllegalArgumentException(
+        if(returnCliente == null) throw new IllegalArgumentException(
             "Cliente no encontrado: " + clienteId);
-        }
+
+        return returnCliente;
 
     }
 
@@ -1,14 +1,31 @@
 package com.banco.application.services;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.dto.MovimientoDTO;
 import com.banco.application.dto.OperacionCuentaRequest;
 import com.banco.application.dto.OperacionCuentaResponse;
+import com.banco.application.dto.PaginaMovimientosResponse;
+import com.banco.application.dto.TransferenciaLoteResponse;
 import com.banco.application.dto.TransferenciaRequest;
 import com.banco.application.dto.TransferenciaResponse;
 import com.banco.application.port.out.CuentaRepository;
@@ -20,7 +37,10 @@ import com.banco.domain.model.valueobjects.Dinero;
 import com.banco.domain.model.valueobjects.Moneda;
 import com.banco.domain.model.valueobjects.TransaccionId;
 import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
 
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 //  Orquesta toda la operación de transferir dinero entre cuentas.
@@ -30,37 +50,65 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class TransaccionService {
 
+    private static final Logger log = LoggerFactory.getLogger(TransaccionService.class);
+
     // INYECCION DE DEPENDENCIAS
     private final CuentaRepository cuentaRepository;
     private final TransaccionRepository transaccionRepository;
+    private final EjecutorTransaccional ejecutorTransaccional;
+    private final GeneradorTransaccionId generadorTransaccionId;
+
+    // Transferencias por transaccion de BD al procesar un lote
+    @Value("${banco.lote.transferencias-por-transaccion:500}")
+    private int transferenciasPorTransaccion = 500;
+
+    // Movimientos por pagina: por defecto y maximo que puede pedir el cliente
+    @Value("${banco.movimientos.tamanio-pagina:50}")
+    private int tamanioPaginaMovimientos = 50;
+
+    @Value("${banco.movimientos.tamanio-pagina-maximo:500}")
+    private int tamanioPaginaMovimientosMaximo = 500;
 
     // CONSTRUCTOR
-    public TransaccionService(CuentaRepository cuentaRepository, TransaccionRepository transaccionRepository){
+    public TransaccionService(CuentaRepository cuentaRepository, TransaccionRepository transaccionRepository,
+        EjecutorTransaccional ejecutorTransaccional, GeneradorTransaccionId generadorTransaccionId){
 
         this.cuentaRepository = cuentaRepository;
         this.transaccionRepository = transaccionRepository;
+        this.ejecutorTransaccional = ejecutorTransaccional;
+        this.generadorTransaccionId = generadorTransaccionId;
 
-        System.out.println("TransferenciaService inicializado");
     }
 
 
     // EJECUTAR TRANSFERENCIA - Método principal
+    // NOT_SUPPORTED: cada intento abre su propia transaccion dentro del ejecutor,
+    // asi un conflicto de concurrencia se puede reintentar desde cero
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public TransferenciaResponse ejecutarTransferencia(TransferenciaRequest request){
 
         try {
             
             validarRequest(request);
 
-            // CARGAR ENTIDADES
-            Cuenta cuentaOrigen = cargarCuentaOrigen(request);
-            Cuenta cuentaDestino = cargarCuentaDestino(request);
+            return ejecutorTransaccional.ejecutar(() -> {
 
-            // CREAR MONTO
-            Dinero monto = crearMonto(request);
+                // CARGAR ENTIDADES (bloqueadas segun la estrategia de concurrencia)
+                Cuenta[] cuentas = cargarCuentasEnOrden(request);
+                Cuenta cuentaOrigen = cuentas[0];
+                Cuenta cuentaDestino = cuentas[1];
 
-            //EJECUTAR TRANSFERENCIA EN EL DOMINIO
-            return ejecutarEnDominio(cuentaOrigen, cuentaDestino, monto, request.getDescripcion());
+                // CREAR MONTO
+                Dinero monto = crearMonto(request);
+
+                //EJECUTAR TRANSFERENCIA EN EL DOMINIO
+                return ejecutarEnDominio(cuentaOrigen, cuentaDestino, monto, request.getDescripcion());
+            });
+
+        } catch (ConcurrencyFailureException e) {
+
+            return respuestaErronea("Las cuentas estan siendo modificadas por otra operacion, intente nuevamente");
 
         } catch (Exception e) {
 
@@ -69,6 +117,30 @@ public class TransaccionService {
     }
 
 
+    // EJECUTAR TRANSFERENCIAS EN LOTE
+    // El lote se procesa en tramos y cada tramo es una transaccion de BD independiente:
+    // si un tramo falla los anteriores quedan confirmados, y la respuesta informa el resultado de cada transferencia
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransferenciaLoteResponse ejecutarTransferenciasEnLote(List<TransferenciaRequest> requests){
+
+        if(requests == null || requests.isEmpty()) throw new IllegalArgumentException(
+            "El lote debe tener al menos una transferencia");
+
+        List<TransferenciaResponse> resultados = new ArrayList<>(requests.size());
+
+        for(int desde = 0; desde < requests.size(); desde += transferenciasPorTransaccion){
+
+            List<TransferenciaRequest> tramo = requests.subList(desde,
+                Math.min(desde + transferenciasPorTransaccion, requests.size()));
+
+            resultados.addAll(ejecutarTramo(tramo));
+        }
+
+        return new TransferenciaLoteResponse(resultados);
+    }
+
+
     public OperacionCuentaResponse depositar(OperacionCuentaRequest request){
 
         try {
@@ -83,9 +155,7 @@ public class TransaccionService {
             CuentaId id = CuentaId.newCuentaId(cuentaId);
             Dinero dinero = Dinero.nuevo(monto, Moneda.valueOf(moneda.toUpperCase()));
 
-            // buscar cuenta x id
-            Cuenta cuenta = cuentaRepository.buscarPorId(id).orElseThrow(()-> new IllegalArgumentException(
-                "Cuenta no encontrada"));
+            validarMontoPositivo(dinero);
 
             // crear transaccion
 
@@ -97,13 +167,15 @@ public class TransaccionService {
                  dinero, 
                  descripcion != null ? descripcion : "Deposito");
 
-            cuenta.depositar(dinero);
-            transaccion.completar();
+            // UPDATE atomico en la base: sin leer la cuenta antes
+            if(!cuentaRepository.aplicarDelta(id, dinero.getMontoConEscalaMoneda(), dinero.getMoneda())){
+                explicarRechazo(id, cuenta -> cuenta.depositar(dinero));
+            }
 
-            cuentaRepository.actualizar(cuenta);
-            transaccionRepository.guardar(transaccion);
+            transaccion.completar();
+            transaccionRepository.registrar(transaccion);
 
-            System.out.println("Depósito completado: " + transaccion.getId());
+            log.debug("Deposito completado: {}", transaccion.getId());
 
             return new OperacionCuentaResponse(
                 transaccion.getId().getValor(), 
@@ -134,9 +206,7 @@ public class TransaccionService {
             CuentaId id = CuentaId.newCuentaId(cuentaId);
             Dinero dinero = Dinero.nuevo(monto, Moneda.valueOf(moneda.toUpperCase()));
 
-            // buscar cuenta x id
-            Cuenta cuenta = cuentaRepository.buscarPorId(id).orElseThrow(()-> new IllegalArgumentException(
-                "Cuenta no encontrada"));
+            validarMontoPositivo(dinero);
 
             // crear transaccion
 
@@ -148,13 +218,15 @@ public class TransaccionService {
                  dinero, 
                  descripcion != null ? descripcion : "Retiro");
 
-            cuenta.retirar(dinero);
-            transaccion.completar();
+            // UPDATE atomico en la base: el saldo nunca queda negativo aunque haya retiros simultaneos
+            if(!cuentaRepository.aplicarDelta(id, dinero.getMontoConEscalaMoneda().negate(), dinero.getMoneda())){
+                explicarRechazo(id, cuenta -> cuenta.retirar(dinero));
+            }
 
-            cuentaRepository.actualizar(cuenta);
-            transaccionRepository.guardar(transaccion);
+            transaccion.completar();
+            transaccionRepository.registrar(transaccion);
 
-            System.out.println("Retiro completado: " + transaccion.getId());
+            log.debug("Retiro completado: {}", transaccion.getId());
 
             return new OperacionCuentaResponse(
                 transaccion.getId().getValor(), 
@@ -173,101 +245,190 @@ public class TransaccionService {
     }
 
 
+    // REVERTIR - mueve plata entre dos cuentas igual que una transferencia: mismo camino de carga
+    // (bloqueo segun la estrategia y en orden de numero de cuenta) y mismo reintento ante conflictos.
+    // NOT_SUPPORTED: cada intento abre su transaccion en el ejecutor y vuelve a leer la original,
+    // asi un reverso que llega tarde ve que la otra ya se revirtio
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OperacionCuentaResponse revertir(String transaccionId){
 
         try {
-            
-        // buscar transaccion original
-        TransaccionId id = new TransaccionId(transaccionId);
-        Transaccion original = transaccionRepository.buscarPorId(id).orElseThrow(()-> new IllegalArgumentException(
-            "Transaccion no encontrada"));
 
-        // validar que sea reversible
-        if(!original.esReversible()) throw new IllegalArgumentException(
-            "Transaccion no reversible");
+            TransaccionId id = new TransaccionId(transaccionId);
 
-        // crear transaccion reverso
-        Transaccion transaccion = new Transaccion(
-            generarTransaccionId(),
-            TipoTransaccion.REVERSO,
-            original.getCuentaOrigen(),
-            original.getCuentaDestino(), 
-            original.getMonto(), 
-            "reverso de:" + original.getId());
+            return ejecutorTransaccional.ejecutar(() -> aplicarReverso(id));
 
-        // cargar cuentas y ejecutar reversion
-        if(original.getCuentaOrigen() != null && original.getCuentaDestino() != null){
+        } catch (ConcurrencyFailureException e) {
 
-            Cuenta cuentaOrigen = cuentaRepository.buscarPorId(original.getCuentaOrigen())
-            .orElseThrow(()-> new IllegalArgumentException("Cuenta origen no encontrada"));
+            throw new IllegalArgumentException(
+                "Error al revertir: las cuentas estan siendo modificadas por otra operacion, intente nuevamente");
 
-            Cuenta cuentaDestino = cuentaRepository.buscarPorId(original.getCuentaDestino())
-            .orElseThrow(()-> new IllegalArgumentException(
-                "Cuenta destino no encontrada"));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Error al revertir: " + e.getMessage());
+        }
+    }
 
 
-            // reverit segun el tipo
-            if(original.getTipo() == TipoTransaccion.TRANSFERENCIA){
-                cuentaDestino.transferir(original.getMonto(), cuentaOrigen);
-            }
-             else if(original.getTipo() == TipoTransaccion.DEPOSITO){
-                cuentaDestino.retirar(original.getMonto());
-            }
-            else if(original.getTipo() == TipoTransaccion.RETIRO){
-                cuentaOrigen.depositar(original.getMonto());
-            }
+    // CONSULTAR MOVIMIENTOS - una pagina a la vez (de la mas nueva a la mas vieja)
+    // cursor: el siguienteCursor de la pagina anterior, null para la primera
+    // tamanio: null usa el tamaño por defecto; nunca supera el maximo configurado
+    @Transactional(readOnly = true)
+    public PaginaMovimientosResponse consultarMovimiento(String cuentaStrg, String cursor, Integer tamanio){
 
-            cuentaRepository.actualizar(cuentaOrigen);
-            cuentaRepository.actualizar(cuentaDestino);
+        try {
+            
+            CuentaId cuenta = CuentaId.newCuentaId(cuentaStrg);
+            int limite = resolverTamanioPagina(tamanio);
 
-        }
+            LocalDateTime fechaCursor = null;
+            TransaccionId idCursor = null;
 
+            if(cursor != null && !cursor.isBlank()){
+                String[] partes = decodificarCursor(cursor);
+                fechaCursor = LocalDateTime.parse(partes[0]);
+                idCursor = new TransaccionId(partes[1]);
+            }
 
-            original.revertir();
-            transaccion.completar();
+            // se pide una fila de mas solo para saber si existe otra pagina
+            List<Transaccion> transacciones = transaccionRepository.buscarCuentas(cuenta, fechaCursor, idCursor, limite + 1);
 
-            transaccionRepository.guardar(original);
-            transaccionRepository.guardar(transaccion);
+            boolean tieneMas = transacciones.size() > limite;
+            List<Transaccion> pagina = tieneMas ? transacciones.subList(0, limite) : transacciones;
 
-            System.out.println("Transacción revertida: " + original.getId());
+            String siguienteCursor = tieneMas ? codificarCursor(pagina.get(pagina.size() - 1)) : null;
 
-            return new OperacionCuentaResponse(
-                transaccionId, 
-                transaccion.getEstado().name(),
-                transaccion.getMonto().getMonto(), 
-                transaccion.getMonto().getMoneda().getNombre(), 
-                transaccion.getFechaCreacion(), 
-                transaccion.getCuentaOrigen().getValor(), 
-                transaccion.getTipo().name(), 
-                transaccion.getDescripcion());
+            List<MovimientoDTO> movimientos = pagina.stream()
+            .map(this::convertirAmovimientoDto)
+            .collect(Collectors.toList());
+
+            return new PaginaMovimientosResponse(movimientos, siguienteCursor, limite);
 
         } catch (Exception e) {
-            throw new IllegalArgumentException("Error al revertir: " + e.getMessage());
+
+            throw new IllegalArgumentException("Hubo un error al intentar consultar movimientos");
         }
     }
 
-    public List<MovimientoDTO> consultarMovimiento(String cuentaStrg){
+    
+
+
+
+    // METODOS AUXILIARES
+
+    // TRAMO DE UN LOTE: una transaccion de BD, reintentada entera ante conflictos de concurrencia
+    private List<TransferenciaResponse> ejecutarTramo(List<TransferenciaRequest> tramo){
 
         try {
-            
-            CuentaId cuenta = CuentaId.newCuentaId(cuentaStrg);
-            List<Transaccion> transaccion = transaccionRepository.buscarCuentas(cuenta);
 
-            return transaccion.stream()
-            .map(this::convertirAmovimientoDto)
-            .collect(Collectors.toList());
+            return ejecutorTransaccional.ejecutar(() -> aplicarTramo(tramo));
+
+        } catch (ConcurrencyFailureException e) {
+
+            return rechazarTodas(tramo, "Las cuentas estan siendo modificadas por otra operacion, intente nuevamente");
 
         } catch (Exception e) {
 
-            throw new IllegalArgumentException("Hubo un error al intentar consultar movimientos");
+            return rechazarTodas(tramo, e.getMessage());
         }
     }
 
-    
+    private List<TransferenciaResponse> aplicarTramo(List<TransferenciaRequest> tramo){
 
+        TransferenciaResponse[] resultados = new TransferenciaResponse[tramo.size()];
+        CuentaId[] origenes = new CuentaId[tramo.size()];
+        CuentaId[] destinos = new CuentaId[tramo.size()];
 
+        // 1- VALIDAR CADA TRANSFERENCIA; las invalidas se rechazan sin tocar la BD
+        for(int i = 0; i < tramo.size(); i++){
+
+            try {
+                validarRequest(tramo.get(i));
+                origenes[i] = CuentaId.newCuentaId(tramo.get(i).getCuentaOrigen());
+                destinos[i] = CuentaId.newCuentaId(tramo.get(i).getCuentaDestino());
+
+            } catch (Exception e) {
+                resultados[i] = respuestaErronea(e.getMessage());
+            }
+        }
+
+        // 2- CARGAR TODAS LAS CUENTAS INVOLUCRADAS EN UNA SOLA CONSULTA (bloqueadas en orden de numero)
+        Set<CuentaId> involucradas = new HashSet<>();
+        for(int i = 0; i < tramo.size(); i++){
+            if(resultados[i] == null){
+                involucradas.add(origenes[i]);
+                involucradas.add(destinos[i]);
+            }
+        }
+
+        Map<String, Cuenta> cuentas = new HashMap<>();
+        cuentaRepository.buscarPorIdsParaActualizar(involucradas)
+            .forEach(cuenta -> cuentas.put(cuenta.getCuentaId().getValor(), cuenta));
+
+        // 3- APLICAR EN EL ORDEN DEL LOTE: cada transferencia ve los saldos que dejaron las anteriores
+        Map<String, Cuenta> modificadas = new LinkedHashMap<>();
+        List<Transaccion> transacciones = new ArrayList<>();
+
+        for(int i = 0; i < tramo.size(); i++){
+
+            if(resultados[i] != null) continue;
+
+            Cuenta cuentaOrigen = cuentas.get(origenes[i].getValor());
+            Cuenta cuentaDestino = cuentas.get(destinos[i].getValor());
+
+            if(cuentaOrigen == null){
+                resultados[i] = respuestaErronea("Cuenta de origen no encontrada: " + origenes[i]);
+                continue;
+            }
+            if(cuentaDestino == null){
+                resultados[i] = respuestaErronea("Cuenta de destino no encontrada: " + destinos[i]);
+                continue;
+            }
+
+            Dinero monto;
+            try {
+                monto = crearMonto(tramo.get(i));
+            } catch (Exception e) {
+                resultados[i] = respuestaErronea(e.getMessage());
+                continue;
+            }
+
+            Transaccion transaccion = crearTransaccion(cuentaOrigen, cuentaDestino, monto, tramo.get(i).getDescripcion());
+
+            try {
+
+                cuentaOrigen.transferir(monto, cuentaDestino);
+                transaccion.completar();
+
+                modificadas.put(cuentaOrigen.getCuentaId().getValor(), cuentaOrigen);
+                modificadas.put(cuentaDestino.getCuentaId().getValor(), cuentaDestino);
+                resultados[i] = respuestaExitosa(transaccion);
+
+            } catch (Exception e) {
+
+                transaccion.rechazar(e.getMessage());
+                resultados[i] = respuestaErronea(e.getMessage());
+            }
+
+            transacciones.add(transaccion);
+        }
+
+        // 4- PERSISTIR TODO EN LOTES
+        cuentaRepository.actualizarTodos(modificadas.values());
+        transaccionRepository.registrarTodos(transacciones);
+
+        return Arrays.asList(resultados);
+    }
+
+    private List<TransferenciaResponse> rechazarTodas(List<TransferenciaRequest> tramo, String mensajeError){
+
+        List<TransferenciaResponse> rechazadas = new ArrayList<>(tramo.size());
+        for(int i = 0; i < tramo.size(); i++){
+            rechazadas.add(respuestaErronea(mensajeError));
+        }
+        return rechazadas;
+    }
 
-    // METODOS AUXILIARES
 
     private TransferenciaResponse ejecutarEnDominio(Cuenta cuentaOrigen, Cuenta cuentaDestino, Dinero monto, String descripcion){
 
@@ -285,9 +446,13 @@ public class TransaccionService {
 
             return respuestaExitosa(transaccion);
 
+         } catch (ConcurrencyFailureException e) {
+            // conflicto con otra transaccion: se propaga para que el ejecutor reintente
+            throw e;
+
          } catch (Exception e) {
             transaccion.rechazar(e.getMessage());
-            transaccionRepository.guardar(transaccion);
+            transaccionRepository.registrar(transaccion);
             
             return respuestaErronea(e.getMessage());
          }
@@ -295,6 +460,70 @@ public class TransaccionService {
     }
 
     
+    // UN INTENTO DE REVERSO (dentro de la transaccion del ejecutor)
+    private OperacionCuentaResponse aplicarReverso(TransaccionId id){
+
+        // buscar transaccion original
+        Transaccion original = transaccionRepository.buscarPorId(id).orElseThrow(()-> new IllegalArgumentException(
+            "Transaccion no encontrada"));
+
+        // validar que sea reversible
+        if(!original.esReversible()) throw new IllegalArgumentException(
+            "Transaccion no reversible");
+
+        // crear transaccion reverso
+        Transaccion transaccion = new Transaccion(
+            generarTransaccionId(),
+            TipoTransaccion.REVERSO,
+            original.getCuentaOrigen(),
+            original.getCuentaDestino(), 
+            original.getMonto(), 
+            "reverso de:" + original.getId());
+
+        // cargar cuentas (bloqueadas y en orden) y ejecutar reversion
+        if(original.getCuentaOrigen() != null && original.getCuentaDestino() != null){
+
+            Cuenta[] cuentas = cargarCuentasEnOrden(original.getCuentaOrigen(), original.getCuentaDestino());
+            Cuenta cuentaOrigen = cuentas[0];
+            Cuenta cuentaDestino = cuentas[1];
+
+
+            // reverit segun el tipo
+            if(original.getTipo() == TipoTransaccion.TRANSFERENCIA){
+                cuentaDestino.transferir(original.getMonto(), cuentaOrigen);
+            }
+             else if(original.getTipo() == TipoTransaccion.DEPOSITO){
+                cuentaDestino.retirar(original.getMonto());
+            }
+            else if(original.getTipo() == TipoTransaccion.RETIRO){
+                cuentaOrigen.depositar(original.getMonto());
+            }
+
+            cuentaRepository.actualizar(cuentaOrigen);
+            cuentaRepository.actualizar(cuentaDestino);
+
+        }
+
+
+        original.revertir();
+        transaccion.completar();
+
+        // original (actualizada) + reverso (nuevo) en un solo lote
+        transaccionRepository.guardarTodos(List.of(original, transaccion));
+
+        log.info("Transaccion revertida: {}", original.getId());
+
+        return new OperacionCuentaResponse(
+            id.getValor(), 
+            transaccion.getEstado().name(),
+            transaccion.getMonto().getMonto(), 
+            transaccion.getMonto().getMoneda().getNombre(), 
+            transaccion.getFechaCreacion(), 
+            transaccion.getCuentaOrigen().getValor(), 
+            transaccion.getTipo().name(), 
+            transaccion.getDescripcion());
+    }
+
     private Transaccion crearTransaccion(Cuenta cuentaOrigen, Cuenta cuentaDestino, Dinero monto, String descripcion){
 
         TransaccionId transaccionId = generarTransaccionId();
@@ -303,13 +532,9 @@ public class TransaccionService {
              cuentaOrigen.getCuentaId(), cuentaDestino.getCuentaId(), monto, descripcion);
     }
 
-    //GENERAR ID DE TRANSACCIÓN
+    //GENERAR ID DE TRANSACCIÓN (unico entre hilos, ver GeneradorTransaccionId)
     private TransaccionId generarTransaccionId() {
-    
-    int randomNum = (int)(Math.random() * 10000000);
-    String id = "TXN-" + LocalDateTime.now().getYear() + "-" + 
-    String.format("%07d", randomNum);
-    return new TransaccionId(id);
+        return generadorTransaccionId.siguiente();
     }
 
     
@@ -317,9 +542,9 @@ public class TransaccionService {
 
         cuentaRepository.actualizar(cuentaOrigen);
         cuentaRepository.actualizar(cuentaDestino);
-        transaccionRepository.guardar(transaccion);
+        transaccionRepository.registrar(transaccion);
 
-        System.out.println(" Cambios persistidos exitosamente");
+        log.trace("Cambios persistidos exitosamente");
 
     }
 
@@ -341,6 +566,35 @@ public class TransaccionService {
 
     }
 
+    // PAGINACION DE MOVIMIENTOS
+
+    private int resolverTamanioPagina(Integer tamanio){
+
+        if(tamanio == null) return tamanioPaginaMovimientos;
+
+        if(tamanio <= 0) throw new IllegalArgumentException(
+            "El tamaño de pagina debe ser mayor a cero");
+
+        return Math.min(tamanio, tamanioPaginaMovimientosMaximo);
+    }
+
+    // el cursor es la clave de la ultima fila entregada: "fecha|transaccionId" en Base64 URL (opaco para el cliente)
+    private String codificarCursor(Transaccion ultima){
+
+        String clave = ultima.getFechaCreacion() + "|" + ultima.getId().getValor();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(clave.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodificarCursor(String cursor){
+
+        String clave = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] partes = clave.split("\\|", 2);
+
+        if(partes.length != 2) throw new IllegalArgumentException("Cursor de paginacion invalido");
+
+        return partes;
+    }
+
     public MovimientoDTO convertirAmovimientoDto(Transaccion transaccion){
 
         return new MovimientoDTO(
@@ -391,7 +645,28 @@ public class TransaccionService {
 
 
 
+    // DEPOSITO / RETIRO RECHAZADO POR LA BASE
+    // El UPDATE atomico no dice por que no aplico: solo en este camino (el de error) se lee la cuenta
+    // y se repite la operacion en el dominio para obtener el mensaje exacto (inactiva, moneda, saldo)
+    private void explicarRechazo(CuentaId id, Consumer<Cuenta> operacion){
+
+        Cuenta cuenta = cuentaRepository.buscarPorId(id).orElseThrow(()-> new IllegalArgumentException(
+            "Cuenta no encontrada"));
+
+        operacion.accept(cuenta);
+
+        // el dominio la acepta ahora: otra operacion cambio el saldo entre el UPDATE y la lectura
+        throw new IllegalStateException("La cuenta fue modificada por otra operacion, intente nuevamente");
+    }
+
+
     // VALIDACIONES BASICAS
+    private void validarMontoPositivo(Dinero dinero){
+
+        if(!dinero.esPositivo()) throw new IllegalArgumentException(
+            "El monto debe ser positivo. Se recibio: " + dinero);
+    }
+
     private void validarRequest(TransferenciaRequest request){
 
         if(request == null) throw new IllegalArgumentException("La solicitud no puede ser nula");
@@ -408,7 +683,41 @@ public class TransaccionService {
         if(request.getCuentaOrigen().equals(request.getCuentaDestino())) throw new IllegalArgumentException(
             "No se puede transferir a la misma cuenta");
 
-            System.out.println("Validaciones de request OK");
+            log.trace("Validaciones de request OK");
+    }
+
+    // CARGAR AMBAS CUENTAS SIEMPRE EN ORDEN DE NUMERO DE CUENTA
+    // Si A->B y B->A bloquearan en distinto orden podrian esperarse mutuamente (deadlock)
+    // Retorna [origen, destino]
+    private Cuenta[] cargarCuentasEnOrden(TransferenciaRequest request){
+
+        if(request.getCuentaOrigen().compareTo(request.getCuentaDestino()) <= 0){
+
+            Cuenta cuentaOrigen = cargarCuentaOrigen(request);
+            Cuenta cuentaDestino = cargarCuentaDestino(request);
+            return new Cuenta[]{cuentaOrigen, cuentaDestino};
+        }
+
+        Cuenta cuentaDestino = cargarCuentaDestino(request);
+        Cuenta cuentaOrigen = cargarCuentaOrigen(request);
+        return new Cuenta[]{cuentaOrigen, cuentaDestino};
+    }
+
+    // mismo orden para las cuentas de una transaccion ya registrada (reverso). Retorna [origen, destino]
+    private Cuenta[] cargarCuentasEnOrden(CuentaId origen, CuentaId destino){
+
+        boolean origenPrimero = origen.getValor().compareTo(destino.getValor()) <= 0;
+
+        Cuenta primera = cargarParaActualizar(origenPrimero ? origen : destino, origenPrimero ? "origen" : "destino");
+        Cuenta segunda = cargarParaActualizar(origenPrimero ? destino : origen, origenPrimero ? "destino" : "origen");
+
+        return origenPrimero ? new Cuenta[]{primera, segunda} : new Cuenta[]{segunda, primera};
+    }
+
+    private Cuenta cargarParaActualizar(CuentaId cuentaId, String rol){
+
+        return cuentaRepository.buscarPorIdParaActualizar(cuentaId).orElseThrow(()-> new IllegalArgumentException(
+            "Cuenta " + rol + " no encontrada"));
     }
 
     // CARGAR CUENTA DESTINO
@@ -416,7 +725,7 @@ public class TransaccionService {
 
         CuentaId cuentaDestino = CuentaId.newCuentaId(request.getCuentaDestino());
         
-        return cuentaRepository.buscarPorId(cuentaDestino).orElseThrow(()-> new IllegalArgumentException(
+        return cuentaRepository.buscarPorIdParaActualizar(cuentaDestino).orElseThrow(()-> new IllegalArgumentException(
             "Cuenta de destino no encontrada: " + cuentaDestino));
     }
 
@@ -425,7 +734,7 @@ public class TransaccionService {
 
         CuentaId cuentaOrigen = CuentaId.newCuentaId(request.getCuentaOrigen());
         
-        return cuentaRepository.buscarPorId(cuentaOrigen).orElseThrow(()-> new IllegalArgumentException(
+        return cuentaRepository.buscarPorIdParaActualizar(cuentaOrigen).orElseThrow(()-> new IllegalArgumentException(
             "Cuenta de origen no encontrada: " + cuentaOrigen));
     }
 
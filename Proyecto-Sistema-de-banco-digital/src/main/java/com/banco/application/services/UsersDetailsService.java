@@ -1,38 +1,82 @@
 package com.banco.application.services;
 
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import com.banco.infrastructure.cache.CacheLocal;
 import com.banco.infrastructure.persistence.entities.UsuarioEntity;
 import com.banco.infrastructure.persistence.jpa.Interface.UsuarioJpaRepository;
+import com.banco.infrastructure.security.jwt.FotoUsuario;
+
 
 
+// Los usuarios se leen en cada peticion autenticada (y en cada login): pocos miles de usuarios activos
+// haciendo muchas llamadas. Se guardan en un cache local acotado y con vencimiento, como FotoUsuario inmutable
+// (la entidad se lee solo al fallar el cache y no sale de este servicio); quien escribe un usuario
+// (alta, cambio de rol o contraseña) tiene que llamar a invalidar(username).
+// Los usuarios inexistentes no se guardan: el alta no necesita esperar el vencimiento.
 
 @Service
-public class UsersDetailsService implements UserDetailsService{
-    
+public class UsersDetailsService implements UserDetailsService, UserDetailsPasswordService{
+
     private UsuarioJpaRepository usuarioJpaRepository;
 
+    private final CacheLocal<String, FotoUsuario> cacheUsuarios;
+
+
+    public UsersDetailsService(UsuarioJpaRepository usuarioJpaRepository,
+        @Value("${banco.seguridad.cache-usuarios.capacidad:10000}") int capacidadCache,
+        @Value("${banco.seguridad.cache-usuarios.ttl:PT5M}") Duration ttlCache) {
 
-    public UsersDetailsService(UsuarioJpaRepository usuarioJpaRepository) {
         this.usuarioJpaRepository = usuarioJpaRepository;
+        this.cacheUsuarios = new CacheLocal<>(capacidadCache, ttlCache);
     }
 
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        UsuarioEntity usuarioEntity = usuarioJpaRepository.findByUsername(username)
+        FotoUsuario usuario = cacheUsuarios.obtener(username,
+            nombre -> usuarioJpaRepository.findByUsername(nombre).map(FotoUsuario::de).orElse(null));
+
+        if(usuario == null) throw new UsernameNotFoundException("Usuario no encontrado " + username);
+
+        return usuario;
+
+    }
+
+
+    // REHASH: Spring Security lo llama despues de un login exitoso cuando el hash guardado
+    // usa otro costo o algoritmo (PasswordEncoder.upgradeEncoding); newPassword ya viene codificada
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+
+        UsuarioEntity usuarioEntity = usuarioJpaRepository.findByUsername(user.getUsername())
         .orElseThrow(()-> new UsernameNotFoundException(
-        "Usuario no encontrado " + username));
+        "Usuario no encontrado " + user.getUsername()));
+
+        usuarioEntity.setPassword(newPassword);
+        usuarioJpaRepository.save(usuarioEntity);
 
-        return usuarioEntity;
+        cacheUsuarios.invalidar(usuarioEntity.getUsername());
 
+        return FotoUsuario.de(usuarioEntity);
     }
 
 
+    public void invalidar(String username){
+        cacheUsuarios.invalidar(username);
+    }
+
+    public CacheLocal.Estadisticas estadisticasCache(){
+        return cacheUsuarios.estadisticas();
+    }
+
 
-    
 }
@@ -1,5 +1,8 @@
 package com.banco.domain.model.entities;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.domain.model.valueobjects.ClienteId;
 import com.banco.domain.model.valueobjects.CuentaId;
 
@@ -9,6 +12,8 @@ import java.util.Objects;
 
 public class Cliente {
 
+    private static final Logger log = LoggerFactory.getLogger(Cliente.class);
+
     // ATRIBUTOS
     private final ClienteId clienteId;
     private String nombre;
@@ -30,7 +35,7 @@ public class Cliente {
         this.activa = true;
         this.maxCuentasPermitidas = 5;
 
-        System.out.println("✅ Cliente creado: " + nombre + " (" + email + ")");
+        log.debug("Cliente creado: {} ({})", nombre, email);
 
     }
 
@@ -80,7 +85,7 @@ public class Cliente {
 
     cuentas.add(cuentaId);
 
-    System.out.println("Cuenta " + cuentaId + " agregada." + " Total: " + cuentas.size());
+    log.debug("Cuenta {} agregada. Total: {}", cuentaId, cuentas.size());
 
     }
 
@@ -108,7 +113,7 @@ public class Cliente {
             "❌ No se puede transferir a la misma cuenta");
         
         
-        System.out.println("✅ Validación OK: transferencia entre cuentas propias permitida");
+        log.trace("Validacion OK: transferencia entre cuentas propias permitida");
     }
 
 
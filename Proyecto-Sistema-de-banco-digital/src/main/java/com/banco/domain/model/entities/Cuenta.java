@@ -2,6 +2,9 @@ package com.banco.domain.model.entities;
 
 import java.util.Objects;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.domain.model.valueobjects.ClienteId;
 import com.banco.domain.model.valueobjects.CuentaId;
 import com.banco.domain.model.valueobjects.Dinero;
@@ -9,6 +12,8 @@ import com.banco.domain.model.valueobjects.Moneda;
 
 public class Cuenta {
 
+    private static final Logger log = LoggerFactory.getLogger(Cuenta.class);
+
     // ATRIBUTOS PRIVADOS
     private final CuentaId cuentaId;
     private final ClienteId clienteId;
@@ -28,7 +33,7 @@ public class Cuenta {
         this.saldo = Dinero.nuevoCero(moneda); // // Todas las cuentas empiezan en CERO
         this.activa = true;
 
-        System.out.println("Cuenta creada: " + cuentaId + "para cliente: " + clienteId);
+        log.debug("Cuenta creada: {} para cliente: {}", cuentaId, clienteId);
     }
 
     public Cuenta(CuentaId cuentaId, ClienteId clienteId, Moneda moneda, Dinero saldo, boolean activa){
@@ -73,7 +78,7 @@ public class Cuenta {
         Dinero saldoAnterior = this.saldo;
         this.saldo = this.saldo.sumar(monto);
 
-        System.out.println(" Depósito exitoso: " + saldoAnterior + " → " + this.saldo);
+        log.debug("Deposito exitoso: {} -> {}", saldoAnterior, this.saldo);
     }
 
     // RETIRAR DINERO
@@ -86,7 +91,7 @@ public class Cuenta {
         Dinero saldoAnterior = this.saldo;
         this.saldo = this.saldo.restar(monto);
 
-        System.out.println("Retiro exitoso: " + saldoAnterior + " → " + this.saldo);
+        log.debug("Retiro exitoso: {} -> {}", saldoAnterior, this.saldo);
     }
 
     // TRANSFERENCIAS
@@ -105,9 +110,8 @@ public class Cuenta {
          this.saldo = this.saldo.restar(monto);
          cuentaDestino.saldo = cuentaDestino.saldo.sumar(monto);
 
-         System.out.println("✅ Transferencia exitosa:");
-         System.out.println("   Origen: " + saldoAnterior + " → " + this.saldo);
-         System.out.println("   Destino: " + saldoDestinatario + " → " + cuentaDestino.saldo);
+         log.debug("Transferencia exitosa. Origen: {} -> {} Destino: {} -> {}",
+             saldoAnterior, this.saldo, saldoDestinatario, cuentaDestino.saldo);
     }
 
 
@@ -139,7 +143,7 @@ public class Cuenta {
     }
 
     public void validarMontoPositivo(Dinero monto){
-        if(monto.esMenorOIgualQue(Dinero.nuevoCero(monto.getMoneda()))) throw new IllegalArgumentException(
+        if(!monto.esPositivo()) throw new IllegalArgumentException(
             "El monto debe ser positivo. Se recibio: " + monto);
     }
 
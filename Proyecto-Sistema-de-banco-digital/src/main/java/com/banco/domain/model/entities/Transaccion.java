@@ -3,6 +3,9 @@ package com.banco.domain.model.entities;
 import java.time.LocalDateTime;
 import java.util.Objects;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.domain.model.valueobjects.*;
 import com.banco.domain.model.valueobjects.TransaccionId.EstadoTransaccion;
 import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
@@ -10,6 +13,8 @@ import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
 
 public class Transaccion {
 
+    private static final Logger log = LoggerFactory.getLogger(Transaccion.class);
+
     //🔐 ATRIBUTOS INMUTABLES
     private final TransaccionId transaccionId;
     private final TipoTransaccion tipoTransaccion;
@@ -133,7 +138,7 @@ public class Transaccion {
             "Solo transacciones pendientes pueden rechazarse. Estado : " +  this.estado);
         
             this.estado = EstadoTransaccion.RECHAZADA;
-            System.out.println("Transacción " + transaccionId + " RECHAZADA: " + motivo);
+            log.debug("Transaccion {} RECHAZADA: {}", transaccionId, motivo);
             
     }
 
@@ -145,7 +150,7 @@ public class Transaccion {
         }
         
         this.estado = EstadoTransaccion.REVERTIDA;
-        System.out.println("Transacción " + transaccionId + " REVERTIDA");
+        log.debug("Transaccion {} REVERTIDA", transaccionId);
     }
 
     private boolean esDemasiadoAntigua() {
@@ -176,7 +181,7 @@ public class Transaccion {
     // 🛡️ VALIDAR CONSISTENCIA DE LA TRANSACCIÓN
         private void validarConsistencia() {
         // 💰 MONTO DEBE SER POSITIVO
-        if (monto.esMenorOIgualQue(Dinero.nuevoCero(monto.getMoneda()))) {
+        if (!monto.esPositivo()) {
             throw new IllegalArgumentException(" El monto debe ser positivo: " + monto);
         }
 
@@ -1,7 +1,6 @@
 package com.banco.domain.model.valueobjects;
 
 import java.util.Objects;
-import java.util.regex.Pattern;
 
 
 
@@ -9,8 +8,8 @@ public final class ClienteId {
 
    // Todos los IDs deben ser CLI- seguido de 8 números.
    private static final String FORMATO = "CLI-\\d{8}";
-   //FILTRO pattern que analisa si el formato es el correcto
-   private static final Pattern VALIDAR_PATRON = Pattern.compile(FORMATO);
+   private static final String PREFIJO = "CLI-";
+   private static final int LARGO = 12;
 
    // ATRIBUTO INMUTABLE (final + private)
    private final String valor;
@@ -19,14 +18,14 @@ public final class ClienteId {
    // CONSTRUCTOR PRIVADO - ÚNICA FORMA DE CREAR INSTANCIAS
 
 
-   private ClienteId(String valor){
+   private ClienteId(String valor, boolean validar){
 
 
       if(valor == null){
          throw new IllegalArgumentException("El Id del cliente no puede ser nulo");
         }
-         //Validar formato con Pattern
-         if(!VALIDAR_PATRON.matcher(valor).matches()){
+         //Validar formato (sin regex, ver tieneFormatoValido)
+         if(validar && !tieneFormatoValido(valor)){
             throw new IllegalArgumentException(String.format(
             "Formato de id de cliente invalido. Debe ser: %s", valor, FORMATO));
          }
@@ -40,7 +39,12 @@ public final class ClienteId {
 
             
    public static ClienteId newCliente(String valor){
-      return new ClienteId(valor);
+      return new ClienteId(valor, true);
+      }
+
+   // SIN VALIDAR - solo para ids que ya se validaron al guardarlos (columna cliente_id)
+   public static ClienteId rehidratar(String valor){
+      return new ClienteId(valor, false);
       }
 
          
@@ -49,7 +53,7 @@ public final class ClienteId {
       int numeroAleatorio = (int)(Math.random() *100_000_000);
 
       String valor = String.format("CLI-%08d", numeroAleatorio);
-         return new ClienteId(valor);
+         return new ClienteId(valor, true);
       }
 
 
@@ -101,15 +105,27 @@ public final class ClienteId {
    // HASHCODE: Consistente con equals() obligatorio por -contrato con equals-
    @Override
    public int hashCode(){
-   return Objects.hash(valor);
+   return valor.hashCode();
    }
 
    // VALIDAR SIN CREAR INSTANCIA
    public static boolean esValido(String valor) {
-   return valor != null && VALIDAR_PATRON.matcher(valor).matches();
+   return valor != null && tieneFormatoValido(valor);
    
 
 }
+
+   // "CLI-" + 8 digitos, recorriendo el texto sin crear objetos
+   private static boolean tieneFormatoValido(String valor){
+
+      if(valor.length() != LARGO || !valor.startsWith(PREFIJO)) return false;
+
+      for(int i = PREFIJO.length(); i < LARGO; i++){
+         char c = valor.charAt(i);
+         if(c < '0' || c > '9') return false;
+      }
+      return true;
+   }
    // OBTENER EL FORMATO ESPERADO
    public static String getFormatoEsperado(){
    return FORMATO;
@@ -2,54 +2,87 @@ package com.banco.domain.model.valueobjects;
 
 
 import java.util.Objects;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
+
 
 public final class CuentaId {
 
     //FORMATO: Código país + 22 dígitos (similar IBAN argentino)
     private static final String FORMATO = "ARG\\d{22}";
-    // VALIDA QUE EL FORMATO SEA EL CORRECTO
-    private static final Pattern VALIDAR_FORMATO = Pattern.compile(FORMATO);
+    private static final String PAIS = "ARG";
+    private static final int LARGO = 25;
+
+    public static final long SECUENCIA_MAXIMA = 99_999_999_999L; // 11 dígitos del número dentro de la sucursal
+
+    // CUENTAS MAS USADAS: tabla chica de instancias compartidas, ver internada()
+    private static final int TAMANIO_INTERNADAS = 1024; // potencia de 2
+    private static final CuentaId[] INTERNADAS = new CuentaId[TAMANIO_INTERNADAS];
 
     private final String valor;
 
-    //CONSTRUCTOR PRIVADO - Validación completa
+    //CONSTRUCTOR PRIVADO - sin validar, lo hacen los metodos fabrica
     private CuentaId(String valor) {
+        this.valor = valor;
+    }
 
-        // VALIDACIONES EN CONSTRUCTOR
+    // METODOS DE LA CLASE
+
+    // MÉTODO FÁBRICA PRINCIPAL - Validación completa
+    public static CuentaId newCuentaId(String valor) {
+
+        // VALIDACIONES
 
-        
         if (valor == null) {
             throw new IllegalArgumentException("No se permite nulos");
         }
 
         //Cumple el formato
-        if (!VALIDAR_FORMATO.matcher(valor).matches()) {
+        if (!tieneFormatoValido(valor)) {
             throw new IllegalArgumentException(String.format("El formato no es el correcto. Debe ser %s",
                     valor, FORMATO));
         }
 
-        //Dígito verificador
-        if (!validarDigitoVerificador(valor)) {
-            throw new IllegalArgumentException("Dígito verificador de cuenta inválido");
-        }
+        //Dígito verificador: NO se exige al construir. Hay cuentas anteriores al digito real
+        // (generadas con "00" o con otro algoritmo); para chequearlo usar tieneDigitoVerificadorValido()
 
         //Banco valido
         if (!esBancoValido(valor)) {
             throw new IllegalArgumentException("Código de banco no válido");
         }
 
+        return new CuentaId(valor);
+    }
 
-  
-        this.valor = valor;
+    // MÉTODO FÁBRICA PARA DATOS PROPIOS - sin validar.
+    // Solo para numeros que ya se validaron al guardarlos (columnas numero_cuenta, cuenta_origen_id, ...)
+    public static CuentaId rehidratar(String valor) {
 
+        if (valor == null) {
+            throw new IllegalArgumentException("No se permite nulos");
+        }
+        return new CuentaId(valor);
     }
 
-    // METODOS DE LA CLASE
+    // Igual que rehidratar() pero reutiliza la instancia si la cuenta se leyo hace poco.
+    // Pensado para listas donde la misma cuenta se repite en cada fila (movimientos de una cuenta).
+    // La tabla se comparte entre hilos sin bloqueo: una carrera solo pierde la reutilizacion,
+    // nunca entrega otra cuenta (valor es final y se compara antes de reutilizar)
+    public static CuentaId internada(String valor) {
 
-    // MÉTODO FÁBRICA PRINCIPAL
-    public static CuentaId newCuentaId(String valor) {
-        return new CuentaId(valor);
+        int posicion = valor.hashCode() & (TAMANIO_INTERNADAS - 1);
+        CuentaId existente = INTERNADAS[posicion];
+        if (existente != null && existente.valor.equals(valor)) {
+            return existente;
+        }
+
+        CuentaId nueva = rehidratar(valor);
+        INTERNADAS[posicion] = nueva;
+        return nueva;
+    }
+
+    // VALIDAR SIN CREAR INSTANCIA
+    public static boolean esValido(String valor) {
+        return valor != null && tieneFormatoValido(valor) && esBancoValido(valor);
     }
 
     // GETTERS
@@ -97,7 +130,8 @@ public final class CuentaId {
      //Tipos 20-29 → Euros (EUR)
      
     public Moneda deducirMoneda() {
-        int tipo = Integer.parseInt(getTipoDeCuenta());
+        // los dos digitos del tipo (posiciones 10 y 11), sin substring ni parseInt
+        int tipo = (valor.charAt(10) - '0') * 10 + (valor.charAt(11) - '0');
 
         if (tipo >= 0 && tipo <= 9) {
             return Moneda.ARG;
@@ -117,21 +151,45 @@ public final class CuentaId {
 
 
     
-     //CALCULAR DÍGITO VERIFICADOR
+     //CALCULAR DÍGITO VERIFICADOR - ISO 7064 MOD 97-10 (el mismo del IBAN)
+     //Sobre los 20 digitos que siguen a "ARG": DV = 98 - (digitos * 100 mod 97), siempre 2 digitos.
+     //Detecta cualquier digito cambiado y cualquier par de digitos vecinos invertido
      
-    private static String calcularDigitoVerificador(String valorSinDigito) {
+    static String calcularDigitoVerificador(String valorSinDigito) {
+
+        int resto = 0;
+        for (int i = 3; i < valorSinDigito.length(); i++) {
+            resto = (resto * 10 + (valorSinDigito.charAt(i) - '0')) % 97;
+        }
+        int digito = 98 - (resto * 100) % 97;
 
-        // Para pruebas, devolver "00" o un valor fijo
-        return "00";
+        return digito < 10 ? "0" + digito : String.valueOf(digito);
     }
 
 
-    private static boolean validarDigitoVerificador(String valor) {
+     //Un numero con el digito correcto cumple: los 22 digitos mod 97 == 1
+    public boolean tieneDigitoVerificadorValido() {
 
-        //PARA PRUEBAS: Aceptar siempre
-        // Más adelante implementaremos un algoritmo real
+        int resto = 0;
+        for (int i = 3; i < valor.length(); i++) {
+            resto = (resto * 10 + (valor.charAt(i) - '0')) % 97;
+        }
+        return resto == 1;
+    }
 
-        System.out.println("✅ Dígito verificador aceptado (modo pruebas)");
+    
+     //VALIDAR FORMATO SIN REGEX: "ARG" + 22 digitos, sin crear objetos
+    private static boolean tieneFormatoValido(String valor) {
+
+        if (valor.length() != LARGO || !valor.startsWith(PAIS)) {
+            return false;
+        }
+        for (int i = PAIS.length(); i < LARGO; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
         return true;
     }
 
@@ -140,11 +198,10 @@ public final class CuentaId {
      //En sistema real, verificaría contra base de bancos autorizados
      
     private static boolean esBancoValido(String valor) {
-        String codigoBanco = valor.substring(3, 6);
-        // Ejemplo: solo permitimos algunos bancos
-        return codigoBanco.equals("017") || // Banco de ejemplo
-                codigoBanco.equals("015") || // Otro banco
-                codigoBanco.equals("072"); // Otro banco
+        // Ejemplo: solo permitimos algunos bancos (regionMatches compara sin substring)
+        return valor.regionMatches(3, "017", 0, 3) || // Banco de ejemplo
+                valor.regionMatches(3, "015", 0, 3) || // Otro banco
+                valor.regionMatches(3, "072", 0, 3); // Otro banco
     }
 
     // DETERMINAR TIPO DE CUENTA SEGÚN MONEDA
@@ -161,10 +218,9 @@ public final class CuentaId {
         }
     }
 
-    //GENERAR NÚMERO ALEATORIO DE CUENTA
-    private static String generarNumeroAleatorio() {
-        long numero = (long) (Math.random() * 10_000_000_000L);
-        return String.format("%011d", numero);
+    //GENERAR NÚMERO ALEATORIO DE CUENTA - puede repetirse, solo para datos de prueba
+    private static long generarNumeroAleatorio() {
+        return ThreadLocalRandom.current().nextLong(SECUENCIA_MAXIMA + 1);
     }
 
 
@@ -173,22 +229,36 @@ public final class CuentaId {
     //MÉTODO FÁBRICA PARA CREAR NUEVAS CUENTAS
     //Genera cuenta con formato válido para nuevo cliente
      
-    //param codigoBanco    Código de 4 dígitos del banco
+    //param codigoBanco    Código de 3 dígitos del banco
     //param codigoSucursal Código de 4 dígitos de sucursal
     //param moneda         Moneda de la cuenta (afecta el tipo de cuenta)
-    //return Nueva CuentaId válida
+    //param secuencia      Número de la cuenta dentro de la sucursal (11 dígitos, ver AsignadorNumerosCuenta)
+    //return Nueva CuentaId válida, con dígito verificador
      
-    public static CuentaId generarNueva(int codigoBanco, int codigoSucursal, Moneda moneda) {
-        //  ESTRUCTURA: ARG + Banco(3) + Sucursal(4) + Tipo(2) + Numero(10) + DV(2)
+    public static CuentaId generarNueva(int codigoBanco, int codigoSucursal, Moneda moneda, long secuencia) {
+
+        if (codigoSucursal < 0 || codigoSucursal > 9999) {
+            throw new IllegalArgumentException("La sucursal debe tener hasta 4 dígitos: " + codigoSucursal);
+        }
+        if (secuencia < 0 || secuencia > SECUENCIA_MAXIMA) {
+            throw new IllegalArgumentException("El número de cuenta debe tener hasta 11 dígitos: " + secuencia);
+        }
+
+        //  ESTRUCTURA: ARG + Banco(3) + Sucursal(4) + Tipo(2) + Numero(11) + DV(2)
         String bancoStr = String.format("%03d", codigoBanco);
         String sucursalStr = String.format("%04d", codigoSucursal);
         String tipoCuenta = obtenerTipoCuentaPorMoneda(moneda);
-        String numero = generarNumeroAleatorio();
+        String numero = String.format("%011d", secuencia);
         String sinDigitoVerificador = "ARG" + bancoStr + sucursalStr + tipoCuenta + numero;
 
         String digitoVerificador = calcularDigitoVerificador(sinDigitoVerificador);
 
-        return new CuentaId(sinDigitoVerificador + digitoVerificador);
+        return newCuentaId(sinDigitoVerificador + digitoVerificador);
+    }
+
+    //Con número aleatorio: no garantiza que sea único, las aperturas usan AsignadorNumerosCuenta
+    public static CuentaId generarNueva(int codigoBanco, int codigoSucursal, Moneda moneda) {
+        return generarNueva(codigoBanco, codigoSucursal, moneda, generarNumeroAleatorio());
     }
 
 
@@ -206,7 +276,7 @@ public final class CuentaId {
 
     @Override
     public int hashCode() {
-        return Objects.hash(valor);
+        return valor.hashCode();
     }
 
 }
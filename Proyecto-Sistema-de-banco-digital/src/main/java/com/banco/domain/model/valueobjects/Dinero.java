@@ -4,17 +4,41 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Objects;
 
+// DINERO - monto no negativo + moneda
+// Dos representaciones internas, invisibles desde afuera:
+// - unidades: un long con el monto en unidades menores de la moneda (centavos con 2 decimales).
+//   Es el caso de los saldos y de los montos de depositos, retiros y transferencias:
+//   sumar, restar y comparar son operaciones de long, sin crear BigDecimal.
+// - preciso: BigDecimal con ESCALA_CALCULO, solo cuando el monto tiene fraccion de centavo
+//   (resultados de multiplicar, dividir, convertir) o no entra en un long.
+// Las sumas controlan el desborde del long: si desbordan se pasa a BigDecimal, nunca se trunca.
+
 public class Dinero {
 
     // ATRIBUTOS
-    private final BigDecimal monto;
+    private final long unidades;     // valido solo si preciso == null
+    private final BigDecimal preciso; // null = el monto es exacto en unidades
     private final Moneda moneda;
 
+    // getMonto() con escala 10, se arma la primera vez que se pide (como el hash de String)
+    private BigDecimal monto;
+
     //CONFIGURACIÓN DE ESCALA PARA CÁLCULOS
     private static final int ESCALA_CALCULO = 10;
     // METODO PARA REDONDEAR MONTOS - EJ: 1.50 -> 2.0
     private static final RoundingMode REDONDEO = RoundingMode.HALF_EVEN;
 
+    private static final long NO_EXACTO = -1; // los montos nunca son negativos
+    private static final BigDecimal MAXIMO_UNIDADES = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    // un cero por moneda, compartido
+    private static final Dinero[] CEROS = new Dinero[Moneda.values().length];
+    static {
+        for (Moneda moneda : Moneda.values()) {
+            CEROS[moneda.ordinal()] = new Dinero(0, moneda);
+        }
+    }
+
     // CONSTRUCTOR
 
     public Dinero(BigDecimal monto, Moneda moneda) {
@@ -27,20 +51,41 @@ public class Dinero {
 
         // 2- verificamos que monto no sea negativo
         // Devuelve un numero entero y lo comparamos con 0
-        if (monto.compareTo(BigDecimal.ZERO) < 0)
+        if (monto.signum() < 0)
             throw new IllegalArgumentException("El monto no puede ser negativo " + monto);
 
-        // ASIGNACIÓN CON ESCALA CONSISTENTE
-        // al "monto" le agrega 10 decimales, si es necesario REDONDEA
-        this.monto = monto.setScale(ESCALA_CALCULO, REDONDEO);
+        long exactas = unidadesExactas(monto, moneda.getDecimales());
+
+        if (exactas != NO_EXACTO) {
+            this.unidades = exactas;
+            this.preciso = null;
+        } else {
+            // ASIGNACIÓN CON ESCALA CONSISTENTE
+            // al "monto" le agrega 10 decimales, si es necesario REDONDEA
+            this.unidades = NO_EXACTO;
+            this.preciso = monto.setScale(ESCALA_CALCULO, REDONDEO);
+            this.monto = this.preciso;
+        }
         this.moneda = moneda;
 
     }
 
+    // sin validar: unidades ya es >= 0
+    private Dinero(long unidades, Moneda moneda) {
+        this.unidades = unidades;
+        this.preciso = null;
+        this.moneda = moneda;
+    }
+
     // METODOS DE GETTERS
 
     public BigDecimal getMonto() {
-        return monto;
+        BigDecimal resultado = monto;
+        if (resultado == null) {
+            resultado = BigDecimal.valueOf(unidades, moneda.getDecimales()).setScale(ESCALA_CALCULO);
+            monto = resultado;
+        }
+        return resultado;
     }
 
     public Moneda getMoneda() {
@@ -48,12 +93,23 @@ public class Dinero {
     }
 
     public Double getMontoDouble() {
-        return monto.doubleValue();
+        return getMonto().doubleValue();
     }
 
     // OBTENER MONTO CON ESCALA DE LA MONEDA
     public BigDecimal getMontoConEscalaMoneda() {
-        return monto.setScale(moneda.getDecimales(), REDONDEO);
+        if (preciso == null) {
+            return BigDecimal.valueOf(unidades, moneda.getDecimales());
+        }
+        return preciso.setScale(moneda.getDecimales(), REDONDEO);
+    }
+
+    // MONTO EN UNIDADES MENORES (centavos), redondeado si tiene fraccion de centavo
+    public long getUnidades() {
+        if (preciso == null) {
+            return unidades;
+        }
+        return getMontoConEscalaMoneda().unscaledValue().longValueExact();
     }
 
     // EQUALS: Dos Dinero son iguales si mismo monto y misma moneda
@@ -66,6 +122,10 @@ public class Dinero {
 
         Dinero other = (Dinero) obj;
 
+        if (this.preciso == null && other.preciso == null) {
+            return this.unidades == other.unidades && this.moneda == other.moneda;
+        }
+
         //Compara montos con escala de moneda y misma moneda
         return this.getMontoConEscalaMoneda().equals(other.getMontoConEscalaMoneda()) &&
                 this.moneda == other.moneda;
@@ -100,9 +160,20 @@ public class Dinero {
         return new Dinero(montoBigDecimal, moneda);
     }
 
-    // Cero moneda específica
+    // Desde unidades menores (centavos): sin BigDecimal
+    public static Dinero deUnidades(long unidades, Moneda moneda) {
+        if (moneda == null)
+            throw new IllegalArgumentException("La moneda no puede ser nula");
+        if (unidades < 0)
+            throw new IllegalArgumentException("El monto no puede ser negativo " + unidades);
+        return unidades == 0 ? CEROS[moneda.ordinal()] : new Dinero(unidades, moneda);
+    }
+
+    // Cero moneda específica (instancia compartida)
     public static Dinero nuevoCero(Moneda moneda) {
-        return new Dinero(BigDecimal.ZERO, moneda);
+        if (moneda == null)
+            throw new IllegalArgumentException("La moneda no puede ser nula");
+        return CEROS[moneda.ordinal()];
     }
 
 
@@ -118,7 +189,15 @@ public class Dinero {
             throw new IllegalArgumentException(
                     "Moneda no compatible");
 
-        BigDecimal resultado = this.monto.add(otro.monto);
+        if (this.preciso == null && otro.preciso == null) {
+            long suma = this.unidades + otro.unidades;
+            // desborde: dos montos positivos que dan negativo
+            if (suma >= 0) {
+                return new Dinero(suma, this.moneda);
+            }
+        }
+
+        BigDecimal resultado = this.getMonto().add(otro.getMonto());
         return new Dinero(resultado, this.moneda);
     }
 
@@ -128,9 +207,16 @@ public class Dinero {
             throw new IllegalArgumentException(
                     "Moneda no compatible");
 
-        BigDecimal resultado = this.monto.subtract(otro.monto);
+        if (this.preciso == null && otro.preciso == null) {
+            long diferencia = this.unidades - otro.unidades; // ambos >= 0: no puede desbordar
+            if (diferencia >= 0) {
+                return diferencia == 0 ? CEROS[moneda.ordinal()] : new Dinero(diferencia, this.moneda);
+            }
+        }
+
+        BigDecimal resultado = this.getMonto().subtract(otro.getMonto());
         // Devuelve un numero entero y lo comparamos con 0
-        if (resultado.compareTo(BigDecimal.ZERO) < 0)
+        if (resultado.signum() < 0)
             throw new IllegalStateException(
                     "Fondos insuficientes:" + this + "-" + otro + "=" + resultado);
 
@@ -144,7 +230,7 @@ public class Dinero {
                     "El multiplicador no puede ser negativo: " + multiplicador);
         }
 
-        BigDecimal resultado = this.monto.multiply(multiplicador);
+        BigDecimal resultado = this.getMonto().multiply(multiplicador);
         return new Dinero(resultado, this.moneda);
     }
 
@@ -161,7 +247,7 @@ public class Dinero {
         }
 
         // OPERACIÓN CON ESCALA Y REDONDEO
-        BigDecimal resultado = this.monto.divide(divisor, ESCALA_CALCULO, REDONDEO);
+        BigDecimal resultado = this.getMonto().divide(divisor, ESCALA_CALCULO, REDONDEO);
         return new Dinero(resultado, this.moneda);
     }
 
@@ -183,32 +269,37 @@ public class Dinero {
         }
     }
 
-    public boolean esMayorQue(Dinero otro) {
+    // <0, 0 o >0 como compareTo, sin BigDecimal si los dos son exactos
+    private int comparar(Dinero otro) {
         validarMismasMoneda(otro);
-        return this.monto.compareTo(otro.monto) > 0;
+        if (this.preciso == null && otro.preciso == null) {
+            return Long.compare(this.unidades, otro.unidades);
+        }
+        return this.getMonto().compareTo(otro.getMonto());
+    }
+
+    public boolean esMayorQue(Dinero otro) {
+        return comparar(otro) > 0;
     }
 
     public boolean esMayorOIgualQue(Dinero otro) {
-        validarMismasMoneda(otro);
-        return this.monto.compareTo(otro.monto) >= 0;
+        return comparar(otro) >= 0;
     }
 
     public boolean esMenorQue(Dinero otro) {
-        validarMismasMoneda(otro);
-        return this.monto.compareTo(otro.monto) < 0;
+        return comparar(otro) < 0;
     }
 
     public boolean esMenorOIgualQue(Dinero otro) {
-        validarMismasMoneda(otro);
-        return this.monto.compareTo(otro.monto) <= 0;
+        return comparar(otro) <= 0;
     }
 
     public boolean esCero() {
-        return this.monto.compareTo(BigDecimal.ZERO) == 0;
+        return preciso == null ? unidades == 0 : preciso.signum() == 0;
     }
 
     public boolean esPositivo() {
-        return this.monto.compareTo(BigDecimal.ZERO) > 0;
+        return preciso == null ? unidades > 0 : preciso.signum() > 0;
     }
 
 
@@ -239,7 +330,7 @@ public class Dinero {
         }
         
         // CÁLCULO DE CONVERSIÓN
-        BigDecimal montoConvertido = this.monto.multiply(tasa.getTasa());
+        BigDecimal montoConvertido = this.getMonto().multiply(tasa.getTasa());
         
         // REDONDEO SEGÚN MONEDA DESTINO
         Moneda monedaDestino = tasa.getMonedaDestino();
@@ -264,4 +355,23 @@ public class Dinero {
         public boolean necesitaConversion(Moneda otraMoneda) {
         return !this.moneda.esCompatibleCon(otraMoneda);
     }
+
+
+
+
+    // METODOS AUXILIARES
+
+    // El monto en unidades menores si es exacto y entra en un long; si no, NO_EXACTO
+    private static long unidadesExactas(BigDecimal monto, int decimales) {
+
+        BigDecimal enUnidades = monto.movePointRight(decimales);
+
+        if (enUnidades.scale() > 0) {
+            enUnidades = enUnidades.stripTrailingZeros();
+            if (enUnidades.scale() > 0) {
+                return NO_EXACTO; // fraccion de centavo
+            }
+        }
+        return enUnidades.compareTo(MAXIMO_UNIDADES) <= 0 ? enUnidades.longValue() : NO_EXACTO;
+    }
 }
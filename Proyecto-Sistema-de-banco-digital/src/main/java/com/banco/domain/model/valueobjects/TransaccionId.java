@@ -3,23 +3,53 @@ package com.banco.domain.model.valueobjects;
 import java.util.Objects;
 
 // TRANSACCION_ID - Identificador único de transacción
-//  Formato: TXN-2024-0000001 (TXN-AÑO-SECUENCIA)
+//  Formato v1: TXN-2024-0000001 (TXN-AÑO-SECUENCIA de 7 digitos, ids historicos)
+//  Formato v2: TXN-2024-0001234567890123456 (TXN-AÑO-19 digitos, ver GeneradorTransaccionId)
 
 public class TransaccionId {
 
+    private static final String PREFIJO = "TXN-";
+    private static final int LARGO_V1 = "TXN-AAAA-".length() + 7;
+    private static final int LARGO_V2 = "TXN-AAAA-".length() + 19;
+
     private final String valor;
 
     public TransaccionId(String valor){
+        this(valor, true);
+    }
+
+    private TransaccionId(String valor, boolean validar){
 
         String valorValidado = Objects.requireNonNull(valor,"El valor no puede ser nulo");
 
         //Validamos formato
-        if(!valor.matches("^TXN-\\d{4}-\\d{7}$")) throw new IllegalArgumentException(
+        if(validar && !esValido(valor)) throw new IllegalArgumentException(
             "Formato de Id de transaccion incorrecto: " +  valor);
 
             this.valor = valorValidado;
     }
 
+    // SIN VALIDAR - solo para ids que ya se validaron al guardarlos (columna transaccion_id)
+    public static TransaccionId rehidratar(String valor){
+        return new TransaccionId(valor, false);
+    }
+
+    // VALIDAR SIN CREAR INSTANCIA - equivale a ^TXN-\d{4}-(\d{7}|\d{19})$ pero sin regex ni objetos
+    public static boolean esValido(String valor){
+
+        if(valor == null) return false;
+
+        int largo = valor.length();
+        if((largo != LARGO_V1 && largo != LARGO_V2) || !valor.startsWith(PREFIJO) || valor.charAt(8) != '-') return false;
+
+        for(int i = PREFIJO.length(); i < largo; i++){
+            if(i == 8) continue; // guion despues del año
+            char c = valor.charAt(i);
+            if(c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+
 
     public String getValor() {
         return valor;
@@ -0,0 +1,186 @@
+package com.banco.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+
+
+
+// CACHE EN MEMORIA, ACOTADO Y CON VENCIMIENTO
+// - capacidad maxima: al superarla se desaloja la entrada usada hace mas tiempo (LRU)
+// - ttl: una entrada vieja cuenta como ausente y se vuelve a cargar
+// - contadores de aciertos, fallos y desalojos para medir si el cache sirve
+// LinkedHashMap en orden de acceso protegido por un lock: cada lectura reordena la lista.
+// La carga desde el origen (BD) se hace FUERA del lock para no frenar a los demas hilos.
+// Cada clave tiene una version (por franjas, memoria fija): invalidar la sube y un valor cargado
+// con una version anterior no se guarda. Invalidar una clave no descarta las cargas de las demas.
+
+public class CacheLocal<K, V> {
+
+
+    private final int capacidad;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private final AtomicLong aciertos = new AtomicLong();
+    private final AtomicLong fallos = new AtomicLong();
+    private final AtomicLong desalojos = new AtomicLong();
+
+    // VERSION POR CLAVE: sube con cada invalidacion; un valor cargado antes de invalidar no se guarda (seria el dato viejo)
+    // Claves distintas pueden compartir franja: en ese caso solo se pierde el guardado, nunca se guarda un dato viejo
+    private static final int FRANJAS = 1024;
+    private final long[] versiones = new long[FRANJAS];
+
+
+    public CacheLocal(int capacidad, Duration ttl) {
+        this(capacidad, ttl, System::nanoTime);
+    }
+
+    // el reloj se inyecta para poder probar el vencimiento sin esperar
+    public CacheLocal(int capacidad, Duration ttl, LongSupplier reloj) {
+
+        if(capacidad <= 0) throw new IllegalArgumentException("La capacidad del cache debe ser mayor a cero");
+        if(ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("El ttl del cache debe ser positivo");
+
+        this.capacidad = capacidad;
+        this.ttlNanos = ttl.toNanos();
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+
+
+    // Devuelve el valor vigente o lo carga con el cargador y lo guarda
+    public V obtener(K clave, Function<K, V> cargador){
+
+        Optional<V> enCache = buscar(clave);
+        if(enCache.isPresent()) return enCache.get();
+
+        long versionAlCargar = version(clave);
+
+        V valor = cargador.apply(clave);
+
+        if(valor != null) guardarSiVersion(clave, valor, versionAlCargar);
+        return valor;
+    }
+
+
+    // VERSION ACTUAL DE LA CLAVE: para quien carga por su cuenta (buscar -> BD -> guardarSiVersion)
+    public long version(K clave){
+        synchronized (entradas) {
+            return versiones[franja(clave)];
+        }
+    }
+
+    // Guarda solo si la clave no se invalido desde que se leyo su version; false = se descarto el valor
+    public boolean guardarSiVersion(K clave, V valor, long versionAlCargar){
+
+        synchronized (entradas) {
+            if(versiones[franja(clave)] != versionAlCargar) return false;
+            guardar(clave, valor);
+            return true;
+        }
+    }
+
+
+    public Optional<V> buscar(K clave){
+
+        long ahora = reloj.getAsLong();
+
+        synchronized (entradas) {
+
+            Entrada<V> entrada = entradas.get(clave);
+
+            if(entrada != null && !entrada.vencida(ahora)){
+                aciertos.incrementAndGet();
+                return Optional.of(entrada.valor());
+            }
+
+            if(entrada != null){
+                entradas.remove(clave);
+                desalojos.incrementAndGet();
+            }
+        }
+
+        fallos.incrementAndGet();
+        return Optional.empty();
+    }
+
+
+    public void guardar(K clave, V valor){
+
+        long vence = reloj.getAsLong() + ttlNanos;
+
+        synchronized (entradas) {
+
+            entradas.put(clave, new Entrada<>(valor, vence));
+
+            // la primera del recorrido es la menos usada
+            Iterator<Map.Entry<K, Entrada<V>>> recorrido = entradas.entrySet().iterator();
+            while(entradas.size() > capacidad && recorrido.hasNext()){
+                recorrido.next();
+                recorrido.remove();
+                desalojos.incrementAndGet();
+            }
+        }
+    }
+
+
+    public void invalidar(K clave){
+        synchronized (entradas) {
+            versiones[franja(clave)]++;
+            entradas.remove(clave);
+        }
+    }
+
+    public void invalidarTodo(){
+        synchronized (entradas) {
+            for(int i = 0; i < FRANJAS; i++) versiones[i]++;
+            entradas.clear();
+        }
+    }
+
+
+    public Estadisticas estadisticas(){
+
+        int tamanio;
+        synchronized (entradas) {
+            tamanio = entradas.size();
+        }
+        return new Estadisticas(aciertos.get(), fallos.get(), desalojos.get(), tamanio);
+    }
+
+
+
+
+    // AUXILIARES
+
+    private static int franja(Object clave){
+        int hash = clave == null ? 0 : clave.hashCode();
+        return (hash ^ (hash >>> 16)) & (FRANJAS - 1);
+    }
+
+    private record Entrada<V>(V valor, long venceEn) {
+
+        boolean vencida(long ahora){
+            return ahora - venceEn >= 0;
+        }
+    }
+
+
+    public record Estadisticas(long aciertos, long fallos, long desalojos, int tamanio) {
+
+        public double tasaDeAciertos(){
+            long consultas = aciertos + fallos;
+            return consultas == 0 ? 0.0 : (double) aciertos / consultas;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.banco.infrastructure.cache;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.application.port.out.CuentaRepository;
+import com.banco.domain.model.entities.Cuenta;
+import com.banco.domain.model.valueobjects.ClienteId;
+import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Dinero;
+import com.banco.domain.model.valueobjects.Moneda;
+import com.banco.infrastructure.metricas.RegistroMetricas;
+import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+
+
+
+
+// CACHE DE LECTURA DE CUENTAS delante de CuentaRepositoryJpa (decorador del puerto CuentaRepository).
+// La consulta de saldo se pide muchas mas veces que las escrituras: se guarda una foto de la cuenta por numero.
+// - Solo responde desde el cache dentro de transacciones de solo lectura (consulta de saldo y de movimientos).
+//   Quien va a modificar la cuenta la lee de la BD: una foto vieja pisaria el saldo al guardar.
+// - Cada escritura invalida la cuenta al escribir y otra vez al terminar su transaccion: una lectura que cargo
+//   el saldo anterior al commit no queda guardada (CacheLocal descarta valores de una version anterior).
+// - Se guarda una foto inmutable y cada lectura arma una Cuenta nueva: quien la modifique no toca el cache.
+// - banco.cache-cuentas.habilitado=false lo apaga (todo va directo a la BD) para comparar con y sin cache.
+// Garantia solo para este nodo: otra instancia que escriba la misma cuenta no invalida este cache (lo acota el ttl).
+//   banco_cache_cuentas_consultas{resultado="acierto|fallo"}, banco_cache_cuentas_tasa_aciertos, banco_cache_cuentas_entradas, banco_cache_cuentas_desalojos
+
+@Repository
+@Primary
+public class CuentaRepositoryCache implements CuentaRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CuentaRepositoryCache.class);
+
+    static final String CONSULTAS = "banco_cache_cuentas_consultas";
+    static final String TASA = "banco_cache_cuentas_tasa_aciertos";
+    static final String ENTRADAS = "banco_cache_cuentas_entradas";
+    static final String DESALOJOS = "banco_cache_cuentas_desalojos";
+
+
+    private final CuentaRepository cuentaRepository;
+    private final CacheLocal<String, FotoCuenta> cacheCuentas;
+    private final boolean habilitado;
+
+
+    @Autowired
+    public CuentaRepositoryCache(CuentaRepositoryJpa cuentaRepositoryJpa, RegistroMetricas registro,
+        @Value("${banco.cache-cuentas.habilitado:true}") boolean habilitado,
+        @Value("${banco.cache-cuentas.capacidad:50000}") int capacidad,
+        @Value("${banco.cache-cuentas.ttl:PT1M}") Duration ttl) {
+
+        this(cuentaRepositoryJpa, new CacheLocal<>(capacidad, ttl), habilitado);
+        registrarMetricas(registro);
+        log.info("Cache de cuentas {} (capacidad {}, ttl {})", habilitado ? "habilitado" : "deshabilitado", capacidad, ttl);
+    }
+
+    // para los tests: cualquier CuentaRepository y un cache con reloj propio
+    CuentaRepositoryCache(CuentaRepository cuentaRepository, CacheLocal<String, FotoCuenta> cacheCuentas, boolean habilitado) {
+        this.cuentaRepository = cuentaRepository;
+        this.cacheCuentas = cacheCuentas;
+        this.habilitado = habilitado;
+    }
+
+
+
+    // LECTURAS
+
+    @Override
+    public Optional<Cuenta> buscarPorId(CuentaId cuentaId){
+
+        if(!habilitado || cuentaId == null || !lecturaSinEscritura()) return cuentaRepository.buscarPorId(cuentaId);
+
+        String numeroCuenta = cuentaId.getValor();
+
+        Optional<FotoCuenta> enCache = cacheCuentas.buscar(numeroCuenta);
+        if(enCache.isPresent()) return Optional.of(enCache.get().aCuenta());
+
+        // la version se toma ANTES de leer la BD: si una escritura termina en el medio, la foto no se guarda
+        long version = cacheCuentas.version(numeroCuenta);
+        Optional<Cuenta> cuenta = cuentaRepository.buscarPorId(cuentaId);
+
+        cuenta.ifPresent(c -> cacheCuentas.guardarSiVersion(numeroCuenta, FotoCuenta.de(c), version));
+        return cuenta;
+    }
+
+    // para modificar: siempre de la BD, con la estrategia de bloqueo del adaptador
+    @Override
+    public Optional<Cuenta> buscarPorIdParaActualizar(CuentaId cuentaId){
+        return cuentaRepository.buscarPorIdParaActualizar(cuentaId);
+    }
+
+    @Override
+    public List<Cuenta> buscarPorIdsParaActualizar(Collection<CuentaId> cuentaIds){
+        return cuentaRepository.buscarPorIdsParaActualizar(cuentaIds);
+    }
+
+    @Override
+    public List<Cuenta> buscarPorCliente(ClienteId clienteId){
+        return cuentaRepository.buscarPorCliente(clienteId);
+    }
+
+    @Override
+    public boolean existeCuentaConNumero(String numeroCuenta){
+        return cuentaRepository.existeCuentaConNumero(numeroCuenta);
+    }
+
+
+
+    // ESCRITURAS: delegan y despues invalidan
+
+    @Override
+    public void guardar(Cuenta cuenta){
+        cuentaRepository.guardar(cuenta);
+        if(cuenta != null) invalidar(cuenta.getCuentaId());
+    }
+
+    @Override
+    public void actualizar(Cuenta cuenta){
+        cuentaRepository.actualizar(cuenta);
+        if(cuenta != null) invalidar(cuenta.getCuentaId());
+    }
+
+    @Override
+    public void actualizarTodos(Collection<Cuenta> cuentas){
+
+        cuentaRepository.actualizarTodos(cuentas);
+        if(cuentas != null) cuentas.forEach(cuenta -> invalidar(cuenta.getCuentaId()));
+    }
+
+    @Override
+    public boolean aplicarDelta(CuentaId cuentaId, BigDecimal delta, Moneda moneda){
+
+        boolean aplicado = cuentaRepository.aplicarDelta(cuentaId, delta, moneda);
+        if(aplicado) invalidar(cuentaId);
+        return aplicado;
+    }
+
+
+    public CacheLocal.Estadisticas estadisticasCache(){
+        return cacheCuentas.estadisticas();
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    // sin transaccion cada llamada al adaptador confirma sola; con transaccion solo si es de solo lectura
+    private static boolean lecturaSinEscritura(){
+
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+            || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    // Ahora (las lecturas de otros hilos dejan de ver la foto) y al terminar la transaccion: hasta el commit
+    // otro hilo puede volver a guardar el saldo anterior, que recien ahi deja de ser el ultimo confirmado
+    private void invalidar(CuentaId cuentaId){
+
+        if(!habilitado || cuentaId == null) return;
+
+        String numeroCuenta = cuentaId.getValor();
+        cacheCuentas.invalidar(numeroCuenta);
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cacheCuentas.invalidar(numeroCuenta);
+                }
+            });
+        }
+    }
+
+    private void registrarMetricas(RegistroMetricas registro){
+
+        String ayuda = "Lecturas de cuentas resueltas por el cache";
+        registro.medidor(CONSULTAS, ayuda, () -> cacheCuentas.estadisticas().aciertos(), "resultado", "acierto");
+        registro.medidor(CONSULTAS, ayuda, () -> cacheCuentas.estadisticas().fallos(), "resultado", "fallo");
+        registro.medidor(TASA, "Proporcion de lecturas de cuentas resueltas por el cache", () -> cacheCuentas.estadisticas().tasaDeAciertos());
+        registro.medidor(ENTRADAS, "Cuentas guardadas en el cache", () -> cacheCuentas.estadisticas().tamanio());
+        registro.medidor(DESALOJOS, "Cuentas sacadas del cache por capacidad o vencimiento", () -> cacheCuentas.estadisticas().desalojos());
+    }
+
+
+    // FOTO INMUTABLE de la cuenta (los value objects ya lo son); Cuenta no, por eso se arma una por lectura
+    record FotoCuenta(CuentaId cuentaId, ClienteId clienteId, Moneda moneda, Dinero saldo, boolean activa) {
+
+        static FotoCuenta de(Cuenta cuenta){
+            return new FotoCuenta(cuenta.getCuentaId(), cuenta.getClienteId(), cuenta.getMoneda(), cuenta.getSaldo(), cuenta.getActiva());
+        }
+
+        Cuenta aCuenta(){
+            return new Cuenta(cuentaId, clienteId, moneda, saldo, activa);
+        }
+    }
+}
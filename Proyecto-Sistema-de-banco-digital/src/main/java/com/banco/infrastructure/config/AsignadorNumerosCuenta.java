@@ -0,0 +1,114 @@
+package com.banco.infrastructure.config;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.banco.application.port.out.SecuenciaCuentaRepository;
+import com.banco.domain.model.valueobjects.CuentaId;
+
+
+
+
+// Entrega el numero secuencial (11 digitos) de cada cuenta nueva, por sucursal. Esquema hi/lo:
+// - hi: un bloque de banco.cuentas.bloque-secuencia numeros reservado en la base (una escritura por bloque).
+// - lo: dentro del bloque los numeros salen de un AtomicLong, sin ir a la base ni bloquear.
+// Varias instancias reservan bloques distintos, asi que el numero nunca se repite y no hace falta
+// preguntar existeCuentaConNumero ni reintentar. Lo que queda sin usar de un bloque al reiniciar se pierde.
+// La reserva va a la base con una transaccion propia (REQUIRES_NEW): llamar a siguiente() FUERA de una
+// transaccion (como AperturaCuentaService). Dentro de una, cada reserva toma una segunda conexion del pool
+// mientras la primera sigue tomada, y con el pool lleno de aperturas esperando la reserva nadie la consigue.
+
+@Component
+public class AsignadorNumerosCuenta {
+
+
+    private final SecuenciaCuentaRepository secuenciaCuentaRepository;
+    private final int tamanioBloque;
+
+    // secuencia de cada sucursal (se crea una vez, sin ir a la base)
+    private final ConcurrentMap<Integer, Secuencia> secuencias = new ConcurrentHashMap<>();
+
+
+    public AsignadorNumerosCuenta(SecuenciaCuentaRepository secuenciaCuentaRepository,
+            @Value("${banco.cuentas.bloque-secuencia:100}") int tamanioBloque) {
+
+        if (tamanioBloque <= 0) throw new IllegalArgumentException(
+            "El bloque de secuencia de cuentas debe ser positivo: " + tamanioBloque);
+
+        this.secuenciaCuentaRepository = secuenciaCuentaRepository;
+        this.tamanioBloque = tamanioBloque;
+    }
+
+
+
+    public long siguiente(int sucursal) {
+
+        Secuencia secuencia = secuencias.computeIfAbsent(sucursal, clave -> new Secuencia());
+
+        while (true) {
+
+            Bloque bloque = secuencia.bloque;
+
+            if (bloque != null) {
+                long numero = bloque.proximo.getAndIncrement();
+                if (numero < bloque.fin) return numero;
+            }
+
+            // agotado (o primera vez): solo un hilo por sucursal va a la base y los de ESA sucursal esperan
+            // el bloque nuevo. Fuera del ConcurrentHashMap: la reserva no traba a las otras sucursales.
+            // ReentrantLock y no synchronized: un hilo virtual esperando la base no fija su hilo de plataforma
+            secuencia.reservando.lock();
+            try {
+                if (secuencia.bloque == bloque) secuencia.bloque = reservar(sucursal);
+            } finally {
+                secuencia.reservando.unlock();
+            }
+        }
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    private Bloque reservar(int sucursal) {
+
+        long primero;
+        try {
+            primero = secuenciaCuentaRepository.reservarBloque(sucursal, tamanioBloque);
+        } catch (DataIntegrityViolationException e) {
+            // otra instancia creo la fila de la sucursal al mismo tiempo: ahora el UPDATE la encuentra
+            primero = secuenciaCuentaRepository.reservarBloque(sucursal, tamanioBloque);
+        }
+
+        if (primero + tamanioBloque - 1 > CuentaId.SECUENCIA_MAXIMA) throw new IllegalStateException(
+            "La sucursal " + sucursal + " agoto los numeros de cuenta");
+
+        return new Bloque(primero, primero + tamanioBloque);
+    }
+
+
+    private static final class Secuencia {
+
+        private final ReentrantLock reservando = new ReentrantLock();
+        private volatile Bloque bloque;
+    }
+
+
+    private static final class Bloque {
+
+        private final AtomicLong proximo;
+        private final long fin; // exclusivo
+
+        Bloque(long primero, long fin) {
+            this.proximo = new AtomicLong(primero);
+            this.fin = fin;
+        }
+    }
+}
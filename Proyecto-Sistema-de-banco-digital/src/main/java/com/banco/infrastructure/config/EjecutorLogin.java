@@ -0,0 +1,71 @@
+package com.banco.infrastructure.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+
+
+
+
+// Pool PROPIO para los logins: comparar la contraseña (bcrypt) es caro a proposito.
+// Corriendo en los hilos de Tomcat, una rafaga de logins ocupa todos los workers y frena
+// las demas consultas (saldos, movimientos). Aca los logins compiten solo entre ellos:
+// - cantidad fija de hilos y cola ACOTADA
+// - con la cola llena se rechaza enseguida (RejectedExecutionException -> 429) en vez de acumular espera
+
+@Component
+public class EjecutorLogin {
+
+
+    private final ThreadPoolExecutor pool;
+
+
+    public EjecutorLogin(
+        @Value("${banco.seguridad.login.hilos:0}") int hilos,
+        @Value("${banco.seguridad.login.cola:200}") int cola) {
+
+        // 0 = uno por procesador: el trabajo de bcrypt es solo CPU
+        int cantidadHilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger numero = new AtomicInteger();
+
+        this.pool = new ThreadPoolExecutor(cantidadHilos, cantidadHilos, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(cola),
+            tarea -> {
+                Thread hilo = new Thread(tarea, "login-" + numero.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+
+
+    // Devuelve enseguida; el resultado (o la excepcion del login) llega por el CompletableFuture
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> operacion){
+
+        try {
+            return CompletableFuture.supplyAsync(operacion, pool);
+
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("Demasiados intentos de login en curso, reintente en unos segundos", e);
+        }
+    }
+
+
+    public int enCola() { return pool.getQueue().size(); }
+
+
+    @PreDestroy
+    public void cerrar(){
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,73 @@
+package com.banco.infrastructure.config;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+
+
+// Ejecuta una operacion dentro de su propia transaccion y la REINTENTA cuando falla por concurrencia:
+// - version desactualizada (bloqueo optimista)
+// - timeout esperando un bloqueo o deadlock (bloqueo pesimista)
+// El reintento tiene que envolver la transaccion completa: el conflicto optimista recien aparece en el commit.
+
+@Component
+public class EjecutorTransaccional {
+
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Cantidad maxima de intentos antes de rendirse
+    @Value("${banco.concurrencia.reintentos:5}")
+    private int maxIntentos = 5;
+
+
+    public EjecutorTransaccional(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+
+    public <T> T ejecutar(Supplier<T> operacion){
+
+        int intento = 1;
+
+        while (true) {
+
+            try {
+
+                return transactionTemplate.execute(status -> operacion.get());
+
+            } catch (ConcurrencyFailureException e) {
+
+                if(intento >= maxIntentos) throw e;
+
+                esperarAntesDeReintentar(intento);
+                intento++;
+            }
+        }
+    }
+
+
+    // Backoff exponencial con jitter: los hilos en conflicto no vuelven a chocar al mismo tiempo
+    private void esperarAntesDeReintentar(int intento){
+
+        long esperaMaxima = Math.min(50L, 1L << intento);
+
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(esperaMaxima + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reintento interrumpido", e);
+        }
+    }
+
+
+    public int getMaxIntentos() { return maxIntentos; }
+    public void setMaxIntentos(int maxIntentos) { this.maxIntentos = maxIntentos; }
+}
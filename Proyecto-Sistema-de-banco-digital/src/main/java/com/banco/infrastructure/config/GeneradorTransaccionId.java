@@ -0,0 +1,128 @@
+package com.banco.infrastructure.config;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.banco.domain.model.valueobjects.TransaccionId;
+
+
+
+
+// Genera los ids de transaccion de todos los servicios: TXN-AAAA-<19 digitos> (formato v2 de TransaccionId).
+// Los 19 digitos son un numero de 63 bits al estilo Snowflake:
+//   41 bits milisegundos desde EPOCA | 10 bits nodo (banco.transacciones.nodo) | 12 bits secuencia
+// - Sin locks: el estado (milisegundo + secuencia) es un AtomicLong que se avanza con CAS.
+// - Si en un milisegundo se piden mas de 4096 ids, la secuencia "desborda" al milisegundo siguiente:
+//   nunca se espera ni se repite; el reloj del id se adelanta un poco y el real lo alcanza despues.
+// - Si el reloj del sistema vuelve atras se sigue desde el ultimo estado (los ids siguen creciendo).
+// Con varias instancias cada una necesita un nodo distinto.
+
+@Component
+public class GeneradorTransaccionId {
+
+
+    static final long EPOCA = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int BITS_NODO = 10;
+    static final int BITS_SECUENCIA = 12;
+    static final int NODO_MAXIMO = (1 << BITS_NODO) - 1;
+
+    private static final int DIGITOS = 19;
+    private static final int LARGO_ID = "TXN-AAAA-".length() + DIGITOS;
+    private static final ZoneId ZONA = ZoneId.systemDefault();
+
+
+    private final long nodo;
+    private final LongSupplier reloj;
+
+    // (milisegundos desde EPOCA << BITS_SECUENCIA) | secuencia del ultimo id entregado
+    private final AtomicLong estado = new AtomicLong();
+
+    // prefijo "TXN-AAAA-" del año en curso: se recalcula solo al cambiar de año
+    private volatile Anio anio = new Anio(Long.MAX_VALUE, Long.MIN_VALUE, null);
+
+
+    @Autowired
+    public GeneradorTransaccionId(@Value("${banco.transacciones.nodo:0}") int nodo) {
+        this(nodo, System::currentTimeMillis);
+    }
+
+    GeneradorTransaccionId(int nodo, LongSupplier reloj) {
+
+        if (nodo < 0 || nodo > NODO_MAXIMO) throw new IllegalArgumentException(
+            "El nodo del generador de ids debe estar entre 0 y " + NODO_MAXIMO + ": " + nodo);
+
+        this.nodo = nodo;
+        this.reloj = reloj;
+    }
+
+
+
+    public TransaccionId siguiente() {
+        return new TransaccionId(formatear(siguienteValor()));
+    }
+
+    // el numero de 63 bits, sin armar el texto
+    long siguienteValor() {
+
+        long actual;
+        long siguiente;
+
+        do {
+            actual = estado.get();
+            long ahora = (reloj.getAsLong() - EPOCA) << BITS_SECUENCIA;
+            siguiente = ahora > actual ? ahora : actual + 1; // mismo milisegundo (o reloj atrasado): secuencia + 1
+        } while (!estado.compareAndSet(actual, siguiente));
+
+        long milis = siguiente >>> BITS_SECUENCIA;
+        long secuencia = siguiente & ((1L << BITS_SECUENCIA) - 1);
+
+        return (milis << (BITS_NODO + BITS_SECUENCIA)) | (nodo << BITS_SECUENCIA) | secuencia;
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    String formatear(long valor) {
+
+        long milis = (valor >>> (BITS_NODO + BITS_SECUENCIA)) + EPOCA;
+
+        Anio vigente = anio;
+        if (milis < vigente.desde() || milis >= vigente.hasta()) {
+            vigente = Anio.de(milis);
+            anio = vigente;
+        }
+
+        char[] id = new char[LARGO_ID];
+        vigente.prefijo().getChars(0, vigente.prefijo().length(), id, 0);
+
+        for (int i = LARGO_ID - 1; i >= LARGO_ID - DIGITOS; i--) {
+            id[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+
+        return new String(id);
+    }
+
+
+    private record Anio(long desde, long hasta, String prefijo) {
+
+        static Anio de(long milis) {
+
+            int valor = Instant.ofEpochMilli(milis).atZone(ZONA).getYear();
+
+            return new Anio(
+                LocalDate.of(valor, 1, 1).atStartOfDay(ZONA).toInstant().toEpochMilli(),
+                LocalDate.of(valor + 1, 1, 1).atStartOfDay(ZONA).toInstant().toEpochMilli(),
+                "TXN-" + valor + "-");
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package com.banco.infrastructure.config;
 
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import com.banco.infrastructure.persistence.migraciones.MigradorEsquema;
+import com.zaxxer.hikari.HikariDataSource;
+
 
 
 
@@ -23,4 +34,71 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 // @EnableTransactionManagement: Habilita transacciones automáticas
 @EnableTransactionManagement
-public class PersistenceConfig{}
\ No newline at end of file
+
+// @EnableScheduling: tareas periodicas de mantenimiento (particiones de transacciones)
+@EnableScheduling
+public class PersistenceConfig{
+
+
+    // MIGRACIONES: el esquema lo crean los scripts versionados de db/migracion/<proveedor>/
+    // Corre antes que el EntityManagerFactory para que Hibernate arranque con las tablas ya creadas
+    @Bean
+    public MigradorEsquema migradorEsquema(DataSource dataSource,
+        @Value("${banco.migraciones.ubicacion:classpath*:db/migracion}") String ubicacion,
+        @Value("${banco.migraciones.habilitadas:true}") boolean habilitadas){
+
+        return new MigradorEsquema(dataSource, ubicacion, habilitadas);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor entityManagerFactoryDespuesDeMigrar(){
+        return new EntityManagerFactoryDependsOnPostProcessor("migradorEsquema");
+    }
+
+    // Si las migraciones manejan el esquema, Hibernate no lo toca (create-drop/update romperian la tabla particionada)
+    @Bean
+    public HibernatePropertiesCustomizer esquemaPorMigraciones(MigradorEsquema migradorEsquema){
+
+        return propiedades -> {
+            if(migradorEsquema.isEsquemaGestionado()){
+                propiedades.put("hibernate.hbm2ddl.auto", "none");
+            }
+        };
+    }
+
+
+    // ESCRITURA POR LOTES
+    // Hibernate junta los INSERT/UPDATE del mismo tipo y los manda en un solo viaje a la BD (JDBC batch).
+    // order_inserts/order_updates agrupan por entidad para que los lotes no se corten al intercalar tablas
+    @Bean
+    public HibernatePropertiesCustomizer escrituraPorLotes(
+        @Value("${banco.persistencia.batch-size:50}") int batchSize){
+
+        return propiedades -> {
+            propiedades.putIfAbsent("hibernate.jdbc.batch_size", batchSize);
+            propiedades.putIfAbsent("hibernate.order_inserts", true);
+            propiedades.putIfAbsent("hibernate.order_updates", true);
+        };
+    }
+
+
+    // POSTGRESQL: el driver reescribe un lote de INSERT en un unico INSERT ... VALUES (...), (...)
+    // Sin esto el lote viaja junto pero PostgreSQL igual ejecuta una sentencia por fila
+    @Bean
+    public static BeanPostProcessor insercionesReescritasPostgres(){
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+
+                if(bean instanceof HikariDataSource dataSource
+                    && dataSource.getJdbcUrl() != null
+                    && dataSource.getJdbcUrl().startsWith("jdbc:postgresql:")){
+
+                    dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.banco.infrastructure.controllers;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -30,12 +32,22 @@ public class AuthController {
     }
 
     
+    // asincrono: el hilo de Tomcat queda libre mientras el pool de logins compara la contraseña
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
-        
-        AuthResponse response = authService.login(request);
+    public CompletableFuture<ResponseEntity<AuthResponse>> login(@Valid @RequestBody LoginRequest request) {
         
-        return ResponseEntity.ok(response);
+        return authService.login(request)
+            .thenApply(ResponseEntity::ok);
+    }
+
+
+    // revoca los tokens del usuario del header Authorization
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout() {
+
+        String mensaje = authService.logout();
+
+        return ResponseEntity.ok(mensaje);
     }
 
 
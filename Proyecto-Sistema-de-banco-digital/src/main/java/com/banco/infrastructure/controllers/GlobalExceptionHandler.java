@@ -1,6 +1,9 @@
 package com.banco.infrastructure.controllers;
 
+import java.util.concurrent.RejectedExecutionException;
+
 import org.apache.catalina.connector.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -82,6 +85,20 @@ public class GlobalExceptionHandler {
 
 
 
+     // 429 - TOO MANY REQUESTS (el pool de logins esta saturado)
+     @ExceptionHandler(RejectedExecutionException.class)
+     public ResponseEntity<ErrorResponseDTO> handlerSaturado(RejectedExecutionException e){
+
+        String mensaje = e.getMessage();
+
+        return ResponseEntity
+               .status(HttpStatus.TOO_MANY_REQUESTS)
+               .header(HttpHeaders.RETRY_AFTER, "1")
+               .body(new ErrorResponseDTO("DEMASIADAS_SOLICITUDES", mensaje));
+     }
+
+
+
      // 500 - INTERNAL SERVER ERROR (para cualquier otra excepción)
      @ExceptionHandler(Exception.class)
      public ResponseEntity<ErrorResponseDTO>handlerGeneric(Exception e){
@@ -0,0 +1,36 @@
+package com.banco.infrastructure.controllers;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.banco.infrastructure.metricas.RegistroMetricas;
+
+
+
+
+// Endpoint que lee Prometheus (scrape). Usa la misma ruta que Actuator para que la configuracion
+// de Prometheus no cambie si mas adelante se agrega Actuator + Micrometer.
+
+@RestController
+public class MetricasController {
+
+
+    private static final String TIPO_PROMETHEUS = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final RegistroMetricas registroMetricas;
+
+
+    public MetricasController(RegistroMetricas registroMetricas) {
+        this.registroMetricas = registroMetricas;
+    }
+
+
+    @GetMapping("/actuator/prometheus")
+    public ResponseEntity<String> prometheus(){
+
+        return ResponseEntity.ok()
+            .header("Content-Type", TIPO_PROMETHEUS)
+            .body(registroMetricas.formatoPrometheus());
+    }
+}
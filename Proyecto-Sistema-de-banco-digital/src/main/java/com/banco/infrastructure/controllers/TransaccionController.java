@@ -3,9 +3,11 @@ package com.banco.infrastructure.controllers;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.banco.application.dto.MovimientoDTO;
 import com.banco.application.dto.OperacionCuentaRequest;
 import com.banco.application.dto.OperacionCuentaResponse;
+import com.banco.application.dto.PaginaMovimientosResponse;
+import com.banco.application.dto.TransferenciaLoteRequest;
+import com.banco.application.dto.TransferenciaLoteResponse;
 import com.banco.application.dto.TransferenciaRequest;
 import com.banco.application.dto.TransferenciaResponse;
 import com.banco.application.services.TransaccionService;
@@ -13,14 +15,13 @@ import com.banco.application.services.TransaccionService;
 
 import jakarta.validation.Valid;
 
-import java.util.List;
-
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 
 
@@ -47,6 +48,15 @@ public class TransaccionController {
         return ResponseEntity.ok().body(response);
     }
 
+    // LOTE: sueldos, liquidaciones... un solo request HTTP para miles de transferencias
+    @PostMapping("/transferir/lote")
+    public ResponseEntity<TransferenciaLoteResponse> transferirLote(@Valid @RequestBody TransferenciaLoteRequest request){
+
+        TransferenciaLoteResponse response = transaccionService.ejecutarTransferenciasEnLote(request.getTransferencias());
+
+        return ResponseEntity.ok().body(response);
+    }
+
     @PostMapping("/deposito")
     public ResponseEntity<OperacionCuentaResponse> depositar(@Valid @RequestBody OperacionCuentaRequest request){
    
@@ -76,10 +86,12 @@ public class TransaccionController {
     }
 
     @GetMapping("/{cuentaStringId}/movimientos")
-    public ResponseEntity<?> obtenerMovimientos(@PathVariable String cuentaStringId){
+    public ResponseEntity<?> obtenerMovimientos(@PathVariable String cuentaStringId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer tamanio){
 
 
-            List<MovimientoDTO> movimiento = transaccionService.consultarMovimiento(cuentaStringId);
+            PaginaMovimientosResponse movimiento = transaccionService.consultarMovimiento(cuentaStringId, cursor, tamanio);
 
             return ResponseEntity.ok().body(movimiento);
             
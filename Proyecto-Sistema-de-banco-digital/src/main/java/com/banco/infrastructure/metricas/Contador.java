@@ -0,0 +1,28 @@
+package com.banco.infrastructure.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+
+
+// Contador que solo sube (Prometheus calcula la tasa con rate())
+
+public class Contador {
+
+
+    private final LongAdder valor = new LongAdder();
+
+
+    Contador() {
+    }
+
+
+
+    public void incrementar(){
+        valor.increment();
+    }
+
+    public long valor(){
+        return valor.sum();
+    }
+}
@@ -0,0 +1,149 @@
+package com.banco.infrastructure.metricas;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+
+import com.banco.application.dto.TransferenciaLoteResponse;
+import com.banco.application.dto.TransferenciaResponse;
+
+
+
+
+// TIEMPOS DE CADA METODO PUBLICO de los servicios y de los adaptadores *RepositoryJpa, sin tocar su codigo:
+//   banco_servicio_seconds{clase, metodo, excepcion}     (incluye la transaccion de BD que abre el servicio)
+//   banco_repositorio_seconds{clase, metodo, excepcion}  (una serie por consulta del adaptador)
+// Ademas cuenta las transferencias RECHAZADAS por motivo, leyendo la respuesta del servicio:
+//   banco_transferencias_rechazadas_total{motivo}
+// Se ordena por fuera de @Transactional: el tiempo del servicio incluye el commit.
+// Las llamadas internas (this.metodo()) no pasan por el proxy y quedan dentro del tiempo del metodo que las hace.
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class InstrumentacionServicios {
+
+
+    static final String SERVICIO = "banco_servicio_seconds";
+    static final String REPOSITORIO = "banco_repositorio_seconds";
+    static final String RECHAZADAS = "banco_transferencias_rechazadas_total";
+
+    private static final String SIN_EXCEPCION = "none";
+
+
+    private final RegistroMetricas registro;
+
+    // el camino feliz no arma la clave de las etiquetas en cada llamada
+    private final Map<Method, Temporizador> exitosos = new ConcurrentHashMap<>();
+
+
+    public InstrumentacionServicios(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+
+
+
+    @Pointcut("execution(public * com.banco.application.services.TransaccionService.*(..))"
+        + " || execution(public * com.banco.application.services.ConsultaSaldoService.*(..))"
+        + " || execution(public * com.banco.application.services.AperturaCuentaService.*(..))"
+        + " || execution(public * com.banco.application.services.GestionClienteService.*(..))")
+    void servicios() {}
+
+    @Pointcut("execution(public * com.banco.infrastructure.persistence.jpa.*RepositoryJpa.*(..))")
+    void repositorios() {}
+
+
+
+    @Around("servicios()")
+    public Object medirServicio(ProceedingJoinPoint punto) throws Throwable {
+
+        Object resultado = medir(punto, SERVICIO, "Duracion de los metodos publicos de los servicios");
+        contarRechazos(resultado);
+        return resultado;
+    }
+
+    @Around("repositorios()")
+    public Object medirRepositorio(ProceedingJoinPoint punto) throws Throwable {
+        return medir(punto, REPOSITORIO, "Duracion de las consultas de los adaptadores de persistencia");
+    }
+
+
+    // MOTIVO DE RECHAZO: el servicio responde RECHAZADA con el mensaje del dominio; se agrupa en pocos motivos
+    // para que la cantidad de series no dependa del texto (el mensaje incluye montos y numeros de cuenta)
+    static String motivoDeRechazo(String mensaje){
+
+        if(mensaje == null) return "otro";
+        String texto = mensaje.toLowerCase();
+
+        if(texto.contains("saldo insuficiente")) return "fondos_insuficientes";
+        if(texto.contains("no encontrada")) return "cuenta_inexistente";
+        if(texto.contains("inactiva") || texto.contains("cerrada")) return "cuenta_inactiva";
+        if(texto.contains("moneda")) return "moneda";
+        if(texto.contains("otra operacion")) return "concurrencia";
+        if(texto.contains("monto") || texto.contains("misma cuenta") || texto.contains("nula") || texto.contains("nulo")
+            || texto.contains("requieren") || texto.contains("formato") || texto.contains("banco no")) return "validacion";
+        return "otro";
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    private Object medir(ProceedingJoinPoint punto, String nombre, String ayuda) throws Throwable {
+
+        long inicio = System.nanoTime();
+        try {
+
+            Object resultado = punto.proceed();
+            temporizadorExitoso(punto, nombre, ayuda).registrar(System.nanoTime() - inicio);
+            return resultado;
+
+        } catch (Throwable e) {
+
+            MethodSignature firma = (MethodSignature) punto.getSignature();
+            registro.temporizador(nombre, ayuda,
+                "clase", firma.getDeclaringType().getSimpleName(),
+                "metodo", firma.getName(),
+                "excepcion", e.getClass().getSimpleName()).registrar(System.nanoTime() - inicio);
+            throw e;
+        }
+    }
+
+    private Temporizador temporizadorExitoso(ProceedingJoinPoint punto, String nombre, String ayuda){
+
+        MethodSignature firma = (MethodSignature) punto.getSignature();
+
+        return exitosos.computeIfAbsent(firma.getMethod(), metodo -> registro.temporizador(nombre, ayuda,
+            "clase", firma.getDeclaringType().getSimpleName(),
+            "metodo", metodo.getName(),
+            "excepcion", SIN_EXCEPCION));
+    }
+
+    private void contarRechazos(Object resultado){
+
+        if(resultado instanceof TransferenciaResponse respuesta){
+            contarRechazo(respuesta);
+
+        } else if(resultado instanceof TransferenciaLoteResponse lote && lote.getRechazadas() > 0){
+            lote.getResultados().forEach(this::contarRechazo);
+        }
+    }
+
+    private void contarRechazo(TransferenciaResponse respuesta){
+
+        if(!"RECHAZADA".equals(respuesta.getEstado())) return;
+
+        registro.contador(RECHAZADAS, "Transferencias rechazadas por motivo",
+            "motivo", motivoDeRechazo(respuesta.getMensaje())).incrementar();
+    }
+}
@@ -0,0 +1,69 @@
+package com.banco.infrastructure.metricas;
+
+import java.util.function.ToIntFunction;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+
+
+
+// ESTADO DEL POOL DE CONEXIONES (Hikari), leido en cada scrape:
+//   banco_hikari_conexiones{estado="activas|ociosas|totales|pendientes"}  pendientes = hilos esperando conexion
+//   banco_hikari_conexiones_maximas
+// Si pendientes sube y las activas estan en el maximo, las peticiones esperan al pool y no a la BD.
+// Antes de la primera conexion el pool no existe todavia y se exporta NaN.
+
+@Component
+public class MedidoresPoolConexiones {
+
+
+    private static final Logger log = LoggerFactory.getLogger(MedidoresPoolConexiones.class);
+
+    static final String CONEXIONES = "banco_hikari_conexiones";
+    static final String MAXIMAS = "banco_hikari_conexiones_maximas";
+
+
+    public MedidoresPoolConexiones(DataSource dataSource, RegistroMetricas registro) {
+
+        HikariDataSource hikari = hikari(dataSource);
+        if(hikari == null){
+            log.info("El DataSource no es Hikari: no se exportan metricas del pool");
+            return;
+        }
+
+        String ayuda = "Conexiones del pool por estado";
+        registro.medidor(CONEXIONES, ayuda, () -> leer(hikari, HikariPoolMXBean::getActiveConnections), "estado", "activas");
+        registro.medidor(CONEXIONES, ayuda, () -> leer(hikari, HikariPoolMXBean::getIdleConnections), "estado", "ociosas");
+        registro.medidor(CONEXIONES, ayuda, () -> leer(hikari, HikariPoolMXBean::getTotalConnections), "estado", "totales");
+        registro.medidor(CONEXIONES, ayuda, () -> leer(hikari, HikariPoolMXBean::getThreadsAwaitingConnection), "estado", "pendientes");
+        registro.medidor(MAXIMAS, "Tamanio maximo del pool de conexiones", hikari::getMaximumPoolSize);
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    private static HikariDataSource hikari(DataSource dataSource){
+
+        if(dataSource instanceof HikariDataSource hikari) return hikari;
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static double leer(HikariDataSource hikari, ToIntFunction<HikariPoolMXBean> valor){
+
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool == null ? Double.NaN : valor.applyAsInt(pool);
+    }
+}
@@ -0,0 +1,146 @@
+package com.banco.infrastructure.metricas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+
+
+
+// REGISTRO DE METRICAS DE LA APP (temporizadores, contadores y medidores) en formato de texto de Prometheus.
+// - Cada metrica es una familia (nombre + tipo) con una serie por combinacion de etiquetas.
+// - Las etiquetas van de a pares clave/valor: temporizador("banco_servicio_seconds", ayuda, "clase", "X", "metodo", "y")
+// - Registrar es barato y sin locks (LongAdder); el texto se arma solo cuando Prometheus lo pide.
+// Nombres y unidades siguen la convencion de Prometheus: segundos y sufijo _total en los contadores.
+
+@Component
+public class RegistroMetricas {
+
+
+    private final Map<String, Familia<?>> familias = new ConcurrentHashMap<>();
+
+
+
+    public Temporizador temporizador(String nombre, String ayuda, String... etiquetas){
+        return this.<Temporizador>familia(nombre, ayuda, Tipo.HISTOGRAMA).serie(etiquetas, e -> new Temporizador());
+    }
+
+    public Contador contador(String nombre, String ayuda, String... etiquetas){
+        return this.<Contador>familia(nombre, ayuda, Tipo.CONTADOR).serie(etiquetas, e -> new Contador());
+    }
+
+    // el valor se lee recien al exportar (ej: conexiones activas del pool)
+    public void medidor(String nombre, String ayuda, DoubleSupplier valor, String... etiquetas){
+        this.<Medidor>familia(nombre, ayuda, Tipo.MEDIDOR).serie(etiquetas, e -> new Medidor(valor));
+    }
+
+
+    // texto para GET /actuator/prometheus (formato de exposicion 0.0.4)
+    public String formatoPrometheus(){
+
+        StringBuilder texto = new StringBuilder(4096);
+
+        new TreeMap<>(familias).forEach((nombre, familia) -> {
+
+            texto.append("# HELP ").append(nombre).append(' ').append(familia.ayuda).append('\n');
+            texto.append("# TYPE ").append(nombre).append(' ').append(familia.tipo.texto).append('\n');
+
+            new TreeMap<>(familia.series).forEach((etiquetas, serie) -> {
+                switch (familia.tipo) {
+                    case HISTOGRAMA -> ((Temporizador) serie).exportar(texto, nombre, etiquetas);
+                    case CONTADOR -> linea(texto, nombre, etiquetas, ((Contador) serie).valor());
+                    case MEDIDOR -> linea(texto, nombre, etiquetas, ((Medidor) serie).valor().getAsDouble());
+                }
+            });
+        });
+
+        return texto.toString();
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    @SuppressWarnings("unchecked")
+    private <T> Familia<T> familia(String nombre, String ayuda, Tipo tipo){
+
+        Familia<?> familia = familias.computeIfAbsent(nombre, n -> new Familia<>(ayuda, tipo));
+
+        if(familia.tipo != tipo) throw new IllegalArgumentException(
+            "La metrica " + nombre + " ya esta registrada como " + familia.tipo.texto);
+
+        return (Familia<T>) familia;
+    }
+
+    static void linea(StringBuilder texto, String nombre, String etiquetas, double valor){
+
+        texto.append(nombre);
+        if(!etiquetas.isEmpty()) texto.append('{').append(etiquetas).append('}');
+        texto.append(' ').append(formatear(valor)).append('\n');
+    }
+
+    static String formatear(double valor){
+
+        if(Double.isNaN(valor)) return "NaN";
+        if(valor == Math.rint(valor) && !Double.isInfinite(valor) && Math.abs(valor) < 1e15) return Long.toString((long) valor);
+        return Double.toString(valor);
+    }
+
+    // clave1="valor1",clave2="valor2" con las comillas, barras y saltos de linea escapados
+    static String etiquetas(String... pares){
+
+        if(pares.length % 2 != 0) throw new IllegalArgumentException("Las etiquetas van de a pares clave/valor");
+
+        StringBuilder texto = new StringBuilder();
+        for(int i = 0; i < pares.length; i += 2){
+
+            if(i > 0) texto.append(',');
+            texto.append(pares[i]).append("=\"");
+
+            String valor = pares[i + 1] == null ? "" : pares[i + 1];
+            for(int c = 0; c < valor.length(); c++){
+                char caracter = valor.charAt(c);
+                if(caracter == '\\' || caracter == '"') texto.append('\\').append(caracter);
+                else if(caracter == '\n') texto.append("\\n");
+                else texto.append(caracter);
+            }
+            texto.append('"');
+        }
+        return texto.toString();
+    }
+
+
+    private enum Tipo {
+
+        HISTOGRAMA("histogram"), CONTADOR("counter"), MEDIDOR("gauge");
+
+        private final String texto;
+
+        Tipo(String texto) {
+            this.texto = texto;
+        }
+    }
+
+    private static final class Familia<T> {
+
+        private final String ayuda;
+        private final Tipo tipo;
+        private final Map<String, T> series = new ConcurrentHashMap<>();
+
+        Familia(String ayuda, Tipo tipo) {
+            this.ayuda = ayuda;
+            this.tipo = tipo;
+        }
+
+        T serie(String[] etiquetas, Function<String, T> crear){
+            return series.computeIfAbsent(etiquetas(etiquetas), crear);
+        }
+    }
+
+    private record Medidor(DoubleSupplier valor) {}
+}
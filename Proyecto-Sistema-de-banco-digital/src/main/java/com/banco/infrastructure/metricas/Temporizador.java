@@ -0,0 +1,81 @@
+package com.banco.infrastructure.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+
+
+// Histograma de duraciones con cubetas fijas (de 1 ms a 10 s): Prometheus calcula los percentiles
+// con histogram_quantile() sumando las cubetas de todas las instancias.
+// Cada cubeta cuenta solo lo suyo; al exportar se acumulan (le="0.005" incluye todo lo <= 5 ms).
+
+public class Temporizador {
+
+
+    private static final double[] LIMITES_SEGUNDOS =
+        {0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private static final long[] LIMITES_NANOS = new long[LIMITES_SEGUNDOS.length];
+    static {
+        for(int i = 0; i < LIMITES_SEGUNDOS.length; i++){
+            LIMITES_NANOS[i] = (long) (LIMITES_SEGUNDOS[i] * 1_000_000_000L);
+        }
+    }
+
+
+    // una cubeta por limite + la de "mas de 10 s"
+    private final LongAdder[] cubetas = new LongAdder[LIMITES_NANOS.length + 1];
+    private final LongAdder cantidad = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+
+    Temporizador() {
+        for(int i = 0; i < cubetas.length; i++){
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+
+
+    public void registrar(long nanos){
+
+        if(nanos < 0) nanos = 0;
+
+        int cubeta = 0;
+        while(cubeta < LIMITES_NANOS.length && nanos > LIMITES_NANOS[cubeta]) cubeta++;
+
+        cubetas[cubeta].increment();
+        cantidad.increment();
+        totalNanos.add(nanos);
+    }
+
+    public long cantidad(){
+        return cantidad.sum();
+    }
+
+    public long totalNanos(){
+        return totalNanos.sum();
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    void exportar(StringBuilder texto, String nombre, String etiquetas){
+
+        String prefijo = etiquetas.isEmpty() ? "" : etiquetas + ",";
+        long acumulado = 0;
+
+        for(int i = 0; i < LIMITES_SEGUNDOS.length; i++){
+            acumulado += cubetas[i].sum();
+            RegistroMetricas.linea(texto, nombre + "_bucket",
+                prefijo + "le=\"" + LIMITES_SEGUNDOS[i] + "\"", acumulado);
+        }
+        acumulado += cubetas[LIMITES_SEGUNDOS.length].sum();
+        RegistroMetricas.linea(texto, nombre + "_bucket", prefijo + "le=\"+Inf\"", acumulado);
+
+        RegistroMetricas.linea(texto, nombre + "_sum", etiquetas, totalNanos.sum() / 1_000_000_000.0);
+        RegistroMetricas.linea(texto, nombre + "_count", etiquetas, acumulado);
+    }
+}
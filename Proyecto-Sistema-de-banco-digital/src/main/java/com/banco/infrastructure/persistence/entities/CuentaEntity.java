@@ -8,6 +8,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 // Entidad JPA para la tabla CUENTAS
 
@@ -38,6 +39,14 @@ public class CuentaEntity {
     @Column(name = "activa", nullable = false)
     private boolean activa;
 
+    // CONTROL DE CONCURRENCIA OPTIMISTA
+    // Hibernate incrementa la version en cada UPDATE y falla si otra transaccion
+    // modifico la fila despues de leerla (evita perder actualizaciones de saldo)
+    // NOT NULL: con una version nula Hibernate no puede incrementarla (ver V1__esquema_inicial)
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 
     // Constructor vacio - Necesario
     public CuentaEntity(){}
@@ -71,6 +80,10 @@ public class CuentaEntity {
     public boolean getActiva() { return activa;  }
     public void setActiva(boolean activa) { this.activa = activa;  }
 
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     
 
 }
@@ -0,0 +1,61 @@
+package com.banco.infrastructure.persistence.entities;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+
+// Entidad JPA para la tabla SECUENCIAS_CUENTA
+// Una fila por sucursal: el proximo numero de cuenta que todavia no se reservo
+// Persistable: el id es asignado (codigo de sucursal) y sin esto save() haria merge, que ante una fila
+// recien creada por otra instancia la PISA (vuelve siguiente al primer bloque y se repiten numeros).
+// Una entidad creada con new siempre es un INSERT: si la fila ya existe falla por la clave primaria.
+
+@Entity
+@Table(name = "secuencias_cuenta")
+public class SecuenciaCuentaEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "sucursal", length = 4)
+    private String sucursal;
+
+    @Column(name = "siguiente", nullable = false)
+    private long siguiente;
+
+    @Transient
+    private boolean nueva = true;
+
+
+    // Constructor vacio - Necesario
+    public SecuenciaCuentaEntity(){}
+
+    public SecuenciaCuentaEntity(String sucursal, long siguiente) {
+        this.sucursal = sucursal;
+        this.siguiente = siguiente;
+    }
+
+
+
+    // GETTERS
+
+    public String getSucursal() {return sucursal; }
+
+    public long getSiguiente() {return siguiente; }
+
+    @Override
+    public String getId() {return sucursal; }
+
+    @Override
+    public boolean isNew() {return nueva; }
+
+
+    // leida de la base o ya insertada: deja de ser nueva
+    @PostLoad
+    @PostPersist
+    void marcarExistente() {nueva = false; }
+}
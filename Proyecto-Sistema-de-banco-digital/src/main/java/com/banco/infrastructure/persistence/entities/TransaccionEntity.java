@@ -13,13 +13,28 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 
 
 
+// INDICES: las consultas de movimientos filtran por cuenta (origen o destino) y rango de fechas.
+// Un indice compuesto por cada columna de cuenta; las consultas usan UNION ALL para aprovechar los dos
+// Busquedas por referencia: comparan UPPER(referencia), un indice por la columna no sirve.
+// El indice sobre UPPER(referencia) lo crea V3 (JPA no declara indices sobre expresiones)
+// En PostgreSQL la tabla la crea la migracion V2, particionada por mes de fecha_de_creacion
+// UNICIDAD: en una tabla particionada toda UNIQUE incluye la columna de particion, por eso transaccion_id
+// es unico junto con fecha_de_creacion (igual que V2). Que no se repita entre fechas lo asegura
+// GeneradorTransaccionId (crece siempre, un nodo distinto por instancia), no la BD.
 @Entity
-@Table(name = "Transacciones")
+@Table(name = "Transacciones", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_transacciones_id_fecha", columnNames = {"transaccion_id", "fecha_de_creacion"})
+}, indexes = {
+    @Index(name = "idx_transacciones_origen_fecha", columnList = "cuenta_origen_id, fecha_de_creacion"),
+    @Index(name = "idx_transacciones_destino_fecha", columnList = "cuenta_destino_id, fecha_de_creacion")
+})
 public class TransaccionEntity {
 
     //Atributos
@@ -28,7 +43,7 @@ public class TransaccionEntity {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(name = "transaccion_id", unique = true, nullable = false, length = 60)
+    @Column(name = "transaccion_id", nullable = false, length = 60)
     private String transaccionId;
 
     // ENUM TIPO TRANSACCIÓN - Guardado como texto en BD
@@ -2,6 +2,9 @@ package com.banco.infrastructure.persistence.jpa;
 
 import java.util.Optional;
 import org.springframework.stereotype.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.port.out.ClienteRepository;
 import com.banco.domain.model.entities.Cliente;
 
@@ -19,6 +22,8 @@ import jakarta.transaction.Transactional;
 @Repository
 @Transactional
 public class ClienteRepositoryJpa implements ClienteRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteRepositoryJpa.class);
     
 
     
@@ -26,6 +31,9 @@ public class ClienteRepositoryJpa implements ClienteRepository {
     private final ClienteJpaRepository clienteJpaRepository;
     private final ClienteMapper clienteMapper;
 
+    // entidades leidas en la transaccion actual, por id de cliente
+    private final MapaDeIdentidad<ClienteEntity> entidadesCargadas = new MapaDeIdentidad<>();
+
     public ClienteRepositoryJpa(ClienteJpaRepository clienteJpaRepository, ClienteMapper clienteMapper) {
         this.clienteJpaRepository = clienteJpaRepository;
         this.clienteMapper = clienteMapper;
@@ -42,12 +50,13 @@ public class ClienteRepositoryJpa implements ClienteRepository {
         Optional<ClienteEntity> entityOpt = clienteJpaRepository.findByClienteId(IdString);
 
         if(entityOpt.isPresent()){
+            entidadesCargadas.registrar(IdString, entityOpt.get());
             Cliente cliente = clienteMapper.aDominio(entityOpt.get());
 
             return cliente;
         }
         else{
-            System.out.println(" Cliente NO encontrado: " + clienteId);
+            log.debug("Cliente NO encontrado: {}", clienteId);
             return null;
         }
 
@@ -59,6 +68,7 @@ public class ClienteRepositoryJpa implements ClienteRepository {
     Optional<ClienteEntity> entityOpt = clienteJpaRepository.findByEmail(email);
     
     if (entityOpt.isPresent()) {
+        entidadesCargadas.registrar(entityOpt.get().getClienteId(), entityOpt.get());
         return clienteMapper.aDominio(entityOpt.get());
     }
     return null;
@@ -68,13 +78,17 @@ public class ClienteRepositoryJpa implements ClienteRepository {
     @Override
     public void guardar(Cliente cliente){
 
-        ClienteEntity entityExistente = clienteJpaRepository.findByClienteId(cliente.getClienteId().getValor()).orElse(null);
+        // si el cliente se leyo en esta transaccion se reutiliza esa entidad, sin otro SELECT
+        String clienteId = cliente.getClienteId().getValor();
+
+        ClienteEntity entityExistente = entidadesCargadas.buscar(clienteId)
+            .orElseGet(() -> clienteJpaRepository.findByClienteId(clienteId).orElse(null));
         ClienteEntity clienteEntity = clienteMapper.aEntity(cliente, entityExistente);
         
         if(clienteEntity != null){
 
          clienteJpaRepository.save(clienteEntity);
-         System.out.println(" Cliente guardado exitosamente");
+         log.trace("Cliente guardado exitosamente");
         }
 
         
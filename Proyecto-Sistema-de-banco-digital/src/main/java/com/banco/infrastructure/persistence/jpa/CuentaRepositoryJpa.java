@@ -1,24 +1,36 @@
 package com.banco.infrastructure.persistence.jpa;
 
+import java.math.BigDecimal;
 import java.util.Optional;
 
 import java.util.stream.Collectors;
 
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.port.out.CuentaRepository;
 import com.banco.domain.model.entities.Cuenta;
 import com.banco.domain.model.valueobjects.ClienteId;
 import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Moneda;
 import com.banco.infrastructure.persistence.entities.CuentaEntity;
 import com.banco.infrastructure.persistence.jpa.Interface.CuentaJpaRepository;
 import com.banco.infrastructure.persistence.mappers.CuentaMapper;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 
 
 
@@ -29,6 +41,8 @@ import java.util.Objects;
 @Repository
 @Transactional
 public class CuentaRepositoryJpa implements CuentaRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(CuentaRepositoryJpa.class);
     
 
 
@@ -37,6 +51,16 @@ public class CuentaRepositoryJpa implements CuentaRepository {
     private final CuentaJpaRepository cuentaJpaRepository;
     private final CuentaMapper cuentaMapper;
 
+    // entidades leidas en la transaccion actual, por numero de cuenta
+    private final MapaDeIdentidad<CuentaEntity> entidadesCargadas = new MapaDeIdentidad<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // OPTIMISTA (por defecto) o PESIMISTA
+    @Value("${banco.concurrencia.estrategia:OPTIMISTA}")
+    private EstrategiaBloqueo estrategia = EstrategiaBloqueo.OPTIMISTA;
+
     public CuentaRepositoryJpa(CuentaJpaRepository cuentaJpaRepository, CuentaMapper cuentaMapper) {
         this.cuentaJpaRepository = cuentaJpaRepository;
         this.cuentaMapper = cuentaMapper;
@@ -49,20 +73,19 @@ public class CuentaRepositoryJpa implements CuentaRepository {
     public Optional<Cuenta> buscarPorId(CuentaId cuentaId){
 
         if (cuentaId == null) {
-        System.out.println("CuentaId recibido: null");
+        log.debug("Busqueda con CuentaId null");
         return Optional.empty();
         }
 
 
-        System.out.println("CuentaId recibido: " + cuentaId);
-        System.out.println("Valor del CuentaId: " + cuentaId.getValor());
         // Convertimos el Value Object a string para buscar en BD
         String numeroCuenta = cuentaId.getValor();
 
         // Buscamos en la BD usando Spring Data JPA
         Optional<CuentaEntity> entityOpt = cuentaJpaRepository.findByNumeroCuenta(numeroCuenta);
 
-        System.out.println("¿Encontrado en BD? " + entityOpt.isPresent());
+        log.trace("Cuenta {} encontrada en BD: {}", numeroCuenta, entityOpt.isPresent());
+        entityOpt.ifPresent(entity -> entidadesCargadas.registrar(numeroCuenta, entity));
         // retornamos la cuenta convertida a DOMINIO
 
         Optional<Cuenta> cuentaa = entityOpt.map(entity -> cuentaMapper.aDominio(entity));
@@ -71,18 +94,68 @@ public class CuentaRepositoryJpa implements CuentaRepository {
     }
 
 
+    @Override
+    public Optional<Cuenta> buscarPorIdParaActualizar(CuentaId cuentaId){
+
+        if (cuentaId == null) {
+        return Optional.empty();
+        }
+
+        String numeroCuenta = cuentaId.getValor();
+
+        // PESIMISTA: la fila queda bloqueada hasta el commit
+        // OPTIMISTA: la entidad queda en el contexto de persistencia con su version,
+        // guardar() la reutiliza y el UPDATE falla si otra transaccion la cambio antes
+        Optional<CuentaEntity> entityOpt = estrategia == EstrategiaBloqueo.PESIMISTA
+            ? cuentaJpaRepository.findByNumeroCuentaForUpdate(numeroCuenta)
+            : cuentaJpaRepository.findByNumeroCuenta(numeroCuenta);
+
+        entityOpt.ifPresent(entity -> entidadesCargadas.registrar(numeroCuenta, entity));
+
+        return entityOpt.map(entity -> cuentaMapper.aDominio(entity));
+    }
+
+
+    @Override
+    public List<Cuenta> buscarPorIdsParaActualizar(Collection<CuentaId> cuentaIds){
+
+        if (cuentaIds == null || cuentaIds.isEmpty()) {
+        return Collections.emptyList();
+        }
+
+        Set<String> numerosCuenta = cuentaIds.stream()
+            .filter(Objects::nonNull)
+            .map(CuentaId::getValor)
+            .collect(Collectors.toCollection(TreeSet::new));
+
+        // misma estrategia de bloqueo que buscarPorIdParaActualizar, pero en una sola consulta
+        List<CuentaEntity> entities = estrategia == EstrategiaBloqueo.PESIMISTA
+            ? cuentaJpaRepository.findByNumeroCuentaInForUpdate(numerosCuenta)
+            : cuentaJpaRepository.findByNumeroCuentaInOrderByNumeroCuenta(numerosCuenta);
+
+        entities.forEach(entity -> entidadesCargadas.registrar(entity.getNumeroCuenta(), entity));
+
+        return entities.stream()
+            .map(entity -> cuentaMapper.aDominio(entity))
+            .collect(Collectors.toList());
+    }
+
+
     @Override
     public void guardar(Cuenta cuenta){
         
         // buscar o Convertimos a Entity
+        // si la cuenta se leyo en esta transaccion se reutiliza esa entidad, sin otro SELECT
+        String numeroCuenta = cuenta.getCuentaId().getValor();
 
-        CuentaEntity entityExistente = cuentaJpaRepository.findByNumeroCuenta(cuenta.getCuentaId().getValor()).orElse(null);
+        CuentaEntity entityExistente = entidadesCargadas.buscar(numeroCuenta)
+            .orElseGet(() -> cuentaJpaRepository.findByNumeroCuenta(numeroCuenta).orElse(null));
         CuentaEntity entity = cuentaMapper.aEntity(cuenta, entityExistente);
         
 
         if(entity != null){ 
             cuentaJpaRepository.save(entity);
-            System.out.println(" Cuenta guardada en BD: " + cuenta.getCuentaId());
+            log.trace("Cuenta guardada en BD: {}", cuenta.getCuentaId());
         }
 
         
@@ -95,6 +168,30 @@ public class CuentaRepositoryJpa implements CuentaRepository {
         guardar(cuenta);
     }
 
+    @Override
+    public void actualizarTodos(Collection<Cuenta> cuentas){
+
+        if (cuentas == null || cuentas.isEmpty()) {
+        return;
+        }
+
+        // las cuentas ya estan en el mapa de identidad (se cargaron en esta transaccion):
+        // no hay SELECT, Hibernate agrupa los UPDATE en el flush
+        List<CuentaEntity> entities = new ArrayList<>(cuentas.size());
+
+        for (Cuenta cuenta : cuentas) {
+
+            String numeroCuenta = cuenta.getCuentaId().getValor();
+            CuentaEntity entityExistente = entidadesCargadas.buscar(numeroCuenta)
+                .orElseGet(() -> cuentaJpaRepository.findByNumeroCuenta(numeroCuenta).orElse(null));
+
+            CuentaEntity entity = cuentaMapper.aEntity(cuenta, entityExistente);
+            if(entity != null) entities.add(entity);
+        }
+
+        cuentaJpaRepository.saveAll(entities);
+    }
+
     @Override
     public List<Cuenta> buscarPorCliente(ClienteId clienteId){
 
@@ -104,6 +201,9 @@ public class CuentaRepositoryJpa implements CuentaRepository {
 
         List<CuentaEntity> cuentasEntity = cuentaJpaRepository.findByClienteId(clienteId.getValor());
 
+        // tambien al mapa: aplicarDelta tiene que poder desprender cualquier cuenta leida en la transaccion
+        cuentasEntity.forEach(entity -> entidadesCargadas.registrar(entity.getNumeroCuenta(), entity));
+
         return cuentasEntity.stream()
         .map(entity -> cuentaMapper.aDominio(entity))
         .filter(Objects::nonNull)  // elimina los objetos null
@@ -116,4 +216,25 @@ public class CuentaRepositoryJpa implements CuentaRepository {
     }
 
 
+    @Override
+    public boolean aplicarDelta(CuentaId cuentaId, BigDecimal delta, Moneda moneda) {
+
+        if (cuentaId == null || delta == null || moneda == null) {
+        return false;
+        }
+
+        // un solo UPDATE condicional en lugar de buscar -> mapear -> sumar -> mapear -> buscar -> guardar
+        int filasAfectadas = cuentaJpaRepository.aplicarDelta(cuentaId.getValor(), delta, moneda.name());
+
+        // el UPDATE no pasa por la entidad: si la cuenta ya se habia leido en esta transaccion quedo con el
+        // saldo y la version viejos. Se desprende SOLO esa (el resto sigue administrado y sin otro SELECT);
+        // la proxima lectura o guardar() de esta cuenta la vuelve a leer de la BD
+        if (filasAfectadas == 1) {
+            entidadesCargadas.quitar(cuentaId.getValor()).ifPresent(entity -> entityManager.detach(entity));
+        }
+
+        return filasAfectadas == 1;
+    }
+
+
 }
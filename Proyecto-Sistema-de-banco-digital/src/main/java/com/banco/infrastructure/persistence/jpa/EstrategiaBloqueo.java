@@ -0,0 +1,9 @@
+package com.banco.infrastructure.persistence.jpa;
+
+// ESTRATEGIA DE CONTROL DE CONCURRENCIA PARA CUENTAS
+// Se elige con la propiedad banco.concurrencia.estrategia
+public enum EstrategiaBloqueo {
+
+    OPTIMISTA,  // @Version en CuentaEntity - no bloquea, falla al confirmar si hubo conflicto y se reintenta
+    PESIMISTA   // SELECT ... FOR UPDATE - bloquea la fila, las cuentas se toman en orden de numero para evitar deadlocks
+}
@@ -1,20 +1,30 @@
 package com.banco.infrastructure.persistence.jpa.Interface;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.banco.infrastructure.persistence.entities.CuentaEntity;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 
 
 
 
     // INTERNFAZ para adquirir metodo CRUD JPA
 public interface CuentaJpaRepository extends JpaRepository<CuentaEntity, UUID> {
-    
+
         // Esta interfaz hereda de JPA, por lo cual podemos usar sus palabras clave
         // COMO existsBy - findBy etc + nombre del atributo
         // JPA ya conoce estas palabras y las detecta automaticamente sabiendo que queremos
@@ -24,4 +34,36 @@ public interface CuentaJpaRepository extends JpaRepository<CuentaEntity, UUID> {
         boolean existsByNumeroCuenta(String numeroCuenta);
 
         List<CuentaEntity> findByClienteId(String clienteId);
+
+
+        // SELECT ... FOR UPDATE = bloquea la fila hasta que termine la transaccion.
+        // Otra transaccion que quiera la misma cuenta espera (hasta el timeout) en lugar de pisar el saldo
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+        @Query("SELECT c FROM CuentaEntity c WHERE c.numeroCuenta = :numeroCuenta")
+        Optional<CuentaEntity> findByNumeroCuentaForUpdate(@Param("numeroCuenta") String numeroCuenta);
+
+
+        // VARIAS CUENTAS EN UNA SOLA CONSULTA (IN), siempre en orden de numero de cuenta
+        List<CuentaEntity> findByNumeroCuentaInOrderByNumeroCuenta(Collection<String> numerosCuenta);
+
+        // Igual pero bloqueando todas las filas; el ORDER BY fija el orden de bloqueo y evita deadlocks entre lotes
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "5000"))
+        @Query("SELECT c FROM CuentaEntity c WHERE c.numeroCuenta IN :numerosCuenta ORDER BY c.numeroCuenta")
+        List<CuentaEntity> findByNumeroCuentaInForUpdate(@Param("numerosCuenta") Collection<String> numerosCuenta);
+
+
+        // UPDATE atomico del saldo: la base suma el delta sobre el valor actual de la fila,
+        // sin leerla antes. Solo aplica si la cuenta esta activa, la moneda coincide y el saldo no queda negativo.
+        // Incrementa la version para que una transferencia optimista en curso detecte el cambio.
+        // Retorna las filas afectadas: 0 = no se cumplio alguna condicion
+        // Sin clearAutomatically: vaciar el contexto desprenderia todas las entidades de la transaccion.
+        // CuentaRepositoryJpa desprende solo la cuenta afectada
+        @Modifying(flushAutomatically = true)
+        @Query("UPDATE CuentaEntity c SET c.saldo = c.saldo + :delta, c.version = c.version + 1 "
+            + "WHERE c.numeroCuenta = :numeroCuenta AND c.activa = true AND c.moneda = :moneda "
+            + "AND c.saldo + :delta >= 0")
+        int aplicarDelta(@Param("numeroCuenta") String numeroCuenta, @Param("delta") BigDecimal delta,
+            @Param("moneda") String moneda);
 }
@@ -0,0 +1,22 @@
+package com.banco.infrastructure.persistence.jpa.Interface;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.banco.infrastructure.persistence.entities.SecuenciaCuentaEntity;
+
+
+
+
+
+public interface SecuenciaCuentaJpaRepository extends JpaRepository<SecuenciaCuentaEntity, String> {
+
+        // UPDATE atomico: la base suma el bloque sobre el valor actual y bloquea la fila hasta el commit,
+        // asi dos instancias nunca reservan el mismo rango.
+        // Retorna las filas afectadas: 0 = la sucursal todavia no tiene fila
+        @Modifying(flushAutomatically = true, clearAutomatically = true)
+        @Query("UPDATE SecuenciaCuentaEntity s SET s.siguiente = s.siguiente + :tamanio WHERE s.sucursal = :sucursal")
+        int avanzar(@Param("sucursal") String sucursal, @Param("tamanio") long tamanio);
+}
@@ -1,10 +1,12 @@
 package com.banco.infrastructure.persistence.jpa.Interface;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -16,12 +18,50 @@ public interface TransaccionJpaRepository extends JpaRepository<TransaccionEntit
     
         Optional<TransaccionEntity> findByTransaccionId(String transaccionId);
 
+        // varias transacciones en un solo SELECT ... WHERE transaccion_id IN (...)
+        List<TransaccionEntity> findByTransaccionIdIn(Collection<String> transaccionIds);
+
         //Busca transacciones donde la cuenta sea origen O destino
         // codigo SQL automatico por spring gracias a el nombre del metodo
         List<TransaccionEntity> findByCuentaOrigenIdOrCuentaDestinoId(String cuentaOrigen, String cuentaDestino);
 
         List<TransaccionEntity> findByCuentaOrigenId(String numeroCuenta);
+
+
+        // PAGINACION POR CLAVE (keyset): se ordena por (fecha_de_creacion, transaccion_id) de mas nuevo a mas viejo
+        // y cada pagina continua despues de la ultima fila vista. A diferencia de OFFSET la BD no recorre
+        // las filas de paginas anteriores, y solo llega a memoria el tamaño de la pagina (Pageable)
+
+        // primera pagina
+        @Query("SELECT t FROM TransaccionEntity t WHERE t.cuentaOrigenId = :cuentaId " +
+           "ORDER BY t.fechaDeCreacion DESC, t.transaccionId DESC")
+        List<TransaccionEntity> buscarPrimeraPaginaPorCuentaOrigen(
+        @Param("cuentaId") String cuentaId,
+        Pageable pagina
+        );
+
+        // paginas siguientes: filas estrictamente "antes" del cursor (fecha, transaccionId)
+        @Query("SELECT t FROM TransaccionEntity t WHERE t.cuentaOrigenId = :cuentaId " +
+           "AND (t.fechaDeCreacion < :fecha OR (t.fechaDeCreacion = :fecha AND t.transaccionId < :transaccionId)) " +
+           "ORDER BY t.fechaDeCreacion DESC, t.transaccionId DESC")
+        List<TransaccionEntity> buscarPaginaPorCuentaOrigenDespuesDe(
+        @Param("cuentaId") String cuentaId,
+        @Param("fecha") LocalDateTime fecha,
+        @Param("transaccionId") String transaccionId,
+        Pageable pagina
+        );
         
+        // REFERENCIA
+        // Las referencias se generan como REF-<transaccionId>-<millis>: casi todas las busquedas son exactas o por prefijo.
+        // Igualdad y LIKE 'prefijo%' recorren el indice por referencia; el parametro llega ya en mayusculas
+        @Query("SELECT t FROM TransaccionEntity t WHERE UPPER(t.referencia) = :referencia")
+        List<TransaccionEntity> buscarPorReferenciaExacta(@Param("referencia") String referencia);
+
+        // :prefijo ya trae el % final y los comodines escapados con '\'
+        @Query("SELECT t FROM TransaccionEntity t WHERE UPPER(t.referencia) LIKE :prefijo ESCAPE '\\'")
+        List<TransaccionEntity> buscarPorPrefijoDeReferencia(@Param("prefijo") String prefijo);
+
+        // fragmento en cualquier posicion: LIKE '%x%' no puede usar un indice b-tree (en PostgreSQL lo cubre el indice trigram)
         List<TransaccionEntity> findByReferenciaContainingIgnoreCase(String referencia);
 
 
@@ -30,14 +70,53 @@ public interface TransaccionJpaRepository extends JpaRepository<TransaccionEntit
         // :nombreParametro = Vincula automáticamente el valor del parámetro
         // @Param("nombre") = @Param("nombre"): Conecta el parámetro del método con el :nombreParametro
 
-        @Query("SELECT t FROM TransaccionEntity t WHERE " +
-           "(t.cuentaOrigenId = :cuentaId OR t.cuentaDestinoId = :cuentaId) " + 
-           "AND t.fechaDeCreacion BETWEEN :desde AND :hasta")
+        // CUENTA + RANGO DE FECHAS
+        // Un OR entre cuenta_origen_id y cuenta_destino_id no puede usar un solo indice y termina recorriendo la tabla.
+        // Con UNION ALL cada rama usa su indice (cuenta, fecha_de_creacion); la segunda rama excluye las filas
+        // donde la cuenta tambien es origen para no devolverlas dos veces
+        String ORIGEN_EN_RANGO =
+            "SELECT * FROM transacciones WHERE cuenta_origen_id = :cuentaId " +
+            "AND fecha_de_creacion BETWEEN :desde AND :hasta";
+
+        String DESTINO_EN_RANGO =
+            "SELECT * FROM transacciones WHERE cuenta_destino_id = :cuentaId " +
+            "AND fecha_de_creacion BETWEEN :desde AND :hasta " +
+            "AND (cuenta_origen_id IS NULL OR cuenta_origen_id <> :cuentaId)";
+
+        @Query(value = ORIGEN_EN_RANGO + " UNION ALL " + DESTINO_EN_RANGO, nativeQuery = true)
         List<TransaccionEntity> buscarPorCuentaYFechas(
         @Param("cuentaId") String cuentaId,  // @Param conecta con :cuentaId
         @Param("desde") LocalDateTime desde, // @Param conecta con :desde
         @Param("hasta") LocalDateTime hasta  // @Param conecta con :hasta
         );
 
+        // las N mas recientes del rango: cada rama recorre su indice de la fecha mas nueva hacia atras
+        // y corta en N; la BD solo ordena como maximo 2N filas
+        @Query(value =
+            "SELECT * FROM (" +
+            "(" + ORIGEN_EN_RANGO + " ORDER BY fecha_de_creacion DESC, transaccion_id DESC FETCH FIRST :limite ROWS ONLY) " +
+            "UNION ALL " +
+            "(" + DESTINO_EN_RANGO + " ORDER BY fecha_de_creacion DESC, transaccion_id DESC FETCH FIRST :limite ROWS ONLY)" +
+            ") recientes ORDER BY fecha_de_creacion DESC, transaccion_id DESC FETCH FIRST :limite ROWS ONLY",
+            nativeQuery = true)
+        List<TransaccionEntity> buscarRecientesPorCuentaYFechas(
+        @Param("cuentaId") String cuentaId,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta,
+        @Param("limite") int limite
+        );
+
+        // totales del rango agrupados por tipo: cada fila es [tipoTransaccion, SUM(monto)]
+        @Query(value =
+            "SELECT tipo_transaccion, SUM(monto) FROM (" +
+            ORIGEN_EN_RANGO + " UNION ALL " + DESTINO_EN_RANGO +
+            ") periodo GROUP BY tipo_transaccion",
+            nativeQuery = true)
+        List<Object[]> sumarMontosPorTipo(
+        @Param("cuentaId") String cuentaId,
+        @Param("desde") LocalDateTime desde,
+        @Param("hasta") LocalDateTime hasta
+        );
+
             
 }
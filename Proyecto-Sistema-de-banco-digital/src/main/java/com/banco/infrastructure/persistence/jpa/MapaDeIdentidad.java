@@ -0,0 +1,94 @@
+package com.banco.infrastructure.persistence.jpa;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+
+
+
+// MAPA DE IDENTIDAD por transaccion: clave de negocio (numero de cuenta, id de cliente...) -> entidad JPA cargada.
+// Hibernate ya guarda las entidades por su UUID, pero el dominio solo conoce la clave de negocio,
+// por eso cada guardar() volvia a hacer un SELECT para encontrar la entidad que se acababa de leer.
+// Con este mapa el adaptador reutiliza la entidad leida en la misma transaccion.
+// Sin transaccion activa no guarda nada y el adaptador vuelve a consultar la BD.
+
+public class MapaDeIdentidad<E> {
+
+
+    // REGISTRAR ENTIDAD LEIDA
+    public void registrar(String clave, E entidad){
+
+        Map<String, E> entidades = entidadesDeLaTransaccion();
+
+        if(entidades != null && clave != null && entidad != null){
+            entidades.put(clave, entidad);
+        }
+    }
+
+    // BUSCAR ENTIDAD YA LEIDA EN ESTA TRANSACCION
+    public Optional<E> buscar(String clave){
+
+        Map<String, E> entidades = entidadesDeLaTransaccion();
+
+        if(entidades == null || clave == null) return Optional.empty();
+
+        return Optional.ofNullable(entidades.get(clave));
+    }
+
+
+    // OLVIDAR ENTIDAD (la fila cambio por fuera de la entidad, ej: un UPDATE masivo)
+    public Optional<E> quitar(String clave){
+
+        Map<String, E> entidades = entidadesDeLaTransaccion();
+
+        if(entidades == null || clave == null) return Optional.empty();
+
+        return Optional.ofNullable(entidades.remove(clave));
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    // El mapa vive como recurso de la transaccion actual y se descarta al terminar (commit o rollback)
+    @SuppressWarnings("unchecked")
+    private Map<String, E> entidadesDeLaTransaccion(){
+
+        if(!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+
+        Map<String, E> entidades = (Map<String, E>) TransactionSynchronizationManager.getResource(this);
+
+        if(entidades == null){
+
+            Map<String, E> nuevas = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, nuevas);
+
+            // si la transaccion se suspende (otra transaccion independiente en el medio) el mapa se oculta
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MapaDeIdentidad.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(MapaDeIdentidad.this, nuevas);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(MapaDeIdentidad.this);
+                }
+            });
+
+            return nuevas;
+        }
+
+        return entidades;
+    }
+}
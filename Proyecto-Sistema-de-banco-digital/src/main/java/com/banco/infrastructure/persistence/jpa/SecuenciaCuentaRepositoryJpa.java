@@ -0,0 +1,64 @@
+package com.banco.infrastructure.persistence.jpa;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banco.application.port.out.SecuenciaCuentaRepository;
+import com.banco.infrastructure.persistence.entities.SecuenciaCuentaEntity;
+import com.banco.infrastructure.persistence.jpa.Interface.SecuenciaCuentaJpaRepository;
+
+
+
+
+// Los numeros de cuenta salen de un contador por sucursal en la tabla secuencias_cuenta.
+// Cada reserva corre en su propia transaccion (REQUIRES_NEW): la fila queda bloqueada solo lo que dura
+// el UPDATE y no hasta el final de la apertura, y un rollback de la apertura no devuelve el bloque
+// (quedan huecos en la numeracion, nunca repetidos).
+
+@Repository
+public class SecuenciaCuentaRepositoryJpa implements SecuenciaCuentaRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(SecuenciaCuentaRepositoryJpa.class);
+
+    // el primer numero de cada sucursal
+    static final long PRIMER_NUMERO = 1;
+
+
+    //INYECCION DE DEPENDENCIA
+    private final SecuenciaCuentaJpaRepository secuenciaCuentaJpaRepository;
+
+    public SecuenciaCuentaRepositoryJpa(SecuenciaCuentaJpaRepository secuenciaCuentaJpaRepository) {
+        this.secuenciaCuentaJpaRepository = secuenciaCuentaJpaRepository;
+    }
+
+
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reservarBloque(int sucursal, int tamanio) {
+
+        if (tamanio <= 0) throw new IllegalArgumentException("El tamaño del bloque debe ser positivo: " + tamanio);
+
+        String codigo = String.format("%04d", sucursal);
+
+        if (secuenciaCuentaJpaRepository.avanzar(codigo, tamanio) == 0) {
+
+            // primera cuenta de la sucursal. Si otra instancia crea la fila al mismo tiempo el INSERT
+            // falla por la clave primaria (la entidad es Persistable: nunca merge) y el llamador reintenta (ya con fila)
+            secuenciaCuentaJpaRepository.saveAndFlush(new SecuenciaCuentaEntity(codigo, PRIMER_NUMERO + tamanio));
+            log.info("Secuencia de cuentas creada para la sucursal {}", codigo);
+            return PRIMER_NUMERO;
+        }
+
+        long siguiente = secuenciaCuentaJpaRepository.findById(codigo)
+            .orElseThrow(() -> new DataIntegrityViolationException("Secuencia de la sucursal " + codigo + " no encontrada"))
+            .getSiguiente();
+
+        log.debug("Bloque de cuentas reservado: sucursal {} desde {} ({} numeros)", codigo, siguiente - tamanio, tamanio);
+        return siguiente - tamanio;
+    }
+}
@@ -5,13 +5,19 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.port.out.TransaccionRepository;
 import com.banco.domain.model.entities.Cuenta;
 import com.banco.domain.model.entities.Transaccion;
 import com.banco.domain.model.valueobjects.CuentaId;
 import com.banco.domain.model.valueobjects.TransaccionId;
+import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
 
 import com.banco.infrastructure.persistence.entities.TransaccionEntity;
 import com.banco.infrastructure.persistence.jpa.Interface.TransaccionJpaRepository;
@@ -19,10 +25,16 @@ import com.banco.infrastructure.persistence.mappers.TransaccionMapper;
 
 import jakarta.transaction.Transactional;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.time.LocalDateTime;
+import java.math.BigDecimal;
 
 
 
@@ -32,12 +44,21 @@ import java.time.LocalDateTime;
 @Repository
 @Transactional
 public class TransaccionRepositoryJpa implements TransaccionRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(TransaccionRepositoryJpa.class);
     
 
 
     private final TransaccionJpaRepository transaccionJpaRepository;
     private final TransaccionMapper transaccionMapper;
 
+    private static final String PREFIJO_REFERENCIA = "REF-";
+    // System.currentTimeMillis() tiene 13 digitos hasta el año 2286
+    private static final int DIGITOS_MINIMOS_MILLIS = 13;
+
+    // entidades leidas en la transaccion actual, por id de transaccion
+    private final MapaDeIdentidad<TransaccionEntity> entidadesCargadas = new MapaDeIdentidad<>();
+
     public TransaccionRepositoryJpa(TransaccionJpaRepository transaccionJpaRepository,
             TransaccionMapper transaccionMapper) {
         this.transaccionJpaRepository = transaccionJpaRepository;
@@ -49,46 +70,106 @@ public class TransaccionRepositoryJpa implements TransaccionRepository {
     public Optional<Transaccion> buscarPorId(TransaccionId transaccionId){
 
         if (transaccionId == null) {
-        System.out.println(" Error: transaccionId es null");
+        log.debug("Busqueda con transaccionId null");
         return Optional.empty();
     }
 
         String idTran = transaccionId.getValor();
 
-        return transaccionJpaRepository.findByTransaccionId(idTran)
-        .map(id -> transaccionMapper.aDominio(id));
+        Optional<TransaccionEntity> entityOpt = transaccionJpaRepository.findByTransaccionId(idTran);
+        entityOpt.ifPresent(entity -> entidadesCargadas.registrar(idTran, entity));
+
+        return entityOpt.map(id -> transaccionMapper.aDominio(id));
     }
 
     @Override
     public void guardar(Transaccion transaccion){
 
-        TransaccionEntity transaccionExistente = transaccionJpaRepository
-        .findByTransaccionId(transaccion.getId().getValor()).orElse(null);
+        // si la transaccion se leyo en esta transaccion de BD se reutiliza esa entidad, sin otro SELECT
+        String idTran = transaccion.getId().getValor();
+
+        TransaccionEntity transaccionExistente = entidadesCargadas.buscar(idTran)
+            .orElseGet(() -> transaccionJpaRepository.findByTransaccionId(idTran).orElse(null));
         TransaccionEntity entity = transaccionMapper.aEntity(transaccion, transaccionExistente);
 
         if(entity != null){
         transaccionJpaRepository.save(entity);
-        System.out.println(" Transacción guardada exitosamente");
+        log.trace("Transaccion guardada exitosamente");
         }
     }
 
     @Override
-    public List<Transaccion> buscarPorCuenta(Cuenta cuenta, LocalDateTime desde, LocalDateTime hasta) {
+    public void registrar(Transaccion transaccion){
 
+        // transaccion NUEVA: INSERT directo, no hay nada que buscar antes
+        TransaccionEntity entity = transaccionMapper.aEntity(transaccion, null);
 
-        if (cuenta == null || cuenta.getCuentaId() == null || desde == null || hasta == null) {
-        System.out.println(" Error: cuenta es null");
+        transaccionJpaRepository.save(entity);
+    }
+
+    @Override
+    public void guardarTodos(List<Transaccion> transacciones){
+
+        if (transacciones == null || transacciones.isEmpty()) {
+        return;
+        }
+
+        // las que no se leyeron en esta transaccion se buscan todas juntas con un solo SELECT ... IN
+        List<String> idsNoCargados = transacciones.stream()
+            .map(transaccion -> transaccion.getId().getValor())
+            .filter(idTran -> entidadesCargadas.buscar(idTran).isEmpty())
+            .collect(Collectors.toList());
+
+        Map<String, TransaccionEntity> existentes = idsNoCargados.isEmpty()
+            ? Collections.emptyMap()
+            : transaccionJpaRepository.findByTransaccionIdIn(idsNoCargados).stream()
+                .collect(Collectors.toMap(TransaccionEntity::getTransaccionId, Function.identity()));
+
+        List<TransaccionEntity> entities = new ArrayList<>(transacciones.size());
+
+        for (Transaccion transaccion : transacciones) {
+
+            String idTran = transaccion.getId().getValor();
+            TransaccionEntity transaccionExistente = entidadesCargadas.buscar(idTran).orElse(existentes.get(idTran));
+            TransaccionEntity entity = transaccionMapper.aEntity(transaccion, transaccionExistente);
+
+            if(entity != null) entities.add(entity);
+        }
+
+        // con hibernate.jdbc.batch_size los INSERT/UPDATE salen agrupados al hacer flush
+        transaccionJpaRepository.saveAll(entities);
+    }
+
+    @Override
+    public void registrarTodos(List<Transaccion> transacciones){
+
+        if (transacciones == null || transacciones.isEmpty()) {
+        return;
+        }
+
+        // transacciones NUEVAS: sin SELECT previo, los INSERT salen en lotes
+        List<TransaccionEntity> entities = transacciones.stream()
+            .map(transaccion -> transaccionMapper.aEntity(transaccion, null))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+        transaccionJpaRepository.saveAll(entities);
+    }
+
+    @Override
+    public List<Transaccion> buscarPorCuenta(Cuenta cuenta, LocalDateTime desde, LocalDateTime hasta, int limite) {
+
+
+        if (cuenta == null || cuenta.getCuentaId() == null || desde == null || hasta == null || limite <= 0) {
         return Collections.emptyList();
     }
 
         String cuentaIdString = cuenta.getCuentaId().getValor();
-        System.out.println(" Buscando transacciones de cuenta " + cuentaIdString + 
-         " entre " + desde + " y " + hasta);
         
-        // Buscar donde la cuenta es origen O destino, dentro del rango de fechas
+        // Buscar donde la cuenta es origen O destino, dentro del rango de fechas: solo las mas recientes
         List<TransaccionEntity> entities = transaccionJpaRepository
-                .buscarPorCuentaYFechas(
-                    cuentaIdString, desde, hasta);
+                .buscarRecientesPorCuentaYFechas(
+                    cuentaIdString, desde, hasta, limite);
         
         return entities.stream()
                 .map(transaccionMapper::aDominio)
@@ -96,42 +177,100 @@ public class TransaccionRepositoryJpa implements TransaccionRepository {
     }
 
     @Override
-    public List<Transaccion> buscarCuentas(CuentaId cuentaId){
+    public Map<TipoTransaccion, BigDecimal> sumarMontosPorTipo(Cuenta cuenta, LocalDateTime desde, LocalDateTime hasta) {
+
+        if (cuenta == null || cuenta.getCuentaId() == null || desde == null || hasta == null) {
+        return Collections.emptyMap();
+    }
 
-        if (cuentaId == null) {
-        System.out.println(" Error: transaccionId es null");
+        Map<TipoTransaccion, BigDecimal> totales = new EnumMap<>(TipoTransaccion.class);
+
+        // una fila por tipo: [tipoTransaccion, SUM(monto)]
+        for (Object[] fila : transaccionJpaRepository.sumarMontosPorTipo(cuenta.getCuentaId().getValor(), desde, hasta)) {
+            totales.put(TipoTransaccion.valueOf((String) fila[0]), (BigDecimal) fila[1]);
+        }
+
+        return totales;
+    }
+
+    @Override
+    public List<Transaccion> buscarCuentas(CuentaId cuentaId, LocalDateTime fechaCursor, TransaccionId idCursor, int limite){
+
+        if (cuentaId == null || limite <= 0) {
         return Collections.emptyList();
        }
 
-        System.out.println("CuentaId recibido: " + cuentaId);
-        System.out.println("Valor del CuentaId: " + cuentaId.getValor());
         // Convertimos el Value Object a string para buscar en BD
         String numeroCuenta = cuentaId.getValor();
+        Pageable pagina = PageRequest.of(0, limite);
 
-        // Buscamos en la BD usando Spring Data JPA
-        List<TransaccionEntity> entityOpt = transaccionJpaRepository.findByCuentaOrigenId(numeroCuenta);
+        // sin cursor es la primera pagina; con cursor se sigue despues de la ultima fila entregada
+        List<TransaccionEntity> entities = (fechaCursor == null || idCursor == null)
+            ? transaccionJpaRepository.buscarPrimeraPaginaPorCuentaOrigen(numeroCuenta, pagina)
+            : transaccionJpaRepository.buscarPaginaPorCuentaOrigenDespuesDe(
+                numeroCuenta, fechaCursor, idCursor.getValor(), pagina);
 
-        System.out.println("¿Encontrado en BD? " + entityOpt.isEmpty());
-        // retornamos la cuenta convertida a DOMINIO
-
-        return entityOpt.stream()
+        // retornamos las transacciones convertidas a DOMINIO
+        return entities.stream()
         .map(transaccionMapper::aDominio)
         .filter(Objects::nonNull)
         .collect(Collectors.toList());
-
-        
     }
 
+    // La forma de la referencia decide la consulta:
+    // - REF-<transaccionId>-<millis> completa -> igualdad (indice)
+    // - empieza con REF-                      -> prefijo  (indice)
+    // - cualquier otro fragmento              -> contiene (LIKE '%x%', sin indice b-tree)
     @Override
     public List<Transaccion> buscarPorReferencia(String referencia) {
-        System.out.println(" Buscando transacciones por referencia: " + referencia);
-        
-        List<TransaccionEntity> entities = transaccionJpaRepository
-                .findByReferenciaContainingIgnoreCase(referencia);
-        
+        log.debug("Buscando transacciones por referencia: {}", referencia);
+
+        if(referencia == null || referencia.isBlank()) return Collections.emptyList();
+
+        String buscada = referencia.trim().toUpperCase(Locale.ROOT);
+
+        List<TransaccionEntity> entities;
+
+        if(esReferenciaCompleta(buscada)){
+            entities = transaccionJpaRepository.buscarPorReferenciaExacta(buscada);
+
+        } else if(buscada.startsWith(PREFIJO_REFERENCIA)){
+            entities = transaccionJpaRepository.buscarPorPrefijoDeReferencia(escaparComodines(buscada) + "%");
+
+        } else {
+            entities = transaccionJpaRepository.findByReferenciaContainingIgnoreCase(buscada);
+        }
+
         return entities.stream()
                 .map(transaccionMapper::aDominio)
                 .collect(Collectors.toList());
     }
+
+
+
+
+    // METODOS AUXILIARES
+
+    // mismo formato que Transaccion.generarReferencia(): REF-<transaccionId>-<System.currentTimeMillis()>
+    private boolean esReferenciaCompleta(String referencia){
+
+        if(!referencia.startsWith(PREFIJO_REFERENCIA)) return false;
+
+        int ultimoGuion = referencia.lastIndexOf('-');
+        if(ultimoGuion < PREFIJO_REFERENCIA.length() + 1) return false; // falta el transaccionId
+
+        String millis = referencia.substring(ultimoGuion + 1);
+        if(millis.length() < DIGITOS_MINIMOS_MILLIS) return false;
+
+        for(int i = 0; i < millis.length(); i++){
+            if(!Character.isDigit(millis.charAt(i))) return false;
+        }
+        return true;
+    }
+
+    // % y _ del texto buscado son literales, no comodines
+    private String escaparComodines(String texto){
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
 
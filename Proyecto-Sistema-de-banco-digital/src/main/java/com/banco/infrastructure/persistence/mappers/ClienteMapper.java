@@ -5,6 +5,9 @@ import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Component;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.domain.model.entities.Cliente;
 import com.banco.domain.model.valueobjects.ClienteId;
 import com.banco.domain.model.valueobjects.CuentaId;
@@ -14,13 +17,17 @@ import com.banco.infrastructure.persistence.entities.ClienteEntity;
 
 @Component
 public class ClienteMapper {
+
+    private static final Logger log = LoggerFactory.getLogger(ClienteMapper.class);
     
     //ClienteEntoty a DOMINIO
     public Cliente aDominio(ClienteEntity entity){
         
-        ClienteId clienteId = ClienteId.newCliente(entity.getClienteId());
+        // cliente_id ya se valido al guardarlo: no se vuelve a validar
+        ClienteId clienteId = ClienteId.rehidratar(entity.getClienteId());
 
         //Cada string se convierte en un Value Object CuentaId
+        // (con validacion: cliente_cuentas es una columna de texto libre, sin restricciones en la BD)
         List<CuentaId> cuentaIds = entity.getCuentasIds().stream().map(
             entitys -> CuentaId.newCuentaId(entitys)).collect(Collectors.toList());
 
@@ -44,7 +51,7 @@ public class ClienteMapper {
             }
         }
 
-        System.out.println("Cliente reconstruido desde BD: " + clienteId);
+        log.trace("Cliente reconstruido desde BD: {}", clienteId);
         return cliente;
 
 
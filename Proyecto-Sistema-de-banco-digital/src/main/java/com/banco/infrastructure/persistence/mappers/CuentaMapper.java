@@ -20,8 +20,9 @@ public class CuentaMapper {
     public Cuenta aDominio(CuentaEntity entity){
 
         // // Reconstruimos los Value Objects del dominio
-        CuentaId cuentaId =  CuentaId.newCuentaId(entity.getNumeroCuenta());
-        ClienteId clienteId = ClienteId.newCliente(entity.getClienteId());
+        // Los ids vienen de nuestra propia BD (ya se validaron al guardarlos): no se vuelven a validar
+        CuentaId cuentaId =  CuentaId.rehidratar(entity.getNumeroCuenta());
+        ClienteId clienteId = ClienteId.rehidratar(entity.getClienteId());
         Moneda moneda =  Moneda.fromCodigo(entity.getMoneda());
         Dinero saldo = Dinero.nuevo(entity.getSaldo(), moneda);
         boolean activa = entity.getActiva();
@@ -23,7 +23,8 @@ public class TransaccionMapper {
     public Transaccion aDominio(TransaccionEntity entity){
 
         // OBTENEMOS LOS DATOS JUNTO A SU RESPECTIVO DOMINIO
-        TransaccionId transaccionId = new TransaccionId(entity.getTransaccionId());
+        // Los ids vienen de nuestra propia BD (ya se validaron al guardarlos): no se vuelven a validar
+        TransaccionId transaccionId = TransaccionId.rehidratar(entity.getTransaccionId());
         TipoTransaccion tipoTransaccion = TipoTransaccion.valueOf(entity.getTipoTransaccion());
         Moneda moneda = Moneda.fromCodigo(entity.getMoneda());
         Dinero monto = Dinero.nuevo(entity.getMonto(), moneda);
@@ -32,14 +33,15 @@ public class TransaccionMapper {
         String referencia = entity.getReferencia();
         
 
+        // en los movimientos de una cuenta la misma cuenta se repite en cada fila: se comparte la instancia
         CuentaId cuentaOrigen = null;
         if(entity.getCuentaOrigenId() != null){
-            cuentaOrigen = CuentaId.newCuentaId(entity.getCuentaOrigenId());
+            cuentaOrigen = CuentaId.internada(entity.getCuentaOrigenId());
         }
 
         CuentaId cuentaDestino = null;
         if(entity.getCuentaDestinoId() != null){
-            cuentaDestino = CuentaId.newCuentaId(entity.getCuentaDestinoId());
+            cuentaDestino = CuentaId.internada(entity.getCuentaDestinoId());
         }
 
         //CREAMOS LA TRANSACCION 
@@ -0,0 +1,96 @@
+package com.banco.infrastructure.persistence.migraciones;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+
+
+
+// PARTICIONES MENSUALES DE transacciones (PostgreSQL)
+// La tabla esta particionada por rango de fecha_de_creacion, una particion por mes (transacciones_AAAA_MM).
+// - todos los dias se asegura que existan las particiones del mes actual y de los proximos meses
+// - si igual faltaba una (mantenimiento caido o atrasado) los INSERT caen en transacciones_default en vez de
+//   fallar: se avisa en el log y al crear la particion del mes sus filas se mueven ahi
+// - archivar un mes viejo es DETACH PARTITION: la particion pasa a ser una tabla comun que se puede
+//   exportar o borrar entera, sin DELETE masivo ni vacuum sobre la tabla viva
+// Con otro proveedor (H2 en los tests) no hay particiones y no hace nada.
+
+@Component
+public class MantenimientoParticiones {
+
+
+    private static final Logger log = LoggerFactory.getLogger(MantenimientoParticiones.class);
+
+    private static final DateTimeFormatter FORMATO_PARTICION = DateTimeFormatter.ofPattern("yyyy_MM");
+
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MigradorEsquema migradorEsquema;
+
+    // Meses por delante del actual que tienen que tener particion creada
+    @Value("${banco.particiones.meses-adelante:3}")
+    private int mesesAdelante = 3;
+
+
+    public MantenimientoParticiones(JdbcTemplate jdbcTemplate, MigradorEsquema migradorEsquema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.migradorEsquema = migradorEsquema;
+    }
+
+
+
+    // CREA LAS PARTICIONES FALTANTES (idempotente)
+    // tambien al arrancar: despues de una parada larga el mes actual podria no tener particion
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${banco.particiones.cron:0 0 3 * * *}")
+    public void crearParticionesFuturas(){
+
+        if(!particionado()) return;
+
+        Long sinParticion = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones_default", Long.class);
+        if(sinParticion != null && sinParticion > 0) log.warn(
+            "{} transacciones cayeron en transacciones_default (faltaba la particion de su mes): se mueven a la particion nueva",
+            sinParticion);
+
+        jdbcTemplate.execute("SELECT crear_particiones_transacciones(" + mesesAdelante + ")");
+    }
+
+
+    // DESVINCULA EL MES PARA ARCHIVARLO
+    // Sin CONCURRENTLY: PostgreSQL no lo permite si hay particion por defecto. Bloquea la tabla padre
+    // solo lo que tarda en desvincular (no copia ni revisa filas): correrlo fuera de hora pico
+    public String desvincularParticion(YearMonth mes){
+
+        if(!particionado()) throw new IllegalStateException("La tabla de transacciones no esta particionada");
+
+        if(!mes.isBefore(YearMonth.now())) throw new IllegalArgumentException("Solo se pueden archivar meses cerrados");
+
+        String particion = nombreParticion(mes);
+        jdbcTemplate.execute("ALTER TABLE transacciones DETACH PARTITION " + particion);
+
+        return particion;
+    }
+
+
+    public static String nombreParticion(YearMonth mes){
+        return "transacciones_" + mes.format(FORMATO_PARTICION);
+    }
+
+
+
+
+    // METODOS AUXILIARES
+
+    private boolean particionado(){
+        return migradorEsquema.isEsquemaGestionado() && "postgresql".equals(migradorEsquema.getProveedor());
+    }
+}
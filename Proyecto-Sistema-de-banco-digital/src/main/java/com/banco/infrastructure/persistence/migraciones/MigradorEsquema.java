@@ -0,0 +1,232 @@
+package com.banco.infrastructure.persistence.migraciones;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+
+
+
+// MIGRACIONES DE ESQUEMA VERSIONADAS
+// Aplica en orden los scripts  <ubicacion>/<proveedor>/V<n>__<descripcion>.sql  que todavia no se aplicaron
+// y deja registro en la tabla esquema_migraciones (version, descripcion, checksum, fecha).
+// - <proveedor> sale del nombre de la BD en minusculas (postgresql, h2, ...): sin carpeta para el proveedor no hace nada
+// - cada script se manda entero en un solo execute() y en su propia transaccion junto con su registro
+// - un script ya aplicado que cambia de contenido corta el arranque: las migraciones no se editan, se agregan
+
+public class MigradorEsquema implements InitializingBean {
+
+
+    private static final String TABLA_HISTORIAL = "esquema_migraciones";
+    private static final Pattern NOMBRE_SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    // clave fija del advisory lock: dos instancias arrancando a la vez no aplican el mismo script
+    private static final long CLAVE_BLOQUEO_POSTGRES = 20_170_001L;
+
+
+    private final DataSource dataSource;
+    private final String ubicacion;
+    private final boolean habilitado;
+
+    // true cuando el proveedor tiene scripts: el esquema lo define la migracion y no Hibernate
+    private boolean esquemaGestionado = false;
+    private String proveedor;
+
+
+    public MigradorEsquema(DataSource dataSource, String ubicacion, boolean habilitado) {
+        this.dataSource = dataSource;
+        this.ubicacion = ubicacion.endsWith("/") ? ubicacion : ubicacion + "/";
+        this.habilitado = habilitado;
+    }
+
+
+
+    @Override
+    public void afterPropertiesSet() {
+        migrar();
+    }
+
+
+    public int migrar(){
+
+        if(!habilitado) return 0;
+
+        try (Connection conexion = dataSource.getConnection()) {
+
+            proveedor = conexion.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+
+            List<Script> scripts = buscarScripts(proveedor);
+            if(scripts.isEmpty()) return 0;
+
+            esquemaGestionado = true;
+
+            return aplicarPendientes(conexion, scripts);
+
+        } catch (SQLException | IOException e) {
+            throw new IllegalStateException("No se pudo migrar el esquema de la base de datos", e);
+        }
+    }
+
+
+    public boolean isEsquemaGestionado() { return esquemaGestionado; }
+
+    public String getProveedor() { return proveedor; }
+
+
+
+
+    // METODOS AUXILIARES
+
+    private int aplicarPendientes(Connection conexion, List<Script> scripts) throws SQLException {
+
+        boolean autoCommitOriginal = conexion.getAutoCommit();
+        boolean postgres = "postgresql".equals(proveedor);
+
+        if(postgres) ejecutar(conexion, "SELECT pg_advisory_lock(" + CLAVE_BLOQUEO_POSTGRES + ")");
+
+        try {
+
+            crearTablaHistorial(conexion);
+            Map<Integer, Long> aplicadas = buscarAplicadas(conexion);
+
+            int cantidadAplicadas = 0;
+
+            for(Script script : scripts){
+
+                Long checksumAplicado = aplicadas.get(script.version());
+
+                if(checksumAplicado == null){
+                    aplicar(conexion, script);
+                    cantidadAplicadas++;
+
+                } else if(checksumAplicado != script.checksum()){
+                    throw new IllegalStateException("La migracion V" + script.version() +
+                        " (" + script.descripcion() + ") fue modificada despues de aplicarse");
+                }
+            }
+            return cantidadAplicadas;
+
+        } finally {
+            conexion.setAutoCommit(autoCommitOriginal);
+            if(postgres) ejecutar(conexion, "SELECT pg_advisory_unlock(" + CLAVE_BLOQUEO_POSTGRES + ")");
+        }
+    }
+
+
+    private void aplicar(Connection conexion, Script script) throws SQLException {
+
+        conexion.setAutoCommit(false);
+
+        try (Statement sentencia = conexion.createStatement();
+             PreparedStatement registro = conexion.prepareStatement(
+                "INSERT INTO " + TABLA_HISTORIAL + " (version, descripcion, checksum, aplicada_en) VALUES (?, ?, ?, ?)")) {
+
+            sentencia.execute(script.sql());
+
+            registro.setInt(1, script.version());
+            registro.setString(2, script.descripcion());
+            registro.setLong(3, script.checksum());
+            registro.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+            registro.executeUpdate();
+
+            conexion.commit();
+
+        } catch (SQLException e) {
+            conexion.rollback();
+            throw new IllegalStateException("Fallo la migracion V" + script.version() + " (" + script.descripcion() + ")", e);
+        }
+    }
+
+
+    private void crearTablaHistorial(Connection conexion) throws SQLException {
+
+        ejecutar(conexion,
+            "CREATE TABLE IF NOT EXISTS " + TABLA_HISTORIAL + " (" +
+            "version INTEGER PRIMARY KEY, " +
+            "descripcion VARCHAR(200) NOT NULL, " +
+            "checksum BIGINT NOT NULL, " +
+            "aplicada_en TIMESTAMP NOT NULL)");
+    }
+
+
+    private Map<Integer, Long> buscarAplicadas(Connection conexion) throws SQLException {
+
+        Map<Integer, Long> aplicadas = new HashMap<>();
+
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT version, checksum FROM " + TABLA_HISTORIAL)) {
+
+            while(filas.next()){
+                aplicadas.put(filas.getInt(1), filas.getLong(2));
+            }
+        }
+        return aplicadas;
+    }
+
+
+    private List<Script> buscarScripts(String proveedor) throws IOException {
+
+        Resource[] recursos = new PathMatchingResourcePatternResolver()
+            .getResources(ubicacion + proveedor + "/V*__*.sql");
+
+        List<Script> scripts = new ArrayList<>();
+
+        for(Resource recurso : recursos){
+
+            Matcher nombre = NOMBRE_SCRIPT.matcher(recurso.getFilename());
+            if(!nombre.matches()) continue;
+
+            String sql;
+            try (InputStream contenido = recurso.getInputStream()) {
+                sql = new String(contenido.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            scripts.add(new Script(Integer.parseInt(nombre.group(1)), nombre.group(2), sql, checksum(sql)));
+        }
+
+        scripts.sort(Comparator.comparingInt(Script::version));
+        return scripts;
+    }
+
+
+    // fin de linea normalizado: el mismo script en Windows y en Linux da el mismo checksum
+    private long checksum(String sql){
+
+        CRC32 crc = new CRC32();
+        crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+
+    private void ejecutar(Connection conexion, String sql) throws SQLException {
+
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(sql);
+        }
+    }
+
+
+    private record Script(int version, String descripcion, String sql, long checksum) {}
+}
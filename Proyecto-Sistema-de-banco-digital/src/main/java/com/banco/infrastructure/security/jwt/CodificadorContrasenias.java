@@ -0,0 +1,69 @@
+package com.banco.infrastructure.security.jwt;
+
+import java.util.Map;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+
+
+
+// CODIFICADOR DE CONTRASEÑAS
+// - los hashes nuevos se guardan como {bcrypt}$2a$<costo>$...: el prefijo deja cambiar de algoritmo mas adelante
+// - los hashes viejos (bcrypt sin prefijo, cualquier costo) se siguen verificando
+// - upgradeEncoding() da true para hashes sin prefijo o con un costo MENOR al configurado: en el proximo login
+//   exitoso Spring Security vuelve a codificar la contraseña (UserDetailsPasswordService) con el costo actual.
+//   Un hash con costo mayor (p. ej. despues de bajar el costo calibrado) se deja como esta: no se debilita
+
+public final class CodificadorContrasenias {
+
+
+    public static final int COSTO_MINIMO = 10;
+    public static final int COSTO_MAXIMO = 16;
+
+    private static final String ID_BCRYPT = "bcrypt";
+
+
+    private CodificadorContrasenias() {}
+
+
+
+    public static PasswordEncoder crear(int costo){
+
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(costo);
+
+        DelegatingPasswordEncoder codificador = new DelegatingPasswordEncoder(ID_BCRYPT, Map.of(ID_BCRYPT, bcrypt));
+        codificador.setDefaultPasswordEncoderForMatches(bcrypt); // hashes guardados antes del prefijo
+
+        return codificador;
+    }
+
+
+    // COSTO CALIBRADO
+    // Cada punto de costo duplica el tiempo de bcrypt: se mide el costo minimo en ESTA maquina y se elige
+    // el mayor costo que entre en el tiempo objetivo por login
+    public static int calibrarCosto(long objetivoMs){
+
+        BCryptPasswordEncoder referencia = new BCryptPasswordEncoder(COSTO_MINIMO);
+        referencia.encode("calentamiento");
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            referencia.encode("calibracion");
+        }
+        double msCostoMinimo = (System.nanoTime() - inicio) / 3 / 1_000_000.0;
+
+        return costoParaObjetivo(msCostoMinimo, objetivoMs);
+    }
+
+
+    static int costoParaObjetivo(double msCostoMinimo, long objetivoMs){
+
+        if(msCostoMinimo <= 0) return COSTO_MAXIMO;
+
+        int puntosExtra = (int) Math.floor(Math.log(objetivoMs / msCostoMinimo) / Math.log(2));
+
+        return Math.max(COSTO_MINIMO, Math.min(COSTO_MAXIMO, COSTO_MINIMO + puntosExtra));
+    }
+}
@@ -0,0 +1,51 @@
+package com.banco.infrastructure.security.jwt;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.banco.infrastructure.persistence.entities.UsuarioEntity;
+
+
+
+
+// FOTO INMUTABLE de un usuario (username, hash de la contraseña, roles, clienteId) para el cache de UsersDetailsService.
+// El cache la comparte entre todos los hilos y peticiones: por eso no se guarda la UsuarioEntity (mutable y de JPA).
+// No implementa CredentialsContainer: Spring Security no puede borrarle la contraseña despues de un login,
+// que dejaria sin hash al resto de las peticiones que usan la misma foto.
+
+public final class FotoUsuario implements UserDetails {
+
+
+    private final String username;
+    private final String password;
+    private final String clienteId;
+    private final List<GrantedAuthority> authorities;
+
+
+    public FotoUsuario(String username, String password, String clienteId, Collection<? extends GrantedAuthority> authorities) {
+        this.username = username;
+        this.password = password;
+        this.clienteId = clienteId;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    public static FotoUsuario de(UsuarioEntity usuario){
+        return new FotoUsuario(usuario.getUsername(), usuario.getPassword(), usuario.getClienteId(), usuario.getAuthorities());
+    }
+
+
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public String getPassword() { return password; }
+
+    @Override
+    public String getUsername() { return username; }
+
+    public String getClienteId() { return clienteId; }
+}
@@ -2,6 +2,7 @@ package com.banco.infrastructure.security.jwt;
 
 import java.io.IOException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -10,11 +11,19 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.banco.infrastructure.metricas.RegistroMetricas;
+import com.banco.infrastructure.metricas.Temporizador;
+
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 
 
 // OncePerRequestFilter = 
@@ -28,15 +37,34 @@ import jakarta.servlet.http.HttpServletResponse;
 @SuppressWarnings("all") // elimina los warings 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     
 
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final RevocacionTokens revocacionTokens;
+
+    // banco_jwt_validacion_seconds{resultado}: cuanto cuesta abrir y validar el token de cada peticion
+    private final Temporizador validos;
+    private final Temporizador invalidos;
+    private final Temporizador revocados;
+
+    // true: roles y clienteId salen del token y no hay consulta a la BD por peticion
+    @Value("${banco.seguridad.jwt.sin-estado:true}")
+    private boolean sinEstado = true;
 
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService,
+        RevocacionTokens revocacionTokens, RegistroMetricas registroMetricas) {
         this.jwtUtils = jwtUtils;
         this.userDetailsService = userDetailsService;
+        this.revocacionTokens = revocacionTokens;
+
+        String ayuda = "Duracion de la validacion del token JWT por resultado";
+        this.validos = registroMetricas.temporizador("banco_jwt_validacion_seconds", ayuda, "resultado", "valido");
+        this.invalidos = registroMetricas.temporizador("banco_jwt_validacion_seconds", ayuda, "resultado", "invalido");
+        this.revocados = registroMetricas.temporizador("banco_jwt_validacion_seconds", ayuda, "resultado", "revocado");
     }
 
 
@@ -51,20 +79,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
 
+            long inicio = System.nanoTime();
+            Temporizador resultado = null;
+
             try {
                 
                 String token = extraerToken(request);
 
                 // validar token y si ya esta autenticado(SecurityContextHolder)
                 if(token != null){
-                    String username = jwtUtils.extraerUsername(token);
 
-                    if(username != null && SecurityContextHolder.getContext().getAuthentication() == null){
+                    // se abre el token UNA vez (firma + formato) y los mismos claims sirven para validar
+                    resultado = invalidos;
+                    Claims claims = jwtUtils.extraerTodoClaims(token);
+                    String username = claims.getSubject();
+
+                    boolean sinAutenticar = username != null && SecurityContextHolder.getContext().getAuthentication() == null;
+                    boolean revocado = sinAutenticar && revocacionTokens.estaRevocado(username, jwtUtils.emitidoEn(claims));
+                    if(revocado) resultado = revocados;
+                    else if(username != null && !sinAutenticar) resultado = validos; // ya autenticado antes de este filtro
 
-                        // cargamos usuario
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    if(sinAutenticar && !revocado){
 
-                        if(jwtUtils.validateToken(token, userDetails)){
+                        // sin estado: el usuario sale del token; si no (o token viejo sin roles) se carga de la BD
+                        UserDetails userDetails = (sinEstado && jwtUtils.tieneRoles(claims))
+                            ? jwtUtils.usuarioDesdeClaims(claims)
+                            : userDetailsService.loadUserByUsername(username);
+
+                        if(jwtUtils.validateToken(claims, userDetails)){
 
                             // crear autorizacion y ponerla en el contexto
                             // Este es el usuario que se autenticó y estos son sus permisos.
@@ -76,16 +118,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                             // Guardamos al usuario en el contexto
                             SecurityContextHolder.getContext().setAuthentication(authToken);
-                            System.out.println("Usuario autenticado: " + username);
+                            resultado = validos;
+                            log.trace("Usuario autenticado: {}", username);
                         }
                     }
                 }
                 
 
             } catch (Exception e) {
-                System.out.println("Error en autenticación JWT: " + e.getMessage());
+                log.debug("Error en autenticacion JWT: {}", e.getMessage());
             }
 
+            // sin token no hay nada que medir
+            if(resultado != null) resultado.registrar(System.nanoTime() - inicio);
+
 
             // continuamos al controlador con todo verificado
             filterChain.doFilter(request, response);
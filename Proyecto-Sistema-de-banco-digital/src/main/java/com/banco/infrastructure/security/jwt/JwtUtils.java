@@ -3,15 +3,19 @@ package com.banco.infrastructure.security.jwt;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -26,31 +30,54 @@ import io.jsonwebtoken.security.Keys;
 public class JwtUtils {
     
 
-    //@Value - firma u codigo, Spring traeme este valor del archivo de configuración(application.properties).
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_CLIENTE_ID = "clienteId";
+    // instante de emision en milisegundos: iat tiene precision de segundos y la revocacion necesita mas
+    private static final String CLAIM_EMITIDO_MS = "iatMs";
 
     //Es el plazo de validez del token 24hs(en milisegundos).
-    @Value("${jwt.expiration}")
-    private int jwtExpiration;
+    private final int jwtExpiration;
+
+    // La clave y el parser se arman UNA sola vez al arrancar y se comparten entre todas las peticiones:
+    // son inmutables y seguros entre hilos
+    private final Key clave;
+    private final JwtParser parser;
+
+
+    //@Value - firma u codigo, Spring traeme este valor del archivo de configuración(application.properties).
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret, @Value("${jwt.expiration}") int jwtExpiration) {
+
+        this.jwtExpiration = jwtExpiration;
+        this.clave = Keys.hmacShaKeyFor(jwtSecret.getBytes()); //  Toma los bytes y crea una clave HMAC-SHA (el algoritmo de firma).
+        this.parser = Jwts.parserBuilder() //Prepara un "lector" de tokens JWT.
+               .setSigningKey(clave) // Uso la llave para abrir
+               .build();
+    }
 
 
-     // Generar clave secreta segura
+     // Clave secreta segura
      public Key key(){
-        
-        byte[] bytes = jwtSecret.getBytes(); // Convierte el String en un array de bytes.
-        return Keys.hmacShaKeyFor(bytes);    //  Toma esos bytes y crea una clave HMAC-SHA (el algoritmo de firma).
+        return clave;
      }
 
 
 
      // GENERAR TOKEN
      public String generarToken(UserDetails userDetails){
+        return generarToken(userDetails, null);
+     }
+
+     // roles y clienteId viajan en el token: el filtro arma la autenticacion sin consultar la BD
+     public String generarToken(UserDetails userDetails, String clienteId){
 
         // Agregar información extra al token
         // Nota = Siempre y cuando cumpla con clave, valor = Map<String, Object>
         Map<String, Object> claims = new HashMap<>();
-        claims.put("rol", userDetails.getAuthorities());
+        claims.put(CLAIM_ROLES, userDetails.getAuthorities().stream()
+            .map(GrantedAuthority::getAuthority)
+            .toList());
+
+        if(clienteId != null) claims.put(CLAIM_CLIENTE_ID, clienteId);
 
         return crearToken(claims, userDetails.getUsername());
 
@@ -58,14 +85,17 @@ public class JwtUtils {
 
      private String crearToken(Map<String, Object> claims, String subject){
 
+        long ahora = System.currentTimeMillis();
+        claims.put(CLAIM_EMITIDO_MS, ahora);
+
         // Crea el token con todos los datos necesarios como Codigo, valor
         // Transforma a un String largo que retornara
         return Jwts.builder()
                .setClaims(claims) //informacion extra
                .setSubject(subject) // sujetx
-               .setIssuedAt(new Date(System.currentTimeMillis())) //conjunto demandado en...
-               .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration)) // expira en..
-               .signWith(key(), SignatureAlgorithm.HS256) //firma con el algoritmo..
+               .setIssuedAt(new Date(ahora)) //conjunto demandado en...
+               .setExpiration(new Date(ahora + jwtExpiration)) // expira en..
+               .signWith(clave, SignatureAlgorithm.HS256) //firma con el algoritmo..
                .compact();
 
 
@@ -86,17 +116,46 @@ public class JwtUtils {
         return extraerClaimsEspecificamente(token, Claims::getExpiration);
      }
 
-    private Boolean tokenExpirado(String token) {
-        return extraerExpiracion(token).before(new Date());
-    }
-
 
     //  VALIDAR TOKEN
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extraerUsername(token);
-        return (username.equals(userDetails.getUsername()) && !tokenExpirado(token));
+        return validateToken(extraerTodoClaims(token), userDetails);
     }
 
+    // con los claims ya leidos: el filtro abre el token una sola vez por peticion
+    public Boolean validateToken(Claims claims, UserDetails userDetails) {
+        final String username = claims.getSubject();
+        return (username != null && username.equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
+    }
+
+
+     // EMISION CON MILISEGUNDOS
+     // los tokens emitidos antes del claim iatMs solo traen iat (segundos): se toma el final de ese segundo,
+     // asi una revocacion en el mismo segundo los sigue rechazando
+     public Date emitidoEn(Claims claims){
+
+        if(claims.get(CLAIM_EMITIDO_MS) instanceof Number emitido) return new Date(emitido.longValue());
+
+        Date iat = claims.getIssuedAt();
+        return iat == null ? null : new Date(iat.getTime() + 999);
+     }
+
+
+     // USUARIO DESDE EL TOKEN
+     // los tokens emitidos antes de agregar el claim de roles no lo traen: esos se resuelven con la BD
+     public boolean tieneRoles(Claims claims){
+        return claims.get(CLAIM_ROLES) instanceof List;
+     }
+
+     public UsuarioAutenticado usuarioDesdeClaims(Claims claims){
+
+        List<GrantedAuthority> roles = ((List<?>) claims.get(CLAIM_ROLES)).stream()
+            .map(rol -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(rol)))
+            .toList();
+
+        return new UsuarioAutenticado(claims.getSubject(), claims.get(CLAIM_CLIENTE_ID, String.class), roles);
+     }
+
 
      // La función devuelve lo que necesitás (String, Date, etc.)
      // <T> Tipo de dato generico - declara el tipo genérico
@@ -112,9 +171,7 @@ public class JwtUtils {
      // Este método abre el token, verifica que sea auténtico y devuelve los datos que contiene.
      public Claims extraerTodoClaims(String token){
 
-        return Jwts.parserBuilder() //Prepara un "lector" de tokens JWT.
-               .setSigningKey(key()) // Uso la llave para abrir 
-               .build()
+        return parser
                .parseClaimsJws(token) //Analiza el token y verifica: Que la firma sea válida, expiracion y formato
                .getBody(); //Devuelve los claims (toda la info que guarde: sub, rol, exp, etc.)
                
@@ -0,0 +1,90 @@
+package com.banco.infrastructure.security.jwt;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+
+
+
+// REVOCACION DE TOKENS
+// Con autenticacion sin estado el token alcanza para entrar hasta que expira. Para cortar antes
+// (logout, usuario deshabilitado, cambio de rol) se guarda usuario -> instante de revocacion:
+// todo token de ese usuario emitido hasta ese instante se rechaza.
+// - una entrada vieja se descarta sola cuando pasa la vigencia del token: ya no queda token vivo que rechazar
+// - cantidad de entradas ACOTADA: si se llena, la mas vieja se reemplaza por una marca global
+//   (se rechaza todo token emitido antes de ella). Ante la duda se pide login de nuevo, nunca se deja pasar
+// Es memoria local de cada instancia.
+
+@Component
+public class RevocacionTokens {
+
+
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+
+    // tokens emitidos hasta este instante quedan rechazados para todos los usuarios
+    private volatile long revocadosHasta = 0L;
+
+    // Cantidad maxima de usuarios revocados que se recuerdan
+    @Value("${banco.seguridad.revocaciones-maximas:10000}")
+    private int capacidad = 10_000;
+
+    // Vigencia de los tokens (ms): pasado ese tiempo la revocacion ya no hace falta
+    @Value("${jwt.expiration:86400000}")
+    private long vigenciaToken = 86_400_000L;
+
+
+
+    public void revocar(String username){
+
+        long ahora = System.currentTimeMillis();
+        revocados.put(username, ahora);
+
+        if(revocados.size() > capacidad) liberarEspacio(ahora);
+    }
+
+
+    // emitidoEn viene de JwtUtils.emitidoEn: milisegundos, asi un login en el mismo segundo que el logout
+    // no queda revocado. Se compara con <=: un token del mismo milisegundo que la revocacion queda afuera
+    public boolean estaRevocado(String username, Date emitidoEn){
+
+        if(emitidoEn == null) return true;
+
+        long emitido = emitidoEn.getTime();
+        if(emitido <= revocadosHasta) return true;
+
+        Long revocadoEn = revocados.get(username);
+        return revocadoEn != null && emitido <= revocadoEn;
+    }
+
+
+    public int cantidadRevocados() { return revocados.size(); }
+
+
+
+
+    // METODOS AUXILIARES
+
+    private synchronized void liberarEspacio(long ahora){
+
+        // primero las que ya no protegen nada
+        revocados.values().removeIf(revocadoEn -> revocadoEn < ahora - vigenciaToken);
+
+        // despues las mas viejas, subiendo la marca global hasta ellas
+        while(revocados.size() > capacidad){
+
+            Map.Entry<String, Long> masVieja = revocados.entrySet().stream()
+                .min(Map.Entry.comparingByValue(Comparator.naturalOrder()))
+                .orElse(null);
+
+            if(masVieja == null) return;
+
+            revocadosHasta = Math.max(revocadosHasta, masVieja.getValue());
+            revocados.remove(masVieja.getKey(), masVieja.getValue());
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package com.banco.infrastructure.security.jwt;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.banco.application.services.UsersDetailsService;
 
 
@@ -21,6 +28,11 @@ import com.banco.application.services.UsersDetailsService;
 @EnableWebSecurity  // Activa la seguridad web
 @Profile("!test") //no carga cuando el perfil es tets
 public class SecurityConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    static final String RUTA_METRICAS = "/actuator/prometheus";
+    static final String[] ROLES_METRICAS = {"ADMIN", "METRICAS"};
     
 
     private final UsersDetailsService usersDetailsService;
@@ -37,11 +49,18 @@ public class SecurityConfig {
     // lo cual con un @Autowired en una propiedad tendremos el resultado del metodo
     // logrando que sea mas dinamico sin tener que crear el objeto nosotros mismos
     
+    // costo: cada punto duplica el tiempo de cada login. Con objetivo-ms > 0 el costo se calibra
+    // al arrancar midiendo esta maquina (ej: 250 -> el mayor costo que tarde <= 250 ms)
     @Bean
-    public PasswordEncoder passwordEncoder(){
+    public PasswordEncoder passwordEncoder(
+        @Value("${banco.seguridad.bcrypt.costo:10}") int costo,
+        @Value("${banco.seguridad.bcrypt.objetivo-ms:0}") long objetivoMs){
         // BCrypt: Encripta contraseñas (no se guardan en texto plano)
         // // Cada vez que encriptás, obtenés un hash diferente (seguro)
-        return new BCryptPasswordEncoder();
+        int costoFinal = objetivoMs > 0 ? CodificadorContrasenias.calibrarCosto(objetivoMs) : costo;
+        log.info("Costo de bcrypt: {}", costoFinal);
+
+        return CodificadorContrasenias.crear(costoFinal);
     }
 
     // AuthenticationManager - se usa para autenticar usuarios por primera vez en el Login
@@ -53,8 +72,13 @@ public class SecurityConfig {
     }
 
 
+    // Metricas (/actuator/prometheus): el scrape manda un token con rol ADMIN o METRICAS.
+    // banco.metricas.acceso-anonimo=true las abre sin token (solo si la red ya las aisla); por defecto cerradas
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception{
+    public SecurityFilterChain filterChain(HttpSecurity http,
+        @Value("${banco.metricas.acceso-anonimo:false}") boolean metricasAnonimas) throws Exception{
+
+        if(metricasAnonimas) log.warn("{} abierto sin autenticacion (banco.metricas.acceso-anonimo=true)", RUTA_METRICAS);
 
 
         // Nota : //CSRF = (falsificación de petición). Un ataque donde un sitio 
@@ -78,6 +102,9 @@ public class SecurityConfig {
             .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
             .requestMatchers("/api/clientes/verificar-email").permitAll()
 
+            // scrape de Prometheus
+            .requestMatchers(RUTA_METRICAS).access(accesoMetricas(metricasAnonimas))
+
             // Rutas Protegidas
             .requestMatchers("/api/clientes/**").authenticated()
             .requestMatchers("/api/cuentas/**").authenticated()
@@ -98,7 +125,14 @@ public class SecurityConfig {
 
     }
 
-    
 
 
+    // METODOS AUXILIARES
+
+    private static AuthorizationManager<RequestAuthorizationContext> accesoMetricas(boolean anonimas){
+
+        if(anonimas) return (autenticacion, contexto) -> new AuthorizationDecision(true);
+
+        return AuthorityAuthorizationManager.hasAnyRole(ROLES_METRICAS);
+    }
 }
@@ -0,0 +1,41 @@
+package com.banco.infrastructure.security.jwt;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+
+
+
+// Usuario armado SOLO con los claims del token (username, roles, clienteId), sin ir a la base de datos.
+// No tiene contraseña: nunca se usa para un login, solo como principal de una peticion ya autenticada
+
+public class UsuarioAutenticado implements UserDetails {
+
+
+    private final String username;
+    private final String clienteId;
+    private final List<GrantedAuthority> authorities;
+
+
+    public UsuarioAutenticado(String username, String clienteId, List<GrantedAuthority> authorities) {
+        this.username = username;
+        this.clienteId = clienteId;
+        this.authorities = List.copyOf(authorities);
+    }
+
+
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public String getPassword() { return null; }
+
+    @Override
+    public String getUsername() { return username; }
+
+    public String getClienteId() { return clienteId; }
+}
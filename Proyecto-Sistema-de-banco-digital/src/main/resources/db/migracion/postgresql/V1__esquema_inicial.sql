@@ -0,0 +1,43 @@
+-- ESQUEMA INICIAL
+-- Las mismas tablas que generaba Hibernate: IF NOT EXISTS para adoptar una base ya creada por ddl-auto
+
+CREATE TABLE IF NOT EXISTS clientes (
+    id                          UUID            NOT NULL PRIMARY KEY,
+    cliente_id                  VARCHAR(50)     NOT NULL UNIQUE,
+    nombre                      VARCHAR(100)    NOT NULL,
+    email                       VARCHAR(50)     NOT NULL UNIQUE,
+    activa                      BOOLEAN         NOT NULL,
+    maximo_cuentas_permitidas   INTEGER         NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS cliente_cuentas (
+    cliente_entity_id   UUID            NOT NULL REFERENCES clientes (id),
+    cuentas_ids         VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS cuentas (
+    id              UUID            NOT NULL PRIMARY KEY,
+    numero_cuenta   VARCHAR(30)     NOT NULL UNIQUE,
+    cliente_id      VARCHAR(50)     NOT NULL,
+    saldo           NUMERIC(15,2)   NOT NULL,
+    moneda          VARCHAR(3)      NOT NULL,
+    activa          BOOLEAN         NOT NULL,
+    version         BIGINT          NOT NULL DEFAULT 0
+);
+
+-- version en una tabla cuentas adoptada: la de antes del bloqueo optimista no la tiene y la de ddl-auto
+-- la permite nula (Hibernate no puede incrementar una version NULL). Con migraciones activas Hibernate no
+-- agrega columnas (hbm2ddl.auto=none): se completa aca
+ALTER TABLE cuentas ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+UPDATE cuentas SET version = 0 WHERE version IS NULL;
+ALTER TABLE cuentas ALTER COLUMN version SET DEFAULT 0;
+ALTER TABLE cuentas ALTER COLUMN version SET NOT NULL;
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    id          UUID            NOT NULL PRIMARY KEY,
+    username    VARCHAR(50)     NOT NULL UNIQUE,
+    password    VARCHAR(255)    NOT NULL,
+    email       VARCHAR(255)    NOT NULL UNIQUE,
+    rol         VARCHAR(255)    NOT NULL,
+    cliente_id  VARCHAR(255)
+);
@@ -0,0 +1,122 @@
+-- TRANSACCIONES PARTICIONADA POR MES
+-- PARTITION BY RANGE (fecha_de_creacion), una particion por mes: transacciones_AAAA_MM
+-- - las consultas por rango de fechas solo leen las particiones del rango (partition pruning)
+-- - archivar un mes es DETACH PARTITION, sin DELETE masivo ni vacuum sobre la tabla viva
+-- En una tabla particionada toda PK/UNIQUE tiene que incluir la columna de particion:
+-- la PK pasa a (id, fecha_de_creacion) y transaccion_id es unico junto con la fecha
+-- transacciones_default recibe las filas de un mes sin particion (MantenimientoParticiones atrasado o caido):
+-- sin ella esos INSERT fallan. Al crear la particion del mes, sus filas se mueven ahi.
+-- Con particion por defecto PostgreSQL no permite DETACH ... CONCURRENTLY (ver MantenimientoParticiones)
+
+
+-- Si Hibernate ya habia creado la tabla comun, se aparta para copiar sus filas mas abajo
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+               WHERE c.relname = 'transacciones' AND n.nspname = current_schema() AND c.relkind = 'r') THEN
+
+        ALTER TABLE transacciones RENAME TO transacciones_legado;
+        ALTER INDEX IF EXISTS idx_transacciones_origen_fecha RENAME TO idx_transacciones_legado_origen_fecha;
+        ALTER INDEX IF EXISTS idx_transacciones_destino_fecha RENAME TO idx_transacciones_legado_destino_fecha;
+    END IF;
+END $$;
+
+
+CREATE TABLE IF NOT EXISTS transacciones (
+    id                  UUID            NOT NULL,
+    transaccion_id      VARCHAR(60)     NOT NULL,
+    tipo_transaccion    VARCHAR(20)     NOT NULL,
+    cuenta_origen_id    VARCHAR(50),
+    cuenta_destino_id   VARCHAR(50),
+    monto               NUMERIC(15,2)   NOT NULL,
+    moneda              VARCHAR(3)      NOT NULL,
+    descripcion         VARCHAR(200),
+    fecha_de_creacion   TIMESTAMP(6)    NOT NULL,
+    estado              VARCHAR(20)     NOT NULL,
+    referencia          VARCHAR(100),
+    PRIMARY KEY (id, fecha_de_creacion),
+    UNIQUE (transaccion_id, fecha_de_creacion)
+) PARTITION BY RANGE (fecha_de_creacion);
+
+CREATE TABLE IF NOT EXISTS transacciones_default PARTITION OF transacciones DEFAULT;
+
+-- indices en la tabla padre: cada particion recibe el suyo automaticamente
+CREATE INDEX IF NOT EXISTS idx_transacciones_origen_fecha  ON transacciones (cuenta_origen_id, fecha_de_creacion);
+CREATE INDEX IF NOT EXISTS idx_transacciones_destino_fecha ON transacciones (cuenta_destino_id, fecha_de_creacion);
+
+
+-- Crea la particion del mes que contiene la fecha (si no existe)
+-- Si el mes ya tiene filas en transacciones_default, CREATE ... PARTITION OF fallaria: la particion se crea
+-- suelta, recibe esas filas y recien ahi se agrega a la tabla
+CREATE OR REPLACE FUNCTION crear_particion_transacciones(mes DATE) RETURNS VOID AS $$
+DECLARE
+    inicio  DATE := date_trunc('month', mes)::DATE;
+    fin     DATE := (date_trunc('month', mes) + INTERVAL '1 month')::DATE;
+    nombre  TEXT := 'transacciones_' || to_char(date_trunc('month', mes), 'YYYY_MM');
+BEGIN
+    IF to_regclass(nombre) IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    IF NOT EXISTS (SELECT 1 FROM transacciones_default WHERE fecha_de_creacion >= inicio AND fecha_de_creacion < fin) THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF transacciones FOR VALUES FROM (%L) TO (%L)', nombre, inicio, fin);
+        RETURN;
+    END IF;
+
+    EXECUTE format('CREATE TABLE %I (LIKE transacciones INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', nombre);
+    EXECUTE format('WITH movidas AS (DELETE FROM transacciones_default WHERE fecha_de_creacion >= %L AND fecha_de_creacion < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM movidas', inicio, fin, nombre);
+    EXECUTE format('ALTER TABLE transacciones ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)', nombre, inicio, fin);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Crea la particion del mes actual y la de los proximos meses, y la de cada mes que quedo en transacciones_default
+CREATE OR REPLACE FUNCTION crear_particiones_transacciones(meses_adelante INTEGER) RETURNS VOID AS $$
+DECLARE
+    mes DATE;
+BEGIN
+    FOR m IN 0..meses_adelante LOOP
+        PERFORM crear_particion_transacciones((current_date + make_interval(months => m))::DATE);
+    END LOOP;
+
+    FOR mes IN SELECT DISTINCT date_trunc('month', fecha_de_creacion)::DATE FROM transacciones_default LOOP
+        PERFORM crear_particion_transacciones(mes);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+
+-- Particiones para los meses con datos existentes, copia de los datos y los meses que vienen.
+-- La tabla legado se borra solo si todas sus filas quedaron copiadas; si falta alguna la migracion falla
+-- (y con ella toda la transaccion de V2): no se pierde nada
+DO $$
+DECLARE
+    mes         DATE;
+    faltantes   BIGINT;
+BEGIN
+    IF to_regclass('transacciones_legado') IS NOT NULL THEN
+
+        FOR mes IN SELECT DISTINCT date_trunc('month', fecha_de_creacion)::DATE FROM transacciones_legado LOOP
+            PERFORM crear_particion_transacciones(mes);
+        END LOOP;
+
+        INSERT INTO transacciones (id, transaccion_id, tipo_transaccion, cuenta_origen_id, cuenta_destino_id,
+                                   monto, moneda, descripcion, fecha_de_creacion, estado, referencia)
+        SELECT id, transaccion_id, tipo_transaccion, cuenta_origen_id, cuenta_destino_id,
+               monto, moneda, descripcion, fecha_de_creacion, estado, referencia
+        FROM transacciones_legado;
+
+        SELECT COUNT(*) INTO faltantes
+        FROM transacciones_legado l
+        WHERE NOT EXISTS (SELECT 1 FROM transacciones t
+                          WHERE t.id = l.id AND t.fecha_de_creacion = l.fecha_de_creacion);
+
+        IF faltantes > 0 THEN
+            RAISE EXCEPTION 'transacciones_legado tiene % filas que no se copiaron a transacciones', faltantes;
+        END IF;
+
+        DROP TABLE transacciones_legado;
+    END IF;
+
+    PERFORM crear_particiones_transacciones(3);
+END $$;
@@ -0,0 +1,16 @@
+-- BUSQUEDA POR REFERENCIA
+-- Las consultas comparan UPPER(referencia): igualdad y LIKE 'prefijo%'.
+-- text_pattern_ops permite usar el indice para el LIKE por prefijo con cualquier collation
+CREATE INDEX IF NOT EXISTS idx_transacciones_referencia ON transacciones (UPPER(referencia) text_pattern_ops);
+
+
+-- Fragmento en cualquier posicion (LIKE '%x%'): indice trigram, si la extension se puede instalar.
+-- Sin permisos para pg_trgm la busqueda sigue funcionando, solo que sin indice
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+    CREATE INDEX IF NOT EXISTS idx_transacciones_referencia_trgm ON transacciones USING gin (UPPER(referencia) gin_trgm_ops);
+EXCEPTION
+    WHEN insufficient_privilege OR undefined_file THEN
+        RAISE NOTICE 'pg_trgm no disponible: la busqueda por fragmento de referencia queda sin indice';
+END $$;
@@ -0,0 +1,7 @@
+-- NUMEROS DE CUENTA
+-- Una fila por sucursal con el proximo numero sin reservar. Las instancias reservan bloques con
+-- UPDATE ... SET siguiente = siguiente + bloque (ver AsignadorNumerosCuenta)
+CREATE TABLE IF NOT EXISTS secuencias_cuenta (
+    sucursal    VARCHAR(4)  NOT NULL PRIMARY KEY,
+    siguiente   BIGINT      NOT NULL
+);
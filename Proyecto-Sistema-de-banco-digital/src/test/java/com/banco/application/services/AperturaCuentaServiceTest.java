@@ -9,6 +9,8 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -17,17 +19,21 @@ import static org.mockito.Mockito.when;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.banco.application.dto.AperturaCuentaRequest;
 import com.banco.application.dto.AperturaCuentaResponse;
@@ -41,6 +47,9 @@ import com.banco.domain.model.valueobjects.ClienteId;
 import com.banco.domain.model.valueobjects.CuentaId;
 import com.banco.domain.model.valueobjects.Dinero;
 import com.banco.domain.model.valueobjects.Moneda;
+import com.banco.infrastructure.config.AsignadorNumerosCuenta;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
 
 
 
@@ -60,6 +69,22 @@ class AperturaCuentaServiceTest {
 
     @Mock
     private TransaccionRepository transaccionRepository;
+
+    @Spy
+    private GeneradorTransaccionId generadorTransaccionId = new GeneradorTransaccionId(0);
+
+    // secuencia de cuentas en memoria, en lugar de la tabla secuencias_cuenta
+    @Spy
+    private AsignadorNumerosCuenta asignadorNumerosCuenta =
+        new AsignadorNumerosCuenta((sucursal, tamanio) -> SECUENCIA.getAndAdd(tamanio), 10);
+
+    private static final AtomicLong SECUENCIA = new AtomicLong(1);
+
+    // Ejecutor real sobre un transaction manager simulado: corre la operacion una vez, sin BD
+    private PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private EjecutorTransaccional ejecutorTransaccional = new EjecutorTransaccional(transactionManager);
     
 
     @InjectMocks
@@ -138,7 +163,7 @@ class AperturaCuentaServiceTest {
             verify(clienteRepository,times(1)).buscarPorId(clienteId.getValor());
             verify(clienteRepository, times(1)).actualizar(cliente);
             verify(cuentaRepository, times(1)).guardar(any(Cuenta.class));
-            verify(transaccionRepository,times(1)).guardar(any(Transaccion.class));
+            verify(transaccionRepository,times(1)).registrar(any(Transaccion.class));
 
 
         }
@@ -164,7 +189,7 @@ class AperturaCuentaServiceTest {
             verify(clienteRepository,times(1)).buscarPorId(clienteId.getValor());
             verify(clienteRepository, times(1)).actualizar(cliente);
             verify(cuentaRepository, times(1)).guardar(any(Cuenta.class));
-            verify(transaccionRepository, never()).guardar(any(Transaccion.class));
+            verify(transaccionRepository, never()).registrar(any(Transaccion.class));
 
 
         }
@@ -192,6 +217,22 @@ class AperturaCuentaServiceTest {
 
 
 
+        @Test
+        @DisplayName("Debería pedir el número de cuenta antes de abrir la transacción")
+        void ejecutarAperturaCuenta_NumeroAntesDeLaTransaccion() {
+
+            // la reserva de un bloque no puede pedir una segunda conexion mientras la apertura tiene la suya
+            aperturaCuentaService.ejecutarAperturaCuenta(requestValido);
+
+
+            InOrder orden = inOrder(asignadorNumerosCuenta, transactionManager, cuentaRepository);
+            orden.verify(asignadorNumerosCuenta).siguiente(1);
+            orden.verify(transactionManager).getTransaction(any());
+            orden.verify(cuentaRepository).guardar(any(Cuenta.class));
+        }
+
+
+
         @Test
         @DisplayName("Debería crear cuenta del tipo correcto según moneda")
         void ejecutarAperturaCuenta_TiposCuenta_CuentaConTipoCorrecto() {
@@ -452,7 +493,7 @@ class AperturaCuentaServiceTest {
             verify(clienteRepository, times(1)).buscarPorId(clienteId.getValor());
             verify(clienteRepository, never()).actualizar(any(Cliente.class));
             verify(cuentaRepository, never()).guardar(any(Cuenta.class));
-            verify(transaccionRepository, never()).guardar(any(Transaccion.class));
+            verify(transaccionRepository, never()).registrar(any(Transaccion.class));
         }
         
         @Test
@@ -478,7 +519,7 @@ class AperturaCuentaServiceTest {
             
             verify(clienteRepository, times(1)).actualizar(cliente);
             verify(cuentaRepository, times(1)).guardar(any(Cuenta.class));
-            verify(transaccionRepository, times(1)).guardar(any(Transaccion.class));
+            verify(transaccionRepository, times(1)).registrar(any(Transaccion.class));
         }
         
         @Test
@@ -489,7 +530,7 @@ class AperturaCuentaServiceTest {
             aperturaCuentaService.ejecutarAperturaCuenta(requestConSaldoInicial);
             
             
-            verify(transaccionRepository, times(1)).guardar(any(Transaccion.class));
+            verify(transaccionRepository, times(1)).registrar(any(Transaccion.class));
         }
 
 
@@ -516,9 +557,9 @@ class AperturaCuentaServiceTest {
             assertNotNull(response2.getCuentaId());
             assertNotNull(response3.getCuentaId());
             
-            assertThat(response1.getCuentaId()).isNotEqualTo(response2);
-            assertThat(response1.getCuentaId()).isNotEqualTo(response3);
-            assertThat(response2.getCuentaId()).isNotEqualTo(response3);
+            assertThat(response1.getCuentaId()).isNotEqualTo(response2.getCuentaId());
+            assertThat(response1.getCuentaId()).isNotEqualTo(response3.getCuentaId());
+            assertThat(response2.getCuentaId()).isNotEqualTo(response3.getCuentaId());
         }
         
         @Test
@@ -530,9 +571,9 @@ class AperturaCuentaServiceTest {
             aperturaCuentaService.ejecutarAperturaCuenta(requestConSaldoInicial);
             
             // argThat - validar argumentos cuando se llama a un método mockeado
-            verify(transaccionRepository).guardar(argThat(transaccion -> {
+            verify(transaccionRepository).registrar(argThat(transaccion -> {
                 String id = transaccion.getId().getValor();
-                return id.matches("^TXN-\\d{4}-\\d{7}$");
+                return id.matches("^TXN-\\d{4}-\\d{19}$");
             }));
         }
         
@@ -547,6 +588,7 @@ class AperturaCuentaServiceTest {
             //El ID completo debería pasar la validación
             String cuentaId = response.getCuentaId();
             assertDoesNotThrow(() -> CuentaId.newCuentaId(cuentaId));
+            assertThat(CuentaId.newCuentaId(cuentaId).tieneDigitoVerificadorValido()).isTrue();
         }
 
     }
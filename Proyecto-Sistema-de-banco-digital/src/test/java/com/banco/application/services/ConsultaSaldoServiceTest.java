@@ -3,6 +3,7 @@ package com.banco.application.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -15,6 +16,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -162,7 +164,7 @@ public class ConsultaSaldoServiceTest {
             assertThat(response.getMensaje()).contains("Consulta de saldo realizada");
 
             verify(cuentaRepository, times(1)).buscarPorId(cuentaId);
-            verify(transaccionRepository, never()).buscarPorCuenta(any(), any(), any());
+            verify(transaccionRepository, never()).buscarPorCuenta(any(), any(), any(), anyInt());
         }
 
         @Test
@@ -171,7 +173,7 @@ public class ConsultaSaldoServiceTest {
 
             // Configurar mock de transacciones
             when(transaccionRepository.buscarPorCuenta(
-            any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+            any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
             .thenReturn(transacciones);
 
             
@@ -192,7 +194,7 @@ public class ConsultaSaldoServiceTest {
             assertThat(response.getTotalEgresos()).isNotNull();
 
             verify(transaccionRepository, times(1)).buscarPorCuenta(
-            any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class));
+            any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt());
         }
 
         @Test
@@ -202,7 +204,7 @@ public class ConsultaSaldoServiceTest {
             requestConMovimientos.setLimiteMovimientos(2);
             
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transacciones);
 
             
@@ -211,6 +213,30 @@ public class ConsultaSaldoServiceTest {
             
             assertThat(response.getMovimientos()).hasSize(2);
             assertThat(response.isTieneMasMovimientos()).isTrue();
+
+            // la BD devuelve como maximo limite + 1 filas; nunca el periodo completo
+            verify(transaccionRepository, times(1)).buscarPorCuenta(
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), eq(3));
+            verify(transaccionRepository, times(1)).sumarMontosPorTipo(
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class));
+        }
+
+        @Test
+        @DisplayName("No debería indicar más movimientos si la BD devuelve hasta el límite")
+        void consultarSaldo_MovimientosHastaElLimite_SinMas() {
+
+            requestConMovimientos.setLimiteMovimientos(3);
+
+            when(transaccionRepository.buscarPorCuenta(
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
+                .thenReturn(transacciones);
+
+
+            ConsultaSaldoResponse response = consultaSaldoService.consultarSaldo(requestConMovimientos);
+
+
+            assertThat(response.getMovimientos()).hasSize(3);
+            assertThat(response.isTieneMasMovimientos()).isFalse();
         }
 
         @Test
@@ -245,7 +271,7 @@ public class ConsultaSaldoServiceTest {
             requestConMovimientos.setFechaHasta(hasta);
 
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transacciones);
 
             
@@ -258,7 +284,8 @@ public class ConsultaSaldoServiceTest {
             verify(transaccionRepository).buscarPorCuenta(
                 eq(cuenta),
                 argThat(fecha -> fecha.toLocalDate().equals(desde)),
-                argThat(fecha -> fecha.toLocalDate().equals(hasta))
+                argThat(fecha -> fecha.toLocalDate().equals(hasta)),
+                eq(11) // limite + 1
             );
         }
 
@@ -271,7 +298,7 @@ public class ConsultaSaldoServiceTest {
             requestConMovimientos.setFechaHasta(null);
 
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transacciones);
 
             
@@ -284,7 +311,8 @@ public class ConsultaSaldoServiceTest {
             verify(transaccionRepository).buscarPorCuenta(
                 eq(cuenta),
                 argThat(fecha -> fecha.toLocalDate().equals(LocalDate.now().minusDays(30))),
-                any(LocalDateTime.class)
+                any(LocalDateTime.class),
+                anyInt()
             );
         }
     }
@@ -468,9 +496,17 @@ public class ConsultaSaldoServiceTest {
             List<Transaccion> transaccionesTest = Arrays.asList(deposito, retiro, transferencia);
 
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transaccionesTest);
 
+            // los totales vienen de la consulta agregada (SUM ... GROUP BY tipo)
+            when(transaccionRepository.sumarMontosPorTipo(
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Map.of(
+                    TipoTransaccion.DEPOSITO, new BigDecimal("1000.00"),
+                    TipoTransaccion.RETIRO, new BigDecimal("300.00"),
+                    TipoTransaccion.TRANSFERENCIA, new BigDecimal("200.00")));
+
             
             ConsultaSaldoResponse response = consultaSaldoService.consultarSaldo(requestConMovimientos);
 
@@ -485,7 +521,7 @@ public class ConsultaSaldoServiceTest {
         void consultarSaldo_CalculaSaldoPosterior_Correctamente() {
 
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transacciones);
 
             
@@ -510,7 +546,7 @@ public class ConsultaSaldoServiceTest {
         void consultarSaldo_SinMovimientos_ListaVacia() {
             
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(List.of());
 
             
@@ -532,7 +568,7 @@ public class ConsultaSaldoServiceTest {
             requestConMovimientos.setFechaHasta(LocalDate.now().minusYears(4));
             
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(List.of());
 
             
@@ -570,7 +606,7 @@ public class ConsultaSaldoServiceTest {
             requestConMovimientos.setFechaHasta(null);
             
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transacciones);
 
            
@@ -580,7 +616,8 @@ public class ConsultaSaldoServiceTest {
             verify(transaccionRepository).buscarPorCuenta(
                 eq(cuenta),
                 argThat(fecha -> fecha.toLocalDate().equals(LocalDate.now().minusDays(30))),
-                any(LocalDateTime.class)
+                any(LocalDateTime.class),
+                anyInt()
             );
         }
 
@@ -633,7 +670,7 @@ public class ConsultaSaldoServiceTest {
             requestConMovimientos.setIncluirMovimientos(true);
 
             when(transaccionRepository.buscarPorCuenta(
-                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class)))
+                any(Cuenta.class), any(LocalDateTime.class), any(LocalDateTime.class), anyInt()))
                 .thenReturn(transacciones);
 
             
@@ -655,7 +692,7 @@ public class ConsultaSaldoServiceTest {
 
             
             assertThat(response.getMovimientos()).isEmpty();
-            verify(transaccionRepository, never()).buscarPorCuenta(any(), any(), any());
+            verify(transaccionRepository, never()).buscarPorCuenta(any(), any(), any(), anyInt());
         }
     }
 
@@ -142,7 +142,7 @@ public class GestionClienteServiceTest {
             assertThat(response.getNombre()).isEqualTo("Juan Pérez");
             assertThat(response.getEmail()).isEqualTo("juan@email.com");
 
-            verify(clienteRepository, times(2)).buscarPorId(anyString());
+            verify(clienteRepository, times(1)).buscarPorId(anyString());
         }
 
         @Test
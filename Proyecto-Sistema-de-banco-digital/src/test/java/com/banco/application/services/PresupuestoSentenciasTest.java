@@ -0,0 +1,206 @@
+package com.banco.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banco.application.dto.AperturaCuentaRequest;
+import com.banco.application.dto.AperturaCuentaResponse;
+import com.banco.application.dto.ClienteRequest;
+import com.banco.application.dto.ConsultaSaldoRequest;
+import com.banco.application.dto.OperacionCuentaRequest;
+import com.banco.application.dto.TransferenciaRequest;
+import com.banco.application.dto.TransferenciaResponse;
+import com.banco.infrastructure.config.AsignadorNumerosCuenta;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
+import com.banco.infrastructure.config.PersistenceConfig;
+import com.banco.infrastructure.persistence.ContadorSentencias;
+import com.banco.infrastructure.persistence.jpa.ClienteRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.SecuenciaCuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.TransaccionRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.Interface.ClienteJpaRepository;
+import com.banco.infrastructure.persistence.jpa.Interface.CuentaJpaRepository;
+import com.banco.infrastructure.persistence.jpa.Interface.TransaccionJpaRepository;
+import com.banco.infrastructure.persistence.mappers.ClienteMapper;
+import com.banco.infrastructure.persistence.mappers.CuentaMapper;
+import com.banco.infrastructure.persistence.mappers.TransaccionMapper;
+
+
+
+
+// PRESUPUESTO DE SENTENCIAS SQL por operacion de negocio (contra H2, con la configuracion de persistencia real).
+// Si un cambio agrega una consulta (N+1, una lectura repetida) el test falla y lista las sentencias ejecutadas.
+// Los presupuestos son los valores actuales: bajarlos cuando se optimice, subirlos solo si la consulta nueva se justifica.
+
+@SuppressWarnings("all") // elimina los warings
+@DataJpaTest(properties = ContadorSentencias.PROPIEDAD)
+@Import({PersistenceConfig.class, TransaccionService.class, ConsultaSaldoService.class, AperturaCuentaService.class,
+    GestionClienteService.class, ClienteRepositoryJpa.class, CuentaRepositoryJpa.class, TransaccionRepositoryJpa.class,
+    SecuenciaCuentaRepositoryJpa.class, ClienteMapper.class, CuentaMapper.class, TransaccionMapper.class,
+    EjecutorTransaccional.class, GeneradorTransaccionId.class, AsignadorNumerosCuenta.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada servicio confirma su transaccion, como en produccion
+@DisplayName("Presupuesto de sentencias SQL por operacion")
+class PresupuestoSentenciasTest {
+
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000.00");
+
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private ConsultaSaldoService consultaSaldoService;
+
+    @Autowired
+    private AperturaCuentaService aperturaCuentaService;
+
+    @Autowired
+    private GestionClienteService gestionClienteService;
+
+    @Autowired
+    private ClienteJpaRepository clienteJpaRepository;
+
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+
+    @Autowired
+    private TransaccionJpaRepository transaccionJpaRepository;
+
+
+    private String clienteId;
+    private String origen;
+    private String destino;
+
+
+    @BeforeEach
+    void setUp() {
+
+        clienteId = gestionClienteService.crearCliente(new ClienteRequest("Juan Perez", "juan@presupuesto.com")).getClienteId();
+        origen = abrirCuenta().getCuentaId();
+        destino = abrirCuenta().getCuentaId();
+    }
+
+    @AfterEach
+    void limpiar() {
+        transaccionJpaRepository.deleteAll();
+        cuentaJpaRepository.deleteAll();
+        clienteJpaRepository.deleteAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Transferir: 2 cuentas bloqueadas, un lote con los 2 UPDATE y el INSERT de la transacción")
+    void transferir_Presupuesto() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() -> {
+            TransferenciaResponse respuesta = transaccionService.ejecutarTransferencia(
+                new TransferenciaRequest(origen, destino, new BigDecimal("10.00"), "USD", "presupuesto"));
+            assertThat(respuesta.getEstado()).isEqualTo("COMPLETADA");
+        });
+
+        conteo.presupuesto(2, 2);
+    }
+
+    @Test
+    @DisplayName("Depositar: UPDATE atómico del saldo y el INSERT de la transacción, sin leer la cuenta")
+    void depositar_Presupuesto() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() ->
+            transaccionService.depositar(new OperacionCuentaRequest(origen, new BigDecimal("5.00"), "USD", "presupuesto", null)));
+
+        conteo.presupuesto(0, 2);
+    }
+
+    @Test
+    @DisplayName("Retirar: UPDATE atómico del saldo y el INSERT de la transacción, sin leer la cuenta")
+    void retirar_Presupuesto() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() ->
+            transaccionService.retirar(new OperacionCuentaRequest(origen, new BigDecimal("5.00"), "USD", "presupuesto", null)));
+
+        conteo.presupuesto(0, 2);
+    }
+
+    @Test
+    @DisplayName("Revertir: lee la original y las cuentas, devuelve el dinero y guarda original + reverso en lote")
+    void revertir_Presupuesto() throws Exception {
+
+        String transaccionId = transaccionService.ejecutarTransferencia(
+            new TransferenciaRequest(origen, destino, new BigDecimal("10.00"), "USD", "presupuesto")).getTransaccionId();
+
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() -> transaccionService.revertir(transaccionId));
+
+        // el 4to SELECT es guardarTodos buscando el reverso (nuevo) por id: el precio de guardar los dos en un lote
+        conteo.presupuesto(4, 3);
+    }
+
+    @Test
+    @DisplayName("Consultar saldo: una sola lectura de la cuenta")
+    void consultarSaldo_Presupuesto() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() ->
+            consultaSaldoService.consultarSaldo(new ConsultaSaldoRequest(origen, null, null, false, 0)));
+
+        conteo.presupuesto(1, 0);
+    }
+
+    @Test
+    @DisplayName("Abrir cuenta: cliente, cuenta, depósito inicial y la cuenta agregada al cliente")
+    void abrirCuenta_Presupuesto() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() ->
+            assertThat(abrirCuenta().getCuentaId()).isNotNull());
+
+        conteo.presupuesto(3, 4);
+    }
+
+    @Test
+    @DisplayName("Buscar cliente: una lectura del cliente con sus cuentas, no dos")
+    void buscarCliente_Presupuesto() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() ->
+            assertThat(gestionClienteService.buscarClientePorId(clienteId).getCuentaIds()).hasSize(2));
+
+        conteo.presupuesto(2, 0);
+    }
+
+    @Test
+    @DisplayName("Un presupuesto excedido debería fallar listando las sentencias")
+    void presupuesto_Excedido_ListaSentencias() throws Exception {
+
+        ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() ->
+            consultaSaldoService.consultarSaldo(new ConsultaSaldoRequest(origen, null, null, false, 0)));
+
+
+        assertThatThrownBy(() -> conteo.presupuesto(0, 0))
+            .isInstanceOf(AssertionError.class)
+            .hasMessageContaining("SELECT (presupuesto 0)")
+            .hasMessageContaining("from cuentas");
+    }
+
+
+
+
+    // AUXILIARES
+
+    private AperturaCuentaResponse abrirCuenta() {
+        return aperturaCuentaService.ejecutarAperturaCuenta(
+            new AperturaCuentaRequest(clienteId, "AHORRO", "USD", SALDO_INICIAL, "001"));
+    }
+}
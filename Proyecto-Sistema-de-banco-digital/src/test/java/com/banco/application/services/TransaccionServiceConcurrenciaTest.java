@@ -0,0 +1,293 @@
+package com.banco.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banco.application.dto.TransferenciaRequest;
+import com.banco.application.dto.TransferenciaResponse;
+import com.banco.domain.model.valueobjects.TransaccionId.EstadoTransaccion;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
+import com.banco.infrastructure.persistence.entities.CuentaEntity;
+import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.EstrategiaBloqueo;
+import com.banco.infrastructure.persistence.jpa.TransaccionRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.Interface.CuentaJpaRepository;
+import com.banco.infrastructure.persistence.jpa.Interface.TransaccionJpaRepository;
+import com.banco.infrastructure.persistence.mappers.CuentaMapper;
+import com.banco.infrastructure.persistence.mappers.TransaccionMapper;
+
+
+
+
+// Transferencias concurrentes reales contra H2: muchos hilos moviendo dinero entre pocas cuentas.
+// Con cualquier estrategia de bloqueo el dinero total se conserva y cada saldo coincide
+// exactamente con las transferencias que el servicio informo como COMPLETADAS.
+
+@SuppressWarnings("all") // elimina los warings
+@DataJpaTest(properties = "banco.concurrencia.reintentos=200")
+@Import({TransaccionService.class, CuentaRepositoryJpa.class, TransaccionRepositoryJpa.class,
+    CuentaMapper.class, TransaccionMapper.class, EjecutorTransaccional.class, GeneradorTransaccionId.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada hilo confirma sus propias transacciones
+@DisplayName("TransaccionService - Concurrencia")
+class TransaccionServiceConcurrenciaTest {
+
+
+    private static final int HILOS = 64;
+    private static final int TRANSFERENCIAS_POR_HILO = 10;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("10000.00");
+
+    private static final List<String> CUENTAS = List.of(
+        "ARG0170001000000012345000",
+        "ARG0170001000000012345010",
+        "ARG0170001000000012345020",
+        "ARG0170001000000012345030");
+
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private CuentaRepositoryJpa cuentaRepositoryJpa;
+
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+
+    @Autowired
+    private TransaccionJpaRepository transaccionJpaRepository;
+
+
+    @BeforeEach
+    void setUp() {
+
+        for (String numero : CUENTAS) {
+            CuentaEntity entity = new CuentaEntity();
+            entity.setNumeroCuenta(numero);
+            entity.setClienteId("CLI-12345678");
+            entity.setMoneda("ARG");
+            entity.setSaldo(SALDO_INICIAL);
+            entity.setActiva(true);
+            cuentaJpaRepository.save(entity);
+        }
+    }
+
+    @AfterEach
+    void limpiar() {
+        transaccionJpaRepository.deleteAll();
+        cuentaJpaRepository.deleteAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Bloqueo optimista: el dinero total se conserva con 64 hilos")
+    void transferenciasConcurrentes_Optimista_ConservaSaldos() throws Exception {
+
+        usarEstrategia(EstrategiaBloqueo.OPTIMISTA);
+
+        List<TransferenciaRequest> completadas = ejecutarTransferenciasConcurrentes();
+
+        verificarConservacion(completadas);
+    }
+
+
+    @Test
+    @DisplayName("Bloqueo pesimista: el dinero total se conserva con 64 hilos")
+    void transferenciasConcurrentes_Pesimista_ConservaSaldos() throws Exception {
+
+        usarEstrategia(EstrategiaBloqueo.PESIMISTA);
+
+        List<TransferenciaRequest> completadas = ejecutarTransferenciasConcurrentes();
+
+        verificarConservacion(completadas);
+    }
+
+
+
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(EstrategiaBloqueo.class)
+    @DisplayName("Reversos mientras se transfiere: ningún reverso falla por conflicto y el dinero se conserva")
+    void reversosYTransferenciasConcurrentes_ConservaSaldos(EstrategiaBloqueo estrategia) throws Exception {
+
+        usarEstrategia(estrategia);
+
+        // transferencias ya confirmadas que despues se revierten, en ambas direcciones
+        List<TransferenciaRequest> aRevertir = new ArrayList<>();
+        List<String> idsARevertir = new ArrayList<>();
+        for (int i = 0; i < HILOS; i++) {
+            TransferenciaRequest request = new TransferenciaRequest(
+                CUENTAS.get(i % CUENTAS.size()), CUENTAS.get((i + 1) % CUENTAS.size()), new BigDecimal("10.00"), "ARG", "A revertir");
+            TransferenciaResponse response = transaccionService.ejecutarTransferencia(request);
+            assertThat(response.getEstado()).isEqualTo("COMPLETADA");
+            aRevertir.add(request);
+            idsARevertir.add(response.getTransaccionId());
+        }
+
+        // la mitad de los hilos revierte (cada transferencia una vez) y la otra mitad transfiere sobre las mismas cuentas
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<TransferenciaRequest> completadas = Collections.synchronizedList(new ArrayList<>(aRevertir));
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            int hilo = h;
+            tareas.add(pool.submit(() -> {
+
+                largada.await();
+
+                if (hilo % 2 == 0) {
+                    for (int i = hilo; i < hilo + 2; i++) {
+                        transaccionService.revertir(idsARevertir.get(i)); // un conflicto llegaria aca como excepcion
+                        TransferenciaRequest original = aRevertir.get(i);
+                        completadas.add(new TransferenciaRequest(original.getCuentaDestino(), original.getCuentaOrigen(),
+                            original.getMonto(), "ARG", "Reverso"));
+                    }
+                    return null;
+                }
+
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERENCIAS_POR_HILO; i++) {
+                    int origen = random.nextInt(CUENTAS.size());
+                    int destino = (origen + 1 + random.nextInt(CUENTAS.size() - 1)) % CUENTAS.size();
+                    TransferenciaRequest request = new TransferenciaRequest(
+                        CUENTAS.get(origen), CUENTAS.get(destino), BigDecimal.valueOf(random.nextInt(1, 50)), "ARG", "Carga concurrente");
+
+                    if ("COMPLETADA".equals(transaccionService.ejecutarTransferencia(request).getEstado())) {
+                        completadas.add(request);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES); // propaga cualquier excepcion del hilo
+        }
+        pool.shutdown();
+
+
+        verificarSaldos(completadas);
+        assertThat(transaccionJpaRepository.findAll())
+            .filteredOn(t -> t.getEstado() == EstadoTransaccion.REVERTIDA)
+            .hasSize(HILOS);
+    }
+
+
+
+    // AUXILIARES
+
+    private void usarEstrategia(EstrategiaBloqueo estrategia) {
+        // el bean es un proxy transaccional: se configura el objeto real
+        CuentaRepositoryJpa objetivo = AopTestUtils.getTargetObject(cuentaRepositoryJpa);
+        ReflectionTestUtils.setField(objetivo, "estrategia", estrategia);
+    }
+
+
+    private List<TransferenciaRequest> ejecutarTransferenciasConcurrentes() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<TransferenciaRequest> completadas = Collections.synchronizedList(new ArrayList<>());
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(pool.submit(() -> {
+
+                largada.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+
+                for (int i = 0; i < TRANSFERENCIAS_POR_HILO; i++) {
+
+                    // pares en ambas direcciones para forzar el peor caso de orden de bloqueo
+                    int origen = random.nextInt(CUENTAS.size());
+                    int destino = (origen + 1 + random.nextInt(CUENTAS.size() - 1)) % CUENTAS.size();
+                    BigDecimal monto = BigDecimal.valueOf(random.nextInt(1, 500));
+
+                    TransferenciaRequest request = new TransferenciaRequest(
+                        CUENTAS.get(origen), CUENTAS.get(destino), monto, "ARG", "Carga concurrente");
+                    TransferenciaResponse response = transaccionService.ejecutarTransferencia(request);
+
+                    if ("COMPLETADA".equals(response.getEstado())) {
+                        completadas.add(request);
+                    }
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(2, TimeUnit.MINUTES); // propaga cualquier excepcion del hilo
+        }
+        pool.shutdown();
+
+        return completadas;
+    }
+
+
+    private void verificarConservacion(List<TransferenciaRequest> completadas) {
+
+        verificarSaldos(completadas);
+
+        // 3- hubo trabajo real: no todas las transferencias fueron rechazadas
+        assertThat(completadas).isNotEmpty();
+
+        // 4- cada transferencia informada como COMPLETADA quedo registrada (ningun id de transaccion repetido)
+        assertThat(transaccionJpaRepository.findAll())
+            .filteredOn(t -> t.getEstado() == EstadoTransaccion.COMPLETADA)
+            .hasSize(completadas.size());
+    }
+
+
+    // 1- el dinero no se crea ni se pierde; 2- cada saldo coincide con los movimientos confirmados
+    private void verificarSaldos(List<TransferenciaRequest> completadas) {
+
+        List<CuentaEntity> cuentas = cuentaJpaRepository.findAll();
+
+        // 1- el dinero no se crea ni se pierde
+        BigDecimal total = cuentas.stream().map(CuentaEntity::getSaldo).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertThat(total).isEqualByComparingTo(SALDO_INICIAL.multiply(BigDecimal.valueOf(CUENTAS.size())));
+
+        // 2- cada saldo = inicial - salidas + entradas confirmadas (ninguna actualizacion perdida)
+        Map<String, BigDecimal> esperado = new HashMap<>();
+        CUENTAS.forEach(numero -> esperado.put(numero, SALDO_INICIAL));
+        for (TransferenciaRequest t : completadas) {
+            esperado.merge(t.getCuentaOrigen(), t.getMonto().negate(), BigDecimal::add);
+            esperado.merge(t.getCuentaDestino(), t.getMonto(), BigDecimal::add);
+        }
+
+        for (CuentaEntity cuenta : cuentas) {
+            assertThat(cuenta.getSaldo())
+                .as("saldo de %s", cuenta.getNumeroCuenta())
+                .isEqualByComparingTo(esperado.get(cuenta.getNumeroCuenta()))
+                .isGreaterThanOrEqualTo(BigDecimal.ZERO);
+        }
+    }
+}
@@ -6,7 +6,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,13 +29,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import com.banco.application.dto.MovimientoDTO;
 import com.banco.application.dto.OperacionCuentaRequest;
 import com.banco.application.dto.OperacionCuentaResponse;
+import com.banco.application.dto.PaginaMovimientosResponse;
+import com.banco.application.dto.TransferenciaLoteResponse;
 import com.banco.application.dto.TransferenciaRequest;
 import com.banco.application.dto.TransferenciaResponse;
 import com.banco.application.port.out.CuentaRepository;
@@ -44,6 +55,8 @@ import com.banco.domain.model.valueobjects.Moneda;
 import com.banco.domain.model.valueobjects.TransaccionId;
 
 import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
 
 
 @ExtendWith(MockitoExtension.class)
@@ -60,6 +73,13 @@ class TransaccionServiceTest {
     @Mock
     private TransaccionRepository transaccionRepository;
 
+    // Ejecutor real sobre un transaction manager simulado: corre la operacion una vez, sin BD
+    @Spy
+    private EjecutorTransaccional ejecutorTransaccional = new EjecutorTransaccional(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private GeneradorTransaccionId generadorTransaccionId = new GeneradorTransaccionId(0);
+
     // SERVICIO A TESTEAR (con mocks inyectados (@InjectMocks))
     @InjectMocks
     private TransaccionService transaccionService;
@@ -104,6 +124,8 @@ class TransaccionServiceTest {
         // Mocks configurados - cuando(when) y entonces(then)
         when(cuentaRepository.buscarPorId(cuentaOrigenId)).thenReturn(Optional.of(cuentaOrigen));
         when(cuentaRepository.buscarPorId(cuentaDestinoId)).thenReturn(Optional.of(cuentaDestino));
+        when(cuentaRepository.buscarPorIdParaActualizar(cuentaOrigenId)).thenReturn(Optional.of(cuentaOrigen));
+        when(cuentaRepository.buscarPorIdParaActualizar(cuentaDestinoId)).thenReturn(Optional.of(cuentaDestino));
 
     }
 
@@ -193,11 +215,11 @@ class TransaccionServiceTest {
             assertThat(response.getMensaje()).isEqualTo("Transaccion realizada exitosamente");
 
             // verificamos las llamadas a cuentaRepository (times(1) esperamos x llamada)
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaOrigenId);
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaDestinoId);
+            verify(cuentaRepository, times(1)).buscarPorIdParaActualizar(cuentaOrigenId);
+            verify(cuentaRepository, times(1)).buscarPorIdParaActualizar(cuentaDestinoId);
             verify(cuentaRepository, times(1)).actualizar(cuentaOrigen);
             verify(cuentaRepository, times(1)).actualizar(cuentaDestino);
-            verify(transaccionRepository, times(1)).guardar(any(Transaccion.class));
+            verify(transaccionRepository, times(1)).registrar(any(Transaccion.class));
 
 
 
@@ -219,6 +241,47 @@ class TransaccionServiceTest {
         }
 
 
+
+        @Test
+        @DisplayName("Deberia reintentar la transferencia ante un conflicto de concurrencia")
+        void ejecutarTransferencia_ConflictoOptimista_ReintentaYCompleta(){
+
+            // cada intento recarga las cuentas desde la BD
+            when(cuentaRepository.buscarPorIdParaActualizar(cuentaOrigenId)).thenReturn(
+                Optional.of(new Cuenta(cuentaOrigenId, clienteId, Moneda.ARG, dinero, true)),
+                Optional.of(new Cuenta(cuentaOrigenId, clienteId, Moneda.ARG, dinero, true)));
+
+            // el primer intento choca con otra transaccion
+            doThrow(new OptimisticLockingFailureException("version desactualizada"))
+            .doNothing()
+            .when(transaccionRepository).registrar(any(Transaccion.class));
+
+            TransferenciaResponse response = transaccionService.ejecutarTransferencia(transferenciaRequest);
+
+            assertThat(response.getEstado()).isEqualTo("COMPLETADA");
+            verify(cuentaRepository, times(2)).buscarPorIdParaActualizar(cuentaOrigenId);
+            verify(transaccionRepository, times(2)).registrar(any(Transaccion.class));
+        }
+
+
+
+        @Test
+        @DisplayName("Deberia rechazar la transferencia si el conflicto persiste tras los reintentos")
+        void ejecutarTransferencia_ConflictoPersistente_Rechaza(){
+
+            ejecutorTransaccional.setMaxIntentos(3);
+
+            doThrow(new OptimisticLockingFailureException("version desactualizada"))
+            .when(transaccionRepository).registrar(any(Transaccion.class));
+
+            TransferenciaResponse response = transaccionService.ejecutarTransferencia(transferenciaRequest);
+
+            assertThat(response.getEstado()).isEqualTo("RECHAZADA");
+            assertThat(response.getMensaje()).contains("intente nuevamente");
+            verify(cuentaRepository, times(3)).buscarPorIdParaActualizar(cuentaOrigenId);
+        }
+
+
     }
 
 
@@ -234,14 +297,14 @@ class TransaccionServiceTest {
         void cuentaOrigenNoExiste_DeberiaFallar(){
 
             // cuando busque cuenta origen - devolve vacio
-            when(cuentaRepository.buscarPorId(cuentaOrigenId)).thenReturn(Optional.empty());
+            when(cuentaRepository.buscarPorIdParaActualizar(cuentaOrigenId)).thenReturn(Optional.empty());
 
             assertThatThrownBy(()-> transaccionService.ejecutarTransferencia(transferenciaRequest))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Cuenta de origen no encontrada");
 
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaOrigenId);
-            verify(cuentaRepository, never()).buscarPorId(cuentaDestinoId);
+            verify(cuentaRepository, times(1)).buscarPorIdParaActualizar(cuentaOrigenId);
+            verify(cuentaRepository, never()).buscarPorIdParaActualizar(cuentaDestinoId);
  
 
         }
@@ -253,14 +316,14 @@ class TransaccionServiceTest {
         void cuentaDestinoNoExiste_DeberiaFallar(){
 
             // cuando busque cuenta origen - devolve vacio
-            when(cuentaRepository.buscarPorId(cuentaDestinoId)).thenReturn(Optional.empty());
+            when(cuentaRepository.buscarPorIdParaActualizar(cuentaDestinoId)).thenReturn(Optional.empty());
 
             assertThatThrownBy(()-> transaccionService.ejecutarTransferencia(transferenciaRequest))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Cuenta de destino no encontrada");
 
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaOrigenId);
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaDestinoId);
+            verify(cuentaRepository, times(1)).buscarPorIdParaActualizar(cuentaOrigenId);
+            verify(cuentaRepository, times(1)).buscarPorIdParaActualizar(cuentaDestinoId);
  
 
         }
@@ -296,7 +359,7 @@ class TransaccionServiceTest {
 
             Cuenta cuentaOrigenInactiva = new Cuenta(cuentaOrigenId, clienteId, Moneda.ARG, dinero, false);
 
-            when(cuentaRepository.buscarPorId(cuentaOrigenId)).thenReturn(Optional.of(cuentaOrigenInactiva));
+            when(cuentaRepository.buscarPorIdParaActualizar(cuentaOrigenId)).thenReturn(Optional.of(cuentaOrigenInactiva));
 
             TransferenciaResponse response = transaccionService.ejecutarTransferencia(transferenciaRequest);
 
@@ -314,7 +377,7 @@ class TransaccionServiceTest {
             Cuenta cuentaOrigenUSD = new Cuenta(cuentaOrigenId, clienteId, Moneda.USD, 
             Dinero.nuevo(new BigDecimal("1000.00"), Moneda.USD), true);
 
-            when(cuentaRepository.buscarPorId(cuentaOrigenId)).thenReturn(Optional.of(cuentaOrigenUSD));
+            when(cuentaRepository.buscarPorIdParaActualizar(cuentaOrigenId)).thenReturn(Optional.of(cuentaOrigenUSD));
 
 
             TransferenciaRequest requestMonedaDiferente = new TransferenciaRequest(
@@ -355,15 +418,40 @@ class TransaccionServiceTest {
                 "Depósito test", 
                 null);
             
+            when(cuentaRepository.aplicarDelta(cuentaOrigenId, new BigDecimal("500.00"), Moneda.ARG))
+                .thenReturn(true);
+
             OperacionCuentaResponse transaccion = transaccionService.depositar(request);
             
             
             assertNotNull(transaccion);
             assertThat(transaccion.getTipoDeOperacion()).isEqualTo("DEPOSITO");
             
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaOrigenId);
-            verify(cuentaRepository, times(1)).actualizar(cuentaOrigen);
-            verify(transaccionRepository, times(1)).guardar(any(Transaccion.class));
+            // camino rapido: un solo UPDATE, sin leer ni guardar la cuenta
+            verify(cuentaRepository, times(1)).aplicarDelta(cuentaOrigenId, new BigDecimal("500.00"), Moneda.ARG);
+            verify(cuentaRepository, never()).buscarPorId(any());
+            verify(cuentaRepository, never()).actualizar(any());
+            verify(transaccionRepository, times(1)).registrar(any(Transaccion.class));
+        }
+
+        @Test
+        @DisplayName("Debería rechazar el depósito si la cuenta cambió entre el UPDATE y la lectura")
+        void depositar_CuentaModificadaConcurrentemente_LanzaExcepcion() {
+
+            OperacionCuentaRequest request = new OperacionCuentaRequest(
+                cuentaOrigenId.getValor(), 
+                new BigDecimal("500.00"), 
+                "ARG",
+                "Depósito test", 
+                null);
+
+            // la base no aplico el UPDATE pero la cuenta leida despues si lo permitiria
+            when(cuentaRepository.aplicarDelta(any(), any(), any())).thenReturn(false);
+
+            assertThatThrownBy(()-> transaccionService.depositar(request)).isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("intente nuevamente");
+
+            verify(transaccionRepository, never()).registrar(any());
         }
         
         @Test
@@ -428,17 +516,21 @@ class TransaccionServiceTest {
                 "retiro test", 
                 null);
 
+            when(cuentaRepository.aplicarDelta(cuentaOrigenId, new BigDecimal("-500.00"), Moneda.ARG))
+                .thenReturn(true);
+
             OperacionCuentaResponse transaccion= transaccionService.retirar(request);
 
 
             assertNotNull(transaccion);
             assertThat(transaccion.getTipoDeOperacion()).isEqualTo("RETIRO");
             assertThat(transaccion.getMensaje()).contains("retiro test");
-            assertThat(cuentaOrigen.getSaldo().getMontoConEscalaMoneda()).isEqualTo("500.00");
 
-            verify(cuentaRepository, times(1)).buscarPorId(cuentaOrigenId);
-            verify(cuentaRepository,times(1)).actualizar(cuentaOrigen);
-            verify(transaccionRepository, times(1)).guardar(any());
+            // el saldo lo resta la base con un delta negativo
+            verify(cuentaRepository, times(1)).aplicarDelta(cuentaOrigenId, new BigDecimal("-500.00"), Moneda.ARG);
+            verify(cuentaRepository, never()).buscarPorId(any());
+            verify(cuentaRepository, never()).actualizar(any());
+            verify(transaccionRepository, times(1)).registrar(any());
 
 
         }
@@ -539,8 +631,9 @@ class TransaccionServiceTest {
 
 
                 verify(transaccionRepository, times(1)).buscarPorId(any(TransaccionId.class));
-                verify(cuentaRepository, times(2)).buscarPorId(any(CuentaId.class));
-                verify(transaccionRepository, times(2)).guardar(any(Transaccion.class));
+                verify(cuentaRepository, times(2)).buscarPorIdParaActualizar(any(CuentaId.class));
+                verify(transaccionRepository, times(1)).guardarTodos(argThat(lote ->
+                    lote.size() == 2 && lote.get(0) == transaccionOriginal && lote.get(1).getTipo() == TipoTransaccion.REVERSO));
 
         }
 
@@ -565,8 +658,10 @@ class TransaccionServiceTest {
 
 
                 verify(transaccionRepository, times(1)).buscarPorId(any(TransaccionId.class));
-                verify(cuentaRepository, never()).buscarPorId(any(CuentaId.class));
+                verify(cuentaRepository, never()).buscarPorIdParaActualizar(any(CuentaId.class));
                 verify(transaccionRepository, never()).guardar(any(Transaccion.class));
+                verify(transaccionRepository, never()).registrar(any(Transaccion.class));
+                verify(transaccionRepository, never()).guardarTodos(any());
 
         }
 
@@ -596,8 +691,10 @@ class TransaccionServiceTest {
 
 
                 verify(transaccionRepository, times(1)).buscarPorId(any(TransaccionId.class));
-                verify(cuentaRepository, never()).buscarPorId(any(CuentaId.class));
+                verify(cuentaRepository, never()).buscarPorIdParaActualizar(any(CuentaId.class));
                 verify(transaccionRepository, never()).guardar(any(Transaccion.class));
+                verify(transaccionRepository, never()).registrar(any(Transaccion.class));
+                verify(transaccionRepository, never()).guardarTodos(any());
 
         }
 
@@ -642,18 +739,84 @@ class TransaccionServiceTest {
 
              List<Transaccion> transacciones = Arrays.asList(transaccion1, transaccion2);
 
-             when(transaccionRepository.buscarCuentas(cuentaOrigenId)).thenReturn(transacciones);
+             when(transaccionRepository.buscarCuentas(cuentaOrigenId, null, null, 51)).thenReturn(transacciones);
 
-            List<MovimientoDTO> listTransaccion = transaccionService.consultarMovimiento(cuentaOrigenId.getValor());
+            PaginaMovimientosResponse pagina = transaccionService.consultarMovimiento(cuentaOrigenId.getValor(), null, null);
 
             
 
-            assertNotNull(listTransaccion);
-            assertEquals(2, listTransaccion.size());
+            assertNotNull(pagina);
+            assertEquals(2, pagina.getMovimientos().size());
+            assertThat(pagina.isTieneMas()).isFalse();
+            assertThat(pagina.getSiguienteCursor()).isNull();
+
+            // tamaño por defecto (50) + 1 fila para saber si hay otra pagina
+            verify(transaccionRepository, times(1)).buscarCuentas(cuentaOrigenId, null, null, 51);
+
+        }
+
+
+        @Test
+        @DisplayName("Debería devolver un cursor que continúa después del último movimiento")
+        void consultarMovimientos_HayMasPaginas_CursorDelUltimo() {
+
+            Transaccion primera = new Transaccion(new TransaccionId("TXN-2024-0000002"), TipoTransaccion.RETIRO,
+                cuentaOrigenId, null, Dinero.nuevo(new BigDecimal("200.00"), Moneda.ARG), "Retiro");
+            Transaccion ultima = new Transaccion(new TransaccionId("TXN-2024-0000001"), TipoTransaccion.RETIRO,
+                cuentaOrigenId, null, Dinero.nuevo(new BigDecimal("100.00"), Moneda.ARG), "Retiro");
+            Transaccion sobrante = new Transaccion(new TransaccionId("TXN-2024-0000000"), TipoTransaccion.RETIRO,
+                cuentaOrigenId, null, Dinero.nuevo(new BigDecimal("50.00"), Moneda.ARG), "Retiro");
+
+            when(transaccionRepository.buscarCuentas(cuentaOrigenId, null, null, 3))
+                .thenReturn(Arrays.asList(primera, ultima, sobrante));
+
+
+            PaginaMovimientosResponse pagina = transaccionService.consultarMovimiento(cuentaOrigenId.getValor(), null, 2);
+
+
+            assertThat(pagina.getMovimientos()).extracting(MovimientoDTO::getId)
+                .containsExactly("TXN-2024-0000002", "TXN-2024-0000001");
+            assertThat(pagina.isTieneMas()).isTrue();
+
+
+            // la pagina siguiente arranca despues de (fecha, id) del ultimo movimiento entregado
+            when(transaccionRepository.buscarCuentas(eq(cuentaOrigenId),
+                eq(ultima.getFechaCreacion()),
+                argThat(id -> id != null && id.getValor().equals("TXN-2024-0000001")),
+                eq(3)))
+                .thenReturn(Arrays.asList(sobrante));
+
+            PaginaMovimientosResponse siguiente = transaccionService.consultarMovimiento(
+                cuentaOrigenId.getValor(), pagina.getSiguienteCursor(), 2);
+
+            assertThat(siguiente.getMovimientos()).extracting(MovimientoDTO::getId).containsExactly("TXN-2024-0000000");
+            assertThat(siguiente.isTieneMas()).isFalse();
+        }
+
+
+        @Test
+        @DisplayName("Debería limitar el tamaño de página al máximo configurado")
+        void consultarMovimientos_TamanioExcesivo_UsaMaximo() {
+
+            when(transaccionRepository.buscarCuentas(any(), any(), any(), anyInt()))
+                .thenReturn(Arrays.asList());
 
 
-            verify(transaccionRepository, times(1)).buscarCuentas(cuentaOrigenId);
+            PaginaMovimientosResponse pagina = transaccionService.consultarMovimiento(cuentaOrigenId.getValor(), null, 100_000);
 
+
+            assertThat(pagina.getTamanioPagina()).isEqualTo(500);
+            verify(transaccionRepository, times(1)).buscarCuentas(cuentaOrigenId, null, null, 501);
+        }
+
+
+        @Test
+        @DisplayName("Debería lanzar excepción con un cursor inválido")
+        void consultarMovimientos_CursorInvalido_LanzaExcepcion() {
+
+            assertThatThrownBy(()-> transaccionService.consultarMovimiento(cuentaOrigenId.getValor(), "no-es-un-cursor", null))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Hubo un error al intentar consultar movimientos");
         }
 
 
@@ -661,7 +824,7 @@ class TransaccionServiceTest {
         @DisplayName(" Debería lanzar excepción al consultar cuenta inválida")
         void consultarMovimientos_CuentaInvalida_LanzaExcepcion() {
             
-            assertThatThrownBy(()-> transaccionService.consultarMovimiento("cuenta-invalida"))
+            assertThatThrownBy(()-> transaccionService.consultarMovimiento("cuenta-invalida", null, null))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessageContaining("Hubo un error al intentar consultar movimientos");
             
@@ -674,15 +837,16 @@ class TransaccionServiceTest {
         @DisplayName("Debería devolver lista vacía cuando no hay movimientos")
         void consultarMovimientos_CuentaSinMovimientos_ListaVacia() {
 
-            when(transaccionRepository.buscarCuentas(cuentaOrigenId))
+            when(transaccionRepository.buscarCuentas(cuentaOrigenId, null, null, 51))
                 .thenReturn(Arrays.asList());
             
             
-            List<MovimientoDTO> movimientos = transaccionService.consultarMovimiento(cuentaOrigenId.getValor());
+            PaginaMovimientosResponse pagina = transaccionService.consultarMovimiento(cuentaOrigenId.getValor(), null, null);
             
    
-            assertNotNull(movimientos);
-            assertTrue(movimientos.isEmpty());
+            assertNotNull(pagina);
+            assertTrue(pagina.getMovimientos().isEmpty());
+            assertThat(pagina.isTieneMas()).isFalse();
         }
 
 
@@ -691,6 +855,119 @@ class TransaccionServiceTest {
 
 
 
+    @Nested
+    @DisplayName("Transferencias en lote")
+    class TransferenciasEnLoteTest{
+
+
+        @BeforeEach
+        void setUpLote(){
+            when(cuentaRepository.buscarPorIdsParaActualizar(any())).thenReturn(List.of(cuentaOrigen, cuentaDestino));
+        }
+
+
+
+        @Test
+        @DisplayName("Deberia aplicar el lote en orden con una sola carga de cuentas")
+        void ejecutarTransferenciasEnLote_LoteMixto_InformaCadaResultado(){
+
+            // la segunda transferencia ya no tiene fondos: la primera vacio la cuenta origen
+            List<TransferenciaRequest> lote = List.of(
+                transferenciaRequest,
+                transferenciaRequest,
+                new TransferenciaRequest(cuentaDestinoId.getValor(), cuentaOrigenId.getValor(),
+                    new BigDecimal("200.00"), "ARG", "Devolucion"));
+
+
+            TransferenciaLoteResponse response = transaccionService.ejecutarTransferenciasEnLote(lote);
+
+
+            assertThat(response.getTotal()).isEqualTo(3);
+            assertThat(response.getCompletadas()).isEqualTo(2);
+            assertThat(response.getRechazadas()).isEqualTo(1);
+            assertThat(response.getResultados().get(0).getEstado()).isEqualTo("COMPLETADA");
+            assertThat(response.getResultados().get(1).getEstado()).isEqualTo("RECHAZADA");
+            assertThat(response.getResultados().get(2).getEstado()).isEqualTo("COMPLETADA");
+
+            assertThat(cuentaOrigen.getSaldo().getMonto()).isEqualByComparingTo("200.00");
+            assertThat(cuentaDestino.getSaldo().getMonto()).isEqualByComparingTo("1300.00");
+
+            verify(cuentaRepository, times(1)).buscarPorIdsParaActualizar(any());
+            verify(cuentaRepository, never()).buscarPorIdParaActualizar(any());
+            verify(cuentaRepository, times(1)).actualizarTodos(argThat(cuentas -> cuentas.size() == 2));
+            verify(transaccionRepository, times(1)).registrarTodos(argThat(transacciones -> transacciones.size() == 3));
+        }
+
+
+        @Test
+        @DisplayName("Deberia rechazar solo las transferencias invalidas del lote")
+        void ejecutarTransferenciasEnLote_TransferenciaInvalida_RechazaSoloEsa(){
+
+            List<TransferenciaRequest> lote = List.of(
+                new TransferenciaRequest(cuentaOrigenId.getValor(), cuentaOrigenId.getValor(),
+                    new BigDecimal("10.00"), "ARG", "Misma cuenta"),
+                transferenciaRequest);
+
+
+            TransferenciaLoteResponse response = transaccionService.ejecutarTransferenciasEnLote(lote);
+
+
+            assertThat(response.getCompletadas()).isEqualTo(1);
+            assertThat(response.getResultados().get(0).getEstado()).isEqualTo("RECHAZADA");
+            assertThat(response.getResultados().get(1).getEstado()).isEqualTo("COMPLETADA");
+            verify(transaccionRepository, times(1)).registrarTodos(argThat(transacciones -> transacciones.size() == 1));
+        }
+
+
+        @Test
+        @DisplayName("Deberia dividir el lote en varias transacciones")
+        void ejecutarTransferenciasEnLote_LoteGrande_DivideEnTramos(){
+
+            ReflectionTestUtils.setField(transaccionService, "transferenciasPorTransaccion", 2);
+
+            List<TransferenciaRequest> lote = List.of(
+                new TransferenciaRequest(cuentaOrigenId.getValor(), cuentaDestinoId.getValor(), new BigDecimal("10.00"), "ARG", "1"),
+                new TransferenciaRequest(cuentaOrigenId.getValor(), cuentaDestinoId.getValor(), new BigDecimal("10.00"), "ARG", "2"),
+                new TransferenciaRequest(cuentaOrigenId.getValor(), cuentaDestinoId.getValor(), new BigDecimal("10.00"), "ARG", "3"));
+
+
+            TransferenciaLoteResponse response = transaccionService.ejecutarTransferenciasEnLote(lote);
+
+
+            assertThat(response.getCompletadas()).isEqualTo(3);
+            verify(cuentaRepository, times(2)).buscarPorIdsParaActualizar(any());
+            verify(transaccionRepository, times(2)).registrarTodos(any());
+        }
+
+
+        @Test
+        @DisplayName("Deberia rechazar todo el tramo si falla la persistencia")
+        void ejecutarTransferenciasEnLote_FallaPersistencia_RechazaTramo(){
+
+            doThrow(new RuntimeException("Error de base de datos"))
+            .when(transaccionRepository).registrarTodos(any());
+
+
+            TransferenciaLoteResponse response = transaccionService.ejecutarTransferenciasEnLote(List.of(transferenciaRequest));
+
+
+            assertThat(response.getRechazadas()).isEqualTo(1);
+            assertThat(response.getResultados().get(0).getMensaje()).contains("Error de base de datos");
+        }
+
+
+        @Test
+        @DisplayName("Deberia lanzar excepcion con un lote vacio")
+        void ejecutarTransferenciasEnLote_LoteVacio_LanzaExcepcion(){
+
+            assertThatThrownBy(()-> transaccionService.ejecutarTransferenciasEnLote(List.of()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("al menos una transferencia");
+        }
+    }
+
+
+
     @Nested
     @DisplayName("METODOS AUXILIARES TEST")
     class MetodosAuxiliaresTest{
@@ -0,0 +1,198 @@
+package com.banco.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banco.application.dto.TransferenciaRequest;
+import com.banco.infrastructure.config.EjecutorTransaccional;
+import com.banco.infrastructure.config.GeneradorTransaccionId;
+import com.banco.infrastructure.persistence.entities.CuentaEntity;
+import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.TransaccionRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.Interface.CuentaJpaRepository;
+import com.banco.infrastructure.persistence.jpa.Interface.TransaccionJpaRepository;
+import com.banco.infrastructure.persistence.mappers.CuentaMapper;
+import com.banco.infrastructure.persistence.mappers.TransaccionMapper;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.ConsoleAppender;
+
+
+
+
+// BENCHMARK: transferencias por segundo segun como se loguea.
+// ANTES:   cada linea del camino de la transferencia se escribia en System.out en el hilo de la peticion.
+//          Se reproduce con TRACE en com.banco y un ConsoleAppender sincronico (mismo lock de stdout).
+// DESPUES: nivel INFO y appender asincronico de logback-spring.xml (los logs del dominio ni se arman).
+// No corre con el build normal:  mvn test -Dtest=TransferenciaLogsBenchmarkTest -Dbenchmark=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest
+@Import({TransaccionService.class, CuentaRepositoryJpa.class, TransaccionRepositoryJpa.class,
+    CuentaMapper.class, TransaccionMapper.class, EjecutorTransaccional.class, GeneradorTransaccionId.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada hilo confirma sus propias transacciones
+@DisplayName("Benchmark - transferencias con System.out vs logs asincronicos")
+class TransferenciaLogsBenchmarkTest {
+
+
+    private static final int HILOS = 8;
+    private static final int TRANSFERENCIAS_POR_HILO = 1000;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000.00");
+
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private CuentaJpaRepository cuentaJpaRepository;
+
+    @Autowired
+    private TransaccionJpaRepository transaccionJpaRepository;
+
+
+    @BeforeEach
+    void setUp() {
+        // un par de cuentas por hilo: se mide el costo de loguear, no la contencion por bloqueos
+        for (int i = 0; i < HILOS * 2; i++) {
+            CuentaEntity entity = new CuentaEntity();
+            entity.setNumeroCuenta(numeroCuenta(i));
+            entity.setClienteId("CLI-12345678");
+            entity.setMoneda("ARG");
+            entity.setSaldo(SALDO_INICIAL);
+            entity.setActiva(true);
+            cuentaJpaRepository.save(entity);
+        }
+    }
+
+    @AfterEach
+    void limpiar() {
+        transaccionJpaRepository.deleteAll();
+        cuentaJpaRepository.deleteAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Con INFO asincronico debería transferir más por segundo que con System.out")
+    void transferencias_LogsSincronicosVsAsincronicos_Throughput() throws Exception {
+
+        transferir(); // calentamiento
+
+        double antes = conLogsSincronicos(this::transferir);
+        double despues = transferir();
+
+        System.out.printf("%n[BENCHMARK] %d hilos x %d transferencias%n", HILOS, TRANSFERENCIAS_POR_HILO);
+        System.out.printf("  System.out (TRACE sincronico) : %8.0f transferencias/s%n", antes);
+        System.out.printf("  INFO + appender asincronico   : %8.0f transferencias/s  (x%.1f)%n%n", despues, despues / antes);
+
+        assertThat(despues).isGreaterThan(antes);
+    }
+
+
+
+
+    // AUXILIARES
+
+    private interface Medicion {
+        double medir() throws Exception;
+    }
+
+    // transferencias por segundo
+    private double transferir() throws Exception {
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            String origen = numeroCuenta(h * 2);
+            String destino = numeroCuenta(h * 2 + 1);
+            tareas.add(pool.submit(() -> {
+                largada.await();
+                for (int i = 0; i < TRANSFERENCIAS_POR_HILO; i++) {
+                    transaccionService.ejecutarTransferencia(
+                        new TransferenciaRequest(origen, destino, BigDecimal.ONE, "ARG", "Benchmark logs"));
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(5, TimeUnit.MINUTES);
+        }
+        long nanos = System.nanoTime() - inicio;
+        pool.shutdown();
+
+        return HILOS * TRANSFERENCIAS_POR_HILO / (nanos / 1_000_000_000.0);
+    }
+
+    // todo com.banco en TRACE directo a stdout, como hacian los System.out.println
+    private double conLogsSincronicos(Medicion medicion) throws Exception {
+
+        LoggerContext contexto = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger banco = contexto.getLogger("com.banco");
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(contexto);
+        encoder.setPattern("%msg%n");
+        encoder.start();
+
+        ConsoleAppender<ILoggingEvent> consola = new ConsoleAppender<>();
+        consola.setContext(contexto);
+        consola.setEncoder(encoder);
+        consola.start();
+
+        Map<Logger, Level> nivelesOriginales = new HashMap<>();
+        for (Logger logger : contexto.getLoggerList()) {
+            if (logger.getName().startsWith("com.banco")) {
+                nivelesOriginales.put(logger, logger.getLevel());
+                logger.setLevel(null); // heredan de com.banco
+            }
+        }
+        banco.setLevel(Level.TRACE);
+        banco.setAdditive(false);
+        banco.addAppender(consola);
+
+        try {
+            return medicion.medir();
+        } finally {
+            banco.detachAppender(consola);
+            banco.setAdditive(true);
+            consola.stop();
+            nivelesOriginales.forEach(Logger::setLevel);
+        }
+    }
+
+    private String numeroCuenta(int indice) {
+        return "ARG0170001000000" + String.format("%09d", indice);
+    }
+}
@@ -0,0 +1,138 @@
+package com.banco.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import com.banco.infrastructure.persistence.entities.UsuarioEntity;
+import com.banco.infrastructure.persistence.jpa.Interface.UsuarioJpaRepository;
+import com.banco.infrastructure.security.jwt.FotoUsuario;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT) // permite mocks sin uso
+@DisplayName("UsersDetailsService")
+class UsersDetailsServiceTest {
+
+
+    @Mock
+    private UsuarioJpaRepository usuarioJpaRepository;
+
+    private UsersDetailsService usersDetailsService;
+
+    private UsuarioEntity usuario;
+
+
+    @BeforeEach
+    void setUp() {
+        usersDetailsService = new UsersDetailsService(usuarioJpaRepository, 100, Duration.ofMinutes(5));
+        usuario = new UsuarioEntity("juan", "hash", "juan@mail.com", "CLIENTE", "CLI-00000001");
+    }
+
+
+
+    @Test
+    @DisplayName("Peticiones repetidas del mismo usuario deberían consultar la BD una sola vez")
+    void loadUserByUsername_VariasVeces_UnaConsulta() {
+
+        when(usuarioJpaRepository.findByUsername("juan")).thenReturn(Optional.of(usuario));
+
+
+        UserDetails primera = usersDetailsService.loadUserByUsername("juan");
+        for (int i = 1; i < 100; i++) {
+            assertThat(usersDetailsService.loadUserByUsername("juan")).isSameAs(primera);
+        }
+
+
+        verify(usuarioJpaRepository, times(1)).findByUsername("juan");
+        assertThat(usersDetailsService.estadisticasCache().tasaDeAciertos()).isEqualTo(0.99);
+    }
+
+    @Test
+    @DisplayName("Debería cachear una foto inmutable y no la entidad")
+    void loadUserByUsername_Entidad_DevuelveFoto() {
+
+        when(usuarioJpaRepository.findByUsername("juan")).thenReturn(Optional.of(usuario));
+
+
+        UserDetails cargado = usersDetailsService.loadUserByUsername("juan");
+        usuario.setPassword("otro-hash"); // la entidad cambia despues de leerla
+        usuario.setRol("ADMIN");
+
+
+        assertThat(cargado).isInstanceOf(FotoUsuario.class).isNotSameAs(usuario);
+        assertThat(cargado).isNotInstanceOf(CredentialsContainer.class); // nadie le puede borrar el hash
+        UserDetails deNuevo = usersDetailsService.loadUserByUsername("juan");
+        assertThat(deNuevo.getPassword()).isEqualTo("hash");
+        assertThat(deNuevo.getAuthorities()).extracting("authority").containsExactly("ROLE_CLIENTE");
+        assertThat(((FotoUsuario) deNuevo).getClienteId()).isEqualTo("CLI-00000001");
+    }
+
+    @Test
+    @DisplayName("Después de invalidar debería volver a leer el usuario")
+    void invalidar_UsuarioCacheado_VuelveAConsultar() {
+
+        when(usuarioJpaRepository.findByUsername("juan")).thenReturn(Optional.of(usuario));
+        usersDetailsService.loadUserByUsername("juan");
+
+
+        usersDetailsService.invalidar("juan");
+        usersDetailsService.loadUserByUsername("juan");
+
+
+        verify(usuarioJpaRepository, times(2)).findByUsername("juan");
+    }
+
+    @Test
+    @DisplayName("El rehash debería guardar el nuevo hash y descartar el usuario cacheado")
+    void updatePassword_NuevoHash_GuardaEInvalida() {
+
+        when(usuarioJpaRepository.findByUsername("juan")).thenReturn(Optional.of(usuario));
+        usersDetailsService.loadUserByUsername("juan");
+
+
+        usersDetailsService.updatePassword(usuario, "{bcrypt}nuevo");
+        usersDetailsService.loadUserByUsername("juan");
+
+
+        assertThat(usuario.getPassword()).isEqualTo("{bcrypt}nuevo");
+        verify(usuarioJpaRepository).save(usuario);
+        verify(usuarioJpaRepository, times(3)).findByUsername("juan");
+    }
+
+    @Test
+    @DisplayName("Un usuario inexistente no debería quedar en el cache")
+    void loadUserByUsername_NoExiste_LanzaExcepcionSinCachear() {
+
+        when(usuarioJpaRepository.findByUsername("nadie")).thenReturn(Optional.empty());
+
+
+        assertThatThrownBy(() -> usersDetailsService.loadUserByUsername("nadie"))
+            .isInstanceOf(UsernameNotFoundException.class);
+        assertThatThrownBy(() -> usersDetailsService.loadUserByUsername("nadie"))
+            .isInstanceOf(UsernameNotFoundException.class);
+
+
+        verify(usuarioJpaRepository, times(2)).findByUsername("nadie");
+    }
+}
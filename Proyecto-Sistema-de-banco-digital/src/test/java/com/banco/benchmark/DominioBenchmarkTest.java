@@ -0,0 +1,171 @@
+package com.banco.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.banco.domain.model.entities.Cuenta;
+import com.banco.domain.model.valueobjects.ClienteId;
+import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Dinero;
+import com.banco.domain.model.valueobjects.Moneda;
+import com.banco.domain.model.valueobjects.TasaCambio;
+import com.banco.domain.model.valueobjects.TransaccionId;
+import com.banco.domain.model.valueobjects.TransaccionId.EstadoTransaccion;
+import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
+import com.banco.infrastructure.persistence.entities.ClienteEntity;
+import com.banco.infrastructure.persistence.entities.CuentaEntity;
+import com.banco.infrastructure.persistence.entities.TransaccionEntity;
+import com.banco.infrastructure.persistence.mappers.ClienteMapper;
+import com.banco.infrastructure.persistence.mappers.CuentaMapper;
+import com.banco.infrastructure.persistence.mappers.TransaccionMapper;
+
+
+
+
+// SUITE DE BENCHMARKS DEL DOMINIO Y LOS MAPPERS (ns/op, bytes/op y GC de cada operacion).
+// Compara contra la linea base versionada (src/test/resources/benchmarks/dominio.json) y falla si algo empeora.
+// El reporte queda en target/benchmarks/dominio.json.
+//   Correr:           mvn -Pbenchmark test -Dtest=DominioBenchmarkTest
+//   Regenerar base:   mvn -Pbenchmark test -Dtest=DominioBenchmarkTest -Dbenchmark.actualizar=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - dominio y mappers")
+class DominioBenchmarkTest {
+
+
+    private static final String SUITE = "dominio";
+    private static final int DISTINTOS = 1024; // potencia de 2
+
+
+
+    @Test
+    @DisplayName("Ninguna operación debería empeorar respecto de la línea base")
+    void dominioYMappers_ContraLineaBase() throws Exception {
+
+        Medidor medidor = Medidor.porDefecto();
+        List<Medidor.Resultado> resultados = new ArrayList<>();
+
+
+        // DINERO
+        Dinero saldo = Dinero.deUnidades(150_075, Moneda.ARG);
+        Dinero monto = Dinero.deUnidades(2_550, Moneda.ARG);
+
+        resultados.add(medidor.medir("dinero.sumar", i -> saldo.sumar(monto)));
+        resultados.add(medidor.medir("dinero.restar", i -> saldo.restar(monto)));
+        resultados.add(medidor.medir("dinero.comparar", i -> saldo.esMayorOIgualQue(monto) ? saldo : monto));
+
+
+        // TIPO DE CAMBIO
+        TasaCambio tasa = TasaCambio.nuevaTasaCambio(Moneda.USD, Moneda.ARG, new BigDecimal("1050.25"));
+        Dinero dolares = Dinero.deUnidades(10_000, Moneda.USD);
+
+        resultados.add(medidor.medir("tasaCambio.inversa", i -> tasa.inversa()));
+        resultados.add(medidor.medir("dinero.convertir", i -> dolares.convertir(tasa)));
+
+
+        // IDS
+        String[] cuentas = new String[DISTINTOS];
+        String[] transacciones = new String[DISTINTOS];
+        for (int i = 0; i < DISTINTOS; i++) {
+            cuentas[i] = "ARG0170001000000" + String.format("%09d", i);
+            transacciones[i] = String.format("TXN-2025-%019d", i);
+        }
+
+        resultados.add(medidor.medir("cuentaId.newCuentaId", i -> CuentaId.newCuentaId(cuentas[i & (DISTINTOS - 1)])));
+        resultados.add(medidor.medir("transaccionId.new", i -> new TransaccionId(transacciones[i & (DISTINTOS - 1)])));
+
+
+        // CUENTA
+        Cuenta origen = cuenta(cuentas[1]);
+        Cuenta destino = cuenta(cuentas[2]);
+        Dinero uno = Dinero.deUnidades(100, Moneda.ARG);
+
+        resultados.add(medidor.medir("cuenta.transferir", i -> {
+            // ida y vuelta para que los saldos no se agoten
+            if ((i & 1) == 0) origen.transferir(uno, destino); else destino.transferir(uno, origen);
+            return origen;
+        }));
+
+
+        // MAPPERS: entity -> dominio -> entity
+        CuentaMapper cuentaMapper = new CuentaMapper();
+        TransaccionMapper transaccionMapper = new TransaccionMapper();
+        ClienteMapper clienteMapper = new ClienteMapper();
+        CuentaEntity cuentaEntity = cuentaEntity(cuentas[3]);
+        TransaccionEntity transaccionEntity = transaccionEntity(transacciones[4], cuentas[3], cuentas[5]);
+        ClienteEntity clienteEntity = clienteEntity(cuentas[3], cuentas[5]);
+
+        resultados.add(medidor.medir("cuentaMapper.idaYVuelta",
+            i -> cuentaMapper.aEntity(cuentaMapper.aDominio(cuentaEntity), cuentaEntity)));
+        resultados.add(medidor.medir("transaccionMapper.idaYVuelta",
+            i -> transaccionMapper.aEntity(transaccionMapper.aDominio(transaccionEntity), transaccionEntity)));
+        resultados.add(medidor.medir("clienteMapper.idaYVuelta",
+            i -> clienteMapper.aEntity(clienteMapper.aDominio(clienteEntity), clienteEntity)));
+
+
+
+        LineaBase.imprimir("dominio y mappers", resultados);
+        System.out.println("  reporte: " + LineaBase.escribirReporte(SUITE, resultados).toAbsolutePath());
+
+        if (LineaBase.actualizarSiSePide(SUITE, resultados)) {
+            System.out.println("  linea base actualizada");
+            return;
+        }
+        assertThat(LineaBase.cargar(SUITE).regresiones(resultados)).isEmpty();
+    }
+
+
+
+
+    // AUXILIARES
+
+    private Cuenta cuenta(String numero) {
+        return new Cuenta(CuentaId.newCuentaId(numero), ClienteId.newCliente("CLI-12345678"), Moneda.ARG,
+            Dinero.deUnidades(1_000_000, Moneda.ARG), true);
+    }
+
+    private CuentaEntity cuentaEntity(String numero) {
+        CuentaEntity entity = new CuentaEntity();
+        entity.setNumeroCuenta(numero);
+        entity.setClienteId("CLI-12345678");
+        entity.setMoneda("ARG");
+        entity.setSaldo(new BigDecimal("15000.50"));
+        entity.setActiva(true);
+        return entity;
+    }
+
+    private TransaccionEntity transaccionEntity(String id, String origen, String destino) {
+        TransaccionEntity entity = new TransaccionEntity();
+        entity.setTransaccionId(id);
+        entity.setTipoTransaccion(TipoTransaccion.TRANSFERENCIA.name());
+        entity.setCuentaOrigenId(origen);
+        entity.setCuentaDestinoId(destino);
+        entity.setMonto(new BigDecimal("250.00"));
+        entity.setMoneda("ARG");
+        entity.setDescripcion("Benchmark");
+        entity.setFechaDeCreacion(LocalDateTime.of(2025, 6, 1, 12, 0));
+        entity.setEstado(EstadoTransaccion.COMPLETADA);
+        entity.setReferencia("REF-BENCHMARK");
+        return entity;
+    }
+
+    private ClienteEntity clienteEntity(String... cuentas) {
+        ClienteEntity entity = new ClienteEntity();
+        entity.setClienteId("CLI-12345678");
+        entity.setNombre("Juan Pérez");
+        entity.setEmail("juan@email.com");
+        entity.setActiva(true);
+        entity.setMaxCuentasPermitidas(5);
+        entity.setCuentasIds(new ArrayList<>(List.of(cuentas)));
+        return entity;
+    }
+}
@@ -0,0 +1,132 @@
+package com.banco.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+
+
+
+// Linea base de los benchmarks: src/test/resources/benchmarks/<suite>.json, versionada con el codigo.
+// Un resultado es una regresion si:
+// - asigna mas memoria por operacion que la base (+25% y 32 bytes de margen: el JIT a veces elimina
+//   algun objeto temporal y a veces no). Es estable entre maquinas y es lo que mas cambia cuando
+//   el dominio empieza a crear objetos de mas.
+// - su mejor pasada tarda mas de benchmark.tolerancia veces (por defecto 2) lo que tardaba, +5 ns.
+//   Se compara la mejor pasada y no el promedio: con pocos nucleos el JIT y el GC compiten con la medicion.
+//   Margen amplio porque los ns dependen de la maquina; la base se regenera en la maquina de CI
+//   con -Dbenchmark.actualizar=true.
+
+public final class LineaBase {
+
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final double MARGEN_BYTES = 1.25;
+    private static final double BYTES_TOLERADOS = 32;
+    private static final double NS_TOLERADOS = 5; // las operaciones de pocos ns varian mas que eso
+
+
+    public record Valor(double nsMinimo, double bytesPorOp) {}
+
+
+    private final String suite;
+    private final Map<String, Valor> valores;
+
+
+    private LineaBase(String suite, Map<String, Valor> valores) {
+        this.suite = suite;
+        this.valores = valores;
+    }
+
+    public static LineaBase cargar(String suite) throws IOException {
+
+        try (InputStream entrada = LineaBase.class.getResourceAsStream("/benchmarks/" + suite + ".json")) {
+            if (entrada == null) {
+                return new LineaBase(suite, new LinkedHashMap<>());
+            }
+            return new LineaBase(suite, JSON.readValue(entrada, new TypeReference<LinkedHashMap<String, Valor>>() {}));
+        }
+    }
+
+
+
+    // lista de regresiones (vacia = todo bien); lo que no esta en la base solo se informa
+    public List<String> regresiones(Collection<Medidor.Resultado> resultados) {
+
+        double tolerancia = Double.parseDouble(System.getProperty("benchmark.tolerancia", "2.0"));
+        List<String> regresiones = new ArrayList<>();
+
+        for (Medidor.Resultado resultado : resultados) {
+
+            Valor base = valores.get(resultado.nombre());
+            if (base == null) continue;
+
+            if (resultado.bytesPorOp() > base.bytesPorOp() * MARGEN_BYTES + BYTES_TOLERADOS) {
+                regresiones.add(String.format("%s: %.1f bytes/op (base %.1f)",
+                    resultado.nombre(), resultado.bytesPorOp(), base.bytesPorOp()));
+            }
+            if (resultado.nsMinimo() > base.nsMinimo() * tolerancia + NS_TOLERADOS) {
+                regresiones.add(String.format("%s: %.1f ns/op (base %.1f, tolerancia x%.1f)",
+                    resultado.nombre(), resultado.nsMinimo(), base.nsMinimo(), tolerancia));
+            }
+        }
+        return regresiones;
+    }
+
+    // con -Dbenchmark.actualizar=true reemplaza la base versionada por estos resultados
+    public static boolean actualizarSiSePide(String suite, Collection<Medidor.Resultado> resultados) throws IOException {
+
+        if (!Boolean.getBoolean("benchmark.actualizar")) return false;
+
+        Map<String, Valor> nuevos = new LinkedHashMap<>();
+        for (Medidor.Resultado resultado : resultados) {
+            nuevos.put(resultado.nombre(), new Valor(redondear(resultado.nsMinimo()), redondear(resultado.bytesPorOp())));
+        }
+
+        Path archivo = Paths.get("src", "test", "resources", "benchmarks", suite + ".json");
+        Files.createDirectories(archivo.getParent());
+        JSON.writeValue(archivo.toFile(), nuevos);
+        return true;
+    }
+
+    // reporte legible por maquina en target/benchmarks/<suite>.json
+    public static Path escribirReporte(String suite, Collection<Medidor.Resultado> resultados) throws IOException {
+
+        Path archivo = Paths.get("target", "benchmarks", suite + ".json");
+        Files.createDirectories(archivo.getParent());
+        JSON.writeValue(archivo.toFile(), resultados);
+        return archivo;
+    }
+
+    public static void imprimir(String titulo, Collection<Medidor.Resultado> resultados) {
+
+        System.out.printf("%n[BENCHMARK] %s%n", titulo);
+        System.out.printf("  %-32s %10s %10s %10s %6s %6s%n", "operacion", "ns/op", "min ns/op", "bytes/op", "gc", "gc ms");
+        for (Medidor.Resultado r : resultados) {
+            System.out.printf("  %-32s %10.1f %10.1f %10.1f %6d %6d%n",
+                r.nombre(), r.nsPorOp(), r.nsMinimo(), r.bytesPorOp(), r.colecciones(), r.msDeGc());
+        }
+        System.out.println();
+    }
+
+
+
+
+    // AUXILIARES
+
+    private static double redondear(double valor) {
+        return Math.round(valor * 10) / 10.0;
+    }
+}
@@ -0,0 +1,125 @@
+package com.banco.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+
+
+
+// Mide una operacion al estilo JMH pero dentro de JUnit (JMH no esta entre las dependencias):
+// - pasadas de calentamiento (el JIT compila) y despues pasadas medidas, de N operaciones cada una.
+// - ns/op: promedio y minimo de las pasadas medidas.
+// - bytes/op: memoria asignada por el hilo (ThreadMXBean), lo mismo que gc.alloc.rate.norm de JMH.
+// - GC: colecciones y milisegundos de GC durante las pasadas medidas (como el perfilador -prof gc).
+// Configurable con -Dbenchmark.calentamientos, -Dbenchmark.mediciones y -Dbenchmark.operaciones.
+
+public final class Medidor {
+
+
+    // la operacion medida; lo que retorna se guarda para que el JIT no descarte el trabajo
+    @FunctionalInterface
+    public interface Operacion {
+        Object ejecutar(int iteracion);
+    }
+
+    public record Resultado(String nombre, double nsPorOp, double nsMinimo, double bytesPorOp,
+            long colecciones, long msDeGc) {}
+
+
+    private static volatile Object sumidero;
+
+    private final int calentamientos;
+    private final int mediciones;
+    private final int operaciones;
+
+
+    public Medidor(int calentamientos, int mediciones, int operaciones) {
+
+        if (mediciones <= 0 || operaciones <= 0) throw new IllegalArgumentException(
+            "Se necesita al menos una medicion de al menos una operacion");
+
+        this.calentamientos = calentamientos;
+        this.mediciones = mediciones;
+        this.operaciones = operaciones;
+    }
+
+    public static Medidor porDefecto() {
+        return new Medidor(
+            Integer.getInteger("benchmark.calentamientos", 5),
+            Integer.getInteger("benchmark.mediciones", 5),
+            Integer.getInteger("benchmark.operaciones", 1_000_000));
+    }
+
+
+
+    public Resultado medir(String nombre, Operacion operacion) {
+
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+
+        for (int i = 0; i < calentamientos; i++) {
+            pasada(operacion);
+        }
+
+        long nanosTotales = 0;
+        long nanosMinimo = Long.MAX_VALUE;
+        long colecciones = -coleccionesDeGc();
+        long msDeGc = -msDeGc();
+        long bytes = -hilos.getThreadAllocatedBytes(hilo);
+
+        for (int i = 0; i < mediciones; i++) {
+            long nanos = pasada(operacion);
+            nanosTotales += nanos;
+            nanosMinimo = Math.min(nanosMinimo, nanos);
+        }
+
+        bytes += hilos.getThreadAllocatedBytes(hilo);
+        colecciones += coleccionesDeGc();
+        msDeGc += msDeGc();
+
+        long totalOperaciones = (long) mediciones * operaciones;
+        return new Resultado(nombre,
+            (double) nanosTotales / totalOperaciones,
+            (double) nanosMinimo / operaciones,
+            (double) bytes / totalOperaciones,
+            colecciones, msDeGc);
+    }
+
+
+
+
+    // AUXILIARES
+
+    private long pasada(Operacion operacion) {
+
+        Object ultimo = null;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < operaciones; i++) {
+            ultimo = operacion.ejecutar(i);
+        }
+        long nanos = System.nanoTime() - inicio;
+        sumidero = ultimo;
+        return nanos;
+    }
+
+    private static long coleccionesDeGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : colectores()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long msDeGc() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : colectores()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static List<GarbageCollectorMXBean> colectores() {
+        return ManagementFactory.getGarbageCollectorMXBeans();
+    }
+}
@@ -0,0 +1,154 @@
+package com.banco.carga;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import com.banco.application.dto.AperturaCuentaRequest;
+import com.banco.application.dto.ClienteRequest;
+import com.banco.application.dto.ConsultaSaldoRequest;
+import com.banco.application.dto.OperacionCuentaRequest;
+import com.banco.application.dto.TransferenciaRequest;
+import com.banco.application.dto.auth.LoginRequest;
+import com.banco.application.dto.auth.RegisterRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+
+
+
+// Cliente HTTP de la API para las pruebas de carga: habla con la app real (JWT incluido),
+// levantada en el mismo proceso o externa (ej: docker compose con mem_limit 512m).
+// Los datos de siembra se crean de a uno y esperando respuesta; la carga usa enviar() asincronico.
+
+@SuppressWarnings("all") // elimina los warings
+class ApiBanco {
+
+
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper().findAndRegisterModules();
+    private final String urlBase;
+    private String token;
+
+
+    ApiBanco(String urlBase) {
+        this.urlBase = urlBase.endsWith("/") ? urlBase.substring(0, urlBase.length() - 1) : urlBase;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+
+
+    // SIEMBRA
+
+    // registra el usuario (si ya existe sigue igual) y guarda el token para el resto de las peticiones
+    void autenticar(String usuario, String clave) throws Exception {
+
+        enviarYEsperar(post("/auth/register",
+            new RegisterRequest(usuario, clave, usuario + "@carga.com", "USER", null)));
+
+        HttpResponse<String> respuesta = enviarYEsperar(post("/auth/login", new LoginRequest(usuario, clave)));
+        exigirExito(respuesta, "login");
+
+        token = json.readTree(respuesta.body()).path("token").asText();
+    }
+
+    String crearCliente(String nombre, String email) throws Exception {
+
+        HttpResponse<String> respuesta = enviarYEsperar(post("/api/clientes", new ClienteRequest(nombre, email)));
+        exigirExito(respuesta, "crear cliente");
+
+        return json.readTree(respuesta.body()).path("clienteId").asText();
+    }
+
+    String abrirCuenta(String clienteId, BigDecimal saldoInicial) throws Exception {
+
+        HttpResponse<String> respuesta = enviarYEsperar(post("/api/cuentas",
+            new AperturaCuentaRequest(clienteId, "AHORRO", "USD", saldoInicial, "001")));
+        exigirExito(respuesta, "abrir cuenta");
+
+        // la apertura responde 200 tambien cuando falla: sin cuentaId hubo error
+        JsonNode cuenta = json.readTree(respuesta.body());
+        if (!cuenta.hasNonNull("cuentaId")) throw new IllegalStateException(
+            "No se pudo abrir la cuenta: " + cuenta.path("mensaje").asText());
+
+        return cuenta.path("cuentaId").asText();
+    }
+
+
+
+    // PETICIONES DE LA CARGA
+
+    HttpRequest transferencia(String origen, String destino, BigDecimal monto) {
+        return post("/api/transacciones/transferir",
+            new TransferenciaRequest(origen, destino, monto, "USD", "carga"));
+    }
+
+    // GET /api/cuentas lleva el pedido en el cuerpo
+    HttpRequest consultaSaldo(String cuentaId) {
+        return peticion("/api/cuentas")
+            .method("GET", cuerpo(new ConsultaSaldoRequest(cuentaId, null, null, false, 0)))
+            .build();
+    }
+
+    HttpRequest deposito(String cuentaId, BigDecimal monto) {
+        return post("/api/transacciones/deposito",
+            new OperacionCuentaRequest(cuentaId, monto, "USD", "carga", null));
+    }
+
+    HttpRequest movimientos(String cuentaId, int tamanio) {
+        return peticion("/api/transacciones/" + cuentaId + "/movimientos?tamanio=" + tamanio).GET().build();
+    }
+
+    HttpRequest consultaCliente(String clienteId) {
+        return peticion("/api/clientes/" + clienteId).GET().build();
+    }
+
+    CompletableFuture<HttpResponse<String>> enviar(HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+
+
+
+    // AUXILIARES
+
+    private HttpResponse<String> enviarYEsperar(HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String ruta, Object body) {
+        return peticion(ruta).POST(cuerpo(body)).build();
+    }
+
+    private HttpRequest.Builder peticion(String ruta) {
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(urlBase + ruta))
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json");
+
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+
+        return builder;
+    }
+
+    private HttpRequest.BodyPublisher cuerpo(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalArgumentException("No se pudo serializar la peticion", e);
+        }
+    }
+
+    private void exigirExito(HttpResponse<String> respuesta, String operacion) {
+
+        if (respuesta.statusCode() >= 400) throw new IllegalStateException(
+            "Fallo " + operacion + " (" + respuesta.statusCode() + "): " + respuesta.body());
+    }
+}
@@ -0,0 +1,193 @@
+package com.banco.carga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banco.BancoApplication;
+
+
+
+
+// PRUEBA DE CARGA de punta a punta de la API REST (clientes, cuentas y transacciones) con una mezcla configurable.
+// Siembra N clientes del banco con sus cuentas, se loguea por /auth/login y reparte la carga segun carga.mezcla.
+// Deja p50/p95/p99, peticiones por segundo y errores por endpoint en target/carga/api.json
+//
+// En el mismo proceso (H2):          mvn -Pcarga test
+// Contra un PostgreSQL local:        mvn -Pcarga test -Dcarga.db.url=jdbc:postgresql://localhost:5432/banco -Dcarga.db.usuario=banco -Dcarga.db.clave=...
+// Contra la app ya levantada:        mvn -Pcarga test -Dcarga.url=http://localhost:8080
+// Opcionales: -Dcarga.concurrencia=100 -Dcarga.segundos=20 -Dcarga.sembrados=100 -Dcarga.cuentasPorCliente=2
+//             -Dcarga.mezcla=transferir=40,deposito=20,saldo=25,movimientos=10,cliente=5 -Dcarga.erroresMaximos=0.01
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Carga - mezcla de operaciones sobre la API REST")
+class CargaApiTest {
+
+
+    private static final int CONCURRENCIA = Integer.getInteger("carga.concurrencia", 100);
+    private static final int SEGUNDOS = Integer.getInteger("carga.segundos", 20);
+    private static final int SEMBRADOS = Integer.getInteger("carga.sembrados", CONCURRENCIA);
+    private static final int CUENTAS_POR_CLIENTE = Math.max(2, Integer.getInteger("carga.cuentasPorCliente", 2)); // transferir necesita dos
+    private static final Mezcla MEZCLA = Mezcla.de(System.getProperty("carga.mezcla",
+        "transferir=40,deposito=20,saldo=25,movimientos=10,cliente=5"));
+    private static final double ERRORES_MAXIMOS = Double.parseDouble(System.getProperty("carga.erroresMaximos", "0.01"));
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(Integer.getInteger("carga.calentamiento", 5));
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000");
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+    private static final int TAMANIO_PAGINA = 20;
+
+    // operacion de la mezcla -> endpoint con el que se reporta
+    private static final Map<String, String> ENDPOINTS = new LinkedHashMap<>();
+    static {
+        ENDPOINTS.put("transferir", "POST /api/transacciones/transferir");
+        ENDPOINTS.put("deposito", "POST /api/transacciones/deposito");
+        ENDPOINTS.put("saldo", "GET /api/cuentas");
+        ENDPOINTS.put("movimientos", "GET /api/transacciones/{cuenta}/movimientos");
+        ENDPOINTS.put("cliente", "GET /api/clientes/{id}");
+    }
+
+
+
+    @Test
+    @DisplayName("Debería medir cada endpoint de la mezcla y dejar el reporte en target/carga")
+    void mezclaDeOperaciones_ClientesConcurrentes_ReportePorEndpoint() throws Exception {
+
+        for (String operacion : MEZCLA.getPesos().keySet()) {
+            if (!ENDPOINTS.containsKey(operacion)) throw new IllegalArgumentException(
+                "Operacion de carga desconocida: " + operacion + " (validas: " + ENDPOINTS.keySet() + ")");
+        }
+
+        String urlExterna = System.getProperty("carga.url");
+        String destino;
+        GeneradorCarga.Resultado resultado;
+
+        if (urlExterna != null) {
+            destino = urlExterna;
+            resultado = medir(urlExterna);
+        } else {
+            destino = System.getProperty("carga.db.url", "h2 en memoria");
+            try (ConfigurableApplicationContext app = levantar()) {
+                resultado = medir("http://localhost:" + app.getEnvironment().getProperty("local.server.port"));
+            }
+        }
+
+        ReporteCarga reporte = ReporteCarga.de(destino, SEGUNDOS, SEMBRADOS, CUENTAS_POR_CLIENTE, MEZCLA, resultado);
+        Path archivo = reporte.escribir("api");
+        imprimir(reporte, archivo);
+
+        MEZCLA.getPesos().forEach((operacion, peso) -> {
+            if (peso == 0) return;
+            GeneradorCarga.Resumen resumen = resultado.de(ENDPOINTS.get(operacion));
+            assertThat(resumen.peticiones()).as(operacion).isPositive();
+            assertThat(resumen.tasaDeErrores()).as(operacion).isLessThanOrEqualTo(ERRORES_MAXIMOS);
+        });
+    }
+
+
+
+
+    // AUXILIARES
+
+    // cada cliente de la carga trabaja con un cliente sembrado (y sus cuentas): sin sembrados de sobra comparten cuentas
+    private GeneradorCarga.Resultado medir(String url) throws Exception {
+
+        ApiBanco api = new ApiBanco(url);
+        api.autenticar("carga", "carga123");
+
+        List<Sembrado> sembrados = sembrar(api);
+
+        return new GeneradorCarga(api).correr(CONCURRENCIA, CALENTAMIENTO, Duration.ofSeconds(SEGUNDOS),
+            (cliente, iteracion) -> {
+
+                Sembrado sembrado = sembrados.get(cliente % sembrados.size());
+                String cuenta = sembrado.cuentas().get((int) (iteracion % sembrado.cuentas().size()));
+                String operacion = MEZCLA.elegir();
+
+                return new GeneradorCarga.Peticion(ENDPOINTS.get(operacion), switch (operacion) {
+                    case "transferir" -> api.transferencia(cuenta, sembrado.otraCuenta(cuenta), MONTO);
+                    case "deposito" -> api.deposito(cuenta, MONTO);
+                    case "saldo" -> api.consultaSaldo(cuenta);
+                    case "movimientos" -> api.movimientos(cuenta, TAMANIO_PAGINA);
+                    default -> api.consultaCliente(sembrado.clienteId());
+                });
+            });
+    }
+
+    private List<Sembrado> sembrar(ApiBanco api) throws Exception {
+
+        long corrida = System.currentTimeMillis();
+        List<Sembrado> sembrados = new ArrayList<>();
+
+        for (int i = 0; i < SEMBRADOS; i++) {
+            String clienteId = api.crearCliente("Cliente Carga " + i, "api" + i + "." + corrida + "@carga.com");
+            List<String> cuentas = new ArrayList<>();
+            for (int c = 0; c < CUENTAS_POR_CLIENTE; c++) {
+                cuentas.add(api.abrirCuenta(clienteId, SALDO_INICIAL));
+            }
+            sembrados.add(new Sembrado(clienteId, cuentas));
+        }
+
+        return sembrados;
+    }
+
+    private ConfigurableApplicationContext levantar() {
+
+        String urlBase = System.getProperty("carga.db.url");
+        List<String> propiedades = new ArrayList<>(List.of(
+            "server.port=0",
+            "spring.devtools.restart.enabled=false",
+            "jwt.secret=586E3272357538782F413F4428472B4B6250655368566B597033733676397924",
+            "jwt.expiration=86400000"));
+
+        if (urlBase == null) {
+            propiedades.add("spring.datasource.url=jdbc:h2:mem:carga-api;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE");
+            propiedades.add("spring.jpa.hibernate.ddl-auto=create-drop");
+        } else {
+            // en PostgreSQL el esquema lo crean las migraciones de db/migracion/postgresql
+            propiedades.add("spring.datasource.url=" + urlBase);
+            propiedades.add("spring.datasource.username=" + System.getProperty("carga.db.usuario", "postgres"));
+            propiedades.add("spring.datasource.password=" + System.getProperty("carga.db.clave", "postgres"));
+        }
+
+        return new SpringApplicationBuilder(BancoApplication.class)
+            .properties(propiedades.toArray(new String[0]))
+            .run();
+    }
+
+    private void imprimir(ReporteCarga reporte, Path archivo) {
+
+        System.out.printf("%n[CARGA] %s: %d clientes concurrentes, %d s medidos, %d clientes sembrados, mezcla %s%n",
+            reporte.destino(), reporte.concurrencia(), reporte.segundosMedidos(), reporte.clientesSembrados(), MEZCLA);
+
+        reporte.porEndpoint().forEach((endpoint, r) ->
+            System.out.printf("  %-44s %8.1f req/s  p50 %8.1f ms  p95 %8.1f ms  p99 %8.1f ms  errores %5.2f%%%n",
+                endpoint, r.porSegundo(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.tasaDeErrores() * 100));
+
+        System.out.printf("  %-44s %8.1f req/s  (%d peticiones, %d errores)%n",
+            "total", reporte.total().porSegundo(), reporte.total().peticiones(), reporte.total().errores());
+        System.out.printf("  reporte: %s%n%n", archivo.toAbsolutePath());
+    }
+
+
+    private record Sembrado(String clienteId, List<String> cuentas) {
+
+        String otraCuenta(String cuenta) {
+            int indice = cuentas.indexOf(cuenta);
+            return cuentas.get((indice + 1) % cuentas.size());
+        }
+    }
+}
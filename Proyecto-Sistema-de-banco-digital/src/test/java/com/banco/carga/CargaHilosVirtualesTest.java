@@ -0,0 +1,134 @@
+package com.banco.carga;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.banco.BancoApplication;
+
+
+
+
+// PRUEBA DE CARGA: 2k clientes concurrentes contra POST /api/transacciones/transferir y GET /api/cuentas.
+// Compara la app con el pool de hilos de Tomcat (plataforma) y con el perfil "virtual" (hilos virtuales).
+// En Java 17 spring.threads.virtual.enabled no hace nada: la corrida "virtual" solo cambia el pool de Hikari y Tomcat.
+//
+// En el mismo proceso (H2):         mvn test -Dtest=CargaHilosVirtualesTest -Dbenchmark=true
+// Contra la app en docker (512 MB): mvn test -Dtest=CargaHilosVirtualesTest -Dbenchmark=true -Dcarga.url=http://localhost:8080
+// Opcionales: -Dcarga.clientes=2000 -Dcarga.segundos=20 -Dcarga.pares=250
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Carga - hilos de plataforma vs hilos virtuales")
+class CargaHilosVirtualesTest {
+
+
+    private static final int CLIENTES = Integer.getInteger("carga.clientes", 2000);
+    private static final int SEGUNDOS = Integer.getInteger("carga.segundos", 20);
+    private static final int PARES = Integer.getInteger("carga.pares", 250); // un cliente del banco con 2 cuentas por par
+    private static final Duration CALENTAMIENTO = Duration.ofSeconds(5);
+
+    private static final String TRANSFERIR = "POST /api/transacciones/transferir";
+    private static final String CONSULTAR = "GET /api/cuentas";
+
+
+
+    @Test
+    @DisplayName("Debería sostener 2k clientes concurrentes en transferir y consultar saldo")
+    void transferirYConsultar_ClientesConcurrentes_ThroughputYP99() throws Exception {
+
+        String urlExterna = System.getProperty("carga.url");
+        Map<String, GeneradorCarga.Resultado> resultados = new LinkedHashMap<>();
+
+        if (urlExterna != null) {
+            resultados.put("externa " + urlExterna, medir(urlExterna));
+        } else {
+            for (boolean virtuales : new boolean[] {false, true}) {
+                try (ConfigurableApplicationContext app = levantar(virtuales)) {
+                    String url = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+                    resultados.put(virtuales ? "hilos virtuales" : "hilos de plataforma", medir(url));
+                }
+            }
+        }
+
+        imprimir(resultados);
+
+        for (GeneradorCarga.Resultado resultado : resultados.values()) {
+            assertThat(resultado.de(TRANSFERIR).peticiones()).isPositive();
+            assertThat(resultado.de(CONSULTAR).peticiones()).isPositive();
+        }
+    }
+
+
+
+
+    // AUXILIARES
+
+    // siembra un cliente con dos cuentas por par y alterna transferir (ida y vuelta) con consultar el saldo
+    private GeneradorCarga.Resultado medir(String url) throws Exception {
+
+        ApiBanco api = new ApiBanco(url);
+        api.autenticar("carga", "carga123");
+
+        long corrida = System.currentTimeMillis();
+        List<String[]> pares = new ArrayList<>();
+        for (int i = 0; i < PARES; i++) {
+            String clienteId = api.crearCliente("Cliente Carga " + i, "carga" + i + "." + corrida + "@carga.com");
+            pares.add(new String[] {
+                api.abrirCuenta(clienteId, new BigDecimal("1000000")),
+                api.abrirCuenta(clienteId, new BigDecimal("1000000"))});
+        }
+
+        BigDecimal monto = new BigDecimal("1.00");
+
+        return new GeneradorCarga(api).correr(CLIENTES, CALENTAMIENTO, Duration.ofSeconds(SEGUNDOS),
+            (cliente, iteracion) -> {
+                String[] par = pares.get(cliente % pares.size());
+                return switch ((int) (iteracion % 4)) {
+                    case 0 -> new GeneradorCarga.Peticion(TRANSFERIR, api.transferencia(par[0], par[1], monto));
+                    case 2 -> new GeneradorCarga.Peticion(TRANSFERIR, api.transferencia(par[1], par[0], monto));
+                    default -> new GeneradorCarga.Peticion(CONSULTAR, api.consultaSaldo(par[(int) (iteracion % 4) / 2]));
+                };
+            });
+    }
+
+    private ConfigurableApplicationContext levantar(boolean virtuales) {
+
+        return new SpringApplicationBuilder(BancoApplication.class)
+            .profiles(virtuales ? "virtual" : "default")
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:carga-" + (virtuales ? "virtual" : "plataforma")
+                    + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.devtools.restart.enabled=false",
+                "jwt.secret=586E3272357538782F413F4428472B4B6250655368566B597033733676397924",
+                "jwt.expiration=86400000")
+            .run();
+    }
+
+    private void imprimir(Map<String, GeneradorCarga.Resultado> resultados) {
+
+        System.out.printf("%n[CARGA] %d clientes concurrentes, %d s medidos, %d pares de cuentas, Java %d%n",
+            CLIENTES, SEGUNDOS, PARES, Runtime.version().feature());
+        if (Runtime.version().feature() < 21) {
+            System.out.println("  (Java < 21: las dos corridas usan hilos de plataforma, el perfil virtual solo cambia los pools)");
+        }
+
+        resultados.forEach((modo, resultado) -> resultado.porEndpoint().forEach((endpoint, r) ->
+            System.out.printf("  %-22s %-36s %8.1f req/s  p50 %8.1f ms  p95 %8.1f ms  p99 %8.1f ms  errores %5.2f%%%n",
+                modo, endpoint, r.porSegundo(), r.p50Ms(), r.p95Ms(), r.p99Ms(), r.tasaDeErrores() * 100)));
+        System.out.println();
+    }
+}
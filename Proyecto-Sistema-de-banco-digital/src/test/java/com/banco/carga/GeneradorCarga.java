@@ -0,0 +1,135 @@
+package com.banco.carga;
+
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+
+
+// Carga de lazo cerrado: N clientes concurrentes, cada uno manda una peticion, espera la respuesta y manda la siguiente.
+// Los clientes no son hilos (2k hilos de plataforma medirian al generador, no a la app): cada respuesta
+// encadena la proxima peticion con sendAsync. Lo que responde antes de terminar el calentamiento no se mide.
+
+@SuppressWarnings("all") // elimina los warings
+class GeneradorCarga {
+
+
+    // que peticion manda el cliente en su iteracion n
+    interface Escenario {
+        Peticion siguiente(int cliente, long iteracion);
+    }
+
+    record Peticion(String endpoint, HttpRequest request) {}
+
+
+    private final ApiBanco api;
+
+
+    GeneradorCarga(ApiBanco api) {
+        this.api = api;
+    }
+
+
+
+    Resultado correr(int clientes, Duration calentamiento, Duration medicion, Escenario escenario) throws InterruptedException {
+
+        long inicioMedicion = System.nanoTime() + calentamiento.toNanos();
+        long fin = inicioMedicion + medicion.toNanos();
+
+        Map<String, Medicion> mediciones = new ConcurrentHashMap<>();
+        CountDownLatch terminados = new CountDownLatch(clientes);
+
+        for (int cliente = 0; cliente < clientes; cliente++) {
+            siguiente(cliente, 0, escenario, inicioMedicion, fin, mediciones, terminados);
+        }
+
+        // las peticiones en vuelo al cerrar la ventana tienen hasta el timeout de ApiBanco
+        terminados.await(medicion.plus(calentamiento).toSeconds() + 120, TimeUnit.SECONDS);
+
+        Map<String, Resumen> resumen = new TreeMap<>();
+        mediciones.forEach((endpoint, medicionEndpoint) -> resumen.put(endpoint, medicionEndpoint.resumir(medicion)));
+
+        return new Resultado(clientes, resumen);
+    }
+
+
+
+
+    // AUXILIARES
+
+    private void siguiente(int cliente, long iteracion, Escenario escenario, long inicioMedicion, long fin,
+        Map<String, Medicion> mediciones, CountDownLatch terminados) {
+
+        if (System.nanoTime() >= fin) {
+            terminados.countDown();
+            return;
+        }
+
+        Peticion peticion = escenario.siguiente(cliente, iteracion);
+        long enviada = System.nanoTime();
+
+        api.enviar(peticion.request()).whenComplete((respuesta, error) -> {
+
+            long recibida = System.nanoTime();
+            if (enviada >= inicioMedicion && recibida <= fin) {
+                boolean exito = error == null && respuesta.statusCode() < 400;
+                mediciones.computeIfAbsent(peticion.endpoint(), e -> new Medicion())
+                    .registrar(recibida - enviada, exito);
+            }
+
+            siguiente(cliente, iteracion + 1, escenario, inicioMedicion, fin, mediciones, terminados);
+        });
+    }
+
+
+    private static class Medicion {
+
+        private long[] latenciasNanos = new long[1024];
+        private int cantidad;
+        private final AtomicInteger errores = new AtomicInteger();
+
+        synchronized void registrar(long nanos, boolean exito) {
+            if (cantidad == latenciasNanos.length) latenciasNanos = Arrays.copyOf(latenciasNanos, cantidad * 2);
+            latenciasNanos[cantidad++] = nanos;
+            if (!exito) errores.incrementAndGet();
+        }
+
+        synchronized Resumen resumir(Duration ventana) {
+
+            long[] ordenadas = Arrays.copyOf(latenciasNanos, cantidad);
+            Arrays.sort(ordenadas);
+
+            return new Resumen(cantidad, errores.get(),
+                cantidad / (ventana.toMillis() / 1000.0),
+                percentil(ordenadas, 50), percentil(ordenadas, 95), percentil(ordenadas, 99));
+        }
+
+        private static double percentil(long[] ordenadas, int percentil) {
+            if (ordenadas.length == 0) return 0;
+            int indice = (int) Math.ceil(percentil / 100.0 * ordenadas.length) - 1;
+            return ordenadas[Math.max(0, Math.min(indice, ordenadas.length - 1))] / 1_000_000.0;
+        }
+    }
+
+
+    record Resumen(int peticiones, int errores, double porSegundo, double p50Ms, double p95Ms, double p99Ms) {
+
+        double tasaDeErrores() {
+            return peticiones == 0 ? 0 : (double) errores / peticiones;
+        }
+    }
+
+    record Resultado(int clientes, Map<String, Resumen> porEndpoint) {
+
+        Resumen de(String endpoint) {
+            return porEndpoint.getOrDefault(endpoint, new Resumen(0, 0, 0, 0, 0, 0));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.banco.carga;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+
+
+// Proporcion de cada operacion en la carga, ej: "transferir=40,deposito=20,saldo=25,movimientos=10,cliente=5".
+// Los pesos son relativos (no hace falta que sumen 100); una operacion con peso 0 no se manda.
+
+@SuppressWarnings("all") // elimina los warings
+class Mezcla {
+
+
+    private final Map<String, Integer> pesos;
+    private final String[] operaciones;
+    private final int[] acumulados;
+    private final int total;
+
+
+    private Mezcla(Map<String, Integer> pesos) {
+
+        this.pesos = Collections.unmodifiableMap(pesos);
+        this.operaciones = pesos.keySet().toArray(new String[0]);
+        this.acumulados = new int[operaciones.length];
+
+        int suma = 0;
+        for (int i = 0; i < operaciones.length; i++) {
+            suma += pesos.get(operaciones[i]);
+            acumulados[i] = suma;
+        }
+        if (suma <= 0) throw new IllegalArgumentException("La mezcla de carga no tiene ninguna operacion con peso: " + pesos);
+
+        this.total = suma;
+    }
+
+
+    static Mezcla de(String definicion) {
+
+        if (definicion == null || definicion.isBlank()) throw new IllegalArgumentException("La mezcla de carga esta vacia");
+
+        Map<String, Integer> pesos = new LinkedHashMap<>();
+        for (String parte : definicion.split(",")) {
+
+            String[] claveValor = parte.trim().split("=");
+            if (claveValor.length != 2) throw new IllegalArgumentException(
+                "Cada operacion de la mezcla va como nombre=peso: " + parte);
+
+            int peso = Integer.parseInt(claveValor[1].trim());
+            if (peso < 0) throw new IllegalArgumentException("El peso de " + claveValor[0] + " no puede ser negativo");
+
+            pesos.merge(claveValor[0].trim(), peso, Integer::sum);
+        }
+
+        return new Mezcla(pesos);
+    }
+
+
+
+    // operacion al azar respetando los pesos (se llama desde los hilos del HttpClient)
+    String elegir() {
+
+        int sorteo = ThreadLocalRandom.current().nextInt(total);
+        for (int i = 0; i < acumulados.length; i++) {
+            if (sorteo < acumulados[i]) return operaciones[i];
+        }
+        return operaciones[operaciones.length - 1];
+    }
+
+    Map<String, Integer> getPesos() {
+        return pesos;
+    }
+
+    @Override
+    public String toString() {
+        return pesos.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.banco.carga;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+
+
+
+// Reporte de una corrida de carga para comparar entre versiones o graficar: target/carga/<nombre>.json
+// Los milisegundos y peticiones por segundo son por endpoint; "total" suma todos los endpoints.
+
+@SuppressWarnings("all") // elimina los warings
+record ReporteCarga(
+    String fecha,
+    String destino,
+    int java,
+    int concurrencia,
+    int segundosMedidos,
+    int clientesSembrados,
+    int cuentasPorCliente,
+    Map<String, Integer> mezcla,
+    Total total,
+    Map<String, GeneradorCarga.Resumen> porEndpoint) {
+
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+
+    record Total(int peticiones, int errores, double porSegundo) {}
+
+
+    static ReporteCarga de(String destino, int segundos, int clientesSembrados, int cuentasPorCliente,
+        Mezcla mezcla, GeneradorCarga.Resultado resultado) {
+
+        int peticiones = 0;
+        int errores = 0;
+        double porSegundo = 0;
+        for (GeneradorCarga.Resumen resumen : resultado.porEndpoint().values()) {
+            peticiones += resumen.peticiones();
+            errores += resumen.errores();
+            porSegundo += resumen.porSegundo();
+        }
+
+        return new ReporteCarga(Instant.now().toString(), destino, Runtime.version().feature(),
+            resultado.clientes(), segundos, clientesSembrados, cuentasPorCliente, mezcla.getPesos(),
+            new Total(peticiones, errores, porSegundo), resultado.porEndpoint());
+    }
+
+
+    Path escribir(String nombre) throws IOException {
+
+        Path archivo = Paths.get("target", "carga", nombre + ".json");
+        Files.createDirectories(archivo.getParent());
+        JSON.writeValue(archivo.toFile(), this);
+        return archivo;
+    }
+}
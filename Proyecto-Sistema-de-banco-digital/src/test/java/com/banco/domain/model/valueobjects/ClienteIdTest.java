@@ -3,6 +3,9 @@ package com.banco.domain.model.valueobjects;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.Random;
+import java.util.regex.Pattern;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -239,6 +242,45 @@ class ClienteIdTest {
         }
 
 
+        @Test
+        @DisplayName("esValido() sin regex - Debe coincidir con el patrón en textos mutados")
+        void esValido_TextosMutados_MismoResultadoQueRegex() {
+
+            Pattern patron = Pattern.compile(ClienteId.getFormatoEsperado());
+            Random random = new Random(42);
+            String caracteres = "0123456789CLI-x \u0663";
+
+            for (int i = 0; i < 100_000; i++) {
+                StringBuilder texto = new StringBuilder("CLI-12345678");
+                int cambios = random.nextInt(3);
+                for (int c = 0; c < cambios; c++) {
+                    int posicion = random.nextInt(texto.length());
+                    switch (random.nextInt(3)) {
+                        case 0 -> texto.setCharAt(posicion, caracteres.charAt(random.nextInt(caracteres.length())));
+                        case 1 -> texto.deleteCharAt(posicion);
+                        default -> texto.insert(posicion, caracteres.charAt(random.nextInt(caracteres.length())));
+                    }
+                }
+                String valor = texto.toString();
+
+                assertThat(ClienteId.esValido(valor)).as(valor).isEqualTo(patron.matcher(valor).matches());
+            }
+        }
+
+
+        @Test
+        @DisplayName("rehidratar() - Debe crear el id sin validar y ser igual al validado")
+        void rehidratar_IdGuardado_IgualAlValidado() {
+
+            ClienteId rehidratado = ClienteId.rehidratar("CLI-12345678");
+
+            assertThat(rehidratado).isEqualTo(ClienteId.newCliente("CLI-12345678"));
+            assertThat(rehidratado.hashCode()).isEqualTo(ClienteId.newCliente("CLI-12345678").hashCode());
+            assertThatThrownBy(() -> ClienteId.rehidratar(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+
         @Test
         @DisplayName("getFormatoEsperado() - Debe devolver patrón correcto")
         void getFormatoEsperado_DebeDevolverPatronCorrecto() {
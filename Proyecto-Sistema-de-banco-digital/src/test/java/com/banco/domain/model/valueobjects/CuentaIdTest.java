@@ -2,6 +2,10 @@ package com.banco.domain.model.valueobjects;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -267,5 +271,127 @@ import org.junit.jupiter.params.provider.ValueSource;
         }
 
     }
+
+
+    // TESTS DE DIGITO VERIFICADOR (MOD 97-10)
+
+    @Nested
+    @DisplayName("Digito verificador")
+    class DigitoVerificadorTest{
+
+        @Test
+        @DisplayName("generarNueva() con secuencia - debe armar el numero con esa secuencia y DV valido")
+        void generarNueva_ConSecuencia_NumeroYDigitoValido() {
+
+            CuentaId cuenta = CuentaId.generarNueva(17, 1, Moneda.ARG, 12345);
+
+            assertThat(cuenta.getValor()).startsWith("ARG0170001000000001234");
+            assertThat(cuenta.tieneDigitoVerificadorValido()).isTrue();
+        }
+
+        @Test
+        @DisplayName("El digito debe ser el de ISO 7064 MOD 97-10")
+        void calcularDigitoVerificador_ValorConocido() {
+
+            // 01700010000000000001 * 100 mod 97 = 46 -> 98 - 46 = 52
+            assertThat(CuentaId.calcularDigitoVerificador("ARG01700010000000000001")).isEqualTo("52");
+            assertThat(CuentaId.generarNueva(17, 1, Moneda.ARG, 1).getValor()).isEqualTo("ARG0170001000000000000152");
+        }
+
+        @Test
+        @DisplayName("Cambiar un digito o invertir dos vecinos debe invalidar el numero")
+        void tieneDigitoVerificadorValido_ErroresDeTipeo_Detectados() {
+
+            String valido = CuentaId.generarNueva(17, 42, Moneda.USD, 98765432101L).getValor();
+            char[] cambiado = valido.toCharArray();
+            cambiado[15] = cambiado[15] == '9' ? '0' : (char) (cambiado[15] + 1);
+            char[] invertido = valido.toCharArray();
+            char aux = invertido[13]; invertido[13] = invertido[14]; invertido[14] = aux;
+
+            assertThat(CuentaId.newCuentaId(valido).tieneDigitoVerificadorValido()).isTrue();
+            assertThat(CuentaId.newCuentaId(new String(cambiado)).tieneDigitoVerificadorValido()).isFalse();
+            if (valido.charAt(13) != valido.charAt(14)) {
+                assertThat(CuentaId.newCuentaId(new String(invertido)).tieneDigitoVerificadorValido()).isFalse();
+            }
+        }
+
+        @Test
+        @DisplayName("Numeros anteriores al digito real se siguen aceptando")
+        void newCuentaId_SinDigitoReal_SeAcepta() {
+
+            CuentaId legado = CuentaId.newCuentaId("ARG0170001000000012345000");
+
+            assertThat(legado.tieneDigitoVerificadorValido()).isFalse();
+        }
+
+        @ParameterizedTest
+        @CsvSource({"-1, 1", "10000, 1", "1, -1", "1, 100000000000"})
+        @DisplayName("generarNueva() fuera de rango - debe lanzar excepcion")
+        void generarNueva_FueraDeRango_LanzaExcepcion(int sucursal, long secuencia) {
+
+            assertThatThrownBy(() -> CuentaId.generarNueva(17, sucursal, Moneda.ARG, secuencia))
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+
+    }
+
+
+    // TESTS DE VALIDACION SIN REGEX Y REHIDRATACION
+
+    @Nested
+    @DisplayName("Validacion sin regex y rehidratacion")
+    class ValidacionRapidaTest{
+
+        @Test
+        @DisplayName("esValido() - debe coincidir con el patron + banco en textos mutados")
+        void esValido_TextosMutados_MismoResultadoQueRegex() {
+
+            Pattern patron = Pattern.compile(CuentaId.getFormatoEsperado());
+            Random random = new Random(42);
+            String caracteres = "0123456789ARGx- \u0663";
+
+            for (int i = 0; i < 100_000; i++) {
+                StringBuilder texto = new StringBuilder("ARG0170001000000012345000");
+                int cambios = random.nextInt(3);
+                for (int c = 0; c < cambios; c++) {
+                    int posicion = random.nextInt(texto.length());
+                    switch (random.nextInt(3)) {
+                        case 0 -> texto.setCharAt(posicion, caracteres.charAt(random.nextInt(caracteres.length())));
+                        case 1 -> texto.deleteCharAt(posicion);
+                        default -> texto.insert(posicion, caracteres.charAt(random.nextInt(caracteres.length())));
+                    }
+                }
+                String valor = texto.toString();
+                boolean esperado = patron.matcher(valor).matches()
+                    && Set.of("017", "015", "072").contains(valor.substring(3, 6));
+
+                assertThat(CuentaId.esValido(valor)).as(valor).isEqualTo(esperado);
+            }
+        }
+
+        @Test
+        @DisplayName("rehidratar() - debe ser igual a la cuenta validada")
+        void rehidratar_NumeroGuardado_IgualAlValidado() {
+
+            CuentaId rehidratada = CuentaId.rehidratar("ARG0170001000000012345000");
+
+            assertThat(rehidratada).isEqualTo(CuentaId.newCuentaId("ARG0170001000000012345000"));
+            assertThat(rehidratada.deducirMoneda()).isEqualTo(Moneda.ARG);
+        }
+
+        @Test
+        @DisplayName("internada() - debe reutilizar la instancia de la misma cuenta")
+        void internada_MismaCuenta_MismaInstancia() {
+
+            CuentaId primera = CuentaId.internada(new String("ARG0170001000000012345010"));
+            CuentaId segunda = CuentaId.internada(new String("ARG0170001000000012345010"));
+            CuentaId otra = CuentaId.internada("ARG0170001000000012345020");
+
+            assertThat(segunda).isSameAs(primera);
+            assertThat(otra).isNotEqualTo(primera);
+            assertThat(otra.getValor()).isEqualTo("ARG0170001000000012345020");
+        }
+
+    }
     
 }
@@ -0,0 +1,79 @@
+package com.banco.domain.model.valueobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.banco.benchmark.Medidor;
+import com.banco.benchmark.Medidor.Resultado;
+import com.banco.domain.model.entities.Cuenta;
+
+
+
+
+// BENCHMARK: deposito + transferencia en el dominio (Cuenta + Dinero), ns y bytes por operacion.
+// ANTES:   todos los montos eran BigDecimal de escala 10. Se reproduce con montos que tienen fraccion
+//          de centavo, que siguen usando esa representacion (mismas sumas, setScale y compareTo).
+// DESPUES: montos exactos en centavos: sumar, restar y comparar son operaciones de long.
+// No corre con el build normal:  mvn test -Dtest=DineroBenchmarkTest -Dbenchmark=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - Dinero en depositos y transferencias")
+class DineroBenchmarkTest {
+
+
+    private static final int OPERACIONES = 5_000_000;
+
+    private final Medidor medidor = new Medidor(1, 1, OPERACIONES);
+
+
+
+    @Test
+    @DisplayName("Con montos en centavos debería costar menos que con BigDecimal")
+    void depositoYTransferencia_BigDecimalVsUnidades() {
+
+        Resultado antes = medir(new BigDecimal("0.001"));
+        Resultado despues = medir(new BigDecimal("0.01"));
+
+        System.out.printf("%n[BENCHMARK] %d x (deposito + transferencia)%n", OPERACIONES);
+        System.out.printf("  BigDecimal escala 10 : %6.1f ns/op  %6.1f bytes/op%n", antes.nsPorOp(), antes.bytesPorOp());
+        System.out.printf("  long en centavos     : %6.1f ns/op  %6.1f bytes/op  (x%.1f)%n%n",
+            despues.nsPorOp(), despues.bytesPorOp(), antes.nsPorOp() / despues.nsPorOp());
+
+        assertThat(despues.nsPorOp()).isLessThan(antes.nsPorOp());
+        assertThat(despues.bytesPorOp()).isLessThan(antes.bytesPorOp());
+    }
+
+
+
+
+    // AUXILIARES
+
+    private Resultado medir(BigDecimal valorMonto) {
+
+        Dinero monto = Dinero.nuevo(valorMonto, Moneda.ARG);
+        Cuenta origen = cuenta("ARG0170001000000000000101");
+        Cuenta destino = cuenta("ARG0170001000000000000202");
+
+        Resultado resultado = medidor.medir("deposito + transferencia", i -> {
+            origen.depositar(monto);
+            origen.transferir(monto, destino);
+            return destino;
+        });
+
+        // calentamiento + medicion
+        assertThat(destino.getSaldo().getMonto())
+            .isEqualByComparingTo(valorMonto.multiply(BigDecimal.valueOf(2L * OPERACIONES)));
+        return resultado;
+    }
+
+    private Cuenta cuenta(String numero) {
+        return new Cuenta(CuentaId.newCuentaId(numero), ClienteId.newCliente("CLI-12345678"), Moneda.ARG,
+            Dinero.nuevoCero(Moneda.ARG), true);
+    }
+}
@@ -600,4 +600,83 @@ class DineroTest {
 
     }
 
+
+
+    // TESTS DE REPRESENTACIÓN EN UNIDADES MENORES (long)
+
+    @Nested
+    @DisplayName("Unidades menores")
+    class UnidadesTest{
+
+        @Test
+        @DisplayName("deUnidades() - Debe ser igual al creado desde BigDecimal")
+        void deUnidades_IgualAlCreadoDesdeBigDecimal() {
+            Dinero desdeUnidades = Dinero.deUnidades(15075, Moneda.ARG);
+            Dinero desdeBigDecimal = Dinero.nuevoString("150.75", Moneda.ARG);
+
+            assertThat(desdeUnidades).isEqualTo(desdeBigDecimal);
+            assertThat(desdeUnidades.hashCode()).isEqualTo(desdeBigDecimal.hashCode());
+            assertThat(desdeUnidades.getMonto()).isEqualByComparingTo("150.75");
+            assertThat(desdeBigDecimal.getUnidades()).isEqualTo(15075);
+        }
+
+        @Test
+        @DisplayName("getMonto() - Debe mantener la escala de cálculo")
+        void getMonto_MontoExacto_EscalaDeCalculo() {
+            assertThat(Dinero.deUnidades(100, Moneda.USD).getMonto()).isEqualTo(new BigDecimal("1.0000000000"));
+            assertThat(Dinero.deUnidades(100, Moneda.USD).getMontoConEscalaMoneda()).isEqualTo(new BigDecimal("1.00"));
+        }
+
+        @Test
+        @DisplayName("deUnidades() negativo - Debe lanzar excepción")
+        void deUnidades_Negativo_DebeLanzarExcepcion() {
+            assertThatThrownBy(() -> Dinero.deUnidades(-1, Moneda.USD))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("negativo");
+        }
+
+        @Test
+        @DisplayName("Exacto vs con fracción de centavo - Deben compararse bien")
+        void comparar_ExactoConPreciso_ComparaPorMonto() {
+            Dinero exacto = Dinero.nuevoString("100.00", Moneda.EUR);
+            Dinero preciso = Dinero.nuevoString("100.001", Moneda.EUR);
+
+            assertThat(preciso.esMayorQue(exacto)).isTrue();
+            assertThat(exacto.esMenorQue(preciso)).isTrue();
+            assertThat(preciso.restar(exacto).getMonto()).isEqualByComparingTo("0.001");
+            // equals compara con los decimales de la moneda
+            assertThat(preciso).isEqualTo(exacto);
+        }
+
+        @Test
+        @DisplayName("Suma que desborda el long - Debe pasar a BigDecimal sin perder el monto")
+        void sumar_DesbordaLong_SigueExacto() {
+            Dinero maximo = Dinero.deUnidades(Long.MAX_VALUE, Moneda.USD);
+
+            Dinero resultado = maximo.sumar(Dinero.deUnidades(1, Moneda.USD));
+
+            assertThat(resultado.getMonto())
+                .isEqualByComparingTo(BigDecimal.valueOf(Long.MAX_VALUE, 2).add(new BigDecimal("0.01")));
+            assertThat(resultado.esMayorQue(maximo)).isTrue();
+        }
+
+        @Test
+        @DisplayName("restar() con fondos insuficientes - Mismo error que antes")
+        void restar_FondosInsuficientes_LanzaExcepcion() {
+            assertThatThrownBy(() -> Dinero.deUnidades(5000, Moneda.ARG).restar(Dinero.deUnidades(5001, Moneda.ARG)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Fondos insuficientes");
+        }
+
+        @Test
+        @DisplayName("nuevoCero() - Debe ser una instancia compartida por moneda")
+        void nuevoCero_InstanciaCompartida() {
+            assertThat(Dinero.nuevoCero(Moneda.ARG)).isSameAs(Dinero.nuevoCero(Moneda.ARG));
+            assertThat(Dinero.nuevoCero(Moneda.ARG)).isNotEqualTo(Dinero.nuevoCero(Moneda.USD));
+            assertThat(Dinero.deUnidades(300, Moneda.ARG).restar(Dinero.deUnidades(300, Moneda.ARG)))
+                .isSameAs(Dinero.nuevoCero(Moneda.ARG));
+        }
+
+    }
+
 }
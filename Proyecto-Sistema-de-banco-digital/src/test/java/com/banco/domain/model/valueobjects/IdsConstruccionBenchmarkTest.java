@@ -0,0 +1,105 @@
+package com.banco.domain.model.valueobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.banco.benchmark.Medidor;
+import com.banco.benchmark.Medidor.Resultado;
+
+
+
+
+// BENCHMARK: costo de construir los ids (ns y bytes por id).
+// ANTES:   CuentaId/ClienteId con Pattern precompilado (+ substring del banco), TransaccionId con String.matches
+//          (compila el Pattern en cada llamada). Se reproducen aca con los mismos patrones.
+// DESPUES: validadores escritos a mano y rehidratar()/internada() para lo que se lee de la BD.
+// No corre con el build normal:  mvn test -Dtest=IdsConstruccionBenchmarkTest -Dbenchmark=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - construcción de ids")
+class IdsConstruccionBenchmarkTest {
+
+
+    private static final int IDS = 2_000_000;
+    private static final int DISTINTOS = 512;
+
+    private static final Pattern PATRON_CUENTA = Pattern.compile("ARG\\d{22}");
+    private static final Pattern PATRON_CLIENTE = Pattern.compile("CLI-\\d{8}");
+
+    private final Medidor medidor = new Medidor(1, 1, IDS);
+
+
+
+    @Test
+    @DisplayName("Los validadores a mano deberían ser más baratos que los regex")
+    void construccion_RegexVsManual() {
+
+        String[] cuentas = textos(i -> "ARG0170001000000" + String.format("%09d", i));
+        String[] clientes = textos(i -> String.format("CLI-%08d", i));
+        String[] transacciones = textos(i -> String.format("TXN-2025-%019d", i));
+
+        Resultado cuentaRegex = medir(cuentas, v -> {
+            if (!PATRON_CUENTA.matcher(v).matches() || !"017".equals(v.substring(3, 6))) throw new IllegalArgumentException();
+            return CuentaId.rehidratar(v);
+        });
+        Resultado cuentaManual = medir(cuentas, CuentaId::newCuentaId);
+        Resultado cuentaRehidratada = medir(cuentas, CuentaId::rehidratar);
+        Resultado cuentaInternada = medir(cuentas, CuentaId::internada);
+
+        Resultado clienteRegex = medir(clientes, v -> {
+            if (!PATRON_CLIENTE.matcher(v).matches()) throw new IllegalArgumentException();
+            return ClienteId.rehidratar(v);
+        });
+        Resultado clienteManual = medir(clientes, ClienteId::newCliente);
+
+        Resultado transaccionRegex = medir(transacciones, v -> {
+            if (!v.matches("^TXN-\\d{4}-(\\d{7}|\\d{19})$")) throw new IllegalArgumentException();
+            return TransaccionId.rehidratar(v);
+        });
+        Resultado transaccionManual = medir(transacciones, TransaccionId::new);
+
+
+        System.out.printf("%n[BENCHMARK] %d ids por caso (%d distintos)%n", IDS, DISTINTOS);
+        imprimir("CuentaId      regex + substring", cuentaRegex);
+        imprimir("CuentaId      newCuentaId       ", cuentaManual);
+        imprimir("CuentaId      rehidratar        ", cuentaRehidratada);
+        imprimir("CuentaId      internada         ", cuentaInternada);
+        imprimir("ClienteId     regex             ", clienteRegex);
+        imprimir("ClienteId     newCliente        ", clienteManual);
+        imprimir("TransaccionId String.matches    ", transaccionRegex);
+        imprimir("TransaccionId new               ", transaccionManual);
+        System.out.println();
+
+        assertThat(cuentaManual.nsPorOp()).isLessThan(cuentaRegex.nsPorOp());
+        assertThat(clienteManual.nsPorOp()).isLessThan(clienteRegex.nsPorOp());
+        assertThat(transaccionManual.nsPorOp()).isLessThan(transaccionRegex.nsPorOp());
+    }
+
+
+
+
+    // AUXILIARES
+
+    private String[] textos(Function<Integer, String> generador) {
+        String[] textos = new String[DISTINTOS];
+        for (int i = 0; i < DISTINTOS; i++) {
+            textos[i] = generador.apply(i);
+        }
+        return textos;
+    }
+
+    private Resultado medir(String[] textos, Function<String, Object> construir) {
+        return medidor.medir("ids", i -> construir.apply(textos[i & (DISTINTOS - 1)]));
+    }
+
+    private void imprimir(String caso, Resultado medicion) {
+        System.out.printf("  %s : %7.1f ns/id  %6.1f bytes/id%n", caso, medicion.nsPorOp(), medicion.bytesPorOp());
+    }
+}
@@ -0,0 +1,75 @@
+package com.banco.domain.model.valueobjects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("TransaccionId")
+class TransaccionIdTest {
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {"TXN-2024-0000001", "TXN-2025-0001234567890123456"})
+    @DisplayName("Formatos v1 y v2 - deberian aceptarse")
+    void constructor_FormatosV1yV2_Acepta(String valor) {
+
+        assertThat(new TransaccionId(valor).getValor()).isEqualTo(valor);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "TXN-2024-000001", "TXN-2024-00000001", "TXN-2024_0000001", "txn-2024-0000001",
+        "TXN-20A4-0000001", "TXN-2024-000000A", "TXN-2024-00012345678901234567"})
+    @DisplayName("Formatos invalidos - deberian rechazarse")
+    void constructor_FormatoInvalido_LanzaExcepcion(String valor) {
+
+        assertThatThrownBy(() -> new TransaccionId(valor))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Formato de Id de transaccion incorrecto");
+    }
+
+    @Test
+    @DisplayName("esValido() sin regex - deberia coincidir con el patron en textos mutados")
+    void esValido_TextosMutados_MismoResultadoQueRegex() {
+
+        Pattern patron = Pattern.compile("^TXN-\\d{4}-(\\d{7}|\\d{19})$");
+        Random random = new Random(42);
+        String caracteres = "0123456789TXN- ٣";
+        String[] bases = {"TXN-2024-0000001", "TXN-2025-0001234567890123456"};
+
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder texto = new StringBuilder(bases[i % 2]);
+            int cambios = random.nextInt(3);
+            for (int c = 0; c < cambios; c++) {
+                int posicion = random.nextInt(texto.length());
+                switch (random.nextInt(3)) {
+                    case 0 -> texto.setCharAt(posicion, caracteres.charAt(random.nextInt(caracteres.length())));
+                    case 1 -> texto.deleteCharAt(posicion);
+                    default -> texto.insert(posicion, caracteres.charAt(random.nextInt(caracteres.length())));
+                }
+            }
+            String valor = texto.toString();
+
+            assertThat(TransaccionId.esValido(valor)).as(valor).isEqualTo(patron.matcher(valor).matches());
+        }
+    }
+
+    @Test
+    @DisplayName("rehidratar() - no valida pero tampoco acepta nulos")
+    void rehidratar_SinValidar_RechazaNulo() {
+
+        assertThat(TransaccionId.rehidratar("TXN-2024-0000001").getValor()).isEqualTo("TXN-2024-0000001");
+        assertThatThrownBy(() -> TransaccionId.rehidratar(null))
+            .isInstanceOf(NullPointerException.class);
+    }
+}
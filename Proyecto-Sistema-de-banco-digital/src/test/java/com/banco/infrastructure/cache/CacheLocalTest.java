@@ -0,0 +1,152 @@
+package com.banco.infrastructure.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("CacheLocal")
+class CacheLocalTest {
+
+
+    private final AtomicLong reloj = new AtomicLong();
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    private final CacheLocal<String, String> cache = new CacheLocal<>(2, Duration.ofMinutes(5), reloj::get);
+
+
+
+    @Test
+    @DisplayName("La segunda lectura debería salir del cache")
+    void obtener_DosVeces_CargaUnaVez() {
+
+        assertThat(cache.obtener("juan", this::cargar)).isEqualTo("JUAN");
+        assertThat(cache.obtener("juan", this::cargar)).isEqualTo("JUAN");
+
+
+        assertThat(cargas.get()).isEqualTo(1);
+        assertThat(cache.estadisticas().aciertos()).isEqualTo(1);
+        assertThat(cache.estadisticas().fallos()).isEqualTo(1);
+        assertThat(cache.estadisticas().tasaDeAciertos()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Una entrada vencida debería volver a cargarse")
+    void obtener_TtlVencido_RecargaValor() {
+
+        cache.obtener("juan", this::cargar);
+
+
+        reloj.addAndGet(Duration.ofMinutes(5).toNanos());
+        cache.obtener("juan", this::cargar);
+
+
+        assertThat(cargas.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Al superar la capacidad debería desalojar la menos usada")
+    void guardar_SuperaCapacidad_DesalojaLru() {
+
+        cache.obtener("juan", this::cargar);
+        cache.obtener("maria", this::cargar);
+        cache.obtener("juan", this::cargar); // maria queda como la menos usada
+
+
+        cache.obtener("pedro", this::cargar);
+
+
+        assertThat(cache.buscar("maria")).isEmpty();
+        assertThat(cache.buscar("juan")).contains("JUAN");
+        assertThat(cache.estadisticas().desalojos()).isEqualTo(1);
+        assertThat(cache.estadisticas().tamanio()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Invalidar debería forzar una nueva carga")
+    void invalidar_ClaveCacheada_RecargaValor() {
+
+        cache.obtener("juan", this::cargar);
+
+
+        cache.invalidar("juan");
+        cache.obtener("juan", this::cargar);
+
+
+        assertThat(cargas.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Un valor cargado antes de una invalidación no debería guardarse")
+    void obtener_InvalidadoDuranteLaCarga_NoGuarda() {
+
+        cache.obtener("juan", clave -> {
+            cache.invalidar(clave); // otro hilo escribe el usuario mientras se lee
+            return "VIEJO";
+        });
+
+
+        assertThat(cache.buscar("juan")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Invalidar una clave no debería descartar la carga de otra")
+    void obtener_OtraClaveInvalidadaDuranteLaCarga_Guarda() {
+
+        cache.obtener("juan", clave -> {
+            cache.invalidar("maria");
+            return "JUAN";
+        });
+
+
+        assertThat(cache.buscar("juan")).contains("JUAN");
+    }
+
+    @Test
+    @DisplayName("guardarSiVersion debería descartar un valor leído antes de invalidar")
+    void guardarSiVersion_VersionVieja_NoGuarda() {
+
+        long version = cache.version("juan");
+        cache.invalidar("juan");
+
+
+        assertThat(cache.guardarSiVersion("juan", "VIEJO", version)).isFalse();
+        assertThat(cache.guardarSiVersion("juan", "NUEVO", cache.version("juan"))).isTrue();
+        assertThat(cache.buscar("juan")).contains("NUEVO");
+    }
+
+    @Test
+    @DisplayName("Los valores nulos no deberían guardarse")
+    void obtener_CargaNula_NoGuarda() {
+
+        assertThat(cache.obtener("nadie", clave -> null)).isNull();
+        assertThat(cache.estadisticas().tamanio()).isZero();
+    }
+
+    @Test
+    @DisplayName("Debería rechazar capacidad o ttl inválidos")
+    void constructor_ParametrosInvalidos_LanzaExcepcion() {
+
+        assertThatThrownBy(() -> new CacheLocal<>(0, Duration.ofMinutes(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CacheLocal<>(10, Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+
+
+
+    // AUXILIARES
+
+    private String cargar(String clave) {
+        cargas.incrementAndGet();
+        return clave.toUpperCase();
+    }
+}
@@ -0,0 +1,175 @@
+package com.banco.infrastructure.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.banco.application.port.out.CuentaRepository;
+import com.banco.domain.model.entities.Cuenta;
+import com.banco.domain.model.valueobjects.ClienteId;
+import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Dinero;
+import com.banco.domain.model.valueobjects.Moneda;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("CuentaRepositoryCache")
+class CuentaRepositoryCacheTest {
+
+
+    private final CuentaId cuentaId = CuentaId.newCuentaId("ARG0170001000000012345000");
+    private final ClienteId clienteId = ClienteId.newCliente("CLI-12345678");
+
+    private CuentaRepository delegado;
+    private CuentaRepositoryCache repositorio;
+
+
+    @BeforeEach
+    void setUp() {
+
+        delegado = mock(CuentaRepository.class);
+        when(delegado.buscarPorId(cuentaId)).thenReturn(Optional.of(cuenta("1000.00")));
+        when(delegado.aplicarDelta(any(), any(), any())).thenReturn(true);
+
+        repositorio = new CuentaRepositoryCache(delegado, new CacheLocal<>(100, Duration.ofMinutes(1)), true);
+    }
+
+    @AfterEach
+    void limpiarTransaccion() {
+
+        if(TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+
+
+    @Test
+    @DisplayName("La segunda consulta debería salir del cache")
+    void buscarPorId_DosVeces_LeeLaBdUnaVez() {
+
+        assertThat(repositorio.buscarPorId(cuentaId)).isPresent();
+        assertThat(repositorio.buscarPorId(cuentaId).get().getSaldo().getMonto()).isEqualByComparingTo("1000.00");
+
+
+        verify(delegado, times(1)).buscarPorId(cuentaId);
+        assertThat(repositorio.estadisticasCache().aciertos()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Modificar la cuenta devuelta no debería cambiar el cache")
+    void buscarPorId_CuentaModificada_CacheIntacto() {
+
+        repositorio.buscarPorId(cuentaId).get().desactivar();
+
+
+        assertThat(repositorio.buscarPorId(cuentaId).get().getActiva()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un depósito debería invalidar la cuenta")
+    void aplicarDelta_CuentaCacheada_VuelveALeer() {
+
+        repositorio.buscarPorId(cuentaId);
+        when(delegado.buscarPorId(cuentaId)).thenReturn(Optional.of(cuenta("1500.00")));
+
+
+        repositorio.aplicarDelta(cuentaId, new BigDecimal("500.00"), Moneda.ARG);
+
+
+        assertThat(repositorio.buscarPorId(cuentaId).get().getSaldo().getMonto()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    @DisplayName("actualizarTodos debería invalidar cada cuenta")
+    void actualizarTodos_Invalida() {
+
+        repositorio.buscarPorId(cuentaId);
+
+
+        repositorio.actualizarTodos(List.of(cuenta("900.00")));
+        repositorio.buscarPorId(cuentaId);
+
+
+        verify(delegado, times(2)).buscarPorId(cuentaId);
+    }
+
+    @Test
+    @DisplayName("En una transacción de escritura debería leer siempre de la BD")
+    void buscarPorId_TransaccionDeEscritura_NoUsaCache() {
+
+        repositorio.buscarPorId(cuentaId);
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+
+        repositorio.buscarPorId(cuentaId);
+
+
+        verify(delegado, times(2)).buscarPorId(cuentaId);
+    }
+
+    @Test
+    @DisplayName("Una foto leída antes del commit de una escritura no debería quedar en el cache")
+    void buscarPorId_EscrituraConfirmadaDuranteLaLectura_NoGuarda() {
+
+        // transaccion de escritura en curso: actualiza la cuenta y registra la invalidacion del commit
+        TransactionSynchronizationManager.initSynchronization();
+        repositorio.actualizar(cuenta("1500.00"));
+        List<TransactionSynchronization> alTerminar = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // otro hilo lee el saldo anterior (todavia es el confirmado) y el commit llega en el medio
+        when(delegado.buscarPorId(cuentaId)).thenAnswer(invocacion -> {
+            alTerminar.forEach(sincronizacion -> sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            return Optional.of(cuenta("1000.00"));
+        });
+        repositorio.buscarPorId(cuentaId);
+
+
+        when(delegado.buscarPorId(cuentaId)).thenReturn(Optional.of(cuenta("1500.00")));
+        assertThat(repositorio.buscarPorId(cuentaId).get().getSaldo().getMonto()).isEqualByComparingTo("1500.00");
+    }
+
+    @Test
+    @DisplayName("Deshabilitado debería ir siempre a la BD")
+    void buscarPorId_Deshabilitado_NoUsaCache() {
+
+        CuentaRepositoryCache sinCache = new CuentaRepositoryCache(delegado, new CacheLocal<>(100, Duration.ofMinutes(1)), false);
+
+
+        sinCache.buscarPorId(cuentaId);
+        sinCache.buscarPorId(cuentaId);
+
+
+        verify(delegado, times(2)).buscarPorId(cuentaId);
+        assertThat(sinCache.estadisticasCache().tamanio()).isZero();
+    }
+
+
+
+
+    // AUXILIARES
+
+    private Cuenta cuenta(String saldo) {
+        return new Cuenta(cuentaId, clienteId, Moneda.ARG, Dinero.nuevo(new BigDecimal(saldo), Moneda.ARG), true);
+    }
+}
@@ -0,0 +1,195 @@
+package com.banco.infrastructure.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.banco.application.port.out.SecuenciaCuentaRepository;
+import com.banco.domain.model.valueobjects.CuentaId;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("AsignadorNumerosCuenta")
+class AsignadorNumerosCuentaTest {
+
+
+    @Test
+    @DisplayName("Debería ir a la base una vez por bloque")
+    void siguiente_ReservaUnBloquePorCadaTamanioBloque() {
+
+        SecuenciaEnMemoria secuencias = new SecuenciaEnMemoria();
+        AsignadorNumerosCuenta asignador = new AsignadorNumerosCuenta(secuencias, 100);
+
+        for (int i = 0; i < 250; i++) {
+            assertThat(asignador.siguiente(1)).isEqualTo(i + 1);
+        }
+
+        assertThat(secuencias.reservas.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Cada sucursal debería tener su propia numeración")
+    void siguiente_SucursalesDistintas_SecuenciasIndependientes() {
+
+        AsignadorNumerosCuenta asignador = new AsignadorNumerosCuenta(new SecuenciaEnMemoria(), 10);
+
+        assertThat(asignador.siguiente(1)).isEqualTo(1);
+        assertThat(asignador.siguiente(2)).isEqualTo(1);
+        assertThat(asignador.siguiente(1)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Dos instancias con 16 hilos no deberían repetir números")
+    void siguiente_DosInstanciasConcurrentes_SinDuplicados() throws Exception {
+
+        SecuenciaEnMemoria base = new SecuenciaEnMemoria();
+        AsignadorNumerosCuenta instanciaA = new AsignadorNumerosCuenta(base, 50);
+        AsignadorNumerosCuenta instanciaB = new AsignadorNumerosCuenta(base, 50);
+
+        int hilos = 16;
+        int porHilo = 20_000;
+        Set<Long> numeros = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            AsignadorNumerosCuenta asignador = h % 2 == 0 ? instanciaA : instanciaB;
+            tareas.add(pool.submit(() -> {
+                largada.await();
+                for (int i = 0; i < porHilo; i++) {
+                    numeros.add(asignador.siguiente(7));
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+
+        assertThat(numeros).hasSize(hilos * porHilo);
+    }
+
+    @Test
+    @DisplayName("Una reserva lenta no debería trabar a las otras sucursales")
+    void siguiente_ReservaLentaEnUnaSucursal_OtraSucursalSigue() throws Exception {
+
+        SecuenciaEnMemoria base = new SecuenciaEnMemoria();
+        CountDownLatch reservando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        SecuenciaCuentaRepository lentaEnLaUno = (sucursal, tamanio) -> {
+            if (sucursal == 1) {
+                reservando.countDown();
+                try {
+                    liberar.await(); // la base tarda en responder la reserva de la sucursal 1
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return base.reservarBloque(sucursal, tamanio);
+        };
+        AsignadorNumerosCuenta asignador = new AsignadorNumerosCuenta(lentaEnLaUno, 10);
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        Future<Long> sucursalUno = pool.submit(() -> asignador.siguiente(1));
+        reservando.await(5, TimeUnit.SECONDS);
+        Future<Long> mismaSucursal = pool.submit(() -> asignador.siguiente(1));
+
+
+        // otra sucursal no espera la reserva de la 1; la misma sucursal si, y no reserva otro bloque
+        assertThat(pool.submit(() -> asignador.siguiente(2)).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(mismaSucursal.isDone()).isFalse();
+
+        liberar.countDown();
+        assertThat(List.of(sucursalUno.get(5, TimeUnit.SECONDS), mismaSucursal.get(5, TimeUnit.SECONDS)))
+            .containsExactlyInAnyOrder(1L, 2L);
+        assertThat(base.reservas.get()).isEqualTo(2); // una por sucursal
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Si la reserva falla el próximo pedido debería volver a intentarla")
+    void siguiente_ReservaFallida_ReintentaEnElProximoPedido() {
+
+        SecuenciaEnMemoria base = new SecuenciaEnMemoria();
+        AtomicInteger llamadas = new AtomicInteger();
+        SecuenciaCuentaRepository caeUnaVez = (sucursal, tamanio) -> {
+            if (llamadas.getAndIncrement() == 0) throw new IllegalStateException("base caida");
+            return base.reservarBloque(sucursal, tamanio);
+        };
+        AsignadorNumerosCuenta asignador = new AsignadorNumerosCuenta(caeUnaVez, 10);
+
+
+        assertThatThrownBy(() -> asignador.siguiente(1)).hasMessageContaining("base caida");
+        assertThat(asignador.siguiente(1)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Si otra instancia creó la fila de la sucursal debería reintentar")
+    void siguiente_FilaCreadaPorOtraInstancia_Reintenta() {
+
+        SecuenciaEnMemoria base = new SecuenciaEnMemoria();
+        AtomicInteger intentos = new AtomicInteger();
+        SecuenciaCuentaRepository conCarrera = (sucursal, tamanio) -> {
+            if (intentos.getAndIncrement() == 0) throw new DataIntegrityViolationException("clave duplicada");
+            return base.reservarBloque(sucursal, tamanio);
+        };
+
+
+        long numero = new AsignadorNumerosCuenta(conCarrera, 10).siguiente(1);
+
+
+        assertThat(numero).isEqualTo(1);
+        assertThat(intentos.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Una sucursal sin números de 11 dígitos libres debería fallar")
+    void siguiente_SecuenciaAgotada_LanzaExcepcion() {
+
+        SecuenciaCuentaRepository casiLlena = (sucursal, tamanio) -> CuentaId.SECUENCIA_MAXIMA - 5;
+
+        assertThatThrownBy(() -> new AsignadorNumerosCuenta(casiLlena, 10).siguiente(1))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("agoto");
+    }
+
+
+
+
+    // AUXILIARES
+
+    // la tabla secuencias_cuenta en memoria
+    private static class SecuenciaEnMemoria implements SecuenciaCuentaRepository {
+
+        private final ConcurrentHashMap<Integer, AtomicLong> filas = new ConcurrentHashMap<>();
+        private final AtomicInteger reservas = new AtomicInteger();
+
+        @Override
+        public long reservarBloque(int sucursal, int tamanio) {
+            reservas.incrementAndGet();
+            return filas.computeIfAbsent(sucursal, s -> new AtomicLong(1)).getAndAdd(tamanio);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.banco.infrastructure.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("EjecutorLogin")
+class EjecutorLoginTest {
+
+
+    private final EjecutorLogin ejecutor = new EjecutorLogin(1, 1);
+
+
+    @AfterEach
+    void cerrar() {
+        ejecutor.cerrar();
+    }
+
+
+
+    @Test
+    @DisplayName("Debería devolver el resultado en otro hilo")
+    void ejecutar_Operacion_RetornaResultadoEnHiloDelPool() throws Exception {
+
+        String hilo = ejecutor.ejecutar(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+
+        assertThat(hilo).startsWith("login-");
+    }
+
+    @Test
+    @DisplayName("Con hilos y cola llenos debería rechazar enseguida")
+    void ejecutar_PoolSaturado_Rechaza() throws Exception {
+
+        CountDownLatch liberar = new CountDownLatch(1);
+        CompletableFuture<Boolean> ocupado = ejecutor.ejecutar(() -> esperar(liberar));
+        CompletableFuture<Boolean> enCola = ejecutor.ejecutar(() -> esperar(liberar));
+
+
+        assertThatThrownBy(() -> ejecutor.ejecutar(() -> true))
+            .isInstanceOf(RejectedExecutionException.class)
+            .hasMessageContaining("login");
+
+
+        liberar.countDown();
+        assertThat(ocupado.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(enCola.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("La excepción del login debería llegar por el futuro")
+    void ejecutar_OperacionFalla_FuturoExcepcional() {
+
+        CompletableFuture<String> futuro = ejecutor.ejecutar(() -> { throw new IllegalArgumentException("credenciales"); });
+
+
+        assertThatThrownBy(() -> futuro.get(5, TimeUnit.SECONDS))
+            .hasCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+
+
+
+    // AUXILIARES
+
+    private boolean esperar(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
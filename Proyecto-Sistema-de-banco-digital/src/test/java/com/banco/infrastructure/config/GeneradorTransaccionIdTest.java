@@ -0,0 +1,161 @@
+package com.banco.infrastructure.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.banco.domain.model.valueobjects.TransaccionId;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("GeneradorTransaccionId")
+class GeneradorTransaccionIdTest {
+
+
+    private static final int HILOS = 32;
+    private static final int IDS_POR_HILO = 10_000_000 / HILOS;
+
+
+
+    @Test
+    @DisplayName("10M ids desde 32 hilos no deberían repetirse")
+    void siguienteValor_32Hilos_SinDuplicados() throws Exception {
+
+        GeneradorTransaccionId generador = new GeneradorTransaccionId(0);
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<long[]>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < HILOS; h++) {
+            tareas.add(pool.submit(() -> {
+                long[] ids = new long[IDS_POR_HILO];
+                largada.await();
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generador.siguienteValor();
+                }
+                return ids;
+            }));
+        }
+
+        largada.countDown();
+        long[] todos = new long[HILOS * IDS_POR_HILO];
+        int posicion = 0;
+        for (Future<long[]> tarea : tareas) {
+            long[] ids = tarea.get(2, TimeUnit.MINUTES);
+            System.arraycopy(ids, 0, todos, posicion, ids.length);
+            posicion += ids.length;
+        }
+        pool.shutdown();
+
+
+        Arrays.sort(todos);
+        int duplicados = 0;
+        for (int i = 1; i < todos.length; i++) {
+            if (todos[i] == todos[i - 1]) duplicados++;
+        }
+        assertThat(duplicados).isZero();
+        assertThat(todos[0]).isPositive();
+    }
+
+    @Test
+    @DisplayName("El id debería tener el formato TXN-AAAA-19 dígitos con el año actual")
+    void siguiente_FormatoV2ConAnioActual() {
+
+        GeneradorTransaccionId generador = new GeneradorTransaccionId(7);
+
+
+        TransaccionId id = generador.siguiente();
+
+
+        assertThat(id.getValor())
+            .matches("^TXN-\\d{4}-\\d{19}$")
+            .startsWith("TXN-" + LocalDateTime.now().getYear() + "-");
+    }
+
+    @Test
+    @DisplayName("Más de 4096 ids en el mismo milisegundo deberían seguir creciendo")
+    void siguienteValor_RelojQuieto_DesbordaAlMilisegundoSiguiente() {
+
+        GeneradorTransaccionId generador = new GeneradorTransaccionId(1, () -> GeneradorTransaccionId.EPOCA + 1_000);
+
+        long anterior = generador.siguienteValor();
+        for (int i = 0; i < 10_000; i++) {
+            long actual = generador.siguienteValor();
+            assertThat(actual).isGreaterThan(anterior);
+            anterior = actual;
+        }
+    }
+
+    @Test
+    @DisplayName("Si el reloj vuelve atrás los ids no deberían repetirse")
+    void siguienteValor_RelojAtrasa_SigueCreciendo() {
+
+        AtomicLong reloj = new AtomicLong(GeneradorTransaccionId.EPOCA + 50_000);
+        GeneradorTransaccionId generador = new GeneradorTransaccionId(0, reloj::get);
+
+        long antes = generador.siguienteValor();
+        reloj.addAndGet(-10_000);
+        long despues = generador.siguienteValor();
+
+
+        assertThat(despues).isGreaterThan(antes);
+    }
+
+    @Test
+    @DisplayName("Dos nodos en el mismo milisegundo no deberían generar el mismo id")
+    void siguienteValor_NodosDistintos_IdsDistintos() {
+
+        long ahora = GeneradorTransaccionId.EPOCA + 123_456;
+
+
+        long nodoA = new GeneradorTransaccionId(1, () -> ahora).siguienteValor();
+        long nodoB = new GeneradorTransaccionId(2, () -> ahora).siguienteValor();
+
+
+        assertThat(nodoA).isNotEqualTo(nodoB);
+    }
+
+    @Test
+    @DisplayName("Los ids deberían cambiar de año en la medianoche del 31 de diciembre")
+    void siguiente_CambioDeAnio_PrefijoDelAnioNuevo() {
+
+        ZoneId zona = ZoneId.systemDefault();
+        long finDeAnio = LocalDateTime.of(2025, 12, 31, 23, 59, 59, 999_000_000).atZone(zona).toInstant().toEpochMilli();
+        AtomicLong reloj = new AtomicLong(finDeAnio);
+        GeneradorTransaccionId generador = new GeneradorTransaccionId(0, reloj::get);
+
+
+        String ultimoDelAnio = generador.siguiente().getValor();
+        reloj.incrementAndGet();
+        String primeroDelAnio = generador.siguiente().getValor();
+
+
+        assertThat(ultimoDelAnio).startsWith("TXN-2025-");
+        assertThat(primeroDelAnio).startsWith("TXN-2026-");
+    }
+
+    @Test
+    @DisplayName("Un nodo fuera de rango debería rechazarse")
+    void constructor_NodoFueraDeRango_LanzaExcepcion() {
+
+        assertThatThrownBy(() -> new GeneradorTransaccionId(GeneradorTransaccionId.NODO_MAXIMO + 1))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("nodo");
+    }
+}
@@ -0,0 +1,136 @@
+package com.banco.infrastructure.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.banco.infrastructure.security.jwt.CodificadorContrasenias;
+
+
+
+
+// PRUEBA DE CARGA: rafaga de logins mientras llegan consultas de saldo (GET /api/cuentas).
+// Los workers de Tomcat se simulan con un pool fijo de WORKERS hilos y cola sin limite (como el accept queue).
+// ANTES:   el worker compara la contraseña (bcrypt) -> las consultas esperan detras de los logins.
+// DESPUES: el worker le pasa el login a EjecutorLogin y queda libre; con la cola de logins llena -> 429.
+// No corre con el build normal:  mvn test -Dtest=LoginRafagaBenchmarkTest -Dbenchmark=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Carga - rafaga de logins vs consultas de saldo")
+class LoginRafagaBenchmarkTest {
+
+
+    private static final int WORKERS = 8;
+    private static final int LOGINS = 200;
+    private static final int CONSULTAS = 200;
+    private static final long CONSULTA_MS = 2;         // costo de una consulta de saldo
+    private static final long ENTRE_CONSULTAS_MS = 5;
+
+
+    private final PasswordEncoder codificador = CodificadorContrasenias.crear(10);
+    private final String hash = codificador.encode("clave123");
+
+
+
+    @Test
+    @DisplayName("Con el pool de logins las consultas no deberían esperar detrás de bcrypt")
+    void latenciaConsultas_DuranteRafagaDeLogins_AntesYDespues() throws Exception {
+
+        int hilosLogin = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        // calentamiento
+        codificador.matches("clave123", hash);
+
+        Resultado antes = correr(null);
+        Resultado despues = correr(new EjecutorLogin(hilosLogin, LOGINS / 2));
+
+        System.out.printf("%n[CARGA] %d workers, %d logins en rafaga, %d consultas de saldo%n", WORKERS, LOGINS, CONSULTAS);
+        System.out.printf("  login en el worker    : consultas p50 %8.1f ms  p99 %8.1f ms%n",
+            antes.percentil(50), antes.percentil(99));
+        System.out.printf("  pool de logins (%2d)   : consultas p50 %8.1f ms  p99 %8.1f ms  (logins rechazados 429: %d)%n%n",
+            hilosLogin, despues.percentil(50), despues.percentil(99), despues.rechazados());
+
+        assertThat(despues.percentil(99)).isLessThan(antes.percentil(99));
+    }
+
+
+
+
+    // AUXILIARES
+
+    private Resultado correr(EjecutorLogin ejecutorLogin) throws Exception {
+
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        AtomicInteger rechazados = new AtomicInteger();
+        List<CompletableFuture<?>> logins = new ArrayList<>();
+
+        // rafaga de logins de golpe
+        for (int i = 0; i < LOGINS; i++) {
+            workers.execute(() -> {
+                if (ejecutorLogin == null) {
+                    codificador.matches("clave123", hash);
+                    return;
+                }
+                try {
+                    synchronized (logins) {
+                        logins.add(ejecutorLogin.ejecutar(() -> codificador.matches("clave123", hash)));
+                    }
+                } catch (RejectedExecutionException e) {
+                    rechazados.incrementAndGet();
+                }
+            });
+        }
+
+        // consultas de saldo llegando de a una
+        List<CompletableFuture<Double>> consultas = new ArrayList<>();
+        for (int i = 0; i < CONSULTAS; i++) {
+            long llegada = System.nanoTime();
+            consultas.add(CompletableFuture.supplyAsync(() -> {
+                dormir(CONSULTA_MS);
+                return (System.nanoTime() - llegada) / 1_000_000.0;
+            }, workers));
+            dormir(ENTRE_CONSULTAS_MS);
+        }
+
+        double[] latencias = consultas.stream().mapToDouble(CompletableFuture::join).sorted().toArray();
+
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.MINUTES);
+        synchronized (logins) {
+            CompletableFuture.allOf(logins.toArray(CompletableFuture[]::new)).join();
+        }
+        if (ejecutorLogin != null) ejecutorLogin.cerrar();
+
+        return new Resultado(latencias, rechazados.get());
+    }
+
+    private void dormir(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    private record Resultado(double[] latencias, int rechazados) {
+
+        double percentil(int percentil) {
+            int indice = (int) Math.ceil(percentil / 100.0 * latencias.length) - 1;
+            return latencias[Math.max(0, Math.min(indice, latencias.length - 1))];
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.banco.infrastructure.metricas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import com.banco.application.dto.TransferenciaLoteResponse;
+import com.banco.application.dto.TransferenciaRequest;
+import com.banco.application.dto.TransferenciaResponse;
+import com.banco.application.services.TransaccionService;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("InstrumentacionServicios")
+class InstrumentacionServiciosTest {
+
+
+    private final RegistroMetricas registro = new RegistroMetricas();
+    private final TransaccionService servicio = mock(TransaccionService.class);
+    private final TransaccionService instrumentado = instrumentar(servicio);
+
+    private final TransferenciaRequest request =
+        new TransferenciaRequest("ARG0170001000000000000001", "ARG0170001000000000000002", BigDecimal.ONE, "ARG", "prueba");
+
+
+
+    @Test
+    @DisplayName("Cada llamada al servicio debería quedar medida por clase y método")
+    void servicio_LlamadaExitosa_RegistraTiempo() {
+
+        when(servicio.ejecutarTransferencia(any())).thenReturn(respuesta("COMPLETADA", "ok"));
+
+
+        instrumentado.ejecutarTransferencia(request);
+        instrumentado.ejecutarTransferencia(request);
+
+
+        assertThat(tiempos("ejecutarTransferencia", "none").cantidad()).isEqualTo(2);
+        assertThat(registro.formatoPrometheus()).doesNotContain(InstrumentacionServicios.RECHAZADAS + "{");
+    }
+
+    @Test
+    @DisplayName("Una excepción debería medirse con su tipo y propagarse")
+    void servicio_LanzaExcepcion_RegistraTipoYPropaga() {
+
+        when(servicio.revertir(any())).thenThrow(new IllegalArgumentException("no reversible"));
+
+
+        assertThatThrownBy(() -> instrumentado.revertir("TXN-1"))
+            .isInstanceOf(IllegalArgumentException.class);
+
+
+        assertThat(tiempos("revertir", "IllegalArgumentException").cantidad()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Las transferencias rechazadas deberían contarse por motivo, también las de un lote")
+    void servicio_TransferenciasRechazadas_CuentaPorMotivo() {
+
+        when(servicio.ejecutarTransferencia(any())).thenReturn(
+            respuesta("RECHAZADA", "Transferencia fallida. Saldo insuficiente. Se intento: 10 USD, saldo actual: 1 USD"));
+        when(servicio.ejecutarTransferenciasEnLote(anyList())).thenReturn(new TransferenciaLoteResponse(List.of(
+            respuesta("COMPLETADA", "ok"),
+            respuesta("RECHAZADA", "Transferencia fallida. Cuenta de destino no encontrada: ARG0170001000000000000009"),
+            respuesta("RECHAZADA", "Transferencia fallida. Saldo insuficiente. Se intento: 5 USD, saldo actual: 0 USD"))));
+
+
+        instrumentado.ejecutarTransferencia(request);
+        instrumentado.ejecutarTransferenciasEnLote(List.of(request, request, request));
+
+
+        assertThat(rechazadas("fondos_insuficientes")).isEqualTo(2);
+        assertThat(rechazadas("cuenta_inexistente")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Los mensajes del dominio deberían agruparse en pocos motivos")
+    void motivoDeRechazo_MensajesDelDominio() {
+
+        assertThat(InstrumentacionServicios.motivoDeRechazo("Transferencia fallida. La cuenta ARG017 esta inactiva y no puede operar"))
+            .isEqualTo("cuenta_inactiva");
+        assertThat(InstrumentacionServicios.motivoDeRechazo("Transferencia fallida. No se puede operar entre monedas diferentes"))
+            .isEqualTo("moneda");
+        assertThat(InstrumentacionServicios.motivoDeRechazo(
+            "Transferencia fallida. Las cuentas estan siendo modificadas por otra operacion, intente nuevamente"))
+            .isEqualTo("concurrencia");
+        assertThat(InstrumentacionServicios.motivoDeRechazo("Transferencia fallida. No se puede transferir a la misma cuenta"))
+            .isEqualTo("validacion");
+        assertThat(InstrumentacionServicios.motivoDeRechazo("Transferencia fallida. algo raro")).isEqualTo("otro");
+        assertThat(InstrumentacionServicios.motivoDeRechazo(null)).isEqualTo("otro");
+    }
+
+
+
+
+    // AUXILIARES
+
+    private TransaccionService instrumentar(TransaccionService objetivo) {
+
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(objetivo);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(new InstrumentacionServicios(registro));
+        return fabrica.getProxy();
+    }
+
+    private Temporizador tiempos(String metodo, String excepcion) {
+        return registro.temporizador(InstrumentacionServicios.SERVICIO, "",
+            "clase", "TransaccionService", "metodo", metodo, "excepcion", excepcion);
+    }
+
+    private long rechazadas(String motivo) {
+        return registro.contador(InstrumentacionServicios.RECHAZADAS, "", "motivo", motivo).valor();
+    }
+
+    private TransferenciaResponse respuesta(String estado, String mensaje) {
+        return new TransferenciaResponse(null, estado, BigDecimal.ZERO, null, LocalDateTime.now(), null, null, mensaje);
+    }
+}
@@ -0,0 +1,106 @@
+package com.banco.infrastructure.metricas;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("RegistroMetricas")
+class RegistroMetricasTest {
+
+
+    private final RegistroMetricas registro = new RegistroMetricas();
+
+
+
+    @Test
+    @DisplayName("El histograma debería exportar cubetas acumuladas, suma y cantidad")
+    void temporizador_VariasDuraciones_CubetasAcumuladas() {
+
+        Temporizador temporizador = registro.temporizador("banco_prueba_seconds", "Prueba", "metodo", "transferir");
+        temporizador.registrar(500_000);        // 0.5 ms
+        temporizador.registrar(3_000_000);      // 3 ms
+        temporizador.registrar(20_000_000_000L); // 20 s
+
+
+        String texto = registro.formatoPrometheus();
+
+
+        assertThat(texto)
+            .contains("# HELP banco_prueba_seconds Prueba\n")
+            .contains("# TYPE banco_prueba_seconds histogram\n")
+            .contains("banco_prueba_seconds_bucket{metodo=\"transferir\",le=\"0.001\"} 1\n")
+            .contains("banco_prueba_seconds_bucket{metodo=\"transferir\",le=\"0.005\"} 2\n")
+            .contains("banco_prueba_seconds_bucket{metodo=\"transferir\",le=\"10.0\"} 2\n")
+            .contains("banco_prueba_seconds_bucket{metodo=\"transferir\",le=\"+Inf\"} 3\n")
+            .contains("banco_prueba_seconds_sum{metodo=\"transferir\"} 20.0035\n")
+            .contains("banco_prueba_seconds_count{metodo=\"transferir\"} 3\n");
+    }
+
+    @Test
+    @DisplayName("Las mismas etiquetas deberían devolver la misma serie")
+    void temporizador_MismasEtiquetas_MismaSerie() {
+
+        Temporizador a = registro.temporizador("banco_prueba_seconds", "Prueba", "metodo", "x");
+        Temporizador b = registro.temporizador("banco_prueba_seconds", "Prueba", "metodo", "x");
+        Temporizador c = registro.temporizador("banco_prueba_seconds", "Prueba", "metodo", "y");
+
+
+        assertThat(a).isSameAs(b).isNotSameAs(c);
+    }
+
+    @Test
+    @DisplayName("Contadores y medidores deberían exportarse con su tipo")
+    void contadorYMedidor_Exportan() {
+
+        AtomicInteger conexiones = new AtomicInteger(3);
+        registro.contador("banco_rechazos_total", "Rechazos", "motivo", "fondos_insuficientes").incrementar();
+        registro.medidor("banco_conexiones", "Conexiones", conexiones::get);
+        conexiones.set(7);
+
+
+        String texto = registro.formatoPrometheus();
+
+
+        assertThat(texto)
+            .contains("# TYPE banco_rechazos_total counter\n")
+            .contains("banco_rechazos_total{motivo=\"fondos_insuficientes\"} 1\n")
+            .contains("# TYPE banco_conexiones gauge\n")
+            .contains("banco_conexiones 7\n");
+    }
+
+    @Test
+    @DisplayName("Las comillas y barras de los valores deberían escaparse")
+    void etiquetas_CaracteresEspeciales_Escapados() {
+
+        assertThat(RegistroMetricas.etiquetas("motivo", "a\"b\\c\nd"))
+            .isEqualTo("motivo=\"a\\\"b\\\\c\\nd\"");
+    }
+
+    @Test
+    @DisplayName("Un nombre ya usado con otro tipo debería rechazarse")
+    void contador_NombreDeHistograma_LanzaExcepcion() {
+
+        registro.temporizador("banco_prueba_seconds", "Prueba");
+
+
+        assertThatThrownBy(() -> registro.contador("banco_prueba_seconds", "Prueba"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("histogram");
+    }
+
+    @Test
+    @DisplayName("Las etiquetas sin valor deberían rechazarse")
+    void temporizador_EtiquetasImpares_LanzaExcepcion() {
+
+        assertThatThrownBy(() -> registro.temporizador("banco_prueba_seconds", "Prueba", "metodo"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.banco.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+
+
+
+// CUENTA LAS SENTENCIAS SQL que Hibernate prepara, para fijar un presupuesto por operacion en los tests:
+//
+//   @DataJpaTest(properties = ContadorSentencias.PROPIEDAD)
+//   ContadorSentencias.Conteo conteo = ContadorSentencias.medir(() -> servicio.depositar(request));
+//   conteo.presupuesto(2, 2);   // como maximo 2 SELECT y 2 escrituras (INSERT/UPDATE/DELETE)
+//
+// - Solo cuenta lo del hilo que llama a medir(): los hilos de fondo (@Scheduled, otras pruebas) no suman.
+// - Con JDBC batch un lote de INSERT es UNA sentencia preparada: se cuentan viajes a la BD, no filas.
+// - Si el presupuesto se pasa, el error lista las sentencias: asi se ve el N+1 o la consulta repetida.
+
+public class ContadorSentencias implements StatementInspector {
+
+
+    public static final String PROPIEDAD =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.banco.infrastructure.persistence.ContadorSentencias";
+
+    private static final ThreadLocal<List<String>> SENTENCIAS = new ThreadLocal<>();
+
+
+    public interface Operacion {
+        void ejecutar() throws Exception;
+    }
+
+
+
+    public static Conteo medir(Operacion operacion) throws Exception {
+
+        List<String> sentencias = new ArrayList<>();
+        SENTENCIAS.set(sentencias);
+        try {
+            operacion.ejecutar();
+        } finally {
+            SENTENCIAS.remove();
+        }
+        return new Conteo(List.copyOf(sentencias));
+    }
+
+
+    // Hibernate la llama con cada SQL antes de prepararlo; devolver el mismo texto no lo modifica
+    @Override
+    public String inspect(String sql) {
+
+        List<String> sentencias = SENTENCIAS.get();
+        if (sentencias != null) sentencias.add(sql);
+        return sql;
+    }
+
+
+
+
+    public record Conteo(List<String> sentencias) {
+
+        public long selects() {
+            return contar("select", "with");
+        }
+
+        public long inserts() {
+            return contar("insert");
+        }
+
+        public long updates() {
+            return contar("update");
+        }
+
+        public long deletes() {
+            return contar("delete");
+        }
+
+        public long escrituras() {
+            return inserts() + updates() + deletes() + contar("merge");
+        }
+
+        public Conteo presupuesto(int maximoSelects, int maximoEscrituras) {
+
+            assertThat(selects()).as("SELECT (presupuesto %d)%n%s", maximoSelects, this).isLessThanOrEqualTo(maximoSelects);
+            assertThat(escrituras()).as("escrituras (presupuesto %d)%n%s", maximoEscrituras, this).isLessThanOrEqualTo(maximoEscrituras);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+
+            StringBuilder texto = new StringBuilder();
+            for (int i = 0; i < sentencias.size(); i++) {
+                texto.append("  ").append(i + 1).append(") ").append(sentencias.get(i).replaceAll("\\s+", " ").trim()).append('\n');
+            }
+            return texto.toString();
+        }
+
+
+        private long contar(String... comandos) {
+
+            return sentencias.stream()
+                .map(sql -> sql.stripLeading().toLowerCase(Locale.ROOT))
+                .filter(sql -> {
+                    for (String comando : comandos) {
+                        if (sql.startsWith(comando)) return true;
+                    }
+                    return false;
+                })
+                .count();
+        }
+    }
+}
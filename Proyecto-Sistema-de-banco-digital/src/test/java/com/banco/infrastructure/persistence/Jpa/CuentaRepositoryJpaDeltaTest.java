@@ -0,0 +1,114 @@
+package com.banco.infrastructure.persistence.Jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import com.banco.domain.model.entities.Cuenta;
+import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Dinero;
+import com.banco.domain.model.valueobjects.Moneda;
+import com.banco.infrastructure.persistence.entities.CuentaEntity;
+import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.Interface.CuentaJpaRepository;
+import com.banco.infrastructure.persistence.mappers.CuentaMapper;
+
+
+
+
+// aplicarDelta en medio de una transaccion que ya leyo cuentas: el UPDATE masivo solo desprende
+// la cuenta afectada, las demas siguen administradas (sin otro SELECT al guardarlas)
+
+@SuppressWarnings("all") // elimina los warings
+@DataJpaTest
+@Import({CuentaRepositoryJpa.class, CuentaMapper.class})
+@DisplayName("CuentaRepositoryJpa - aplicarDelta dentro de una transacción")
+class CuentaRepositoryJpaDeltaTest {
+
+
+    private static final CuentaId CUENTA_A = CuentaId.newCuentaId("ARG0170001000000012345000");
+    private static final CuentaId CUENTA_B = CuentaId.newCuentaId("ARG0170001000000012345010");
+
+
+    @Autowired
+    private CuentaRepositoryJpa repository;
+
+    @Autowired
+    private CuentaJpaRepository jpaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+
+    @BeforeEach
+    void setUp() {
+
+        entityManager.persist(cuenta(CUENTA_A, "1000.00"));
+        entityManager.persist(cuenta(CUENTA_B, "500.00"));
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+
+
+    @Test
+    @DisplayName("Debería desprender solo la cuenta del delta")
+    void aplicarDelta_OtraCuentaCargada_SigueAdministrada() {
+
+        repository.buscarPorIdParaActualizar(CUENTA_A);
+        repository.buscarPorIdParaActualizar(CUENTA_B);
+        CuentaEntity entidadA = jpaRepository.findByNumeroCuenta(CUENTA_A.getValor()).get(); // la misma instancia
+        CuentaEntity entidadB = jpaRepository.findByNumeroCuenta(CUENTA_B.getValor()).get();
+
+
+        assertThat(repository.aplicarDelta(CUENTA_A, new BigDecimal("100.00"), Moneda.ARG)).isTrue();
+
+
+        assertThat(entityManager.getEntityManager().contains(entidadA)).isFalse();
+        assertThat(entityManager.getEntityManager().contains(entidadB)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Guardar la cuenta del delta en la misma transacción debería partir del saldo nuevo")
+    void aplicarDelta_CuentaLeidaAntes_GuardarNoPisaElDelta() {
+
+        repository.buscarPorIdParaActualizar(CUENTA_A);
+        repository.aplicarDelta(CUENTA_A, new BigDecimal("100.00"), Moneda.ARG);
+
+
+        Cuenta cuenta = repository.buscarPorIdParaActualizar(CUENTA_A).get();
+        cuenta.depositar(Dinero.nuevo(new BigDecimal("50.00"), Moneda.ARG));
+        repository.actualizar(cuenta);
+        entityManager.flush();
+        entityManager.clear();
+
+
+        CuentaEntity guardada = jpaRepository.findByNumeroCuenta(CUENTA_A.getValor()).get();
+        assertThat(guardada.getSaldo()).isEqualByComparingTo("1150.00");
+        assertThat(guardada.getVersion()).isEqualTo(2L); // delta + guardar
+    }
+
+
+
+
+    // AUXILIARES
+
+    private CuentaEntity cuenta(CuentaId cuentaId, String saldo) {
+
+        CuentaEntity entity = new CuentaEntity();
+        entity.setNumeroCuenta(cuentaId.getValor());
+        entity.setClienteId("CLI-12345678");
+        entity.setMoneda("ARG");
+        entity.setSaldo(new BigDecimal(saldo));
+        entity.setActiva(true);
+        return entity;
+    }
+}
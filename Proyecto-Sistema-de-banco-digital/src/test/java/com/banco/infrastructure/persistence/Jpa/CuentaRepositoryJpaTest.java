@@ -3,6 +3,7 @@ package com.banco.infrastructure.persistence.Jpa;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,6 +25,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.banco.domain.model.entities.Cuenta;
 import com.banco.domain.model.valueobjects.ClienteId;
@@ -32,6 +35,7 @@ import com.banco.domain.model.valueobjects.Dinero;
 import com.banco.domain.model.valueobjects.Moneda;
 import com.banco.infrastructure.persistence.entities.CuentaEntity;
 import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.EstrategiaBloqueo;
 import com.banco.infrastructure.persistence.jpa.Interface.CuentaJpaRepository;
 import com.banco.infrastructure.persistence.mappers.CuentaMapper;
 
@@ -124,6 +128,142 @@ class CuentaRepositoryJpaTest {
         }
     }
 
+    @Nested
+    @DisplayName("buscarPorIdParaActualizar")
+    class BuscarPorIdParaActualizarTest {
+
+        @Test
+        @DisplayName("Por defecto (optimista) debería leer sin bloquear la fila")
+        void buscarPorIdParaActualizar_Optimista_NoBloquea() {
+
+            when(jpaRepository.findByNumeroCuenta(numeroCuenta)).thenReturn(Optional.of(cuentaEntity));
+            when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+
+
+            Optional<Cuenta> resultado = repository.buscarPorIdParaActualizar(cuentaId);
+
+
+            assertThat(resultado).contains(cuenta);
+            verify(jpaRepository, times(1)).findByNumeroCuenta(numeroCuenta);
+            verify(jpaRepository, never()).findByNumeroCuentaForUpdate(any());
+        }
+
+        @Test
+        @DisplayName("Con estrategia pesimista debería usar SELECT FOR UPDATE")
+        void buscarPorIdParaActualizar_Pesimista_BloqueaFila() {
+
+            ReflectionTestUtils.setField(repository, "estrategia", EstrategiaBloqueo.PESIMISTA);
+            when(jpaRepository.findByNumeroCuentaForUpdate(numeroCuenta)).thenReturn(Optional.of(cuentaEntity));
+            when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+
+
+            Optional<Cuenta> resultado = repository.buscarPorIdParaActualizar(cuentaId);
+
+
+            assertThat(resultado).contains(cuenta);
+            verify(jpaRepository, times(1)).findByNumeroCuentaForUpdate(numeroCuenta);
+            verify(jpaRepository, never()).findByNumeroCuenta(any());
+        }
+
+        @Test
+        @DisplayName("Debería retornar empty con CuentaId nulo")
+        void buscarPorIdParaActualizar_CuentaIdNull_RetornaEmpty() {
+
+            Optional<Cuenta> resultado = repository.buscarPorIdParaActualizar(null);
+
+
+            assertThat(resultado).isEmpty();
+            verify(jpaRepository, never()).findByNumeroCuenta(any());
+            verify(jpaRepository, never()).findByNumeroCuentaForUpdate(any());
+        }
+    }
+
+
+
+    @Nested
+    @DisplayName("buscarPorIdsParaActualizar / actualizarTodos")
+    class OperacionesEnLoteTest {
+
+        @Test
+        @DisplayName("Optimista: debería cargar todas las cuentas en una sola consulta ordenada")
+        void buscarPorIdsParaActualizar_Optimista_UnaSolaConsulta() {
+
+            CuentaId otraCuentaId = CuentaId.newCuentaId("ARG0170001000000012345010");
+            when(jpaRepository.findByNumeroCuentaInOrderByNumeroCuenta(any())).thenReturn(List.of(cuentaEntity));
+            when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+
+
+            List<Cuenta> resultado = repository.buscarPorIdsParaActualizar(List.of(otraCuentaId, cuentaId, cuentaId));
+
+
+            assertThat(resultado).containsExactly(cuenta);
+            verify(jpaRepository, times(1)).findByNumeroCuentaInOrderByNumeroCuenta(
+                argThat(numeros -> List.copyOf(numeros).equals(List.of(numeroCuenta, otraCuentaId.getValor()))));
+            verify(jpaRepository, never()).findByNumeroCuentaInForUpdate(any());
+        }
+
+        @Test
+        @DisplayName("Pesimista: debería bloquear todas las cuentas con un SELECT FOR UPDATE")
+        void buscarPorIdsParaActualizar_Pesimista_BloqueaFilas() {
+
+            ReflectionTestUtils.setField(repository, "estrategia", EstrategiaBloqueo.PESIMISTA);
+            when(jpaRepository.findByNumeroCuentaInForUpdate(any())).thenReturn(List.of(cuentaEntity));
+            when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+
+
+            List<Cuenta> resultado = repository.buscarPorIdsParaActualizar(List.of(cuentaId));
+
+
+            assertThat(resultado).containsExactly(cuenta);
+            verify(jpaRepository, times(1)).findByNumeroCuentaInForUpdate(any());
+            verify(jpaRepository, never()).findByNumeroCuentaInOrderByNumeroCuenta(any());
+        }
+
+        @Test
+        @DisplayName("Debería retornar lista vacía sin consultar con ids vacíos")
+        void buscarPorIdsParaActualizar_Vacio_RetornaVacio() {
+
+            assertThat(repository.buscarPorIdsParaActualizar(List.of())).isEmpty();
+            assertThat(repository.buscarPorIdsParaActualizar(null)).isEmpty();
+            verify(jpaRepository, never()).findByNumeroCuentaInOrderByNumeroCuenta(any());
+        }
+
+        @Test
+        @DisplayName("actualizarTodos debería reutilizar las entidades cargadas y guardar en un solo saveAll")
+        void actualizarTodos_CuentasCargadas_SinSelectExtra() {
+
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                when(jpaRepository.findByNumeroCuentaInOrderByNumeroCuenta(any())).thenReturn(List.of(cuentaEntity));
+                when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+                when(cuentaMapper.aEntity(cuenta, cuentaEntity)).thenReturn(cuentaEntity);
+
+                repository.buscarPorIdsParaActualizar(List.of(cuentaId));
+
+
+                repository.actualizarTodos(List.of(cuenta));
+
+
+                verify(jpaRepository, never()).findByNumeroCuenta(any());
+                verify(jpaRepository, times(1)).saveAll(List.of(cuentaEntity));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
+
+        @Test
+        @DisplayName("actualizarTodos no debería hacer nada con una colección vacía")
+        void actualizarTodos_Vacio_NoGuarda() {
+
+            repository.actualizarTodos(List.of());
+
+
+            verify(jpaRepository, never()).saveAll(any());
+        }
+    }
+
+
+
     @Nested
     @DisplayName("guardar")
     class GuardarTest {
@@ -178,6 +318,47 @@ class CuentaRepositoryJpaTest {
             verify(cuentaMapper, times(1)).aEntity(cuenta, null);
             verify(jpaRepository, never()).save(any());
         }
+
+        @Test
+        @DisplayName("Debería reutilizar la entidad leída en la misma transacción")
+        void actualizar_CuentaLeidaEnLaTransaccion_NoVuelveAConsultar() {
+
+            when(jpaRepository.findByNumeroCuenta(numeroCuenta)).thenReturn(Optional.of(cuentaEntity));
+            when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+            when(cuentaMapper.aEntity(cuenta, cuentaEntity)).thenReturn(cuentaEntity);
+
+            TransactionSynchronizationManager.initSynchronization(); // simula una transaccion activa
+            try {
+
+                repository.buscarPorIdParaActualizar(cuentaId);
+                repository.actualizar(cuenta);
+
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+
+            verify(jpaRepository, times(1)).findByNumeroCuenta(numeroCuenta);
+            verify(cuentaMapper, times(1)).aEntity(cuenta, cuentaEntity);
+            verify(jpaRepository, times(1)).save(cuentaEntity);
+        }
+
+        @Test
+        @DisplayName("Sin transacción activa debería consultar la BD como antes")
+        void actualizar_SinTransaccion_ConsultaLaBD() {
+
+            when(jpaRepository.findByNumeroCuenta(numeroCuenta)).thenReturn(Optional.of(cuentaEntity));
+            when(cuentaMapper.aDominio(cuentaEntity)).thenReturn(cuenta);
+            when(cuentaMapper.aEntity(cuenta, cuentaEntity)).thenReturn(cuentaEntity);
+
+
+            repository.buscarPorId(cuentaId);
+            repository.actualizar(cuenta);
+
+
+            verify(jpaRepository, times(2)).findByNumeroCuenta(numeroCuenta);
+            verify(jpaRepository, times(1)).save(cuentaEntity);
+        }
     }
 
     @Nested
@@ -321,6 +502,52 @@ class CuentaRepositoryJpaTest {
         }
     }
 
+    @Nested
+    @DisplayName("aplicarDelta")
+    class AplicarDeltaTest {
+
+        @Test
+        @DisplayName("Debería aplicar el delta con un solo UPDATE")
+        void aplicarDelta_FilaActualizada_RetornaTrue() {
+
+            when(jpaRepository.aplicarDelta(numeroCuenta, new BigDecimal("-100.00"), "ARG")).thenReturn(1);
+
+
+            boolean aplicado = repository.aplicarDelta(cuentaId, new BigDecimal("-100.00"), Moneda.ARG);
+
+
+            assertThat(aplicado).isTrue();
+            verify(jpaRepository, never()).findByNumeroCuenta(any());
+            verify(jpaRepository, never()).save(any());
+        }
+
+        @Test
+        @DisplayName("Debería retornar false si ninguna fila cumplio las condiciones")
+        void aplicarDelta_SinFilasAfectadas_RetornaFalse() {
+
+            when(jpaRepository.aplicarDelta(numeroCuenta, new BigDecimal("-9999.00"), "ARG")).thenReturn(0);
+
+
+            boolean aplicado = repository.aplicarDelta(cuentaId, new BigDecimal("-9999.00"), Moneda.ARG);
+
+
+            assertThat(aplicado).isFalse();
+        }
+
+        @Test
+        @DisplayName("Debería retornar false con CuentaId nulo")
+        void aplicarDelta_CuentaIdNull_RetornaFalse() {
+
+            boolean aplicado = repository.aplicarDelta(null, BigDecimal.TEN, Moneda.ARG);
+
+
+            assertThat(aplicado).isFalse();
+            verify(jpaRepository, never()).aplicarDelta(any(), any(), any());
+        }
+    }
+
+
+
     @Nested
     @DisplayName(" Casos borde")
     class EdgeCasesTest {
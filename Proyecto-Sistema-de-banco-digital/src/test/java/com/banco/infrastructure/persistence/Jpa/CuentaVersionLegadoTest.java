@@ -0,0 +1,113 @@
+package com.banco.infrastructure.persistence.Jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.domain.model.entities.Cuenta;
+import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Dinero;
+import com.banco.infrastructure.persistence.jpa.CuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.mappers.CuentaMapper;
+
+
+
+
+// Cuentas de antes del bloqueo optimista en una base adoptada: la columna version quedo en NULL y Hibernate
+// no puede incrementarla. V1 las pasa a 0; despues se modifican como cualquier otra cuenta.
+
+@SuppressWarnings("all") // elimina los warings
+@DataJpaTest
+@Import({CuentaRepositoryJpa.class, CuentaMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // la migracion y la modificacion confirman por separado
+@DisplayName("CuentaRepositoryJpa - cuentas con version nula")
+class CuentaVersionLegadoTest {
+
+
+    private static final String NUMERO_CUENTA = "ARG0170001000000012345000";
+
+
+    @Autowired
+    private CuentaRepositoryJpa cuentaRepositoryJpa;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+
+    // una fila como las de una base creada por ddl-auto: version nula
+    @BeforeEach
+    void setUp() {
+
+        jdbcTemplate.execute("ALTER TABLE cuentas ALTER COLUMN version SET NULL");
+        jdbcTemplate.update("INSERT INTO cuentas (id, numero_cuenta, cliente_id, saldo, moneda, activa, version) "
+            + "VALUES (RANDOM_UUID(), ?, 'CLI-12345678', 100.00, 'ARG', TRUE, NULL)", NUMERO_CUENTA);
+    }
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.update("DELETE FROM cuentas");
+        jdbcTemplate.execute("ALTER TABLE cuentas ALTER COLUMN version SET NOT NULL");
+    }
+
+
+
+    @Test
+    @DisplayName("Después de V1 una cuenta con version nula debería poder modificarse")
+    void actualizar_VersionNulaMigrada_IncrementaVersion() {
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migracion/postgresql/V1__esquema_inicial.sql"))
+            .execute(dataSource);
+
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+
+            Cuenta cuenta = cuentaRepositoryJpa.buscarPorIdParaActualizar(CuentaId.newCuentaId(NUMERO_CUENTA)).orElseThrow();
+            cuenta.depositar(Dinero.nuevo(new BigDecimal("50.00"), cuenta.getMoneda()));
+            cuentaRepositoryJpa.actualizar(cuenta);
+        });
+
+
+        assertThat(jdbcTemplate.queryForObject("SELECT saldo FROM cuentas WHERE numero_cuenta = ?", BigDecimal.class, NUMERO_CUENTA))
+            .isEqualByComparingTo("150.00");
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM cuentas WHERE numero_cuenta = ?", Long.class, NUMERO_CUENTA))
+            .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("V1 debería dejar la columna con default 0 y sin nulos")
+    void migrar_VersionNula_QuedaEnCero() {
+
+        new ResourceDatabasePopulator(new ClassPathResource("db/migracion/postgresql/V1__esquema_inicial.sql"))
+            .execute(dataSource);
+
+
+        assertThat(jdbcTemplate.queryForObject("SELECT version FROM cuentas WHERE numero_cuenta = ?", Long.class, NUMERO_CUENTA))
+            .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'CUENTAS' AND COLUMN_NAME = 'VERSION'", String.class))
+            .isEqualTo("NO");
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.dao.DataIntegrityViolationException;
 
 import com.banco.infrastructure.persistence.entities.CuentaEntity;
@@ -31,6 +32,9 @@ public class CuentaJpaRepositoryTest {
     @Autowired   // datajpatest lo conectara automaticamente a la DB falsa
     private CuentaJpaRepository cuentaJpaRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private CuentaEntity cuentaEntity;
     private CuentaEntity cuentaEntity2;
     private CuentaEntity cuentaEntity3;
@@ -495,4 +499,110 @@ public class CuentaJpaRepositoryTest {
 
 
 
+
+    @Nested
+    @DisplayName("Control de concurrencia")
+    class ConcurrenciaTest {
+
+        @Test
+        @DisplayName("findByNumeroCuentaForUpdate debería encontrar la cuenta")
+        void findByNumeroCuentaForUpdate_CuentaExiste_RetornaCuenta() {
+
+            cuentaJpaRepository.save(cuentaEntity);
+
+
+            Optional<CuentaEntity> encontrado = cuentaJpaRepository
+                .findByNumeroCuentaForUpdate("ARG0170001000000012345000");
+
+
+            assertThat(encontrado).isPresent();
+            assertThat(encontrado.get().getSaldo()).isEqualByComparingTo("1500.50");
+        }
+
+        @Test
+        @DisplayName("findByNumeroCuentaForUpdate con cuenta inexistente retorna empty")
+        void findByNumeroCuentaForUpdate_CuentaNoExiste_RetornaEmpty() {
+
+            Optional<CuentaEntity> encontrado = cuentaJpaRepository
+                .findByNumeroCuentaForUpdate("ARG9999999999999999999999");
+
+
+            assertThat(encontrado).isEmpty();
+        }
+
+        @Test
+        @DisplayName("La version debería incrementarse en cada actualizacion")
+        void saveAndFlush_ActualizarSaldo_IncrementaVersion() {
+
+            CuentaEntity guardado = cuentaJpaRepository.saveAndFlush(cuentaEntity);
+            Long versionInicial = guardado.getVersion();
+            assertThat(versionInicial).isNotNull();
+
+
+            guardado.setSaldo(new BigDecimal("2000.00"));
+            CuentaEntity actualizado = cuentaJpaRepository.saveAndFlush(guardado);
+
+
+            assertThat(actualizado.getVersion()).isEqualTo(versionInicial + 1);
+        }
+    }
+
+
+    @Nested
+    @DisplayName("Actualizacion atomica de saldo")
+    class AplicarDeltaTest {
+
+        @Test
+        @DisplayName("Debería sumar el delta e incrementar la version")
+        void aplicarDelta_CuentaValida_SaldoYVersionActualizados() {
+
+            CuentaEntity guardado = cuentaJpaRepository.saveAndFlush(cuentaEntity);
+            Long versionInicial = guardado.getVersion();
+
+
+            int filas = cuentaJpaRepository.aplicarDelta("ARG0170001000000012345000", new BigDecimal("-500.50"), "ARG");
+
+
+            assertThat(filas).isEqualTo(1);
+            entityManager.clear(); // el UPDATE no toca la entidad ya cargada (el adaptador desprende la afectada)
+            CuentaEntity actualizado = cuentaJpaRepository.findByNumeroCuenta("ARG0170001000000012345000").get();
+            assertThat(actualizado.getSaldo()).isEqualByComparingTo("1000.00");
+            assertThat(actualizado.getVersion()).isEqualTo(versionInicial + 1);
+        }
+
+        @Test
+        @DisplayName("No debería dejar el saldo negativo")
+        void aplicarDelta_SaldoInsuficiente_NoActualiza() {
+
+            cuentaJpaRepository.saveAndFlush(cuentaEntity);
+
+
+            int filas = cuentaJpaRepository.aplicarDelta("ARG0170001000000012345000", new BigDecimal("-1500.51"), "ARG");
+
+
+            assertThat(filas).isZero();
+            assertThat(cuentaJpaRepository.findByNumeroCuenta("ARG0170001000000012345000").get().getSaldo())
+                .isEqualByComparingTo("1500.50");
+        }
+
+        @Test
+        @DisplayName("No debería operar sobre cuentas inactivas ni de otra moneda")
+        void aplicarDelta_CuentaInactivaOMonedaDistinta_NoActualiza() {
+
+            cuentaJpaRepository.saveAndFlush(cuentaEntity);
+            cuentaJpaRepository.saveAndFlush(cuentaEntity3);
+
+
+            int inactiva = cuentaJpaRepository.aplicarDelta("ARG0170002000000012345000", new BigDecimal("100.00"), "ARG");
+            int otraMoneda = cuentaJpaRepository.aplicarDelta("ARG0170001000000012345000", new BigDecimal("100.00"), "USD");
+            int inexistente = cuentaJpaRepository.aplicarDelta("ARG9999999999999999999999", new BigDecimal("100.00"), "ARG");
+
+
+            assertThat(inactiva).isZero();
+            assertThat(otraMoneda).isZero();
+            assertThat(inexistente).isZero();
+        }
+    }
+
+
 }
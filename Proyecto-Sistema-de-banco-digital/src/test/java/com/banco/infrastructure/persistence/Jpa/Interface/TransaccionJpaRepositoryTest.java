@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +17,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.data.domain.PageRequest;
 
 import com.banco.domain.model.valueobjects.TransaccionId.EstadoTransaccion;
 import com.banco.infrastructure.persistence.entities.TransaccionEntity;
@@ -34,6 +37,9 @@ public class TransaccionJpaRepositoryTest {
     @Autowired  // datajpatest lo conecta autom. con la base de datos falsa
     private TransaccionJpaRepository transaccionJpaRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private TransaccionEntity transferenciaEntity;
     private TransaccionEntity depositoEntity;
     private TransaccionEntity retiroEntity;
@@ -167,7 +173,7 @@ public class TransaccionJpaRepositoryTest {
         }
 
         @Test
-        @DisplayName("No debería permitir duplicados en transaccionId (unique)")
+        @DisplayName("No debería permitir duplicados en transaccionId con la misma fecha (unique)")
         void save_TransaccionIdDuplicado_LanzaExcepcion() {
            
             transaccionJpaRepository.save(transferenciaEntity);
@@ -179,7 +185,7 @@ public class TransaccionJpaRepositoryTest {
             duplicado.setCuentaDestinoId("ARG0170001000000012345000");
             duplicado.setMonto(new BigDecimal("100.00"));
             duplicado.setMoneda("ARG");
-            duplicado.setFechaDeCreacion(LocalDateTime.now());
+            duplicado.setFechaDeCreacion(fechaBase); // misma fecha: la unicidad es (transaccion_id, fecha_de_creacion)
             duplicado.setEstado(EstadoTransaccion.PENDIENTE);
 
            
@@ -252,6 +258,22 @@ public class TransaccionJpaRepositoryTest {
             assertThat(encontrado).isPresent();
             assertThat(encontrado.get().getTransaccionId()).isEqualTo("TXN-2024-0000001");
         }
+
+        @Test
+        @DisplayName("Debería buscar varias transacciones en una sola consulta")
+        void findByTransaccionIdIn_VariosIds_RetornaSoloExistentes() {
+
+            transaccionJpaRepository.saveAll(List.of(transferenciaEntity, depositoEntity, retiroEntity));
+
+
+            List<TransaccionEntity> encontradas = transaccionJpaRepository
+                .findByTransaccionIdIn(List.of("TXN-2024-0000001", "TXN-2024-0000003", "TXN-9999-9999999"));
+
+
+            assertThat(encontradas)
+                .extracting(TransaccionEntity::getTransaccionId)
+                .containsExactlyInAnyOrder("TXN-2024-0000001", "TXN-2024-0000003");
+        }
     }
 
     @Nested
@@ -297,6 +319,46 @@ public class TransaccionJpaRepositoryTest {
             
             assertThat(encontradas).isEmpty();
         }
+
+        @Test
+        @DisplayName("Debería recorrer todas las páginas por (fecha, id) sin repetir ni saltear filas")
+        void buscarPaginaPorCuentaOrigen_VariasPaginas_RecorreTodoEnOrden() {
+
+            // 7 movimientos; 3 comparten la misma fecha para probar el desempate por transaccionId
+            LocalDateTime base = LocalDateTime.of(2024, 1, 15, 10, 0);
+            for (int i = 0; i < 7; i++) {
+                TransaccionEntity entity = new TransaccionEntity();
+                entity.setTransaccionId(String.format("TXN-2024-%07d", 100 + i));
+                entity.setTipoTransaccion("RETIRO");
+                entity.setCuentaOrigenId("ARG0170001000000012345000");
+                entity.setMonto(new BigDecimal("10.00"));
+                entity.setMoneda("ARG");
+                entity.setFechaDeCreacion(i < 3 ? base : base.plusMinutes(i));
+                entity.setEstado(EstadoTransaccion.COMPLETADA);
+                transaccionJpaRepository.save(entity);
+            }
+            transaccionJpaRepository.save(depositoEntity); // otra cuenta origen, no aparece
+
+
+            List<String> recorridas = new ArrayList<>();
+            List<TransaccionEntity> pagina = transaccionJpaRepository.buscarPrimeraPaginaPorCuentaOrigen(
+                "ARG0170001000000012345000", PageRequest.of(0, 3));
+
+            while (!pagina.isEmpty()) {
+                assertThat(pagina).hasSizeLessThanOrEqualTo(3);
+                pagina.forEach(t -> recorridas.add(t.getTransaccionId()));
+
+                TransaccionEntity ultima = pagina.get(pagina.size() - 1);
+                pagina = transaccionJpaRepository.buscarPaginaPorCuentaOrigenDespuesDe(
+                    "ARG0170001000000012345000", ultima.getFechaDeCreacion(), ultima.getTransaccionId(), PageRequest.of(0, 3));
+            }
+
+
+            // de la mas nueva a la mas vieja; a igual fecha, id descendente
+            assertThat(recorridas).containsExactly(
+                "TXN-2024-0000106", "TXN-2024-0000105", "TXN-2024-0000104", "TXN-2024-0000103",
+                "TXN-2024-0000102", "TXN-2024-0000101", "TXN-2024-0000100");
+        }
     }
 
 
@@ -390,6 +452,109 @@ public class TransaccionJpaRepositoryTest {
            
             assertThat(encontradas).hasSize(1);
         }
+
+        @Test
+        @DisplayName("UNION ALL no debería duplicar una transacción donde la cuenta es origen y destino")
+        void buscarPorCuentaYFechas_CuentaOrigenYDestino_SinDuplicados() {
+
+            transferenciaEntity.setCuentaDestinoId("ARG0170001000000012345000");
+            transaccionJpaRepository.save(transferenciaEntity);
+            transaccionJpaRepository.flush();
+
+
+            List<TransaccionEntity> encontradas = transaccionJpaRepository
+                .buscarPorCuentaYFechas("ARG0170001000000012345000", fechaAnterior, fechaPosterior);
+
+
+            assertThat(encontradas).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("El esquema debería tener los índices compuestos por cuenta y fecha")
+        void esquema_IndicesCuentaFecha_Existen() {
+
+            List<String> indices = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'TRANSACCIONES'", String.class);
+
+
+            assertThat(indices).extracting(String::toLowerCase)
+                .contains("idx_transacciones_origen_fecha", "idx_transacciones_destino_fecha");
+        }
+
+        @Test
+        @DisplayName("Debería traer solo las N más recientes, ordenadas por la BD")
+        void buscarRecientesPorCuentaYFechas_ConLimite_RetornaTopN() {
+
+            transaccionJpaRepository.saveAll(List.of(transferenciaEntity, depositoEntity, retiroEntity, reversoEntity));
+            transaccionJpaRepository.flush();
+
+
+            List<TransaccionEntity> encontradas = transaccionJpaRepository.buscarRecientesPorCuentaYFechas(
+                "ARG0170001000000012345000", fechaAnterior, fechaPosterior, 2);
+
+
+            assertThat(encontradas).extracting(TransaccionEntity::getTipoTransaccion)
+                .containsExactly("REVERSO", "RETIRO");
+        }
+
+        @Test
+        @DisplayName("Con la misma fecha en el corte debería desempatar por id en cada rama")
+        void buscarRecientesPorCuentaYFechas_MismaFecha_DesempataPorId() {
+
+            // misma fecha en las tres: el corte de la rama tiene que quedarse con las de id mayor
+            for (String id : List.of("TXN-2024-0000011", "TXN-2024-0000013", "TXN-2024-0000012")) {
+                TransaccionEntity retiro = new TransaccionEntity();
+                retiro.setTransaccionId(id);
+                retiro.setTipoTransaccion("RETIRO");
+                retiro.setCuentaOrigenId("ARG0170001000000012345000");
+                retiro.setMonto(new BigDecimal("10.00"));
+                retiro.setMoneda("ARG");
+                retiro.setFechaDeCreacion(fechaBase);
+                retiro.setEstado(EstadoTransaccion.COMPLETADA);
+                transaccionJpaRepository.save(retiro);
+            }
+            transaccionJpaRepository.flush();
+
+
+            List<TransaccionEntity> encontradas = transaccionJpaRepository.buscarRecientesPorCuentaYFechas(
+                "ARG0170001000000012345000", fechaAnterior, fechaPosterior, 2);
+
+
+            assertThat(encontradas).extracting(TransaccionEntity::getTransaccionId)
+                .containsExactly("TXN-2024-0000013", "TXN-2024-0000012");
+        }
+
+        @Test
+        @DisplayName("Debería sumar los montos del rango agrupados por tipo")
+        void sumarMontosPorTipo_RangoConTransacciones_TotalesPorTipo() {
+
+            TransaccionEntity otroDeposito = new TransaccionEntity();
+            otroDeposito.setTransaccionId("TXN-2024-0000005");
+            otroDeposito.setTipoTransaccion("DEPOSITO");
+            otroDeposito.setCuentaDestinoId("ARG0170001000000012345000");
+            otroDeposito.setMonto(new BigDecimal("250.00"));
+            otroDeposito.setMoneda("ARG");
+            otroDeposito.setFechaDeCreacion(fechaBase.plusDays(4));
+            otroDeposito.setEstado(EstadoTransaccion.COMPLETADA);
+
+            transaccionJpaRepository.saveAll(List.of(transferenciaEntity, depositoEntity, retiroEntity, otroDeposito));
+            transaccionJpaRepository.flush();
+
+
+            List<Object[]> filas = transaccionJpaRepository.sumarMontosPorTipo(
+                "ARG0170001000000012345000", fechaAnterior, fechaPosterior);
+
+
+            assertThat(filas).hasSize(3);
+            assertThat(filas).anySatisfy(fila -> {
+                assertThat(fila[0]).isEqualTo("DEPOSITO");
+                assertThat((BigDecimal) fila[1]).isEqualByComparingTo("750.00");
+            });
+            assertThat(filas).anySatisfy(fila -> {
+                assertThat(fila[0]).isEqualTo("RETIRO");
+                assertThat((BigDecimal) fila[1]).isEqualByComparingTo("200.00");
+            });
+        }
     }
 
     @Nested
@@ -452,6 +617,66 @@ public class TransaccionJpaRepositoryTest {
             
             assertThat(encontradas).isEmpty();
         }
+
+        @Test
+        @DisplayName("Debería buscar por referencia exacta comparando en mayúsculas")
+        void buscarPorReferenciaExacta_ReferenciaExistente_RetornaSoloEsa() {
+
+            transferenciaEntity.setReferencia("ref-trf-001");
+            transaccionJpaRepository.save(transferenciaEntity);
+            transaccionJpaRepository.save(depositoEntity);
+
+
+            List<TransaccionEntity> encontradas = transaccionJpaRepository.buscarPorReferenciaExacta("REF-TRF-001");
+
+
+            assertThat(encontradas).hasSize(1);
+            assertThat(encontradas.get(0).getTransaccionId()).isEqualTo(transferenciaEntity.getTransaccionId());
+            assertThat(transaccionJpaRepository.buscarPorReferenciaExacta("REF-TRF")).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Debería buscar por prefijo de referencia")
+        void buscarPorPrefijoDeReferencia_Prefijo_RetornaCoincidencias() {
+
+            transaccionJpaRepository.save(transferenciaEntity);
+            transaccionJpaRepository.save(depositoEntity);
+            transaccionJpaRepository.save(retiroEntity);
+
+
+            List<TransaccionEntity> encontradas = transaccionJpaRepository.buscarPorPrefijoDeReferencia("REF-D%");
+
+
+            assertThat(encontradas).hasSize(1);
+            assertThat(encontradas.get(0).getReferencia()).isEqualTo("REF-DEP-001");
+        }
+
+        @Test
+        @DisplayName("Un comodín escapado en el prefijo debería tomarse literal")
+        void buscarPorPrefijoDeReferencia_ComodinEscapado_NoComodin() {
+
+            transaccionJpaRepository.save(transferenciaEntity);
+            transaccionJpaRepository.save(depositoEntity);
+
+
+            // sin escapar, "REF_" coincidiria con "REF-"
+            List<TransaccionEntity> encontradas = transaccionJpaRepository.buscarPorPrefijoDeReferencia("REF\\_%");
+
+
+            assertThat(encontradas).isEmpty();
+        }
+
+        @Test
+        @DisplayName("El esquema de la entidad no debería tener un índice por referencia que ninguna consulta usa")
+        void esquema_IndiceReferencia_SoloEnMigracion() {
+
+            List<String> indices = jdbcTemplate.queryForList(
+                "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'TRANSACCIONES'", String.class);
+
+
+            // las consultas comparan UPPER(referencia): el indice sobre la expresion lo crea V3 en PostgreSQL
+            assertThat(indices).extracting(String::toLowerCase).doesNotContain("idx_transacciones_referencia");
+        }
     }
 
 
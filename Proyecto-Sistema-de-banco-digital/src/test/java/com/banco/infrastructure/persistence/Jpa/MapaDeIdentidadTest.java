@@ -0,0 +1,89 @@
+package com.banco.infrastructure.persistence.Jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import com.banco.infrastructure.persistence.jpa.MapaDeIdentidad;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("MapaDeIdentidad")
+class MapaDeIdentidadTest {
+
+
+    private final MapaDeIdentidad<String> mapa = new MapaDeIdentidad<>();
+
+
+    @AfterEach
+    void limpiar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(mapa);
+    }
+
+
+
+    @Test
+    @DisplayName("Sin transacción activa no debería recordar nada")
+    void registrar_SinTransaccion_NoGuarda() {
+
+        mapa.registrar("ARG0170001000000012345000", "entidad");
+
+
+        assertThat(mapa.buscar("ARG0170001000000012345000")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Dentro de una transacción debería devolver la entidad registrada")
+    void registrar_ConTransaccion_DevuelveEntidad() {
+
+        TransactionSynchronizationManager.initSynchronization();
+
+
+        mapa.registrar("ARG0170001000000012345000", "entidad");
+
+
+        assertThat(mapa.buscar("ARG0170001000000012345000")).contains("entidad");
+        assertThat(mapa.buscar("ARG0170001000000012345010")).isEmpty();
+        assertThat(mapa.buscar(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Quitar debería devolver la entidad y olvidarla")
+    void quitar_EntidadRegistrada_LaOlvida() {
+
+        TransactionSynchronizationManager.initSynchronization();
+        mapa.registrar("ARG0170001000000012345000", "entidad");
+
+
+        assertThat(mapa.quitar("ARG0170001000000012345000")).contains("entidad");
+        assertThat(mapa.buscar("ARG0170001000000012345000")).isEmpty();
+        assertThat(mapa.quitar("ARG0170001000000012345000")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Al terminar la transacción debería descartar las entidades")
+    void afterCompletion_TransaccionTerminada_DescartaEntidades() {
+
+        TransactionSynchronizationManager.initSynchronization();
+        mapa.registrar("ARG0170001000000012345000", "entidad");
+
+
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization(); // nueva transaccion
+
+
+        assertThat(mapa.buscar("ARG0170001000000012345000")).isEmpty();
+    }
+}
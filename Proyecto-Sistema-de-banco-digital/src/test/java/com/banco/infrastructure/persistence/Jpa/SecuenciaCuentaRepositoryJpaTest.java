@@ -0,0 +1,145 @@
+package com.banco.infrastructure.persistence.Jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.application.port.out.SecuenciaCuentaRepository;
+import com.banco.infrastructure.config.AsignadorNumerosCuenta;
+import com.banco.infrastructure.persistence.jpa.SecuenciaCuentaRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.Interface.SecuenciaCuentaJpaRepository;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DataJpaTest
+@Import(SecuenciaCuentaRepositoryJpa.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada reserva confirma su propia transaccion
+@DisplayName("SecuenciaCuentaRepositoryJpa")
+class SecuenciaCuentaRepositoryJpaTest {
+
+
+    @Autowired
+    private SecuenciaCuentaRepository repository;
+
+    @Autowired
+    private SecuenciaCuentaJpaRepository jpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+
+    @AfterEach
+    void limpiar() {
+        jpaRepository.deleteAll();
+    }
+
+
+
+    @Test
+    @DisplayName("Los bloques de una sucursal deberían ser consecutivos y empezar en 1")
+    void reservarBloque_BloquesConsecutivos() {
+
+        long primero = repository.reservarBloque(1, 100);
+        long segundo = repository.reservarBloque(1, 100);
+        long otraSucursal = repository.reservarBloque(2, 100);
+
+
+        assertThat(primero).isEqualTo(1);
+        assertThat(segundo).isEqualTo(101);
+        assertThat(otraSucursal).isEqualTo(1);
+        assertThat(jpaRepository.findById("0001")).get()
+            .extracting(s -> s.getSiguiente()).isEqualTo(201L);
+    }
+
+    @Test
+    @DisplayName("Si otra instancia creó la fila entre el UPDATE y el INSERT no debería pisarla")
+    void reservarBloque_FilaCreadaPorOtraInstancia_NoRepiteElPrimerBloque() {
+
+        // la otra instancia ya creo la sucursal y reservo 1..100
+        assertThat(repository.reservarBloque(1, 100)).isEqualTo(1);
+
+        // a esta instancia su UPDATE no le encontro fila: la otra la confirmo justo despues
+        AtomicInteger avances = new AtomicInteger();
+        SecuenciaCuentaJpaRepository conCarrera = mock(SecuenciaCuentaJpaRepository.class, delegatesTo(jpaRepository));
+        doAnswer(invocacion -> avances.getAndIncrement() == 0 ? 0
+                : jpaRepository.avanzar(invocacion.getArgument(0), invocacion.getArgument(1)))
+            .when(conCarrera).avanzar(anyString(), anyLong());
+        SecuenciaCuentaRepositoryJpa sinProxy = new SecuenciaCuentaRepositoryJpa(conCarrera);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager); // el REQUIRES_NEW del proxy
+        SecuenciaCuentaRepository otraInstancia = (sucursal, tamanio) ->
+            transaccion.execute(estado -> sinProxy.reservarBloque(sucursal, tamanio));
+
+
+        assertThatThrownBy(() -> otraInstancia.reservarBloque(1, 100))
+            .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(jpaRepository.findById("0001")).get()
+            .extracting(s -> s.getSiguiente()).isEqualTo(101L); // la fila existente sigue intacta
+
+        // el asignador reintenta con fila y recibe el bloque siguiente, no otra vez 1..100
+        assertThat(new AsignadorNumerosCuenta(otraInstancia, 100).siguiente(1)).isEqualTo(101);
+    }
+
+    @Test
+    @DisplayName("Dos instancias abriendo cuentas a la vez no deberían repetir números")
+    void asignador_DosInstanciasConcurrentes_SinDuplicados() throws Exception {
+
+        AsignadorNumerosCuenta instanciaA = new AsignadorNumerosCuenta(repository, 20);
+        AsignadorNumerosCuenta instanciaB = new AsignadorNumerosCuenta(repository, 20);
+
+        int hilos = 8;
+        int porHilo = 500;
+        Set<Long> numeros = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(hilos);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            AsignadorNumerosCuenta asignador = h % 2 == 0 ? instanciaA : instanciaB;
+            tareas.add(pool.submit(() -> {
+                largada.await();
+                for (int i = 0; i < porHilo; i++) {
+                    numeros.add(asignador.siguiente(3));
+                }
+                return null;
+            }));
+        }
+
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(1, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+
+        assertThat(numeros).hasSize(hilos * porHilo);
+    }
+}
@@ -0,0 +1,173 @@
+package com.banco.infrastructure.persistence.Jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.banco.infrastructure.persistence.jpa.Interface.TransaccionJpaRepository;
+
+
+
+
+// BENCHMARK de consultas por cuenta + rango de fechas sobre muchas filas sinteticas.
+// ANTES: OR entre origen/destino sin indices.  DESPUES: UNION ALL con los indices (cuenta, fecha_de_creacion).
+// H2 en archivo (target/) para que los 10M de filas no tengan que entrar en memoria.
+// No corre con el build normal:
+//   mvn test -Dtest=TransaccionConsultaBenchmarkTest -Dbenchmark=true [-Dbenchmark.filas=10000000] [-Dbenchmark.consultas=50]
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/benchmark-consultas;MODE=PostgreSQL",
+    "spring.jpa.hibernate.ddl-auto=create-drop" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // la carga se confirma por tramos
+@DisplayName("Benchmark - consultas de transacciones por cuenta y fecha")
+class TransaccionConsultaBenchmarkTest {
+
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 10_000_000);
+    private static final int CONSULTAS = Integer.getInteger("benchmark.consultas", 50);
+    private static final int CUENTAS = 100_000;
+    private static final int FILAS_POR_TRAMO = 500_000;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+
+    // la consulta original, antes del UNION ALL
+    private static final String CONSULTA_CON_OR =
+        "SELECT * FROM transacciones WHERE (cuenta_origen_id = ? OR cuenta_destino_id = ?) " +
+        "AND fecha_de_creacion BETWEEN ? AND ?";
+
+
+    @Autowired
+    private TransaccionJpaRepository transaccionJpaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+
+    @AfterEach
+    void limpiar() {
+        jdbcTemplate.execute("TRUNCATE TABLE transacciones");
+    }
+
+
+
+    @Test
+    @DisplayName("UNION ALL con índices debería bajar la latencia de la consulta con OR")
+    void latenciaP50P99_AntesYDespues() {
+
+        // carga sin indices: mas rapida, y es el escenario ANTES
+        eliminarIndices();
+        cargarFilas();
+
+        long[] antes = medir(cuenta -> jdbcTemplate.queryForList(
+            CONSULTA_CON_OR, cuenta, cuenta, Timestamp.valueOf(desde()), Timestamp.valueOf(hasta())).size());
+
+        crearIndices();
+
+        long[] despues = medir(cuenta -> transaccionJpaRepository
+            .buscarPorCuentaYFechas(cuenta, desde(), hasta()).size());
+
+        System.out.printf("%n[BENCHMARK] %,d filas, %d consultas por escenario%n", FILAS, CONSULTAS);
+        System.out.printf("  OR sin indices         : p50 %8.2f ms   p99 %8.2f ms%n", ms(percentil(antes, 50)), ms(percentil(antes, 99)));
+        System.out.printf("  UNION ALL con indices  : p50 %8.2f ms   p99 %8.2f ms%n%n", ms(percentil(despues, 50)), ms(percentil(despues, 99)));
+
+        assertThat(percentil(despues, 50)).isLessThan(percentil(antes, 50));
+    }
+
+
+
+
+    // AUXILIARES
+
+    // filas sinteticas generadas dentro de la BD: CUENTAS cuentas, una transaccion cada 3 segundos
+    private void cargarFilas() {
+
+        for (int desde = 0; desde < FILAS; desde += FILAS_POR_TRAMO) {
+
+            int hasta = Math.min(desde + FILAS_POR_TRAMO, FILAS) - 1;
+
+            jdbcTemplate.update(
+                "INSERT INTO transacciones (id, transaccion_id, tipo_transaccion, cuenta_origen_id, cuenta_destino_id, " +
+                "monto, moneda, descripcion, fecha_de_creacion, estado, referencia) " +
+                "SELECT RANDOM_UUID(), 'TXN-BENCH-' || X, " +
+                "CASE MOD(X, 3) WHEN 0 THEN 'TRANSFERENCIA' WHEN 1 THEN 'DEPOSITO' ELSE 'RETIRO' END, " +
+                "CASE MOD(X, 3) WHEN 1 THEN NULL ELSE " + cuentaSql("X") + " END, " +
+                "CASE MOD(X, 3) WHEN 2 THEN NULL ELSE " + cuentaSql("X * 7 + 1") + " END, " +
+                "10.00, 'ARG', 'Benchmark', DATEADD('SECOND', X * 3, CAST(? AS TIMESTAMP)), 'COMPLETADA', NULL " +
+                "FROM SYSTEM_RANGE(" + desde + ", " + hasta + ")",
+                Timestamp.valueOf(INICIO));
+        }
+    }
+
+    private String cuentaSql(String expresion) {
+        return "'ARG017' || LPAD(CAST(MOD(" + expresion + ", " + CUENTAS + ") AS VARCHAR), 19, '0')";
+    }
+
+    private String cuenta(int numero) {
+        return "ARG017" + String.format("%019d", numero);
+    }
+
+    private void eliminarIndices() {
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_transacciones_origen_fecha");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_transacciones_destino_fecha");
+    }
+
+    private void crearIndices() {
+        jdbcTemplate.execute("CREATE INDEX idx_transacciones_origen_fecha ON transacciones (cuenta_origen_id, fecha_de_creacion)");
+        jdbcTemplate.execute("CREATE INDEX idx_transacciones_destino_fecha ON transacciones (cuenta_destino_id, fecha_de_creacion)");
+    }
+
+    // rango de un mes en el medio del periodo cargado
+    private LocalDateTime desde() {
+        return INICIO.plusSeconds(FILAS * 3L / 2);
+    }
+
+    private LocalDateTime hasta() {
+        return desde().plusDays(30);
+    }
+
+    private long[] medir(java.util.function.ToIntFunction<String> consulta) {
+
+        Random random = new Random(42); // mismas cuentas en ambos escenarios
+
+        // calentamiento
+        for (int i = 0; i < 3; i++) {
+            consulta.applyAsInt(cuenta(random.nextInt(CUENTAS)));
+        }
+
+        long[] tiempos = new long[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            String cuenta = cuenta(random.nextInt(CUENTAS));
+            long inicio = System.nanoTime();
+            consulta.applyAsInt(cuenta);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        return tiempos;
+    }
+
+    private long percentil(long[] ordenados, int percentil) {
+        int indice = (int) Math.ceil(percentil / 100.0 * ordenados.length) - 1;
+        return ordenados[Math.max(0, Math.min(indice, ordenados.length - 1))];
+    }
+
+    private double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
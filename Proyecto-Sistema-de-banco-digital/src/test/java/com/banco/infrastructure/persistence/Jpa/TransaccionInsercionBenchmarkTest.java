@@ -0,0 +1,142 @@
+package com.banco.infrastructure.persistence.Jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.banco.application.port.out.TransaccionRepository;
+import com.banco.domain.model.entities.Transaccion;
+import com.banco.domain.model.valueobjects.CuentaId;
+import com.banco.domain.model.valueobjects.Dinero;
+import com.banco.domain.model.valueobjects.Moneda;
+import com.banco.domain.model.valueobjects.TransaccionId;
+import com.banco.domain.model.valueobjects.TransaccionId.TipoTransaccion;
+import com.banco.infrastructure.config.PersistenceConfig;
+import com.banco.infrastructure.persistence.jpa.TransaccionRepositoryJpa;
+import com.banco.infrastructure.persistence.jpa.Interface.TransaccionJpaRepository;
+import com.banco.infrastructure.persistence.mappers.TransaccionMapper;
+
+
+
+
+// BENCHMARK de inserciones: guardar() una por una vs guardarTodos() en lotes JDBC.
+// H2 en modo PostgreSQL como reemplazo local de la BD real.
+// No corre con el build normal:  mvn test -Dtest=TransaccionInsercionBenchmarkTest -Dbenchmark=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PersistenceConfig.class, TransaccionRepositoryJpa.class, TransaccionMapper.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // cada medicion confirma su propia transaccion
+@DisplayName("Benchmark - inserción de transacciones")
+class TransaccionInsercionBenchmarkTest {
+
+
+    private static final int CANTIDAD = 5_000;
+    private static final int CALENTAMIENTO = 500;
+
+
+    @Autowired
+    private TransaccionRepository repository;
+
+    @Autowired
+    private TransaccionJpaRepository transaccionJpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private int secuencia = 0;
+
+
+    @AfterEach
+    void limpiar() {
+        transaccionJpaRepository.deleteAllInBatch();
+    }
+
+
+
+    @Test
+    @DisplayName("guardarTodos en lotes debería superar a guardar una por una")
+    void insercionesPorSegundo_AntesYDespues() {
+
+        // calentamiento de JIT y pool de conexiones
+        insertarUnaPorUna(CALENTAMIENTO);
+        insertarEnLote(CALENTAMIENTO);
+        transaccionJpaRepository.deleteAllInBatch();
+
+        long antes = insertarUnaPorUna(CANTIDAD);
+        long despues = insertarEnLote(CANTIDAD);
+
+        double porSegundoAntes = CANTIDAD / (antes / 1_000_000_000.0);
+        double porSegundoDespues = CANTIDAD / (despues / 1_000_000_000.0);
+
+        System.out.printf("%n[BENCHMARK] %d inserciones%n", CANTIDAD);
+        System.out.printf("  guardar() una por una : %,10.0f inserciones/seg%n", porSegundoAntes);
+        System.out.printf("  guardarTodos() lotes  : %,10.0f inserciones/seg  (x%.1f)%n%n",
+            porSegundoDespues, porSegundoDespues / porSegundoAntes);
+
+        assertThat(transaccionJpaRepository.count()).isEqualTo(2L * CANTIDAD);
+    }
+
+
+
+
+    // AUXILIARES
+
+    // ANTES: cada guardar() busca por transaccion_id, lo que obliga a Hibernate a vaciar el INSERT
+    // pendiente antes del SELECT: una ida y vuelta por fila y ningun lote posible
+    private long insertarUnaPorUna(int cantidad) {
+
+        List<Transaccion> transacciones = crearTransacciones(cantidad);
+
+        long inicio = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            transacciones.forEach(repository::guardar));
+
+        return System.nanoTime() - inicio;
+    }
+
+    // DESPUES: un solo SELECT ... IN y los INSERT agrupados de a hibernate.jdbc.batch_size
+    private long insertarEnLote(int cantidad) {
+
+        List<Transaccion> transacciones = crearTransacciones(cantidad);
+
+        long inicio = System.nanoTime();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            repository.guardarTodos(transacciones));
+
+        return System.nanoTime() - inicio;
+    }
+
+    private List<Transaccion> crearTransacciones(int cantidad) {
+
+        CuentaId cuenta = CuentaId.newCuentaId("ARG0170001000000012345000");
+        List<Transaccion> transacciones = new ArrayList<>(cantidad);
+
+        for (int i = 0; i < cantidad; i++) {
+            Transaccion transaccion = new Transaccion(
+                new TransaccionId(String.format("TXN-2024-%07d", secuencia++)),
+                TipoTransaccion.DEPOSITO, null, cuenta,
+                Dinero.nuevo(new BigDecimal("10.00"), Moneda.ARG), "Benchmark");
+            transaccion.completar();
+            transacciones.add(transaccion);
+        }
+        return transacciones;
+    }
+}
@@ -3,15 +3,18 @@ package com.banco.infrastructure.persistence.Jpa;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,6 +28,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.banco.domain.model.entities.Cuenta;
 import com.banco.domain.model.entities.Transaccion;
@@ -209,6 +214,115 @@ class TransaccionRepositoryJpaTest {
             verify(transaccionMapper, times(1)).aEntity(transaccion, null);
             verify(jpaRepository, never()).save(any());
         }
+
+        @Test
+        @DisplayName("Debería reutilizar la entidad leída en la misma transacción")
+        void guardar_TransaccionLeidaEnLaTransaccion_NoVuelveAConsultar() {
+
+            when(jpaRepository.findByTransaccionId(transaccionIdString))
+                .thenReturn(Optional.of(transaccionEntity));
+            when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
+            when(transaccionMapper.aEntity(transaccion, transaccionEntity)).thenReturn(transaccionEntity);
+
+            TransactionSynchronizationManager.initSynchronization(); // simula una transaccion activa
+            try {
+
+                repository.buscarPorId(transaccionId);
+                repository.guardar(transaccion);
+
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+
+            verify(jpaRepository, times(1)).findByTransaccionId(transaccionIdString);
+            verify(jpaRepository, times(1)).save(transaccionEntity);
+        }
+    }
+
+
+
+    @Nested
+    @DisplayName(" guardarTodos")
+    class GuardarTodosTest {
+
+        @Test
+        @DisplayName("Debería buscar las existentes con un solo SELECT y guardar todo junto")
+        void guardarTodos_VariasTransacciones_UnSoloSelectYSaveAll() {
+
+            Transaccion otra = new Transaccion(new TransaccionId("TXN-2024-0000002"), TipoTransaccion.DEPOSITO,
+                null, cuentaOrigenId, Dinero.nuevo(new BigDecimal("10.00"), Moneda.ARG), "Deposito");
+            TransaccionEntity otraEntity = new TransaccionEntity();
+
+            when(jpaRepository.findByTransaccionIdIn(any())).thenReturn(List.of(transaccionEntity));
+            when(transaccionMapper.aEntity(transaccion, transaccionEntity)).thenReturn(transaccionEntity);
+            when(transaccionMapper.aEntity(otra, null)).thenReturn(otraEntity);
+
+
+            repository.guardarTodos(List.of(transaccion, otra));
+
+
+            verify(jpaRepository, times(1)).findByTransaccionIdIn(List.of(transaccionIdString, "TXN-2024-0000002"));
+            verify(jpaRepository, never()).findByTransaccionId(any());
+            verify(jpaRepository, times(1)).saveAll(List.of(transaccionEntity, otraEntity));
+        }
+
+        @Test
+        @DisplayName("No debería consultar la BD con una lista vacía")
+        void guardarTodos_ListaVacia_NoHaceNada() {
+
+            repository.guardarTodos(List.of());
+
+
+            verify(jpaRepository, never()).findByTransaccionIdIn(any());
+            verify(jpaRepository, never()).saveAll(any());
+        }
+    }
+
+
+
+    @Nested
+    @DisplayName(" registrar")
+    class RegistrarTest {
+
+        @Test
+        @DisplayName("Debería insertar la transacción nueva sin consultar antes")
+        void registrar_TransaccionNueva_InsertaSinSelect() {
+
+            when(transaccionMapper.aEntity(transaccion, null)).thenReturn(transaccionEntity);
+
+
+            repository.registrar(transaccion);
+
+
+            verify(jpaRepository, never()).findByTransaccionId(any());
+            verify(transaccionMapper, times(1)).aEntity(transaccion, null);
+            verify(jpaRepository, times(1)).save(transaccionEntity);
+        }
+
+        @Test
+        @DisplayName("registrarTodos debería insertar el lote con un solo saveAll")
+        void registrarTodos_TransaccionesNuevas_UnSoloSaveAll() {
+
+            when(transaccionMapper.aEntity(transaccion, null)).thenReturn(transaccionEntity);
+
+
+            repository.registrarTodos(List.of(transaccion));
+
+
+            verify(jpaRepository, never()).findByTransaccionIdIn(any());
+            verify(jpaRepository, times(1)).saveAll(List.of(transaccionEntity));
+        }
+
+        @Test
+        @DisplayName("registrarTodos no debería hacer nada con una lista vacía")
+        void registrarTodos_ListaVacia_NoGuarda() {
+
+            repository.registrarTodos(List.of());
+
+
+            verify(jpaRepository, never()).saveAll(any());
+        }
     }
 
 
@@ -232,14 +346,14 @@ class TransaccionRepositoryJpaTest {
                 Dinero.nuevo(new BigDecimal("500.00"), Moneda.ARG), "Depósito"
             );
 
-            when(jpaRepository.buscarPorCuentaYFechas(
-                cuentaIdString, fechaDesde, fechaHasta))
+            when(jpaRepository.buscarRecientesPorCuentaYFechas(
+                cuentaIdString, fechaDesde, fechaHasta, 10))
                 .thenReturn(entities);
             when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
             when(transaccionMapper.aDominio(entity2)).thenReturn(transaccion2);
 
           
-            List<Transaccion> resultados = repository.buscarPorCuenta(cuenta, fechaDesde, fechaHasta);
+            List<Transaccion> resultados = repository.buscarPorCuenta(cuenta, fechaDesde, fechaHasta, 10);
 
             
             assertThat(resultados).hasSize(2);
@@ -247,8 +361,8 @@ class TransaccionRepositoryJpaTest {
                 .containsExactlyInAnyOrder("TXN-2024-0000001", "TXN-2024-0000002");
 
             verify(jpaRepository, times(1))
-                .buscarPorCuentaYFechas(
-                    cuentaIdString,  fechaDesde, fechaHasta);
+                .buscarRecientesPorCuentaYFechas(
+                    cuentaIdString, fechaDesde, fechaHasta, 10);
             verify(transaccionMapper, times(2)).aDominio(any(TransaccionEntity.class));
         }
 
@@ -256,17 +370,43 @@ class TransaccionRepositoryJpaTest {
         @DisplayName("Debería retornar lista vacía cuando no hay transacciones")
         void buscarPorCuenta_SinTransacciones_RetornaListaVacia() {
           
-            when(jpaRepository.buscarPorCuentaYFechas(
-                cuentaIdString, fechaDesde, fechaHasta))
+            when(jpaRepository.buscarRecientesPorCuentaYFechas(
+                cuentaIdString, fechaDesde, fechaHasta, 10))
                 .thenReturn(Arrays.asList());
 
            
-            List<Transaccion> resultados = repository.buscarPorCuenta(cuenta, fechaDesde, fechaHasta);
+            List<Transaccion> resultados = repository.buscarPorCuenta(cuenta, fechaDesde, fechaHasta, 10);
 
           
             assertThat(resultados).isEmpty();
             verify(transaccionMapper, never()).aDominio(any());
         }
+
+        @Test
+        @DisplayName("Debería sumar los montos por tipo con la consulta agregada")
+        void sumarMontosPorTipo_ConFilas_RetornaMapaPorTipo() {
+
+            when(jpaRepository.sumarMontosPorTipo(cuentaIdString, fechaDesde, fechaHasta))
+                .thenReturn(Arrays.asList(
+                    new Object[]{"DEPOSITO", new BigDecimal("1000.00")},
+                    new Object[]{"RETIRO", new BigDecimal("300.00")}));
+
+
+            Map<TipoTransaccion, BigDecimal> totales = repository.sumarMontosPorTipo(cuenta, fechaDesde, fechaHasta);
+
+
+            assertThat(totales).containsOnlyKeys(TipoTransaccion.DEPOSITO, TipoTransaccion.RETIRO);
+            assertThat(totales.get(TipoTransaccion.DEPOSITO)).isEqualByComparingTo("1000.00");
+            verify(jpaRepository, never()).buscarPorCuentaYFechas(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("Debería retornar mapa vacío con cuenta null")
+        void sumarMontosPorTipo_CuentaNull_RetornaVacio() {
+
+            assertThat(repository.sumarMontosPorTipo(null, fechaDesde, fechaHasta)).isEmpty();
+            verify(jpaRepository, never()).sumarMontosPorTipo(any(), any(), any());
+        }
     }
 
     @Nested
@@ -288,30 +428,50 @@ class TransaccionRepositoryJpaTest {
                 Dinero.nuevo(new BigDecimal("200.00"), Moneda.ARG), "Retiro"
             );
 
-            when(jpaRepository.findByCuentaOrigenId(cuentaIdString)).thenReturn(entities);
+            when(jpaRepository.buscarPrimeraPaginaPorCuentaOrigen(cuentaIdString, PageRequest.of(0, 50))).thenReturn(entities);
             when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
             when(transaccionMapper.aDominio(entity2)).thenReturn(transaccion2);
 
             
-            List<Transaccion> resultados = repository.buscarCuentas(cuentaOrigenId);
+            List<Transaccion> resultados = repository.buscarCuentas(cuentaOrigenId, null, null, 50);
 
             
             assertThat(resultados).hasSize(2);
             assertThat(resultados).extracting(t -> t.getId().getValor())
                 .containsExactlyInAnyOrder("TXN-2024-0000001", "TXN-2024-0000002");
 
-            verify(jpaRepository, times(1)).findByCuentaOrigenId(cuentaIdString);
+            verify(jpaRepository, times(1)).buscarPrimeraPaginaPorCuentaOrigen(cuentaIdString, PageRequest.of(0, 50));
+            verify(jpaRepository, never()).findByCuentaOrigenId(any());
             verify(transaccionMapper, times(2)).aDominio(any(TransaccionEntity.class));
         }
 
+        @Test
+        @DisplayName("Con cursor debería pedir la página siguiente a partir de (fecha, id)")
+        void buscarCuentas_ConCursor_BuscaDespuesDelCursor() {
+
+            LocalDateTime fechaCursor = LocalDateTime.of(2024, 1, 15, 10, 30);
+            when(jpaRepository.buscarPaginaPorCuentaOrigenDespuesDe(
+                cuentaIdString, fechaCursor, "TXN-2024-0000009", PageRequest.of(0, 20)))
+                .thenReturn(Arrays.asList(transaccionEntity));
+            when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
+
+
+            List<Transaccion> resultados = repository.buscarCuentas(
+                cuentaOrigenId, fechaCursor, new TransaccionId("TXN-2024-0000009"), 20);
+
+
+            assertThat(resultados).containsExactly(transaccion);
+            verify(jpaRepository, never()).buscarPrimeraPaginaPorCuentaOrigen(any(), any());
+        }
+
         @Test
         @DisplayName("Debería retornar lista vacía cuando no hay transacciones")
         void buscarCuentas_SinTransacciones_RetornaListaVacia() {
             
-            when(jpaRepository.findByCuentaOrigenId(cuentaIdString)).thenReturn(Arrays.asList());
+            when(jpaRepository.buscarPrimeraPaginaPorCuentaOrigen(cuentaIdString, PageRequest.of(0, 50))).thenReturn(Arrays.asList());
 
             
-            List<Transaccion> resultados = repository.buscarCuentas(cuentaOrigenId);
+            List<Transaccion> resultados = repository.buscarCuentas(cuentaOrigenId, null, null, 50);
 
             
             assertThat(resultados).isEmpty();
@@ -327,12 +487,12 @@ class TransaccionRepositoryJpaTest {
             
             List<TransaccionEntity> entities = Arrays.asList(transaccionEntity, entityInvalida);
             
-            when(jpaRepository.findByCuentaOrigenId(cuentaIdString)).thenReturn(entities);
+            when(jpaRepository.buscarPrimeraPaginaPorCuentaOrigen(cuentaIdString, PageRequest.of(0, 50))).thenReturn(entities);
             when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
             when(transaccionMapper.aDominio(entityInvalida)).thenReturn(null);
 
            
-            List<Transaccion> resultados = repository.buscarCuentas(cuentaOrigenId);
+            List<Transaccion> resultados = repository.buscarCuentas(cuentaOrigenId, null, null, 50);
 
             
             assertThat(resultados).hasSize(1);
@@ -391,18 +551,62 @@ class TransaccionRepositoryJpaTest {
         }
 
         @Test
-        @DisplayName("Debería manejar referencia null")
+        @DisplayName("Debería manejar referencia null sin consultar la BD")
         void buscarPorReferencia_ReferenciaNull_RetornaListaVacia() {
-         
-            when(jpaRepository.findByReferenciaContainingIgnoreCase(null))
-                .thenReturn(Arrays.asList());
 
-           
+
             List<Transaccion> resultados = repository.buscarPorReferencia(null);
 
-            
+
             assertThat(resultados).isEmpty();
-            verify(jpaRepository, times(1)).findByReferenciaContainingIgnoreCase(null);
+            verifyNoInteractions(jpaRepository);
+        }
+
+        @Test
+        @DisplayName("Una referencia completa debería buscarse por igualdad")
+        void buscarPorReferencia_ReferenciaCompleta_BuscaExacta() {
+
+            when(jpaRepository.buscarPorReferenciaExacta("REF-TXN-2024-0000001-1718000000000"))
+                .thenReturn(Arrays.asList(transaccionEntity));
+            when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
+
+
+            List<Transaccion> resultados = repository.buscarPorReferencia(" ref-TXN-2024-0000001-1718000000000 ");
+
+
+            assertThat(resultados).containsExactly(transaccion);
+            verify(jpaRepository, never()).findByReferenciaContainingIgnoreCase(any());
+            verify(jpaRepository, never()).buscarPorPrefijoDeReferencia(any());
+        }
+
+        @Test
+        @DisplayName("Un comienzo de referencia debería buscarse por prefijo")
+        void buscarPorReferencia_Prefijo_BuscaPorPrefijo() {
+
+            when(jpaRepository.buscarPorPrefijoDeReferencia("REF-TXN-2024-0000001%"))
+                .thenReturn(Arrays.asList(transaccionEntity));
+            when(transaccionMapper.aDominio(transaccionEntity)).thenReturn(transaccion);
+
+
+            List<Transaccion> resultados = repository.buscarPorReferencia("REF-TXN-2024-0000001");
+
+
+            assertThat(resultados).containsExactly(transaccion);
+            verify(jpaRepository, never()).findByReferenciaContainingIgnoreCase(any());
+            verify(jpaRepository, never()).buscarPorReferenciaExacta(any());
+        }
+
+        @Test
+        @DisplayName("Los comodines del prefijo deberían escaparse")
+        void buscarPorReferencia_PrefijoConComodines_EscapaComodines() {
+
+            when(jpaRepository.buscarPorPrefijoDeReferencia(any())).thenReturn(Arrays.asList());
+
+
+            repository.buscarPorReferencia("REF-50%_X");
+
+
+            verify(jpaRepository).buscarPorPrefijoDeReferencia("REF-50\\%\\_X%");
         }
     }
 
@@ -414,24 +618,24 @@ class TransaccionRepositoryJpaTest {
         @DisplayName("Debería manejar cuenta null en buscarPorCuenta")
         void buscarPorCuenta_CuentaNull_RetornaListaVacia() {
             
-            List<Transaccion> resultados = repository.buscarPorCuenta(null, fechaDesde, fechaHasta);
+            List<Transaccion> resultados = repository.buscarPorCuenta(null, fechaDesde, fechaHasta, 10);
 
             
             assertThat(resultados).isEmpty();
             verify(jpaRepository, never())
-                .buscarPorCuentaYFechas(any(), any(), any());
+                .buscarRecientesPorCuentaYFechas(any(), any(), any(), anyInt());
         }
 
         @Test
         @DisplayName("Debería manejar fechas null en buscarPorCuenta")
         void buscarPorCuenta_FechasNull_RetornaListaVacia() {
             
-            List<Transaccion> resultados = repository.buscarPorCuenta(cuenta, null, null);
+            List<Transaccion> resultados = repository.buscarPorCuenta(cuenta, null, null, 10);
 
             
             assertThat(resultados).isEmpty();
             verify(jpaRepository, never())
-                .buscarPorCuentaYFechas(any(), any(), any());
+                .buscarRecientesPorCuentaYFechas(any(), any(), any(), anyInt());
         }
 
         @Test
@@ -440,14 +644,14 @@ class TransaccionRepositoryJpaTest {
             
             List<TransaccionEntity> entities = Arrays.asList(transaccionEntity);
             
-            when(jpaRepository.buscarPorCuentaYFechas(
-                cuentaIdString,  fechaDesde, fechaHasta))
+            when(jpaRepository.buscarRecientesPorCuentaYFechas(
+                cuentaIdString, fechaDesde, fechaHasta, 10))
                 .thenReturn(entities);
             when(transaccionMapper.aDominio(transaccionEntity))
                 .thenThrow(new RuntimeException("Error de mapeo"));
 
           
-            assertThatThrownBy(() -> repository.buscarPorCuenta(cuenta, fechaDesde, fechaHasta))
+            assertThatThrownBy(() -> repository.buscarPorCuenta(cuenta, fechaDesde, fechaHasta, 10))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Error de mapeo");
         }
@@ -467,11 +671,11 @@ class TransaccionRepositoryJpaTest {
         @DisplayName("Debería manejar CuentaId null en buscarCuentas")
         void buscarCuentas_CuentaIdNull_RetornaListaVacia() {
          
-            List<Transaccion> resultados = repository.buscarCuentas(null);
+            List<Transaccion> resultados = repository.buscarCuentas(null, null, null, 50);
 
             
             assertThat(resultados).isEmpty();
-            verify(jpaRepository, never()).findByCuentaOrigenId(any());
+            verify(jpaRepository, never()).buscarPrimeraPaginaPorCuentaOrigen(any(), any());
         }
     }
 
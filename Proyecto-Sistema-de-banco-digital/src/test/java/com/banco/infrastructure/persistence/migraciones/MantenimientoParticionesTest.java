@@ -0,0 +1,118 @@
+package com.banco.infrastructure.persistence.migraciones;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.YearMonth;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("MantenimientoParticiones")
+class MantenimientoParticionesTest {
+
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private MigradorEsquema migradorEsquema;
+
+    @InjectMocks
+    private MantenimientoParticiones mantenimiento;
+
+
+
+    @Test
+    @DisplayName("Con PostgreSQL debería crear las particiones de los próximos meses")
+    void crearParticionesFuturas_Postgres_LlamaFuncion() {
+
+        cuandoProveedor("postgresql");
+
+
+        mantenimiento.crearParticionesFuturas();
+
+
+        verify(jdbcTemplate).execute("SELECT crear_particiones_transacciones(3)");
+    }
+
+    @Test
+    @DisplayName("Con filas en la partición por defecto debería igual crear las particiones (las mueve la función)")
+    void crearParticionesFuturas_FilasEnDefault_CreaParticiones() {
+
+        cuandoProveedor("postgresql");
+        when(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transacciones_default", Long.class)).thenReturn(5L);
+
+
+        mantenimiento.crearParticionesFuturas();
+
+
+        verify(jdbcTemplate).execute("SELECT crear_particiones_transacciones(3)");
+    }
+
+    @Test
+    @DisplayName("Sin tabla particionada no debería ejecutar nada")
+    void crearParticionesFuturas_OtroProveedor_NoHaceNada() {
+
+        cuandoProveedor("h2");
+
+
+        mantenimiento.crearParticionesFuturas();
+
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    @DisplayName("Debería desvincular la partición del mes indicado")
+    void desvincularParticion_MesCerrado_Detach() {
+
+        cuandoProveedor("postgresql");
+
+
+        String particion = mantenimiento.desvincularParticion(YearMonth.of(2024, 3));
+
+
+        assertThat(particion).isEqualTo("transacciones_2024_03");
+        verify(jdbcTemplate).execute("ALTER TABLE transacciones DETACH PARTITION transacciones_2024_03");
+    }
+
+    @Test
+    @DisplayName("No debería desvincular el mes en curso")
+    void desvincularParticion_MesActual_LanzaExcepcion() {
+
+        cuandoProveedor("postgresql");
+
+
+        assertThatThrownBy(() -> mantenimiento.desvincularParticion(YearMonth.now()))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+
+
+
+    // AUXILIARES
+
+    private void cuandoProveedor(String proveedor) {
+        when(migradorEsquema.isEsquemaGestionado()).thenReturn(true);
+        when(migradorEsquema.getProveedor()).thenReturn(proveedor);
+    }
+}
@@ -0,0 +1,186 @@
+package com.banco.infrastructure.persistence.migraciones;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("MigradorEsquema")
+class MigradorEsquemaTest {
+
+
+    private static final String UBICACION_PRUEBA = "classpath*:db/migracion-test";
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+
+    // una BD en memoria nueva por test
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:migraciones-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+
+
+    @Nested
+    @DisplayName("Aplicar migraciones")
+    class AplicarTest {
+
+        @Test
+        @DisplayName("Debería aplicar los scripts pendientes en orden de versión")
+        void migrar_BaseVacia_AplicaEnOrden() {
+
+            MigradorEsquema migrador = new MigradorEsquema(dataSource, UBICACION_PRUEBA, true);
+
+
+            int aplicadas = migrador.migrar();
+
+
+            assertThat(aplicadas).isEqualTo(2);
+            assertThat(migrador.isEsquemaGestionado()).isTrue();
+            assertThat(migrador.getProveedor()).isEqualTo("h2");
+            assertThat(jdbcTemplate.queryForObject("SELECT nombre FROM prueba_migracion WHERE id = 1", String.class))
+                .isEqualTo("migrado");
+            assertThat(jdbcTemplate.queryForList("SELECT version FROM esquema_migraciones ORDER BY version", Integer.class))
+                .containsExactly(1, 2);
+        }
+
+        @Test
+        @DisplayName("Una segunda corrida no debería volver a aplicar nada")
+        void migrar_YaAplicadas_NoHaceNada() {
+
+            new MigradorEsquema(dataSource, UBICACION_PRUEBA, true).migrar();
+
+
+            int aplicadas = new MigradorEsquema(dataSource, UBICACION_PRUEBA, true).migrar();
+
+
+            assertThat(aplicadas).isZero();
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prueba_migracion", Integer.class)).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Debería aplicar solo las versiones que faltan")
+        void migrar_UnaPendiente_AplicaSoloEsa() {
+
+            new MigradorEsquema(dataSource, UBICACION_PRUEBA, true).migrar();
+            jdbcTemplate.update("DELETE FROM esquema_migraciones WHERE version = 2");
+            jdbcTemplate.update("DELETE FROM prueba_migracion");
+
+
+            int aplicadas = new MigradorEsquema(dataSource, UBICACION_PRUEBA, true).migrar();
+
+
+            assertThat(aplicadas).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prueba_migracion", Integer.class)).isEqualTo(1);
+        }
+    }
+
+
+
+    @Nested
+    @DisplayName("Validaciones")
+    class ValidacionesTest {
+
+        @Test
+        @DisplayName("Un script modificado después de aplicarse debería cortar el arranque")
+        void migrar_ChecksumDistinto_LanzaExcepcion() {
+
+            new MigradorEsquema(dataSource, UBICACION_PRUEBA, true).migrar();
+            jdbcTemplate.update("UPDATE esquema_migraciones SET checksum = 1 WHERE version = 1");
+
+
+            assertThatThrownBy(() -> new MigradorEsquema(dataSource, UBICACION_PRUEBA, true).migrar())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("V1");
+        }
+
+        @Test
+        @DisplayName("Sin scripts para el proveedor no debería tocar la base")
+        void migrar_SinScriptsDelProveedor_NoHaceNada() {
+
+            MigradorEsquema migrador = new MigradorEsquema(dataSource, "classpath*:db/no-existe", true);
+
+
+            int aplicadas = migrador.migrar();
+
+
+            assertThat(aplicadas).isZero();
+            assertThat(migrador.isEsquemaGestionado()).isFalse();
+            assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'ESQUEMA_MIGRACIONES'", Integer.class))
+                .isZero();
+        }
+
+        @Test
+        @DisplayName("Deshabilitado no debería aplicar nada")
+        void migrar_Deshabilitado_NoHaceNada() {
+
+            MigradorEsquema migrador = new MigradorEsquema(dataSource, UBICACION_PRUEBA, false);
+
+
+            assertThat(migrador.migrar()).isZero();
+            assertThat(migrador.isEsquemaGestionado()).isFalse();
+        }
+    }
+
+
+
+    // Los scripts reales de PostgreSQL que tambien corren en H2 (sin bloques DO ni particiones)
+    @Nested
+    @DisplayName("Adoptar una base creada por ddl-auto")
+    class AdoptarBaseTest {
+
+        @Test
+        @DisplayName("Una tabla cuentas de antes del bloqueo optimista debería recibir la columna version")
+        void migrar_CuentasSinVersion_AgregaVersionEnCero() {
+
+            // la tabla como la generaba Hibernate antes de @Version
+            jdbcTemplate.execute("CREATE TABLE cuentas (id UUID NOT NULL PRIMARY KEY, numero_cuenta VARCHAR(30) NOT NULL UNIQUE, "
+                + "cliente_id VARCHAR(50) NOT NULL, saldo NUMERIC(15,2) NOT NULL, moneda VARCHAR(3) NOT NULL, activa BOOLEAN NOT NULL)");
+            jdbcTemplate.update("INSERT INTO cuentas (id, numero_cuenta, cliente_id, saldo, moneda, activa) "
+                + "VALUES (RANDOM_UUID(), 'ARG0170001000000012345000', 'CLI-12345678', 100.00, 'ARG', TRUE)");
+
+
+            ejecutarScripts("V1__esquema_inicial.sql");
+
+
+            assertThat(jdbcTemplate.queryForObject(
+                "SELECT version FROM cuentas WHERE numero_cuenta = 'ARG0170001000000012345000'", Long.class)).isZero();
+        }
+
+        @Test
+        @DisplayName("En una base creada por V1 no debería cambiar nada")
+        void migrar_CuentasConVersion_NoFalla() {
+
+            ejecutarScripts("V1__esquema_inicial.sql");
+
+
+            assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'CUENTAS' AND COLUMN_NAME = 'VERSION'", Integer.class))
+                .isEqualTo(1);
+        }
+
+        private void ejecutarScripts(String... scripts) {
+
+            ResourceDatabasePopulator poblador = new ResourceDatabasePopulator();
+            for (String script : scripts) poblador.addScript(new ClassPathResource("db/migracion/postgresql/" + script));
+            poblador.execute(dataSource);
+        }
+    }
+}
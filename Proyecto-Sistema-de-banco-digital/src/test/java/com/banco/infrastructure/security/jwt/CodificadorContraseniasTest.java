@@ -0,0 +1,76 @@
+package com.banco.infrastructure.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("CodificadorContrasenias")
+class CodificadorContraseniasTest {
+
+
+    private final PasswordEncoder codificador = CodificadorContrasenias.crear(10);
+
+
+
+    @Test
+    @DisplayName("Los hashes nuevos deberían llevar el prefijo del algoritmo")
+    void encode_ContraseniaNueva_PrefijoBcrypt() {
+
+        String hash = codificador.encode("clave123");
+
+
+        assertThat(hash).startsWith("{bcrypt}$2a$10$");
+        assertThat(codificador.matches("clave123", hash)).isTrue();
+        assertThat(codificador.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un hash viejo sin prefijo debería verificarse y pedir rehash")
+    void matches_HashSinPrefijo_VerificaYPideRehash() {
+
+        String hashViejo = new BCryptPasswordEncoder(4).encode("clave123");
+
+
+        assertThat(codificador.matches("clave123", hashViejo)).isTrue();
+        assertThat(codificador.matches("otra", hashViejo)).isFalse();
+        assertThat(codificador.upgradeEncoding(hashViejo)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un hash con costo menor al configurado debería pedir rehash")
+    void upgradeEncoding_CostoMenor_True() {
+
+        String hashCostoBajo = CodificadorContrasenias.crear(4).encode("clave123");
+
+
+        assertThat(codificador.upgradeEncoding(hashCostoBajo)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Un hash con costo mayor al configurado no debería pedir rehash")
+    void upgradeEncoding_CostoMayor_False() {
+
+        String hashCostoAlto = CodificadorContrasenias.crear(11).encode("clave123");
+
+
+        assertThat(codificador.matches("clave123", hashCostoAlto)).isTrue();
+        assertThat(codificador.upgradeEncoding(hashCostoAlto)).isFalse();
+    }
+
+    @Test
+    @DisplayName("El costo calibrado debería entrar en el objetivo y respetar los límites")
+    void costoParaObjetivo_SegunTiempoMedido_CostoAcotado() {
+
+        // 50 ms al costo 10 -> 200 ms al costo 12, 400 ms al 13
+        assertThat(CodificadorContrasenias.costoParaObjetivo(50, 250)).isEqualTo(12);
+        assertThat(CodificadorContrasenias.costoParaObjetivo(50, 10)).isEqualTo(CodificadorContrasenias.COSTO_MINIMO);
+        assertThat(CodificadorContrasenias.costoParaObjetivo(0.01, 100_000)).isEqualTo(CodificadorContrasenias.COSTO_MAXIMO);
+    }
+}
@@ -0,0 +1,114 @@
+package com.banco.infrastructure.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+
+
+
+// BENCHMARK del costo de autenticar una peticion con JWT (lo que hace JwtAuthenticationFilter).
+// ANTES: la clave HMAC y el parser se armaban de nuevo en cada lectura, y el filtro abria el token 3 veces
+//        (username, y validateToken: username + expiracion).
+// DESPUES: clave y parser construidos una vez, el token se abre una sola vez por peticion.
+// No corre con el build normal:  mvn test -Dtest=JwtAutenticacionBenchmarkTest -Dbenchmark=true
+
+@SuppressWarnings("all") // elimina los warings
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("Benchmark - autenticación JWT por petición")
+class JwtAutenticacionBenchmarkTest {
+
+
+    private static final String SECRETO = "586E3272357538782F413F4428472B4B6250655368566B597033733676397924";
+    private static final int CALENTAMIENTO = 20_000;
+    private static final int PETICIONES = 100_000;
+
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRETO, 3_600_000);
+
+    private final UserDetails usuario = new User("juan", "clave",
+        List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+
+
+
+    @Test
+    @DisplayName("Abrir el token una vez con el parser cacheado debería costar menos por petición")
+    void costoPorPeticion_AntesYDespues() {
+
+        String token = jwtUtils.generarToken(usuario);
+
+        // calentamiento de JIT
+        medir(CALENTAMIENTO, () -> autenticarAntes(token));
+        medir(CALENTAMIENTO, () -> autenticarDespues(token));
+
+        long antes = medir(PETICIONES, () -> autenticarAntes(token));
+        long despues = medir(PETICIONES, () -> autenticarDespues(token));
+
+        double nanosAntes = (double) antes / PETICIONES;
+        double nanosDespues = (double) despues / PETICIONES;
+
+        System.out.printf("%n[BENCHMARK] %,d peticiones autenticadas%n", PETICIONES);
+        System.out.printf("  clave/parser por lectura, 3 lecturas : %,10.0f ns/peticion%n", nanosAntes);
+        System.out.printf("  parser cacheado, 1 lectura           : %,10.0f ns/peticion  (x%.1f)%n%n",
+            nanosDespues, nanosAntes / nanosDespues);
+
+        assertThat(despues).isLessThan(antes);
+    }
+
+
+
+
+    // AUXILIARES
+
+    // lo que hacia el filtro: extraerUsername + validateToken (extraerUsername + extraerExpiracion),
+    // cada una armando la clave y un parser nuevo
+    private boolean autenticarAntes(String token) {
+
+        String username = leerClaimsSinCache(token).getSubject();
+        boolean mismoUsuario = leerClaimsSinCache(token).getSubject().equals(usuario.getUsername());
+        boolean vigente = !leerClaimsSinCache(token).getExpiration().before(new Date());
+
+        return username != null && mismoUsuario && vigente;
+    }
+
+    private Claims leerClaimsSinCache(String token) {
+
+        return Jwts.parserBuilder()
+            .setSigningKey(Keys.hmacShaKeyFor(SECRETO.getBytes()))
+            .build()
+            .parseClaimsJws(token)
+            .getBody();
+    }
+
+    private boolean autenticarDespues(String token) {
+
+        Claims claims = jwtUtils.extraerTodoClaims(token);
+        return claims.getSubject() != null && jwtUtils.validateToken(claims, usuario);
+    }
+
+    private long medir(int peticiones, java.util.function.BooleanSupplier autenticar) {
+
+        int validas = 0;
+        long inicio = System.nanoTime();
+
+        for (int i = 0; i < peticiones; i++) {
+            if (autenticar.getAsBoolean()) validas++;
+        }
+
+        long tiempo = System.nanoTime() - inicio;
+        assertThat(validas).isEqualTo(peticiones);
+        return tiempo;
+    }
+}
@@ -0,0 +1,174 @@
+package com.banco.infrastructure.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.banco.infrastructure.metricas.RegistroMetricas;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("JwtAuthenticationFilter")
+class JwtAuthenticationFilterTest {
+
+
+    private static final String SECRETO = "586E3272357538782F413F4428472B4B6250655368566B597033733676397924";
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRETO, 60_000);
+    private final RevocacionTokens revocacionTokens = new RevocacionTokens();
+    private final RegistroMetricas registroMetricas = new RegistroMetricas();
+    private JwtAuthenticationFilter filtro;
+
+    private final UserDetails usuario = new User("juan", "clave",
+        List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+
+
+    @BeforeEach
+    void setUp() {
+        filtro = new JwtAuthenticationFilter(jwtUtils, userDetailsService, revocacionTokens, registroMetricas);
+    }
+
+    @AfterEach
+    void limpiar() {
+        SecurityContextHolder.clearContext();
+    }
+
+
+
+    @Test
+    @DisplayName("Sin estado debería autenticar con los claims, sin consultar usuarios")
+    void doFilter_SinEstado_AutenticaDesdeToken() throws Exception {
+
+        String token = jwtUtils.generarToken(usuario, "CLI-00000001");
+
+
+        filtrar(token);
+
+
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(autenticacion).isNotNull();
+        assertThat(autenticacion.getPrincipal()).isInstanceOf(UsuarioAutenticado.class);
+        assertThat(((UsuarioAutenticado) autenticacion.getPrincipal()).getClienteId()).isEqualTo("CLI-00000001");
+        assertThat(autenticacion.getAuthorities()).extracting("authority").containsExactly("ROLE_CLIENTE");
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Con el modo sin estado apagado debería cargar el usuario")
+    void doFilter_ConEstado_CargaUsuario() throws Exception {
+
+        ReflectionTestUtils.setField(filtro, "sinEstado", false);
+        when(userDetailsService.loadUserByUsername("juan")).thenReturn(usuario);
+
+
+        filtrar(jwtUtils.generarToken(usuario));
+
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isSameAs(usuario);
+        verify(userDetailsService).loadUserByUsername("juan");
+    }
+
+    @Test
+    @DisplayName("Un token revocado no debería autenticar")
+    void doFilter_TokenRevocado_NoAutentica() throws Exception {
+
+        String token = jwtUtils.generarToken(usuario);
+        revocacionTokens.revocar("juan");
+
+
+        filtrar(token);
+
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        assertThat(validaciones("revocado")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un login después del logout, en el mismo segundo, debería autenticar")
+    void doFilter_LoginEnElMismoSegundoQueElLogout_Autentica() throws Exception {
+
+        revocacionTokens.revocar("juan");
+        Thread.sleep(2); // iat (segundos) casi siempre queda igual al instante de la revocacion
+
+
+        filtrar(jwtUtils.generarToken(usuario, "CLI-00000001"));
+
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        assertThat(validaciones("revocado")).isZero();
+    }
+
+    @Test
+    @DisplayName("Cada validación debería quedar medida según su resultado")
+    void doFilter_ConToken_RegistraDuracionPorResultado() throws Exception {
+
+        filtrar(jwtUtils.generarToken(usuario, "CLI-00000001"));
+        SecurityContextHolder.clearContext();
+        filtrar("no-es-un-jwt");
+
+
+        assertThat(validaciones("valido")).isEqualTo(1);
+        assertThat(validaciones("invalido")).isEqualTo(1);
+        assertThat(validaciones("revocado")).isZero();
+    }
+
+    @Test
+    @DisplayName("Sin token no debería registrar validaciones")
+    void doFilter_SinToken_NoRegistra() throws Exception {
+
+        filtro.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+
+        assertThat(registroMetricas.formatoPrometheus()).contains("banco_jwt_validacion_seconds_count{resultado=\"valido\"} 0");
+    }
+
+
+
+
+    // AUXILIARES
+
+    private void filtrar(String token) throws Exception {
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+
+    private long validaciones(String resultado) {
+        return registroMetricas.temporizador("banco_jwt_validacion_seconds", "", "resultado", resultado).cantidad();
+    }
+}
@@ -0,0 +1,124 @@
+package com.banco.infrastructure.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("JwtUtils")
+class JwtUtilsTest {
+
+
+    private static final String SECRETO = "586E3272357538782F413F4428472B4B6250655368566B597033733676397924";
+
+    private final JwtUtils jwtUtils = new JwtUtils(SECRETO, 60_000);
+
+    private final UserDetails usuario = new User("juan", "clave",
+        List.of(new SimpleGrantedAuthority("ROLE_CLIENTE")));
+
+
+
+    @Test
+    @DisplayName("Debería leer los claims del token generado")
+    void extraerTodoClaims_TokenValido_RetornaSubject() {
+
+        String token = jwtUtils.generarToken(usuario);
+
+
+        Claims claims = jwtUtils.extraerTodoClaims(token);
+
+
+        assertThat(claims.getSubject()).isEqualTo("juan");
+        assertThat(jwtUtils.extraerUsername(token)).isEqualTo("juan");
+    }
+
+    @Test
+    @DisplayName("Debería validar con los claims ya leídos")
+    void validateToken_ConClaims_ValidaUsuario() {
+
+        Claims claims = jwtUtils.extraerTodoClaims(jwtUtils.generarToken(usuario));
+
+
+        assertThat(jwtUtils.validateToken(claims, usuario)).isTrue();
+        assertThat(jwtUtils.validateToken(claims, new User("otro", "clave", List.of()))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un token firmado con otra clave debería rechazarse")
+    void extraerTodoClaims_OtraClave_LanzaExcepcion() {
+
+        JwtUtils otraClave = new JwtUtils("7A24432646294A404E635266556A586E3272357538782F413F4428472B4B6250", 60_000);
+        String token = otraClave.generarToken(usuario);
+
+
+        assertThatThrownBy(() -> jwtUtils.extraerTodoClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Los roles y el clienteId deberían viajar en el token")
+    void usuarioDesdeClaims_TokenConRoles_ArmaUsuario() {
+
+        Claims claims = jwtUtils.extraerTodoClaims(jwtUtils.generarToken(usuario, "CLI-00000001"));
+
+
+        UsuarioAutenticado autenticado = jwtUtils.usuarioDesdeClaims(claims);
+
+
+        assertThat(jwtUtils.tieneRoles(claims)).isTrue();
+        assertThat(autenticado.getUsername()).isEqualTo("juan");
+        assertThat(autenticado.getClienteId()).isEqualTo("CLI-00000001");
+        assertThat(autenticado.getAuthorities()).extracting("authority").containsExactly("ROLE_CLIENTE");
+    }
+
+    @Test
+    @DisplayName("La clave debería armarse una sola vez")
+    void key_VariasLlamadas_MismaInstancia() {
+
+        assertThat(jwtUtils.key()).isSameAs(jwtUtils.key());
+    }
+
+    @Test
+    @DisplayName("La emisión debería tener precisión de milisegundos")
+    void emitidoEn_TokenNuevo_Milisegundos() {
+
+        long antes = System.currentTimeMillis();
+
+
+        Date emitido = jwtUtils.emitidoEn(jwtUtils.extraerTodoClaims(jwtUtils.generarToken(usuario)));
+
+
+        assertThat(emitido.getTime()).isBetween(antes, System.currentTimeMillis());
+    }
+
+    @Test
+    @DisplayName("Un token sin iatMs debería tomar el final del segundo de iat")
+    void emitidoEn_TokenViejo_FinalDelSegundo() {
+
+        Date iat = new Date(1_700_000_000_000L);
+        String token = Jwts.builder().setSubject("juan").setIssuedAt(iat)
+            .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+            .signWith(jwtUtils.key(), SignatureAlgorithm.HS256).compact();
+
+
+        Date emitido = jwtUtils.emitidoEn(jwtUtils.extraerTodoClaims(token));
+
+
+        assertThat(emitido.getTime()).isEqualTo(1_700_000_000_999L);
+    }
+}
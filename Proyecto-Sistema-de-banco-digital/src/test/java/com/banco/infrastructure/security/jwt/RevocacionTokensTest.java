@@ -0,0 +1,75 @@
+package com.banco.infrastructure.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+
+
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("RevocacionTokens")
+class RevocacionTokensTest {
+
+
+    private final RevocacionTokens revocacion = new RevocacionTokens();
+
+
+
+    @Test
+    @DisplayName("Un token emitido antes de la revocación debería rechazarse")
+    void estaRevocado_EmitidoAntes_True() {
+
+        Date emitido = new Date(System.currentTimeMillis() - 60_000);
+
+
+        revocacion.revocar("juan");
+
+
+        assertThat(revocacion.estaRevocado("juan", emitido)).isTrue();
+        assertThat(revocacion.estaRevocado("maria", emitido)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un token emitido después de la revocación debería aceptarse")
+    void estaRevocado_EmitidoDespues_False() {
+
+        revocacion.revocar("juan");
+
+
+        assertThat(revocacion.estaRevocado("juan", new Date(System.currentTimeMillis() + 2_000))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un token sin fecha de emisión debería rechazarse")
+    void estaRevocado_SinIat_True() {
+
+        assertThat(revocacion.estaRevocado("juan", null)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Al llenarse debería descartar la más vieja sin dejar pasar sus tokens")
+    void revocar_SuperaCapacidad_MantieneLimiteYRechaza() throws InterruptedException {
+
+        ReflectionTestUtils.setField(revocacion, "capacidad", 2);
+        Date emitido = new Date(System.currentTimeMillis() - 60_000);
+
+        revocacion.revocar("juan");
+        Thread.sleep(2);
+        revocacion.revocar("maria");
+        Thread.sleep(2);
+
+
+        revocacion.revocar("pedro");
+
+
+        assertThat(revocacion.cantidadRevocados()).isEqualTo(2);
+        assertThat(revocacion.estaRevocado("juan", emitido)).isTrue(); // por la marca global
+        assertThat(revocacion.estaRevocado("maria", emitido)).isTrue();
+        assertThat(revocacion.estaRevocado("pedro", emitido)).isTrue();
+    }
+}
@@ -0,0 +1,111 @@
+package com.banco.infrastructure.security.jwt;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.banco.application.services.UsersDetailsService;
+import com.banco.infrastructure.controllers.MetricasController;
+import com.banco.infrastructure.metricas.RegistroMetricas;
+
+
+
+
+// La cadena de seguridad REAL (SecurityConfig + filtro JWT) delante de /actuator/prometheus.
+// Los tests de controladores usan TestSecurityConfig, por eso esta regla se prueba aparte.
+
+@SuppressWarnings("all") // elimina los warings
+@DisplayName("SecurityConfig - acceso a las métricas")
+class SecurityConfigMetricasTest {
+
+
+    private static final String SECRETO = "586E3272357538782F413F4428472B4B6250655368566B597033733676397924";
+
+    private static final JwtUtils JWT_UTILS = new JwtUtils(SECRETO, 60_000);
+
+
+
+    @Nested
+    @WebMvcTest(MetricasController.class)
+    @Import({SecurityConfig.class, JwtUtils.class, RevocacionTokens.class, RegistroMetricas.class})
+    @TestPropertySource(properties = {"jwt.secret=" + SECRETO, "jwt.expiration=60000"})
+    @DisplayName("Por defecto")
+    class PorDefectoTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private UsersDetailsService usersDetailsService;
+
+
+        @Test
+        @DisplayName("Sin token debería rechazar el scrape")
+        void prometheus_SinToken_Rechaza() throws Exception {
+
+            mockMvc.perform(get(SecurityConfig.RUTA_METRICAS))
+                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("Un cliente no debería leer las métricas")
+        void prometheus_RolCliente_Prohibido() throws Exception {
+
+            mockMvc.perform(get(SecurityConfig.RUTA_METRICAS).header("Authorization", "Bearer " + token("CLIENTE")))
+                .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("Con rol METRICAS o ADMIN debería responder")
+        void prometheus_RolMetricasOAdmin_Responde() throws Exception {
+
+            mockMvc.perform(get(SecurityConfig.RUTA_METRICAS).header("Authorization", "Bearer " + token("METRICAS")))
+                .andExpect(status().isOk());
+            mockMvc.perform(get(SecurityConfig.RUTA_METRICAS).header("Authorization", "Bearer " + token("ADMIN")))
+                .andExpect(status().isOk());
+        }
+    }
+
+
+    @Nested
+    @WebMvcTest(MetricasController.class)
+    @Import({SecurityConfig.class, JwtUtils.class, RevocacionTokens.class, RegistroMetricas.class})
+    @TestPropertySource(properties = {"jwt.secret=" + SECRETO, "jwt.expiration=60000", "banco.metricas.acceso-anonimo=true"})
+    @DisplayName("Con banco.metricas.acceso-anonimo=true")
+    class AccesoAnonimoTest {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @MockitoBean
+        private UsersDetailsService usersDetailsService;
+
+
+        @Test
+        @DisplayName("Sin token debería responder")
+        void prometheus_SinToken_Responde() throws Exception {
+
+            mockMvc.perform(get(SecurityConfig.RUTA_METRICAS))
+                .andExpect(status().isOk());
+        }
+    }
+
+
+
+
+    // AUXILIARES
+
+    private static String token(String rol) {
+        return JWT_UTILS.generarToken(User.withUsername("scraper").password("x").roles(rol).build());
+    }
+}
@@ -0,0 +1,4 @@
+CREATE TABLE prueba_migracion (
+    id      INTEGER     NOT NULL PRIMARY KEY,
+    nombre  VARCHAR(50) NOT NULL
+);
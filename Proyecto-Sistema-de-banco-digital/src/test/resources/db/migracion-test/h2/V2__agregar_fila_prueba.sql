@@ -0,0 +1 @@
+INSERT INTO prueba_migracion (id, nombre) VALUES (1, 'migrado');